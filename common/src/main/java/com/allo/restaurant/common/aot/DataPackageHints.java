@@ -0,0 +1,54 @@
+package com.allo.restaurant.common.aot;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Reflection hints for every class of a service's {@code dto} and {@code entity} packages. AOT
+ * processing already covers controller signatures and {@code @Document} entities; this covers the
+ * DTOs Jackson binds elsewhere and the embedded types the Mongo converter instantiates, so a new
+ * DTO needs no hint of its own.
+ */
+public class DataPackageHints implements RuntimeHintsRegistrar {
+
+    private final BindingReflectionHintsRegistrar bindingHints = new BindingReflectionHintsRegistrar();
+    private final List<String> dataPackages;
+
+    /**
+     * @param application the service's application class, whose package holds {@code dto} and
+     *                    {@code entity}
+     */
+    public DataPackageHints(Class<?> application) {
+        this.dataPackages = List.of(application.getPackageName() + ".dto", application.getPackageName() + ".entity");
+    }
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isIndependent();
+            }
+        };
+        scanner.addIncludeFilter((reader, factory) -> true);
+        scanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+
+        for (String dataPackage : dataPackages) {
+            for (BeanDefinition candidate : scanner.findCandidateComponents(dataPackage)) {
+                Class<?> type = ClassUtils.resolveClassName(candidate.getBeanClassName(), classLoader);
+                bindingHints.registerReflectionHints(hints.reflection(), type);
+                // The Mongo converter reads and writes fields directly rather than through accessors.
+                hints.reflection().registerType(type, MemberCategory.DECLARED_FIELDS, MemberCategory.INVOKE_DECLARED_CONSTRUCTORS);
+            }
+        }
+    }
+}
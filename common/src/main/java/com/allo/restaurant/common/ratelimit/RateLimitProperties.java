@@ -0,0 +1,51 @@
+package com.allo.restaurant.common.ratelimit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties("rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Limits applied to each client separately. A request counts against the first endpoint it
+     * matches; requests matching none are not limited.
+     */
+    private List<Endpoint> endpoints = new ArrayList<>();
+
+    /**
+     * How often buckets that have refilled completely are dropped.
+     */
+    private Duration evictionInterval = Duration.ofMinutes(1);
+
+    /**
+     * Most buckets kept at once. Beyond it the least recently admitted clients are dropped, so
+     * clients that keep changing their key cannot grow the buckets without bound.
+     */
+    private int maxBuckets = 100_000;
+
+    /**
+     * Networks, in CIDR notation, whose API key and terminal id headers are believed. Requests
+     * from anywhere else are limited by their remote address alone, so a client cannot get a
+     * fresh budget by sending a new header value.
+     */
+    private List<String> trustedNetworks = new ArrayList<>();
+
+    @Data
+    public static class Endpoint {
+        /** Names the endpoint in metrics. */
+        private String name;
+        /** HTTP method, or any method when empty. */
+        private String method;
+        /** Path pattern, e.g. {@code /orders/**}. */
+        private String path;
+        /** Sustained requests per second per client. */
+        private double perSecond;
+        /** Requests a client that has been idle may make at once. */
+        private int burst = 1;
+    }
+}
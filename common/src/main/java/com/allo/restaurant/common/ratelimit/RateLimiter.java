@@ -0,0 +1,239 @@
+package com.allo.restaurant.common.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.server.PathContainer;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Limits how often each client may call each configured endpoint, so one POS terminal polling in
+ * a tight loop cannot take a node's capacity from the others. A client is named by the
+ * {@value #API_KEY_HEADER} header, else the {@value #TERMINAL_ID_HEADER} header, else its remote
+ * address, within its tenant. The headers are only believed from the trusted networks; any other
+ * client is named by its address.
+ * <p>
+ * Each client's budget on an endpoint is a token bucket kept as a single number, the theoretical
+ * arrival time of its next request (the generic cell rate algorithm): a request is admitted unless
+ * that time is more than {@code burst} intervals ahead of now, and admitting it moves the time one
+ * interval forward with a compare-and-set. Checking a request takes no lock, and the buckets are
+ * spread over the bins of a concurrent map, so it scales with the cores serving requests.
+ * <p>
+ * The map is capped at {@code max-buckets}: the thread that adds a bucket beyond it trims the map
+ * to nine tenths of the cap, dropping refilled buckets first and then the least recently admitted
+ * ones, while the other threads carry on. A dropped client starts again with a full burst.
+ */
+public class RateLimiter {
+
+    public static final String API_KEY_HEADER = "X-Api-Key";
+    public static final String TERMINAL_ID_HEADER = "X-Terminal-Id";
+
+    private final List<Rule> rules;
+    private final List<Network> trustedNetworks;
+    private final int maxBuckets;
+    private final LongSupplier nanoClock;
+    private final Map<BucketKey, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicBoolean trimming = new AtomicBoolean();
+
+    public RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        this.maxBuckets = properties.getMaxBuckets();
+        this.trustedNetworks = properties.getTrustedNetworks().stream().map(Network::parse).toList();
+        this.rules = properties.getEndpoints().stream()
+                .map(endpoint -> {
+                    if (endpoint.getPerSecond() <= 0 || endpoint.getBurst() < 1) {
+                        throw new IllegalArgumentException("Rate limit " + endpoint.getName() + " needs a positive per-second rate and burst");
+                    }
+                    long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / endpoint.getPerSecond());
+                    return new Rule(endpoint.getName(),
+                            StringUtils.hasText(endpoint.getMethod()) ? endpoint.getMethod() : null,
+                            PathPatternParser.defaultInstance.parse(endpoint.getPath()),
+                            intervalNanos,
+                            intervalNanos * endpoint.getBurst(),
+                            meterRegistry.counter("rate.limit.rejected", "endpoint", endpoint.getName()));
+                })
+                .toList();
+    }
+
+    public String clientKey(String tenantId, String apiKey, String terminalId, String remoteAddress) {
+        if (isTrusted(remoteAddress)) {
+            if (StringUtils.hasText(apiKey)) {
+                return tenantId + ":key:" + apiKey;
+            }
+            if (StringUtils.hasText(terminalId)) {
+                return tenantId + ":terminal:" + terminalId;
+            }
+        }
+        return tenantId + ":address:" + remoteAddress;
+    }
+
+    private boolean isTrusted(String remoteAddress) {
+        if (trustedNetworks.isEmpty() || remoteAddress == null) {
+            return false;
+        }
+        byte[] address = Network.literal(remoteAddress);
+        return address != null && trustedNetworks.stream().anyMatch(network -> network.contains(address));
+    }
+
+    public Optional<Rule> findRule(String method, String path) {
+        PathContainer pathContainer = PathContainer.parsePath(path);
+        return rules.stream()
+                .filter(rule -> rule.method() == null || rule.method().equalsIgnoreCase(method))
+                .filter(rule -> rule.path().matches(pathContainer))
+                .findFirst();
+    }
+
+    /**
+     * @return {@code 0} if the request is admitted, otherwise how many nanoseconds until the
+     *         client's next request on that endpoint would be
+     */
+    public long tryAcquire(Rule rule, String clientKey) {
+        long now = nanoClock.getAsLong();
+        BucketKey key = new BucketKey(rule.name(), clientKey);
+        AtomicLong nextArrival = buckets.get(key);
+        if (nextArrival == null) {
+            nextArrival = buckets.computeIfAbsent(key, absent -> new AtomicLong(now));
+            if (buckets.size() > maxBuckets) {
+                trim(now, key);
+            }
+        }
+        while (true) {
+            long current = nextArrival.get();
+            long next = (current - now > 0 ? current : now) + rule.intervalNanos();
+            long wait = next - now - rule.burstNanos();
+            if (wait > 0) {
+                rule.rejected().increment();
+                return wait;
+            }
+            if (nextArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * A wait in whole seconds for {@code Retry-After}, rounded up so a client that waits that long
+     * is admitted.
+     */
+    public static long retryAfterSeconds(long waitNanos) {
+        long second = TimeUnit.SECONDS.toNanos(1);
+        return Math.max(1, (waitNanos + second - 1) / second);
+    }
+
+    /**
+     * Drops the buckets that have refilled completely, which behave like absent ones. A request
+     * racing with the removal may be admitted on the dropped bucket; that costs at most one extra
+     * burst.
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-interval:1m}")
+    public void evictIdleBuckets() {
+        long now = nanoClock.getAsLong();
+        buckets.values().removeIf(nextArrival -> nextArrival.get() - now <= 0);
+    }
+
+    /**
+     * A bucket's next arrival time only moves when a request is admitted, so the smallest are the
+     * least recently admitted clients. The bucket just added, which has not admitted its request
+     * yet, is kept. Only one thread trims at a time; the others skip it.
+     */
+    private void trim(long now, BucketKey added) {
+        if (!trimming.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            buckets.entrySet().removeIf(entry -> !entry.getKey().equals(added) && entry.getValue().get() - now <= 0);
+            int excess = buckets.size() - maxBuckets / 10 * 9;
+            if (excess > 0) {
+                buckets.entrySet().stream()
+                        .filter(entry -> !entry.getKey().equals(added))
+                        .map(entry -> new Admission(entry.getKey(), entry.getValue(), entry.getValue().get()))
+                        .sorted(Comparator.comparingLong(admission -> admission.nextArrival() - now))
+                        .limit(excess)
+                        .forEach(admission -> buckets.remove(admission.key(), admission.bucket()));
+            }
+        } finally {
+            trimming.set(false);
+        }
+    }
+
+    int bucketCount() {
+        return buckets.size();
+    }
+
+    public record Rule(String name, String method, PathPattern path, long intervalNanos, long burstNanos, Counter rejected) {
+    }
+
+    private record BucketKey(String endpoint, String clientKey) {
+    }
+
+    /**
+     * The bucket's next arrival time read once, so sorting sees a stable value.
+     */
+    private record Admission(BucketKey key, AtomicLong bucket, long nextArrival) {
+    }
+
+    private record Network(byte[] address, int prefixLength) {
+
+        private static final Pattern IPV4 = Pattern.compile("\\d{1,3}(\\.\\d{1,3}){3}");
+
+        static Network parse(String cidr) {
+            int slash = cidr.indexOf('/');
+            byte[] address = literal(slash < 0 ? cidr : cidr.substring(0, slash));
+            if (address == null) {
+                throw new IllegalArgumentException("Invalid trusted network " + cidr);
+            }
+            int prefixLength = slash < 0 ? address.length * 8 : Integer.parseInt(cidr.substring(slash + 1));
+            if (prefixLength < 0 || prefixLength > address.length * 8) {
+                throw new IllegalArgumentException("Invalid trusted network " + cidr);
+            }
+            return new Network(address, prefixLength);
+        }
+
+        /**
+         * The address an IP literal stands for, or {@code null} for anything else. Host names are
+         * rejected rather than looked up.
+         */
+        static byte[] literal(String address) {
+            if (!IPV4.matcher(address).matches() && !address.contains(":")) {
+                return null;
+            }
+            try {
+                return InetAddress.getByName(address).getAddress();
+            } catch (UnknownHostException e) {
+                return null;
+            }
+        }
+
+        boolean contains(byte[] candidate) {
+            if (candidate.length != address.length) {
+                return false;
+            }
+            for (int bit = 0; bit < prefixLength; bit += 8) {
+                int mask = 0xFF << Math.max(0, 8 - (prefixLength - bit)) & 0xFF;
+                if ((candidate[bit / 8] & mask) != (address[bit / 8] & mask)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.allo.restaurant.common.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes finished spans as one JSON object per line to a local file, so traces can be
+ * inspected offline (e.g. with {@code jq}) without running a collector.
+ */
+@Slf4j
+public class JsonLinesSpanExporter implements SpanExporter {
+
+    private final Path file;
+    private final ObjectMapper objectMapper;
+    private BufferedWriter writer;
+
+    public JsonLinesSpanExporter(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            BufferedWriter out = writer();
+            for (SpanData span : spans) {
+                out.write(objectMapper.writeValueAsString(toRecord(span)));
+                out.newLine();
+            }
+            out.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Failed to export {} spans to {}: {}", spans.size(), file, e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        if (writer == null) {
+            return CompletableResultCode.ofSuccess();
+        }
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        } finally {
+            writer = null;
+        }
+    }
+
+    private BufferedWriter writer() throws IOException {
+        if (writer == null) {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+        return writer;
+    }
+
+    private Map<String, Object> toRecord(SpanData span) {
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), value));
+
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("traceId", span.getTraceId());
+        record.put("spanId", span.getSpanId());
+        record.put("parentSpanId", span.getParentSpanContext().isValid() ? span.getParentSpanId() : null);
+        record.put("service", span.getResource().getAttributes().asMap().entrySet().stream()
+                .filter(entry -> entry.getKey().getKey().equals("service.name"))
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElse(null));
+        record.put("name", span.getName());
+        record.put("kind", span.getKind().name());
+        record.put("start", Instant.ofEpochSecond(0, span.getStartEpochNanos()).toString());
+        record.put("durationMicros", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000);
+        record.put("status", span.getStatus().getStatusCode().name());
+        record.put("attributes", attributes);
+        return record;
+    }
+}
@@ -0,0 +1,173 @@
+package com.allo.restaurant.common.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RateLimiterTest {
+
+    private static final String TERMINAL = "downtown:terminal:pos-1";
+
+    private final AtomicLong now = new AtomicLong(123_456_789L);
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEndpoints(List.of(
+                endpoint("orders-history", "GET", "/orders", 2, 3),
+                endpoint("orders-read", "GET", "/orders/**", 20, 50)));
+        properties.setTrustedNetworks(List.of("10.0.0.0/8", "fd00::/8"));
+        properties.setMaxBuckets(10);
+        rateLimiter = new RateLimiter(properties, meterRegistry, now::get);
+    }
+
+    private static RateLimitProperties.Endpoint endpoint(String name, String method, String path, double perSecond, int burst) {
+        RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+        endpoint.setName(name);
+        endpoint.setMethod(method);
+        endpoint.setPath(path);
+        endpoint.setPerSecond(perSecond);
+        endpoint.setBurst(burst);
+        return endpoint;
+    }
+
+    private RateLimiter.Rule history() {
+        return rateLimiter.findRule("GET", "/orders").orElseThrow();
+    }
+
+    @Test
+    @DisplayName("Should apply the first endpoint a request matches")
+    void shouldMatchFirstEndpoint() {
+        assertThat(rateLimiter.findRule("GET", "/orders")).map(RateLimiter.Rule::name).contains("orders-history");
+        assertThat(rateLimiter.findRule("GET", "/orders/order-1")).map(RateLimiter.Rule::name).contains("orders-read");
+        assertThat(rateLimiter.findRule("POST", "/orders")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should name clients by API key, then terminal id, then address, within the tenant")
+    void shouldBuildClientKeys() {
+        assertThat(rateLimiter.clientKey("downtown", "key-1", "pos-1", "10.0.0.1")).isEqualTo("downtown:key:key-1");
+        assertThat(rateLimiter.clientKey("downtown", null, "pos-1", "10.20.0.1")).isEqualTo(TERMINAL);
+        assertThat(rateLimiter.clientKey("downtown", null, "pos-1", "fd12::1")).isEqualTo(TERMINAL);
+        assertThat(rateLimiter.clientKey("uptown", null, null, "10.0.0.1")).isEqualTo("uptown:address:10.0.0.1");
+    }
+
+    @Test
+    @DisplayName("Should name clients outside the trusted networks by their address whatever headers they send")
+    void shouldIgnoreHeadersOfUntrustedClients() {
+        assertThat(rateLimiter.clientKey("downtown", "key-1", "pos-1", "203.0.113.7")).isEqualTo("downtown:address:203.0.113.7");
+        assertThat(rateLimiter.clientKey("downtown", null, "pos-1", "11.0.0.1")).isEqualTo("downtown:address:11.0.0.1");
+        assertThat(rateLimiter.clientKey("downtown", null, "pos-1", "pos-gateway.local")).isEqualTo("downtown:address:pos-gateway.local");
+    }
+
+    @Nested
+    @DisplayName("tryAcquire")
+    class AcquireTests {
+
+        @Test
+        @DisplayName("Should admit a burst, then one request per interval")
+        void shouldAdmitBurstThenRate() {
+            for (int i = 0; i < 3; i++) {
+                assertThat(rateLimiter.tryAcquire(history(), TERMINAL)).isZero();
+            }
+
+            long wait = rateLimiter.tryAcquire(history(), TERMINAL);
+            assertThat(wait).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500));
+            assertThat(RateLimiter.retryAfterSeconds(wait)).isEqualTo(1);
+
+            now.addAndGet(wait);
+            assertThat(rateLimiter.tryAcquire(history(), TERMINAL)).isZero();
+            assertThat(rateLimiter.tryAcquire(history(), TERMINAL)).isPositive();
+            assertThat(meterRegistry.counter("rate.limit.rejected", "endpoint", "orders-history").count()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should keep a separate budget for each client")
+        void shouldIsolateClients() {
+            for (int i = 0; i < 3; i++) {
+                rateLimiter.tryAcquire(history(), TERMINAL);
+            }
+
+            assertThat(rateLimiter.tryAcquire(history(), TERMINAL)).isPositive();
+            assertThat(rateLimiter.tryAcquire(history(), "downtown:terminal:pos-2")).isZero();
+        }
+
+        @Test
+        @DisplayName("Should admit every request of concurrent clients within the burst")
+        void shouldCountConcurrentRequests() throws InterruptedException {
+            RateLimiter.Rule read = rateLimiter.findRule("GET", "/orders/order-1").orElseThrow();
+            AtomicLong admitted = new AtomicLong();
+            List<Thread> threads = IntStream.range(0, 8)
+                    .mapToObj(i -> Thread.ofPlatform().start(() -> {
+                        for (int j = 0; j < 20; j++) {
+                            if (rateLimiter.tryAcquire(read, TERMINAL) == 0) {
+                                admitted.incrementAndGet();
+                            }
+                        }
+                    }))
+                    .toList();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            assertThat(admitted.get()).isEqualTo(50);
+        }
+    }
+
+    @Test
+    @DisplayName("Should drop only the buckets that have refilled")
+    void shouldEvictRefilledBuckets() {
+        rateLimiter.tryAcquire(history(), TERMINAL);
+        rateLimiter.tryAcquire(history(), "downtown:terminal:pos-2");
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        rateLimiter.tryAcquire(history(), TERMINAL);
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(500));
+        rateLimiter.evictIdleBuckets();
+
+        assertThat(rateLimiter.bucketCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop the least recently admitted clients beyond the bucket cap")
+    void shouldCapBuckets() {
+        for (int i = 0; i < 10; i++) {
+            rateLimiter.tryAcquire(history(), "downtown:terminal:pos-" + i);
+            now.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        rateLimiter.tryAcquire(history(), "downtown:terminal:pos-0");
+
+        rateLimiter.tryAcquire(history(), "downtown:terminal:pos-new");
+
+        assertThat(rateLimiter.bucketCount()).isEqualTo(9);
+        assertThat(rateLimiter.tryAcquire(history(), "downtown:terminal:pos-0")).isZero();
+        assertThat(rateLimiter.tryAcquire(history(), "downtown:terminal:pos-0")).isPositive();
+        assertThat(IntStream.range(0, 3).mapToLong(i -> rateLimiter.tryAcquire(history(), "downtown:terminal:pos-1")))
+                .containsOnly(0L);
+    }
+
+    @Test
+    @DisplayName("Should reject trusted networks that are not CIDR ranges of IP literals")
+    void shouldRejectInvalidTrustedNetworks() {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setTrustedNetworks(List.of("pos-gateway.local/24"));
+        assertThatThrownBy(() -> new RateLimiter(properties, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        properties.setTrustedNetworks(List.of("10.0.0.0/33"));
+        assertThatThrownBy(() -> new RateLimiter(properties, meterRegistry))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
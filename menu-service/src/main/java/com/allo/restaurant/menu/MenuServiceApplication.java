@@ -1,9 +1,14 @@
 package com.allo.restaurant.menu;
 
+import com.allo.restaurant.common.tracing.TracingConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@Import(TracingConfig.class)
 public class MenuServiceApplication {
 
 	public static void main(String[] args) {
@@ -0,0 +1,26 @@
+package com.allo.restaurant.menu.config;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.NativeDetector;
+
+/**
+ * Registers Blackbird with the application's {@code ObjectMapper}, which replaces Jackson's
+ * reflective getter, setter and constructor calls with generated lambdas for every bean it reads or
+ * writes, the DTOs included. The lambdas are defined at runtime, which a native image does not
+ * allow, so the native image keeps plain reflection.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JacksonConfig {
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer blackbirdCustomizer() {
+        return builder -> {
+            if (!NativeDetector.inNativeImage()) {
+                builder.postConfigurer(objectMapper -> objectMapper.registerModule(new BlackbirdModule()));
+            }
+        };
+    }
+}
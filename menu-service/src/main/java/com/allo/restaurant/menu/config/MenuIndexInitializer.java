@@ -0,0 +1,122 @@
+package com.allo.restaurant.menu.config;
+
+import com.allo.restaurant.menu.entity.MenuItem;
+import com.allo.restaurant.menu.entity.MenuItemRevision;
+import com.allo.restaurant.menu.entity.StockReservation;
+import com.allo.restaurant.menu.service.MenuSearchIndex;
+import com.allo.restaurant.menu.tenant.TenantIds;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Creates the menu indexes: indexes for category/tag filters and the index that finds an item's
+ * revision at a menu version. Every index but the one the sweep of stale stock reservations uses
+ * leads with {@code tenantId}, so a query only ever scans its own tenant's entries, and {@code {tenantId, _id}} is indexed on every collection
+ * as the shard key. This runs on a background thread once the application is ready, so startup
+ * never waits for MongoDB.
+ * <p>
+ * Data written before menus were partitioned by tenant is assigned to the default tenant first,
+ * and the indexes that did not lead with the tenant are dropped, as is the text index searches
+ * used before the search index was loaded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuIndexInitializer {
+
+    static final String SHARD_KEY_INDEX = "tenantId_id";
+
+    private static final Set<String> OBSOLETE_INDEXES = Set.of(
+            "name_description_text", "category", "tags", "itemId_version", "tenantId_name_description_text");
+
+    private final MongoTemplate mongoTemplate;
+    private final MenuSearchIndex menuSearchIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        Thread.ofVirtual().name("menu-index-initializer").start(() -> {
+            try {
+                if (assignDefaultTenant() > 0) {
+                    menuSearchIndex.resync();
+                }
+
+                IndexOperations indexOps = mongoTemplate.indexOps(MenuItem.class);
+                dropObsolete(indexOps);
+                ensureShardKeyIndex(indexOps);
+                indexOps.ensureIndex(new Index("tenantId", Sort.Direction.ASC)
+                        .on("category", Sort.Direction.ASC)
+                        .named("tenantId_category"));
+                indexOps.ensureIndex(new Index("tenantId", Sort.Direction.ASC)
+                        .on("tags", Sort.Direction.ASC)
+                        .named("tenantId_tags"));
+
+                IndexOperations revisionIndexOps = mongoTemplate.indexOps(MenuItemRevision.class);
+                dropObsolete(revisionIndexOps);
+                ensureShardKeyIndex(revisionIndexOps);
+                revisionIndexOps.ensureIndex(new Index("tenantId", Sort.Direction.ASC)
+                        .on("itemId", Sort.Direction.ASC)
+                        .on("version", Sort.Direction.DESC)
+                        .named("tenantId_itemId_version"));
+
+                IndexOperations reservationIndexOps = mongoTemplate.indexOps(StockReservation.class);
+                ensureShardKeyIndex(reservationIndexOps);
+                // The sweep of stale pending reservations is the one query across tenants.
+                reservationIndexOps.ensureIndex(new Index("status", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.ASC)
+                        .named("status_createdAt"));
+            } catch (RuntimeException e) {
+                log.warn("Could not create menu indexes: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * @return how many menu items were assigned to the default tenant
+     */
+    private long assignDefaultTenant() {
+        Update defaultTenant = new Update().set("tenantId", TenantIds.DEFAULT);
+        long menuItems = mongoTemplate.updateMulti(query(where("tenantId").exists(false)), defaultTenant, MenuItem.class)
+                .getModifiedCount();
+        mongoTemplate.updateMulti(query(where("tenantId").exists(false)), defaultTenant, MenuItemRevision.class);
+        mongoTemplate.updateMulti(query(where("tenantId").exists(false)), defaultTenant, StockReservation.class);
+
+        // The single menu counter becomes the default tenant's counter.
+        Document legacyCounter = mongoTemplate.findById("menu", Document.class, "menu_versions");
+        if (legacyCounter != null && mongoTemplate.findById(TenantIds.DEFAULT, Document.class, "menu_versions") == null) {
+            mongoTemplate.insert(new Document("_id", TenantIds.DEFAULT).append("version", legacyCounter.get("version")), "menu_versions");
+            mongoTemplate.remove(query(where("_id").is("menu")), "menu_versions");
+        }
+        if (menuItems > 0) {
+            log.info("Assigned {} menu items to the {} tenant", menuItems, TenantIds.DEFAULT);
+        }
+        return menuItems;
+    }
+
+    private static void ensureShardKeyIndex(IndexOperations indexOps) {
+        indexOps.ensureIndex(new Index("tenantId", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named(SHARD_KEY_INDEX));
+    }
+
+    private static void dropObsolete(IndexOperations indexOps) {
+        indexOps.getIndexInfo().stream()
+                .map(IndexInfo::getName)
+                .filter(OBSOLETE_INDEXES::contains)
+                .forEach(indexOps::dropIndex);
+    }
+}
@@ -0,0 +1,27 @@
+package com.allo.restaurant.menu.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties("mongodb")
+public class MongoOperationProperties {
+
+    /**
+     * Read preference by operation name (see {@link MongoOperationRouting}). Operations not listed
+     * read from the primary.
+     */
+    private Map<String, Operation> operations = new HashMap<>();
+
+    @Data
+    public static class Operation {
+        /** e.g. {@code secondaryPreferred}; the primary when empty. */
+        private String readPreference;
+        /** How far a secondary may lag behind the primary and still serve the read; MongoDB requires at least 90s. */
+        private Duration maxStaleness;
+    }
+}
@@ -0,0 +1,42 @@
+package com.allo.restaurant.menu.config;
+
+import com.mongodb.ReadPreference;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where each operation reads from, as configured under {@code mongodb.operations}. Menu listings
+ * tolerate a secondary that lags a little, which moves the busiest read off the primary; lookups by
+ * id and stock reservations keep reading from the primary, since they decide what can be ordered.
+ * <p>
+ * The settings are parsed once at startup, so a typo fails the application rather than a request.
+ */
+@Component
+@EnableConfigurationProperties(MongoOperationProperties.class)
+public class MongoOperationRouting {
+
+    public static final String MENU_LISTING = "menu-listing";
+
+    private final Map<String, ReadPreference> readPreferences = new HashMap<>();
+
+    public MongoOperationRouting(MongoOperationProperties properties) {
+        properties.getOperations().forEach((operation, settings) -> {
+            if (StringUtils.hasText(settings.getReadPreference())) {
+                readPreferences.put(operation, settings.getMaxStaleness() == null
+                        ? ReadPreference.valueOf(settings.getReadPreference())
+                        : ReadPreference.valueOf(settings.getReadPreference(), List.of(),
+                                settings.getMaxStaleness().toSeconds(), TimeUnit.SECONDS));
+            }
+        });
+    }
+
+    public ReadPreference readPreference(String operation) {
+        return readPreferences.getOrDefault(operation, ReadPreference.primary());
+    }
+}
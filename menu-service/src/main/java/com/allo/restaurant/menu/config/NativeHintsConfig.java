@@ -0,0 +1,22 @@
+package com.allo.restaurant.menu.config;
+
+import com.allo.restaurant.common.aot.DataPackageHints;
+import com.allo.restaurant.menu.MenuServiceApplication;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection hints for the native image: the dto and entity packages, which include the rows of
+ * the JSON and CSV menu import.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.DataTypeHints.class)
+public class NativeHintsConfig {
+
+    static class DataTypeHints extends DataPackageHints {
+
+        DataTypeHints() {
+            super(MenuServiceApplication.class);
+        }
+    }
+}
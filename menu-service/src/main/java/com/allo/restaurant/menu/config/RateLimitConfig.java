@@ -0,0 +1,59 @@
+package com.allo.restaurant.menu.config;
+
+import com.allo.restaurant.common.ratelimit.RateLimitProperties;
+import com.allo.restaurant.common.ratelimit.RateLimiter;
+import com.allo.restaurant.menu.exception.RateLimitExceededException;
+import com.allo.restaurant.menu.tenant.TenantIds;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Optional;
+
+/**
+ * Applies the per-client {@link RateLimiter} once the tenant header has been validated. The
+ * rejection goes through the exception handlers as a 429.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    RateLimiter rateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new RateLimiter(properties, meterRegistry);
+    }
+
+    @Configuration
+    @RequiredArgsConstructor
+    static class Interceptor implements WebMvcConfigurer {
+
+        private final RateLimiter rateLimiter;
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                    rateLimiter.findRule(request.getMethod(), request.getRequestURI()).ifPresent(rule -> {
+                        long wait = rateLimiter.tryAcquire(rule, rateLimiter.clientKey(
+                                Optional.ofNullable(request.getHeader(TenantIds.HEADER)).orElse(TenantIds.DEFAULT),
+                                request.getHeader(RateLimiter.API_KEY_HEADER),
+                                request.getHeader(RateLimiter.TERMINAL_ID_HEADER),
+                                request.getRemoteAddr()));
+                        if (wait > 0) {
+                            throw new RateLimitExceededException(rule.name(), RateLimiter.retryAfterSeconds(wait));
+                        }
+                    });
+                    return true;
+                }
+            }).order(1);
+        }
+    }
+}
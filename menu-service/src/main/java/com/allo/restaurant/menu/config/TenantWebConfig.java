@@ -0,0 +1,31 @@
+package com.allo.restaurant.menu.config;
+
+import com.allo.restaurant.menu.tenant.TenantIds;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Rejects a malformed {@value TenantIds#HEADER} header before any handler runs, so controllers can
+ * take the header as given. The rejection goes through the exception handlers like any other 400.
+ */
+@Configuration
+public class TenantWebConfig implements WebMvcConfigurer {
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                String tenantId = request.getHeader(TenantIds.HEADER);
+                if (tenantId != null) {
+                    TenantIds.validate(tenantId);
+                }
+                return true;
+            }
+        });
+    }
+}
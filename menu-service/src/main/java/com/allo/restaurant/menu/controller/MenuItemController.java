@@ -1,51 +1,161 @@
 package com.allo.restaurant.menu.controller;
 
 import com.allo.restaurant.menu.dto.*;
+import com.allo.restaurant.menu.json.MenuItemPayloads;
+import com.allo.restaurant.menu.service.MenuImportService;
 import com.allo.restaurant.menu.service.MenuItemService;
+import com.allo.restaurant.menu.service.StockReservationService;
+import com.allo.restaurant.menu.tenant.TenantIds;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * Every endpoint acts on the menu of the tenant named by the {@value TenantIds#HEADER} header.
+ * <p>
+ * Menu items and the listing and search pages are written as JSON bytes from
+ * {@link MenuItemPayloads}, so an unchanged item is not encoded again.
+ */
 @RestController
 @RequestMapping("/menu-items")
 @RequiredArgsConstructor
 public class MenuItemController {
 
     private final MenuItemService menuItemService;
+    private final MenuImportService menuImportService;
+    private final StockReservationService stockReservationService;
+    private final MenuItemPayloads menuItemPayloads;
 
     @PostMapping
-    public ResponseEntity<MenuItemResponse> createMenuItem(@Valid @RequestBody CreateMenuItemRequest request) {
-        MenuItemResponse response = menuItemService.createMenuItem(request);
+    public ResponseEntity<MenuItemResponse> createMenuItem(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @Valid @RequestBody CreateMenuItemRequest request) {
+        MenuItemResponse response = menuItemService.createMenuItem(tenantId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<MenuItemResponse> updateMenuItem(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
             @PathVariable String id,
             @Valid @RequestBody UpdateMenuItemRequest request) {
-        MenuItemResponse response = menuItemService.updateMenuItem(id, request);
+        MenuItemResponse response = menuItemService.updateMenuItem(tenantId, id, request);
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/{id}/stock")
+    public ResponseEntity<MenuItemResponse> updateStock(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String id,
+            @Valid @RequestBody UpdateStockRequest request) {
+        MenuItemResponse response = menuItemService.updateStock(tenantId, id, request.getStock());
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/reservations")
+    public ResponseEntity<StockReservationResponse> reserveStock(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @Valid @RequestBody StockReservationRequest request) {
+        StockReservationResponse response = stockReservationService.reserve(tenantId,
+                request.getReservationId(), request.getItems(), request.getKnownVersions());
+        return ResponseEntity.ok(response);
+    }
+
+    @DeleteMapping("/reservations/{reservationId}")
+    public ResponseEntity<Void> releaseStock(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String reservationId) {
+        stockReservationService.release(tenantId, reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PutMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<MenuImportResponse> importMenu(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @RequestBody List<MenuItemImportRow> rows,
+            @RequestParam(defaultValue = "true") boolean deleteMissing) {
+        MenuImportResponse response = menuImportService.importMenu(tenantId, rows, deleteMissing);
+        evictDeleted(tenantId, response);
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<MenuImportResponse> importMenuCsv(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            InputStream body,
+            @RequestParam(defaultValue = "true") boolean deleteMissing) {
+        MenuImportResponse response = menuImportService.importMenu(tenantId, menuImportService.readCsv(body), deleteMissing);
+        evictDeleted(tenantId, response);
         return ResponseEntity.ok(response);
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<DeleteMenuItemResponse> deleteMenuItem(@PathVariable String id) {
-        DeleteMenuItemResponse response = menuItemService.deleteMenuItem(id);
+    public ResponseEntity<DeleteMenuItemResponse> deleteMenuItem(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String id) {
+        DeleteMenuItemResponse response = menuItemService.deleteMenuItem(tenantId, id);
+        menuItemPayloads.evict(tenantId, List.of(id));
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
-    public ResponseEntity<MenuItemListResponse> getAllMenuItems(
+    public ResponseEntity<byte[]> getAllMenuItems(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
             @RequestParam(defaultValue = "10") int limit,
             @RequestParam(defaultValue = "0") int offset) {
-        MenuItemListResponse response = menuItemService.getAllMenuItems(limit, offset);
+        MenuItemListResponse response = menuItemService.getAllMenuItems(tenantId, limit, offset);
+        return json(menuItemPayloads.page(tenantId, response));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<byte[]> searchMenuItems(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<String> tag,
+            @RequestParam(defaultValue = "10") int limit) {
+        MenuItemListResponse response = menuItemService.searchMenuItems(tenantId, q, category, tag, limit);
+        return json(menuItemPayloads.page(tenantId, response));
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<MenuItemListResponse> getMenuItemsByIds(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @Valid @RequestBody MenuItemLookupRequest request) {
+        MenuItemListResponse response = menuItemService.getMenuItemsByIds(tenantId, request.getIds());
         return ResponseEntity.ok(response);
     }
 
-    @GetMapping("/{id}")
-    public ResponseEntity<MenuItemResponse> getMenuItemById(@PathVariable String id) {
-        MenuItemResponse response = menuItemService.getMenuItemById(id);
+    @GetMapping("/{id}/versions/{version}")
+    public ResponseEntity<MenuItemResponse> getMenuItemAtVersion(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String id, @PathVariable long version) {
+        MenuItemResponse response = menuItemService.getMenuItemAtVersion(tenantId, id, version);
         return ResponseEntity.ok(response);
     }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<byte[]> getMenuItemById(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String id) {
+        MenuItemResponse response = menuItemService.getMenuItemById(tenantId, id);
+        return json(menuItemPayloads.item(tenantId, response));
+    }
+
+    private void evictDeleted(String tenantId, MenuImportResponse response) {
+        menuItemPayloads.evict(tenantId, response.getChanges().stream()
+                .filter(change -> change.getChange() == MenuItemChangeType.DELETED)
+                .map(MenuItemChange::getId)
+                .toList());
+    }
+
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
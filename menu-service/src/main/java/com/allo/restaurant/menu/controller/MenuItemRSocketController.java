@@ -0,0 +1,48 @@
+package com.allo.restaurant.menu.controller;
+
+import com.allo.restaurant.menu.dto.MenuItemListResponse;
+import com.allo.restaurant.menu.dto.MenuItemLookupRequest;
+import com.allo.restaurant.menu.dto.MenuItemResponse;
+import com.allo.restaurant.menu.exception.MenuItemNotFoundException;
+import com.allo.restaurant.menu.service.MenuItemService;
+import com.allo.restaurant.menu.tenant.TenantIds;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * The item lookups of {@link MenuItemController} over RSocket, for the Order Service: CBOR
+ * payloads, any number of requests multiplexed over one TCP connection, and batch lookups streamed
+ * item by item. The tenant is part of the route.
+ * <p>
+ * A missing item completes empty rather than failing, so the client can tell it apart from an
+ * error. The lookups block on MongoDB, so they run on the bounded elastic scheduler instead of the
+ * connection's event loop.
+ */
+@Controller
+@RequiredArgsConstructor
+public class MenuItemRSocketController {
+
+    private final MenuItemService menuItemService;
+
+    @MessageMapping("tenants.{tenantId}.menu-items.get")
+    public Mono<MenuItemResponse> getMenuItemById(@DestinationVariable String tenantId, @Payload String id) {
+        return Mono.fromCallable(() -> menuItemService.getMenuItemById(TenantIds.validate(tenantId), id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(MenuItemNotFoundException.class, e -> Mono.empty());
+    }
+
+    @MessageMapping("tenants.{tenantId}.menu-items.lookup")
+    public Flux<MenuItemResponse> getMenuItemsByIds(@DestinationVariable String tenantId,
+                                                    @Valid @Payload MenuItemLookupRequest request) {
+        return Mono.fromCallable(() -> menuItemService.getMenuItemsByIds(TenantIds.validate(tenantId), request.getIds()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapIterable(MenuItemListResponse::getItems);
+    }
+}
@@ -0,0 +1,21 @@
+package com.allo.restaurant.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuImportResponse {
+    private int received;
+    private int created;
+    private int updated;
+    private int deleted;
+    private int unchanged;
+    private List<MenuItemChange> changes;
+}
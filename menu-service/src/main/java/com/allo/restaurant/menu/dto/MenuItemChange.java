@@ -0,0 +1,16 @@
+package com.allo.restaurant.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemChange {
+    private String id;
+    private String name;
+    private MenuItemChangeType change;
+}
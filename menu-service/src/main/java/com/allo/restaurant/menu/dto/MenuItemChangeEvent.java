@@ -0,0 +1,29 @@
+package com.allo.restaurant.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * A change to a menu item, as published to the menu exchange. Applying every event of a tenant in
+ * order to a copy of its menu keeps the copy up to date.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemChangeEvent {
+    private String tenantId;
+    private String id;
+    private MenuItemChangeType change;
+    /**
+     * The fields that changed, with their new values: every field of a created or replaced item,
+     * only the updated ones otherwise ({@code null} for a removed field). Empty for a deletion.
+     */
+    private Map<String, Object> fields;
+    private LocalDateTime occurredAt;
+}
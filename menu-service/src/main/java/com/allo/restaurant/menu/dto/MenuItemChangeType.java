@@ -0,0 +1,7 @@
+package com.allo.restaurant.menu.dto;
+
+public enum MenuItemChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
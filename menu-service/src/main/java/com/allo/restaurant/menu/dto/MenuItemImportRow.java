@@ -0,0 +1,43 @@
+package com.allo.restaurant.menu.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * One line of a menu upload. Rows with an {@code id} update that item; rows without one are
+ * matched to an existing item by name, or created.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "name", "description", "price", "category", "tags"})
+public class MenuItemImportRow {
+    private String id;
+
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotBlank(message = "Description is required")
+    private String description;
+
+    @NotNull(message = "Price is required")
+    @DecimalMin(value = "0.01", message = "Price must be greater than 0")
+    private BigDecimal price;
+
+    @Size(max = 50, message = "Category must be at most 50 characters")
+    private String category;
+
+    @Size(max = 20, message = "At most 20 tags are allowed")
+    private List<@NotBlank(message = "Tags must not be blank") String> tags;
+}
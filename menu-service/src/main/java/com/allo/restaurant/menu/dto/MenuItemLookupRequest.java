@@ -0,0 +1,20 @@
+package com.allo.restaurant.menu.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuItemLookupRequest {
+    @NotEmpty(message = "At least one id is required")
+    @Size(max = 1000, message = "At most 1000 ids can be looked up at once")
+    private List<String> ids;
+}
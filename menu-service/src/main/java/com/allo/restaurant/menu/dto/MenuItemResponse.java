@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
 @Builder
@@ -17,6 +18,11 @@ public class MenuItemResponse {
     private String name;
     private String description;
     private BigDecimal price;
+    private String category;
+    private List<String> tags;
+    private Integer stock;
+    private boolean available;
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
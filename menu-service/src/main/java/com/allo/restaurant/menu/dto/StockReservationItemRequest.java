@@ -0,0 +1,20 @@
+package com.allo.restaurant.menu.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationItemRequest {
+    @NotBlank(message = "Product ID is required")
+    private String productId;
+
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private int quantity;
+}
@@ -0,0 +1,32 @@
+package com.allo.restaurant.menu.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockReservationRequest {
+    @NotBlank(message = "Reservation ID is required")
+    private String reservationId;
+
+    @NotEmpty(message = "At least one item is required")
+    @Size(max = 100, message = "At most 100 items can be reserved at once")
+    private List<@Valid StockReservationItemRequest> items;
+
+    /**
+     * Menu item versions the caller already holds; items still at these versions are returned
+     * without their details.
+     */
+    private Map<String, Long> knownVersions;
+}
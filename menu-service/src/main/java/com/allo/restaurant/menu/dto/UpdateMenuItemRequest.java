@@ -3,12 +3,14 @@ package com.allo.restaurant.menu.dto;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 @Data
 @Builder
@@ -24,4 +26,10 @@ public class UpdateMenuItemRequest {
     @NotNull(message = "Price is required")
     @DecimalMin(value = "0.01", message = "Price must be greater than 0")
     private BigDecimal price;
+    
+    @Size(max = 50, message = "Category must be at most 50 characters")
+    private String category;
+
+    @Size(max = 20, message = "At most 20 tags are allowed")
+    private List<@NotBlank(message = "Tags must not be blank") String> tags;
 }
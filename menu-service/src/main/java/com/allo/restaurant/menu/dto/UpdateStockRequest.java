@@ -0,0 +1,19 @@
+package com.allo.restaurant.menu.dto;
+
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateStockRequest {
+    /**
+     * New stock level, or {@code null} to stop tracking stock for the item.
+     */
+    @Min(value = 0, message = "Stock must not be negative")
+    private Integer stock;
+}
@@ -9,18 +9,34 @@ import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "menu_items")
 public class MenuItem {
     @Id
     private String id;
+    /**
+     * Restaurant the item belongs to; the leading key of every menu index and of the shard key.
+     */
+    private String tenantId;
     private String name;
     private String description;
     private BigDecimal price;
+    private String category;
+    private List<String> tags;
+    /**
+     * Units left to sell; {@code null} when stock is not tracked for the item.
+     */
+    private Integer stock;
+    /**
+     * Menu version of the item's last change; {@code null} for items not changed since menus
+     * were versioned. Stock changes do not count as changes.
+     */
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
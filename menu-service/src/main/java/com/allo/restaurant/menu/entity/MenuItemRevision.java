@@ -0,0 +1,36 @@
+package com.allo.restaurant.menu.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A menu item as it was from menu version {@link #version} on. Revisions are only ever inserted,
+ * never updated; a deleted item gets a final revision with {@link #deleted} set.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "menu_item_revisions")
+public class MenuItemRevision {
+    @Id
+    private String id;
+    private String tenantId;
+    private String itemId;
+    private long version;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private String category;
+    private List<String> tags;
+    private boolean deleted;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.allo.restaurant.menu.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservedItem {
+    private String productId;
+    private int quantity;
+    /**
+     * Whether the item's stock was tracked, and therefore decremented, when it was reserved. Only
+     * tracked items get their quantity back on release. On a pending reservation, set just before
+     * the line's stock is taken.
+     */
+    private boolean tracked;
+}
@@ -0,0 +1,35 @@
+package com.allo.restaurant.menu.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Stock taken for one order, keyed by the caller's reservation id (the order id), which makes
+ * reserving and releasing idempotent.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "stock_reservations")
+public class StockReservation {
+    @Id
+    private String id;
+    private String tenantId;
+    private List<ReservedItem> items;
+    private StockReservationStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime releasedAt;
+    /**
+     * Set when a pending reservation is released: the request still taking its stock puts back
+     * what it took instead of completing it.
+     */
+    private boolean releaseRequested;
+}
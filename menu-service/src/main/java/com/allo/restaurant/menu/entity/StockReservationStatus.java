@@ -0,0 +1,10 @@
+package com.allo.restaurant.menu.entity;
+
+public enum StockReservationStatus {
+    /**
+     * Stock is still being taken; the reservation holds nothing a release could put back yet.
+     */
+    PENDING,
+    RESERVED,
+    RELEASED
+}
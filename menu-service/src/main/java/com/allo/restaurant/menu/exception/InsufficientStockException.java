@@ -0,0 +1,18 @@
+package com.allo.restaurant.menu.exception;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+    /**
+     * Units still available of each item that could not be reserved.
+     */
+    private final Map<String, Integer> available;
+
+    public InsufficientStockException(Map<String, Integer> available) {
+        super("Insufficient stock for menu items: " + available.keySet());
+        this.available = available;
+    }
+}
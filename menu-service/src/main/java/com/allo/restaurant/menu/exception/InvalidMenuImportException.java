@@ -0,0 +1,15 @@
+package com.allo.restaurant.menu.exception;
+
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+public class InvalidMenuImportException extends RuntimeException {
+    private final Map<String, String> errors;
+
+    public InvalidMenuImportException(Map<String, String> errors) {
+        super("Menu import contains invalid rows");
+        this.errors = errors;
+    }
+}
@@ -1,7 +1,13 @@
 package com.allo.restaurant.menu.exception;
 
+import lombok.Getter;
+
+@Getter
 public class MenuItemNotFoundException extends RuntimeException {
+    private final String id;
+
     public MenuItemNotFoundException(String id) {
         super("Menu item not found with id: " + id);
+        this.id = id;
     }
 }
@@ -0,0 +1,17 @@
+package com.allo.restaurant.menu.exception;
+
+import lombok.Getter;
+
+/**
+ * A reservation id that is already in use and cannot be replayed: it belongs to another tenant,
+ * has been released, or is still being reserved by another request.
+ */
+@Getter
+public class StockReservationConflictException extends RuntimeException {
+    private final String reservationId;
+
+    public StockReservationConflictException(String reservationId, String reason) {
+        super("Stock reservation " + reservationId + " " + reason);
+        this.reservationId = reservationId;
+    }
+}
@@ -0,0 +1,103 @@
+package com.allo.restaurant.menu.json;
+
+import com.allo.restaurant.menu.dto.MenuItemListResponse;
+import com.allo.restaurant.menu.dto.MenuItemResponse;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.annotation.JsonValue;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The JSON of menu items as last served, so the menu endpoints write bytes instead of encoding the
+ * same items again on every request. Only the latest encoding of each item is kept, which bounds
+ * the cache by the size of the menus. Entries are keyed by tenant, so one restaurant can never be
+ * served another's item.
+ * <p>
+ * An encoding is reused while the item's version, stock and {@code updatedAt} are unchanged: every
+ * change to its other fields takes a new menu version, a stock update sets {@code updatedAt}, and
+ * reservations only move the stock, so comparing those three is enough to tell the item changed.
+ * <p>
+ * A page is written by Jackson as a {@link MenuItemListResponse} whose items are the cached JSON,
+ * inserted as raw values.
+ */
+@Component
+@RequiredArgsConstructor
+public class MenuItemPayloads {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Key, Encoded> latest = new ConcurrentHashMap<>();
+
+    public byte[] item(String tenantId, MenuItemResponse item) {
+        return encoded(tenantId, item).json().getBytes(StandardCharsets.UTF_8);
+    }
+
+    public byte[] page(String tenantId, MenuItemListResponse page) {
+        List<Encoded> items = page.getItems().stream()
+                .map(item -> encoded(tenantId, item))
+                .toList();
+        return encode(new Page(items, page.getTotalRecords()));
+    }
+
+    /**
+     * Forgets deleted items. An item deleted through another instance is only forgotten here on
+     * restart, but it can never be served, since no response will match it again.
+     */
+    public void evict(String tenantId, Collection<String> ids) {
+        ids.forEach(id -> latest.remove(new Key(tenantId, id)));
+    }
+
+    private Encoded encoded(String tenantId, MenuItemResponse item) {
+        Key key = new Key(tenantId, item.getId());
+        Encoded cached = latest.get(key);
+        if (cached != null && cached.matches(item)) {
+            return cached;
+        }
+        Encoded encoded = new Encoded(item.getVersion(), item.getStock(), item.getUpdatedAt(),
+                new String(encode(item), StandardCharsets.UTF_8));
+        latest.put(key, encoded);
+        return encoded;
+    }
+
+    private byte[] encode(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private record Key(String tenantId, String id) {
+    }
+
+    /**
+     * The fields of {@link MenuItemListResponse}, in the same order, with the items already encoded.
+     */
+    private record Page(List<Encoded> items, long totalRecords) {
+    }
+
+    private record Encoded(Long version, Integer stock, LocalDateTime updatedAt, String json) {
+
+        boolean matches(MenuItemResponse item) {
+            return Objects.equals(version, item.getVersion())
+                    && Objects.equals(stock, item.getStock())
+                    && Objects.equals(updatedAt, item.getUpdatedAt());
+        }
+
+        @JsonValue
+        @JsonRawValue
+        @Override
+        public String json() {
+            return json;
+        }
+    }
+}
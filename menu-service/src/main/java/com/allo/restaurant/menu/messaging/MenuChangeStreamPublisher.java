@@ -0,0 +1,370 @@
+package com.allo.restaurant.menu.messaging;
+
+import com.allo.restaurant.menu.dto.MenuItemChangeEvent;
+import com.allo.restaurant.menu.dto.MenuItemChangeType;
+import com.allo.restaurant.menu.entity.MenuItem;
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoServerException;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Aggregates;
+import com.mongodb.client.model.ChangeStreamPreAndPostImagesOptions;
+import com.mongodb.client.model.CreateCollectionOptions;
+import com.mongodb.client.model.Filters;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocumentBeforeChange;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.bson.conversions.Bson;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Updates.combine;
+import static com.mongodb.client.model.Updates.set;
+
+/**
+ * Tails the change stream of {@code menu_items} and publishes every insert, update, replacement
+ * and deletion to the menu exchange as a {@link MenuItemChangeEvent} routed by
+ * {@code menu.<tenant>.<change>}, so consumers can keep a copy of the menus instead of polling
+ * them. The events come from the database, so every write path is covered, imports and stock
+ * reservations included.
+ * <p>
+ * Events are published in batches of up to {@code menu.changes.batch-size}, at most
+ * {@code menu.changes.max-delay} after the first change of the batch. Once the broker has
+ * confirmed a batch, the stream's resume token is saved in {@value #OFFSETS_COLLECTION} and a
+ * restart resumes after it. Delivery is therefore at least once: a batch that was published but
+ * not yet saved is published again. The changes of an item are published in the order they were
+ * made. Only the instance holding the lease on the stream publishes; the others take over once it
+ * has not been renewed for {@code menu.changes.lease}.
+ * <p>
+ * Updates and deletions only name the item, so the collection records pre-images and the tenant is
+ * read from them. Change streams need a replica set: against a standalone server, or while MongoDB
+ * or RabbitMQ are unreachable, the stream is retried every {@code menu.changes.retry-interval}. If
+ * the resume token has fallen off the oplog, the stream starts over from the current changes and
+ * consumers should reload the menus they hold.
+ */
+@Slf4j
+@Component
+public class MenuChangeStreamPublisher {
+
+    static final String OFFSETS_COLLECTION = "change_stream_offsets";
+
+    private static final Set<String> KEY_FIELDS = Set.of("_id", "tenantId", "_class");
+    private static final Set<Integer> HISTORY_LOST_CODES = Set.of(280, 286);
+    private static final Duration CONFIRM_TIMEOUT = Duration.ofSeconds(5);
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+
+    private final MongoTemplate mongoTemplate;
+    private final RabbitTemplate rabbitTemplate;
+    private final String exchangeName;
+    private final boolean enabled;
+    private final int batchSize;
+    private final Duration maxDelay;
+    private final Duration retryInterval;
+    private final Duration lease;
+    private final Counter publishedEvents;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final CountDownLatch stopping = new CountDownLatch(1);
+    private Thread worker;
+    private boolean resumeTokenLost;
+
+    public MenuChangeStreamPublisher(MongoTemplate mongoTemplate, RabbitTemplate rabbitTemplate, MeterRegistry meterRegistry,
+                                     @Value("${rabbitmq.exchange.name}") String exchangeName,
+                                     @Value("${menu.changes.enabled:true}") boolean enabled,
+                                     @Value("${menu.changes.batch-size:100}") int batchSize,
+                                     @Value("${menu.changes.max-delay:200ms}") Duration maxDelay,
+                                     @Value("${menu.changes.retry-interval:10s}") Duration retryInterval,
+                                     @Value("${menu.changes.lease:30s}") Duration lease) {
+        this.mongoTemplate = mongoTemplate;
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchangeName = exchangeName;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.retryInterval = retryInterval;
+        this.lease = lease;
+        this.publishedEvents = meterRegistry.counter("menu.changes.published");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            worker = Thread.ofVirtual().name("menu-change-stream").start(this::run);
+        }
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping.countDown();
+        if (worker != null) {
+            worker.join(retryInterval.plus(maxDelay).toMillis());
+        }
+    }
+
+    private void run() {
+        while (isRunning()) {
+            try {
+                if (acquireLease()) {
+                    enablePreImages();
+                    tail();
+                }
+            } catch (RuntimeException e) {
+                if (e instanceof MongoServerException serverException && HISTORY_LOST_CODES.contains(serverException.getCode())) {
+                    log.warn("Menu change stream can no longer resume, restarting from the current changes: {}", e.getMessage());
+                    resumeTokenLost = true;
+                    continue;
+                }
+                log.warn("Menu change stream stopped, retrying in {}: {}", retryInterval, e.getMessage());
+            }
+            pause(retryInterval);
+        }
+        try {
+            offsets().updateOne(and(eq("_id", streamName()), eq("owner", instanceId)), set("leaseUntil", new Date()));
+        } catch (RuntimeException e) {
+            log.debug("Could not release the menu change stream lease: {}", e.getMessage());
+        }
+    }
+
+    private void tail() {
+        BsonDocument offset = offsets().find(eq("_id", streamName())).first();
+        BsonDocument resumeToken = offset == null || resumeTokenLost ? null : offset.getDocument("resumeToken", null);
+        resumeTokenLost = false;
+        ChangeStreamIterable<Document> stream = mongoTemplate.getCollection(streamName())
+                .watch(List.of(Aggregates.match(Filters.in("operationType", "insert", "update", "replace", "delete"))))
+                .fullDocumentBeforeChange(FullDocumentBeforeChange.WHEN_AVAILABLE)
+                .maxAwaitTime(maxDelay.toMillis(), TimeUnit.MILLISECONDS);
+        if (resumeToken != null) {
+            stream = stream.startAfter(resumeToken);
+        }
+        log.info("Publishing menu item changes {}", resumeToken == null ? "from now on" : "from the saved resume token");
+
+        try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = stream.cursor()) {
+            List<MenuItemChangeEvent> batch = new ArrayList<>();
+            long batchStartedAt = 0;
+            long savedAt = System.nanoTime();
+            while (isRunning()) {
+                ChangeStreamDocument<Document> change = cursor.tryNext();
+                MenuItemChangeEvent event = change == null ? null : toEvent(change);
+                if (event != null) {
+                    if (batch.isEmpty()) {
+                        batchStartedAt = System.nanoTime();
+                    }
+                    batch.add(event);
+                }
+
+                long now = System.nanoTime();
+                boolean flush = !batch.isEmpty()
+                        && (change == null || batch.size() >= batchSize || now - batchStartedAt >= maxDelay.toNanos());
+                if (flush) {
+                    publish(batch);
+                    batch.clear();
+                }
+                // An idle stream saves its token too, so it renews the lease and never falls behind the oplog.
+                if (batch.isEmpty() && (flush || now - savedAt >= lease.toNanos() / 3)) {
+                    if (!save(cursor.getResumeToken())) {
+                        log.warn("Lost the menu change stream lease to another instance");
+                        return;
+                    }
+                    savedAt = now;
+                }
+            }
+            if (!batch.isEmpty()) {
+                publish(batch);
+                save(cursor.getResumeToken());
+            }
+        }
+    }
+
+    private void publish(List<MenuItemChangeEvent> batch) {
+        rabbitTemplate.invoke(operations -> {
+            batch.forEach(event -> operations.convertAndSend(exchangeName, routingKey(event), event));
+            operations.waitForConfirmsOrDie(CONFIRM_TIMEOUT.toMillis());
+            return null;
+        });
+        publishedEvents.increment(batch.size());
+    }
+
+    /**
+     * Takes the lease on the stream if nobody holds it or it has expired, or renews it.
+     */
+    private boolean acquireLease() {
+        try {
+            offsets().updateOne(and(eq("_id", streamName()), or(eq("owner", instanceId), lt("leaseUntil", new Date()))),
+                    combine(set("owner", instanceId), set("leaseUntil", leaseUntil())), new UpdateOptions().upsert(true));
+            return true;
+        } catch (MongoWriteException e) {
+            if (e.getError().getCategory() == ErrorCategory.DUPLICATE_KEY) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Saves the resume token and renews the lease, unless another instance has taken it.
+     */
+    private boolean save(BsonDocument resumeToken) {
+        Bson update = combine(set("leaseUntil", leaseUntil()), set("updatedAt", new Date()));
+        if (resumeToken != null) {
+            update = combine(update, set("resumeToken", resumeToken));
+        }
+        return offsets().updateOne(and(eq("_id", streamName()), eq("owner", instanceId)), update).getMatchedCount() > 0;
+    }
+
+    private void enablePreImages() {
+        String collection = streamName();
+        if (mongoTemplate.collectionExists(collection)) {
+            mongoTemplate.executeCommand(new Document("collMod", collection)
+                    .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        } else {
+            mongoTemplate.getDb().createCollection(collection, new CreateCollectionOptions()
+                    .changeStreamPreAndPostImagesOptions(new ChangeStreamPreAndPostImagesOptions(true)));
+        }
+    }
+
+    private MongoCollection<BsonDocument> offsets() {
+        return mongoTemplate.getCollection(OFFSETS_COLLECTION).withDocumentClass(BsonDocument.class);
+    }
+
+    private String streamName() {
+        return mongoTemplate.getCollectionName(MenuItem.class);
+    }
+
+    private Date leaseUntil() {
+        return Date.from(Instant.now().plus(lease));
+    }
+
+    private boolean isRunning() {
+        return stopping.getCount() > 0;
+    }
+
+    private void pause(Duration duration) {
+        try {
+            stopping.await(duration.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopping.countDown();
+        }
+    }
+
+    static String routingKey(MenuItemChangeEvent event) {
+        return "menu." + event.getTenantId() + "." + event.getChange().name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The event for a change, or {@code null} if its tenant is unknown: a deletion or update made
+     * before pre-images were recorded.
+     */
+    static MenuItemChangeEvent toEvent(ChangeStreamDocument<Document> change) {
+        Document item = change.getFullDocument() != null ? change.getFullDocument() : change.getFullDocumentBeforeChange();
+        if (item == null || item.getString("tenantId") == null) {
+            log.debug("Skipping a change of menu item {} of unknown tenant", change.getDocumentKey());
+            return null;
+        }
+
+        MenuItemChangeType type;
+        Map<String, Object> fields = new LinkedHashMap<>();
+        switch (change.getOperationType()) {
+            case INSERT -> {
+                type = MenuItemChangeType.CREATED;
+                putAll(change.getFullDocument(), fields);
+            }
+            case REPLACE -> {
+                type = MenuItemChangeType.UPDATED;
+                putAll(change.getFullDocument(), fields);
+            }
+            case UPDATE -> {
+                type = MenuItemChangeType.UPDATED;
+                BsonDocument updated = change.getUpdateDescription().getUpdatedFields();
+                if (updated != null) {
+                    DOCUMENT_CODEC.decode(new BsonDocumentReader(updated), DecoderContext.builder().build())
+                            .forEach((name, value) -> fields.put(name, toJsonValue(value)));
+                }
+                List<String> removed = change.getUpdateDescription().getRemovedFields();
+                if (removed != null) {
+                    removed.forEach(name -> fields.put(name, null));
+                }
+            }
+            case DELETE -> type = MenuItemChangeType.DELETED;
+            default -> {
+                return null;
+            }
+        }
+
+        return MenuItemChangeEvent.builder()
+                .tenantId(item.getString("tenantId"))
+                .id(idOf(change.getDocumentKey().get("_id")))
+                .change(type)
+                .fields(fields)
+                .occurredAt(occurredAt(change))
+                .build();
+    }
+
+    private static void putAll(Document item, Map<String, Object> fields) {
+        item.forEach((name, value) -> {
+            if (!KEY_FIELDS.contains(name)) {
+                fields.put(name, toJsonValue(value));
+            }
+        });
+    }
+
+    private static String idOf(BsonValue id) {
+        return id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue();
+    }
+
+    private static LocalDateTime occurredAt(ChangeStreamDocument<Document> change) {
+        Instant instant = change.getWallTime() != null
+                ? Instant.ofEpochMilli(change.getWallTime().getValue())
+                : Instant.ofEpochSecond(change.getClusterTime().getTime());
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+
+    /**
+     * Stored values as the entity reads them: dates as local date-times, decimals and ids as
+     * their Java counterparts.
+     */
+    private static Object toJsonValue(Object value) {
+        return switch (value) {
+            case Date date -> LocalDateTime.ofInstant(date.toInstant(), ZoneId.systemDefault());
+            case Decimal128 decimal -> decimal.bigDecimalValue();
+            case ObjectId objectId -> objectId.toHexString();
+            case null, default -> value;
+        };
+    }
+}
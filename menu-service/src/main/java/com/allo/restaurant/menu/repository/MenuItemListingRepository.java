@@ -0,0 +1,14 @@
+package com.allo.restaurant.menu.repository;
+
+import com.allo.restaurant.menu.entity.MenuItem;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface MenuItemListingRepository {
+
+    /**
+     * A page of the tenant's menu items, read with the {@code menu-listing} read preference, so it
+     * may lag the primary by up to the configured max staleness.
+     */
+    Page<MenuItem> findListing(String tenantId, Pageable pageable);
+}
@@ -0,0 +1,39 @@
+package com.allo.restaurant.menu.repository;
+
+import com.allo.restaurant.menu.config.MongoOperationRouting;
+import com.allo.restaurant.menu.entity.MenuItem;
+import com.mongodb.ReadPreference;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Derived repository queries always read from the primary; this one carries its read preference
+ * on the query, for both the page and the count.
+ */
+@RequiredArgsConstructor
+class MenuItemListingRepositoryImpl implements MenuItemListingRepository {
+
+    private final MongoTemplate mongoTemplate;
+    private final MongoOperationRouting routing;
+
+    @Override
+    public Page<MenuItem> findListing(String tenantId, Pageable pageable) {
+        ReadPreference readPreference = routing.readPreference(MongoOperationRouting.MENU_LISTING);
+        List<MenuItem> items = mongoTemplate.find(byTenant(tenantId).with(pageable).withReadPreference(readPreference), MenuItem.class);
+        return PageableExecutionUtils.getPage(items, pageable,
+                () -> mongoTemplate.count(byTenant(tenantId).withReadPreference(readPreference), MenuItem.class));
+    }
+
+    private static Query byTenant(String tenantId) {
+        return query(where("tenantId").is(tenantId));
+    }
+}
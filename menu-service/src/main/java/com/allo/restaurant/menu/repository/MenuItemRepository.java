@@ -1,12 +1,22 @@
 package com.allo.restaurant.menu.repository;
 
 import com.allo.restaurant.menu.entity.MenuItem;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Every query is scoped to one tenant, so it can use the tenant-leading indexes and be routed to a
+ * single shard.
+ */
 @Repository
-public interface MenuItemRepository extends MongoRepository<MenuItem, String> {
-    Page<MenuItem> findAll(Pageable pageable);
+public interface MenuItemRepository extends MongoRepository<MenuItem, String>, MenuItemListingRepository {
+    Optional<MenuItem> findByTenantIdAndId(String tenantId, String id);
+
+    List<MenuItem> findByTenantIdAndIdIn(String tenantId, Collection<String> ids);
+
+    long removeByTenantIdAndId(String tenantId, String id);
 }
@@ -0,0 +1,265 @@
+package com.allo.restaurant.menu.service;
+
+import com.allo.restaurant.menu.dto.*;
+import com.allo.restaurant.menu.entity.MenuItem;
+import com.allo.restaurant.menu.exception.InvalidMenuImportException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Applies a whole-menu upload. The upload is diffed against the current menu and only the
+ * differences are written, all in one unordered {@link BulkOperations} batch, as one new menu
+ * version. Nothing is written when any row is invalid. An import only sees and replaces the menu of
+ * its own tenant.
+ */
+@Service
+@RequiredArgsConstructor
+public class MenuImportService {
+
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerFor(MenuItemImportRow.class)
+            .with(CsvSchema.emptySchema().withHeader());
+
+    private final MongoTemplate mongoTemplate;
+    private final Validator validator;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MenuVersionService menuVersionService;
+
+    @Value("${menu.import.max-size:5000}")
+    private int maxImportSize;
+
+    /**
+     * Reads a CSV upload with an {@code id,name,description,price,category,tags} header. The
+     * {@code id}, {@code category} and {@code tags} columns may be left empty; tags are separated
+     * by {@code ;}.
+     */
+    public List<MenuItemImportRow> readCsv(InputStream body) {
+        List<MenuItemImportRow> rows = new ArrayList<>();
+        try (MappingIterator<MenuItemImportRow> iterator = CSV_READER.readValues(body)) {
+            while (iterator.hasNextValue()) {
+                checkImportSize(rows.size() + 1);
+                rows.add(withoutEmptyCells(iterator.nextValue()));
+            }
+        } catch (IOException | RuntimeJsonMappingException e) {
+            throw new InvalidMenuImportException(Map.of("[" + rows.size() + "]", "Malformed CSV row"));
+        }
+        return rows;
+    }
+
+    /**
+     * @param deleteMissing whether current items that are not part of the upload are deleted,
+     *                      i.e. whether the upload replaces the whole menu
+     */
+    public MenuImportResponse importMenu(String tenantId, List<MenuItemImportRow> rows, boolean deleteMissing) {
+        checkImportSize(rows.size());
+        rows.forEach(row -> {
+            if (row != null && row.getId() != null && row.getId().isBlank()) {
+                row.setId(null);
+            }
+        });
+
+        List<MenuItem> current = mongoTemplate.find(new Query(Criteria.where("tenantId").is(tenantId)), MenuItem.class);
+        Map<String, MenuItem> currentById = new HashMap<>();
+        Map<String, MenuItem> currentByName = new HashMap<>();
+        current.forEach(menuItem -> {
+            currentById.put(menuItem.getId(), menuItem);
+            currentByName.putIfAbsent(menuItem.getName(), menuItem);
+        });
+
+        Map<String, String> errors = validate(rows, currentById);
+        if (!errors.isEmpty()) {
+            throw new InvalidMenuImportException(errors);
+        }
+
+        // Rows with an id claim their item first, so a name match can never steal it.
+        Map<Integer, MenuItem> matches = new HashMap<>();
+        Set<String> claimedIds = new HashSet<>();
+        for (int index = 0; index < rows.size(); index++) {
+            String id = rows.get(index).getId();
+            if (id != null) {
+                matches.put(index, currentById.get(id));
+                claimedIds.add(id);
+            }
+        }
+        for (int index = 0; index < rows.size(); index++) {
+            MenuItemImportRow row = rows.get(index);
+            MenuItem byName = currentByName.get(row.getName());
+            if (row.getId() == null && byName != null && claimedIds.add(byName.getId())) {
+                matches.put(index, byName);
+            }
+        }
+
+        // Taken even if nothing turns out to change; versions only need to increase, not be contiguous.
+        // It stays pending, and is not served, until the changes are written.
+        long version = menuVersionService.nextVersion(tenantId);
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            BulkOperations bulkOperations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class);
+            List<MenuItemChange> changes = new ArrayList<>();
+            List<MenuItem> upserted = new ArrayList<>();
+            List<String> removedIds = new ArrayList<>();
+            int created = 0;
+            int updated = 0;
+            for (int index = 0; index < rows.size(); index++) {
+                MenuItemImportRow row = rows.get(index);
+                MenuItem existing = matches.get(index);
+                if (existing == null) {
+                    MenuItem menuItem = MenuItem.builder()
+                            .id(new ObjectId().toHexString())
+                            .tenantId(tenantId)
+                            .name(row.getName())
+                            .description(row.getDescription())
+                            .price(row.getPrice())
+                            .category(row.getCategory())
+                            .tags(row.getTags())
+                            .version(version)
+                            .createdAt(now)
+                            .build();
+                    bulkOperations.insert(menuItem);
+                    upserted.add(menuItem);
+                    changes.add(change(menuItem.getId(), menuItem.getName(), MenuItemChangeType.CREATED));
+                    created++;
+                } else if (isChanged(existing, row)) {
+                    bulkOperations.updateOne(byId(tenantId, existing.getId()), new Update()
+                            .set("name", row.getName())
+                            .set("description", row.getDescription())
+                            .set("price", row.getPrice())
+                            .set("category", row.getCategory())
+                            .set("tags", row.getTags())
+                            .set("version", version)
+                            .set("updatedAt", now));
+                    upserted.add(existing.toBuilder()
+                            .name(row.getName())
+                            .description(row.getDescription())
+                            .price(row.getPrice())
+                            .category(row.getCategory())
+                            .tags(row.getTags())
+                            .version(version)
+                            .updatedAt(now)
+                            .build());
+                    changes.add(change(existing.getId(), row.getName(), MenuItemChangeType.UPDATED));
+                    updated++;
+                }
+            }
+
+            int deleted = 0;
+            if (deleteMissing) {
+                List<MenuItem> missing = current.stream()
+                        .filter(menuItem -> !claimedIds.contains(menuItem.getId()))
+                        .toList();
+                if (!missing.isEmpty()) {
+                    bulkOperations.remove(new Query(Criteria.where("tenantId").is(tenantId).and("_id")
+                            .in(missing.stream().map(MenuItem::getId).toList())));
+                    missing.forEach(menuItem -> {
+                        changes.add(change(menuItem.getId(), menuItem.getName(), MenuItemChangeType.DELETED));
+                        removedIds.add(menuItem.getId());
+                    });
+                    deleted = missing.size();
+                }
+            }
+
+            if (!changes.isEmpty()) {
+                bulkOperations.execute();
+                menuVersionService.recordChanges(tenantId, upserted, removedIds, version);
+                menuSearchIndex.apply(tenantId, upserted, removedIds);
+            }
+
+            return MenuImportResponse.builder()
+                    .received(rows.size())
+                    .created(created)
+                    .updated(updated)
+                    .deleted(deleted)
+                    .unchanged(rows.size() - created - updated)
+                    .changes(changes)
+                    .build();
+        } finally {
+            menuVersionService.complete(tenantId, version);
+        }
+    }
+
+    /**
+     * CSV has no null, so empty optional cells are read as empty strings.
+     */
+    private static MenuItemImportRow withoutEmptyCells(MenuItemImportRow row) {
+        if (row.getCategory() != null && row.getCategory().isBlank()) {
+            row.setCategory(null);
+        }
+        if (row.getTags() != null) {
+            List<String> tags = row.getTags().stream().filter(tag -> !tag.isBlank()).toList();
+            row.setTags(tags.isEmpty() ? null : tags);
+        }
+        return row;
+    }
+
+    private void checkImportSize(int size) {
+        if (size > maxImportSize) {
+            throw new IllegalArgumentException("A menu import can contain at most " + maxImportSize + " items");
+        }
+    }
+
+    private Map<String, String> validate(List<MenuItemImportRow> rows, Map<String, MenuItem> currentById) {
+        Map<String, String> errors = new LinkedHashMap<>();
+        Set<String> ids = new HashSet<>();
+        Set<String> names = new HashSet<>();
+        for (int index = 0; index < rows.size(); index++) {
+            String prefix = "[" + index + "]";
+            MenuItemImportRow row = rows.get(index);
+            if (row == null) {
+                errors.put(prefix, "Row is empty");
+                continue;
+            }
+            validator.validate(row).forEach(violation ->
+                    errors.putIfAbsent(prefix + "." + violation.getPropertyPath(), violation.getMessage()));
+            if (row.getId() != null) {
+                if (!currentById.containsKey(row.getId())) {
+                    errors.put(prefix + ".id", "Menu item not found with id: " + row.getId());
+                } else if (!ids.add(row.getId())) {
+                    errors.put(prefix + ".id", "Duplicate id in import");
+                }
+            }
+            if (row.getName() != null && !names.add(row.getName())) {
+                errors.putIfAbsent(prefix + ".name", "Duplicate name in import");
+            }
+        }
+        return errors;
+    }
+
+    private static boolean isChanged(MenuItem existing, MenuItemImportRow row) {
+        return !Objects.equals(existing.getName(), row.getName())
+                || !Objects.equals(existing.getDescription(), row.getDescription())
+                || !Objects.equals(existing.getCategory(), row.getCategory())
+                || !Objects.equals(existing.getTags(), row.getTags())
+                || existing.getPrice() == null
+                || existing.getPrice().compareTo(row.getPrice()) != 0;
+    }
+
+    private static Query byId(String tenantId, String id) {
+        return new Query(Criteria.where("tenantId").is(tenantId).and("_id").is(id));
+    }
+
+    private static MenuItemChange change(String id, String name, MenuItemChangeType type) {
+        return MenuItemChange.builder()
+                .id(id)
+                .name(name)
+                .change(type)
+                .build();
+    }
+}
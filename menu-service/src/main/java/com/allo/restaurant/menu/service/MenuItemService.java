@@ -2,78 +2,142 @@ package com.allo.restaurant.menu.service;
 
 import com.allo.restaurant.menu.dto.*;
 import com.allo.restaurant.menu.entity.MenuItem;
+import com.allo.restaurant.menu.entity.MenuItemRevision;
 import com.allo.restaurant.menu.exception.MenuItemNotFoundException;
 import com.allo.restaurant.menu.repository.MenuItemRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
 @Service
 @RequiredArgsConstructor
 public class MenuItemService {
 
     private final MenuItemRepository menuItemRepository;
+    private final MenuSearchIndex menuSearchIndex;
+    private final MongoTemplate mongoTemplate;
+    private final MenuVersionService menuVersionService;
 
-    public MenuItemResponse createMenuItem(CreateMenuItemRequest request) {
-        MenuItem menuItem = MenuItem.builder()
-                .name(request.getName())
-                .description(request.getDescription())
-                .price(request.getPrice())
-                .createdAt(LocalDateTime.now())
-                .build();
+    public MenuItemResponse createMenuItem(String tenantId, CreateMenuItemRequest request) {
+        long version = menuVersionService.nextVersion(tenantId);
+        MenuItem savedMenuItem;
+        try {
+            MenuItem menuItem = MenuItem.builder()
+                    .tenantId(tenantId)
+                    .name(request.getName())
+                    .description(request.getDescription())
+                    .price(request.getPrice())
+                    .category(request.getCategory())
+                    .tags(request.getTags())
+                    .stock(request.getStock())
+                    .version(version)
+                    .createdAt(LocalDateTime.now())
+                    .build();
 
-        MenuItem savedMenuItem = menuItemRepository.save(menuItem);
+            savedMenuItem = menuItemRepository.save(menuItem);
+            menuVersionService.recordChanges(tenantId, List.of(savedMenuItem), List.of(), version);
+        } finally {
+            menuVersionService.complete(tenantId, version);
+        }
+        menuSearchIndex.apply(tenantId, List.of(savedMenuItem), List.of());
         return mapToResponse(savedMenuItem);
     }
 
-    public MenuItemResponse updateMenuItem(String id, UpdateMenuItemRequest request) {
-        MenuItem menuItem = menuItemRepository.findById(id)
-                .orElseThrow(() -> new MenuItemNotFoundException(id));
+    /**
+     * Updates the item's details in place rather than saving the whole document, so a stock
+     * reservation running concurrently is never overwritten.
+     */
+    public MenuItemResponse updateMenuItem(String tenantId, String id, UpdateMenuItemRequest request) {
+        long version = menuVersionService.nextVersion(tenantId);
+        Update update = new Update()
+                .set("name", request.getName())
+                .set("description", request.getDescription())
+                .set("price", request.getPrice())
+                .set("category", request.getCategory())
+                .set("tags", request.getTags())
+                .set("version", version)
+                .set("updatedAt", LocalDateTime.now());
 
-        menuItem.setName(request.getName());
-        menuItem.setDescription(request.getDescription());
-        menuItem.setPrice(request.getPrice());
-        menuItem.setUpdatedAt(LocalDateTime.now());
-
-        MenuItem updatedMenuItem = menuItemRepository.save(menuItem);
+        MenuItem updatedMenuItem;
+        try {
+            updatedMenuItem = modify(tenantId, id, update);
+            menuVersionService.recordChanges(tenantId, List.of(updatedMenuItem), List.of(), version);
+        } finally {
+            menuVersionService.complete(tenantId, version);
+        }
+        menuSearchIndex.apply(tenantId, List.of(updatedMenuItem), List.of());
         return mapToResponse(updatedMenuItem);
     }
 
-    public DeleteMenuItemResponse deleteMenuItem(String id) {
-        if (!menuItemRepository.existsById(id)) {
+    /**
+     * Sets the units left to sell, or stops tracking stock when {@code stock} is {@code null}.
+     */
+    public MenuItemResponse updateStock(String tenantId, String id, Integer stock) {
+        Update update = (stock == null ? new Update().unset("stock") : new Update().set("stock", stock))
+                .set("updatedAt", LocalDateTime.now());
+        return mapToResponse(modify(tenantId, id, update));
+    }
+
+    private MenuItem modify(String tenantId, String id, Update update) {
+        MenuItem menuItem = mongoTemplate.findAndModify(query(where("tenantId").is(tenantId).and("_id").is(id)), update,
+                FindAndModifyOptions.options().returnNew(true), MenuItem.class);
+        if (menuItem == null) {
             throw new MenuItemNotFoundException(id);
         }
+        return menuItem;
+    }
+
+    /**
+     * The deletion's version is taken first, so it is not served until the item is removed and its
+     * tombstone written.
+     */
+    public DeleteMenuItemResponse deleteMenuItem(String tenantId, String id) {
+        long version = menuVersionService.nextVersion(tenantId);
+        try {
+            if (menuItemRepository.removeByTenantIdAndId(tenantId, id) == 0) {
+                throw new MenuItemNotFoundException(id);
+            }
+            menuVersionService.recordChanges(tenantId, List.of(), List.of(id), version);
+        } finally {
+            menuVersionService.complete(tenantId, version);
+        }
+        menuSearchIndex.apply(tenantId, List.of(), List.of(id));
 
-        menuItemRepository.deleteById(id);
         return DeleteMenuItemResponse.builder()
                 .message("Menu item deleted successfully")
                 .id(id)
                 .build();
     }
 
-    public MenuItemListResponse getAllMenuItems(int limit, int offset) {
+    public MenuItemListResponse getAllMenuItems(String tenantId, int limit, int offset) {
         int pageNumber = offset / limit;
         int offsetInPage = offset % limit;
         
         PageRequest pageRequest = PageRequest.of(pageNumber, limit);
-        Page<MenuItem> page = menuItemRepository.findAll(pageRequest);
+        Page<MenuItem> page = menuItemRepository.findListing(tenantId, pageRequest);
         
         List<MenuItem> allItems = new java.util.ArrayList<>(page.getContent());
         
         if (offsetInPage > 0 && page.hasNext()) {
-            Page<MenuItem> nextPage = menuItemRepository.findAll(PageRequest.of(pageNumber + 1, limit));
+            Page<MenuItem> nextPage = menuItemRepository.findListing(tenantId, PageRequest.of(pageNumber + 1, limit));
             allItems.addAll(nextPage.getContent());
         }
         
         List<MenuItemResponse> items = allItems.stream()
                 .skip(offsetInPage)
                 .limit(limit)
-                .map(this::mapToResponse)
+                .map(MenuItemService::mapToResponse)
                 .collect(Collectors.toList());
 
         return MenuItemListResponse.builder()
@@ -82,18 +146,63 @@ public class MenuItemService {
                 .build();
     }
 
-    public MenuItemResponse getMenuItemById(String id) {
-        MenuItem menuItem = menuItemRepository.findById(id)
+    public MenuItemListResponse searchMenuItems(String tenantId, String query, String category, List<String> tags, int limit) {
+        List<MenuItemResponse> items = menuSearchIndex.search(tenantId, query, category, tags, limit).stream()
+                .map(MenuItemService::mapToResponse)
+                .collect(Collectors.toList());
+
+        return MenuItemListResponse.builder()
+                .items(items)
+                .totalRecords(items.size())
+                .build();
+    }
+
+    public MenuItemResponse getMenuItemById(String tenantId, String id) {
+        MenuItem menuItem = menuItemRepository.findByTenantIdAndId(tenantId, id)
                 .orElseThrow(() -> new MenuItemNotFoundException(id));
         return mapToResponse(menuItem);
     }
 
-    private MenuItemResponse mapToResponse(MenuItem menuItem) {
+    /**
+     * The item as it was at menu {@code version}; the same answer every time for a given version.
+     */
+    public MenuItemResponse getMenuItemAtVersion(String tenantId, String id, long version) {
+        MenuItemRevision revision = menuVersionService.findAt(tenantId, id, version);
+        return MenuItemResponse.builder()
+                .id(revision.getItemId())
+                .name(revision.getName())
+                .description(revision.getDescription())
+                .price(revision.getPrice())
+                .category(revision.getCategory())
+                .tags(revision.getTags())
+                .available(true)
+                .version(revision.getVersion())
+                .updatedAt(revision.getCreatedAt())
+                .build();
+    }
+
+    public MenuItemListResponse getMenuItemsByIds(String tenantId, List<String> ids) {
+        List<MenuItemResponse> items = new java.util.ArrayList<>();
+        menuItemRepository.findByTenantIdAndIdIn(tenantId, new java.util.LinkedHashSet<>(ids))
+                .forEach(menuItem -> items.add(mapToResponse(menuItem)));
+
+        return MenuItemListResponse.builder()
+                .items(items)
+                .totalRecords(items.size())
+                .build();
+    }
+
+    static MenuItemResponse mapToResponse(MenuItem menuItem) {
         return MenuItemResponse.builder()
                 .id(menuItem.getId())
                 .name(menuItem.getName())
                 .description(menuItem.getDescription())
                 .price(menuItem.getPrice())
+                .category(menuItem.getCategory())
+                .tags(menuItem.getTags())
+                .stock(menuItem.getStock())
+                .available(menuItem.getStock() == null || menuItem.getStock() > 0)
+                .version(menuItem.getVersion())
                 .createdAt(menuItem.getCreatedAt())
                 .updatedAt(menuItem.getUpdatedAt())
                 .build();
@@ -0,0 +1,293 @@
+package com.allo.restaurant.menu.service;
+
+import com.allo.restaurant.menu.entity.MenuItem;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * In-memory typeahead index over the menu. Every word of the name, description, category and
+ * tags is a term; terms are kept sorted so all terms starting with a query word are found with one
+ * binary search. A query matches the items where every query word is a prefix of one of their
+ * terms, ranked by where the words matched (name, then category/tags, then description) and
+ * whether they matched a whole term.
+ * <p>
+ * Each tenant has its own immutable snapshot, rebuilt on every change to that tenant's menu, which
+ * is cheap at menu sizes, keeps searches lock-free and means a busy restaurant's edits never slow
+ * down another's searches. The index is loaded once the application is ready and reloaded
+ * periodically; until the first load, a search reads the tenant's menu from MongoDB and indexes it
+ * for that search alone, so it matches exactly what the loaded index would.
+ */
+@Slf4j
+@Service
+public class MenuSearchIndex {
+
+    private static final Pattern WORD_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private static final int NAME_WEIGHT = 8;
+    private static final int LABEL_WEIGHT = 4;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final Comparator<MenuItem> BY_NAME = Comparator.comparing(MenuItem::getName, String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(MenuItem::getId);
+
+    private final MongoTemplate mongoTemplate;
+    private final Object lock = new Object();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final Map<String, Map<String, MenuItem>> itemsByTenant = new HashMap<>();
+    private volatile Map<String, Snapshot> snapshots;
+    /**
+     * Changes applied while a rebuild reads the menu, or {@code null} outside a rebuild.
+     */
+    private List<Change> changesDuringRebuild;
+
+    public MenuSearchIndex(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread.ofVirtual().name("menu-search-index-loader").start(this::resync);
+    }
+
+    @Scheduled(initialDelayString = "${menu.search.resync-interval:5m}",
+            fixedDelayString = "${menu.search.resync-interval:5m}")
+    public void resync() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not load the menu search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the whole menu without holding the lock {@link #apply} takes, so writes never wait on
+     * the read. Changes applied meanwhile are recorded and replayed over what was read: a change
+     * the read already saw is applied again harmlessly, and one it missed is not lost. A
+     * {@link ReentrantLock} keeps rebuilds one at a time without pinning the virtual loader thread
+     * while it waits on MongoDB.
+     */
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            synchronized (lock) {
+                changesDuringRebuild = new ArrayList<>();
+            }
+            List<MenuItem> menu;
+            try {
+                menu = mongoTemplate.findAll(MenuItem.class);
+            } catch (RuntimeException e) {
+                synchronized (lock) {
+                    changesDuringRebuild = null;
+                }
+                throw e;
+            }
+            synchronized (lock) {
+                itemsByTenant.clear();
+                menu.stream()
+                        .filter(menuItem -> menuItem.getTenantId() != null)
+                        .forEach(menuItem -> itemsOf(menuItem.getTenantId()).put(menuItem.getId(), menuItem));
+                changesDuringRebuild.forEach(change -> change.applyTo(itemsOf(change.tenantId())));
+                changesDuringRebuild = null;
+                Map<String, Snapshot> fresh = new HashMap<>();
+                itemsByTenant.forEach((tenantId, items) -> fresh.put(tenantId, Snapshot.of(items.values())));
+                snapshots = fresh;
+            }
+            log.info("Menu search index loaded with {} items of {} tenants", menu.size(), itemsByTenant.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Records menu items of one tenant created, updated or deleted on this instance; only that
+     * tenant's snapshot is rebuilt. Until the index has been loaded, changes are only kept for the
+     * load in progress, if any, since a later load will read them.
+     */
+    public void apply(String tenantId, Collection<MenuItem> upserted, Collection<String> removedIds) {
+        Change change = new Change(tenantId, List.copyOf(upserted), List.copyOf(removedIds));
+        synchronized (lock) {
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+            if (snapshots == null) {
+                return;
+            }
+            Map<String, MenuItem> items = itemsOf(tenantId);
+            change.applyTo(items);
+            Map<String, Snapshot> next = new HashMap<>(snapshots);
+            next.put(tenantId, Snapshot.of(items.values()));
+            snapshots = next;
+        }
+    }
+
+    /**
+     * Items matching every word of {@code query} as a prefix (all items when blank), optionally
+     * restricted to a category and to items carrying all of {@code tags}; best matches first.
+     */
+    public List<MenuItem> search(String tenantId, String query, String category, Collection<String> tags, int limit) {
+        List<String> words = terms(query);
+        Set<String> requiredTags = tags == null ? Set.of() : new HashSet<>(normalizeAll(tags));
+        String requiredCategory = category == null || category.isBlank() ? null : normalize(category);
+
+        Map<String, Snapshot> loaded = snapshots;
+        Snapshot current = loaded == null ? readSnapshot(tenantId) : loaded.get(tenantId);
+        if (current == null) {
+            return List.of();
+        }
+
+        int[] scores = current.score(words);
+        List<Integer> matches = new ArrayList<>();
+        for (int doc = 0; doc < current.docs.length; doc++) {
+            if (scores[doc] >= 0 && current.accepts(doc, requiredCategory, requiredTags)) {
+                matches.add(doc);
+            }
+        }
+        return matches.stream()
+                .sorted(Comparator.<Integer>comparingInt(doc -> -scores[doc])
+                        .thenComparing(doc -> current.docs[doc], BY_NAME))
+                .limit(limit)
+                .map(doc -> current.docs[doc])
+                .toList();
+    }
+
+    boolean isLoaded() {
+        return snapshots != null;
+    }
+
+    private Snapshot readSnapshot(String tenantId) {
+        return Snapshot.of(mongoTemplate.find(query(where("tenantId").is(tenantId)), MenuItem.class));
+    }
+
+    /**
+     * Must be called holding {@link #lock}.
+     */
+    private Map<String, MenuItem> itemsOf(String tenantId) {
+        return itemsByTenant.computeIfAbsent(tenantId, key -> new HashMap<>());
+    }
+
+    static List<String> terms(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(WORD_SEPARATOR.split(normalize(text)))
+                .filter(word -> !word.isEmpty())
+                .distinct()
+                .toList();
+    }
+
+    private static String normalize(String text) {
+        return DIACRITICS.matcher(Normalizer.normalize(text.trim(), Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> normalizeAll(Collection<String> values) {
+        return values.stream().filter(Objects::nonNull).map(MenuSearchIndex::normalize).toList();
+    }
+
+    private record Posting(int doc, int weight) {
+    }
+
+    private record Change(String tenantId, List<MenuItem> upserted, List<String> removedIds) {
+
+        void applyTo(Map<String, MenuItem> items) {
+            upserted.forEach(menuItem -> items.put(menuItem.getId(), menuItem));
+            removedIds.forEach(items::remove);
+        }
+    }
+
+    private static final class Snapshot {
+
+        private final MenuItem[] docs;
+        private final String[] categories;
+        private final List<Set<String>> tags;
+        private final String[] terms;
+        private final Posting[][] postings;
+
+        private Snapshot(MenuItem[] docs, String[] categories, List<Set<String>> tags, String[] terms, Posting[][] postings) {
+            this.docs = docs;
+            this.categories = categories;
+            this.tags = tags;
+            this.terms = terms;
+            this.postings = postings;
+        }
+
+        static Snapshot of(Collection<MenuItem> menuItems) {
+            MenuItem[] docs = menuItems.toArray(MenuItem[]::new);
+            String[] categories = new String[docs.length];
+            List<Set<String>> tags = new ArrayList<>(docs.length);
+            TreeMap<String, Map<Integer, Integer>> index = new TreeMap<>();
+
+            for (int position = 0; position < docs.length; position++) {
+                int doc = position;
+                MenuItem menuItem = docs[doc];
+                categories[doc] = menuItem.getCategory() == null ? null : normalize(menuItem.getCategory());
+                tags.add(menuItem.getTags() == null ? Set.of() : Set.copyOf(normalizeAll(menuItem.getTags())));
+
+                addTerms(index, doc, terms(menuItem.getName()), NAME_WEIGHT);
+                addTerms(index, doc, terms(menuItem.getCategory()), LABEL_WEIGHT);
+                if (menuItem.getTags() != null) {
+                    menuItem.getTags().forEach(tag -> addTerms(index, doc, terms(tag), LABEL_WEIGHT));
+                }
+                addTerms(index, doc, terms(menuItem.getDescription()), DESCRIPTION_WEIGHT);
+            }
+
+            String[] terms = index.keySet().toArray(String[]::new);
+            Posting[][] postings = new Posting[terms.length][];
+            int position = 0;
+            for (Map<Integer, Integer> docWeights : index.values()) {
+                postings[position++] = docWeights.entrySet().stream()
+                        .map(entry -> new Posting(entry.getKey(), entry.getValue()))
+                        .toArray(Posting[]::new);
+            }
+            return new Snapshot(docs, categories, tags, terms, postings);
+        }
+
+        private static void addTerms(TreeMap<String, Map<Integer, Integer>> index, int doc, List<String> terms, int weight) {
+            for (String term : terms) {
+                index.computeIfAbsent(term, key -> new HashMap<>()).merge(doc, weight, Math::max);
+            }
+        }
+
+        /**
+         * Score per document, or -1 for documents that don't match every word. A word scores the
+         * weight of the best field it matched, doubled for a whole-term match.
+         */
+        int[] score(List<String> words) {
+            int[] scores = new int[docs.length];
+            int[] wordScores = new int[docs.length];
+            for (String word : words) {
+                Arrays.fill(wordScores, 0);
+                int first = Arrays.binarySearch(terms, word);
+                for (int position = first >= 0 ? first : -first - 1;
+                     position < terms.length && terms[position].startsWith(word); position++) {
+                    int factor = terms[position].length() == word.length() ? 2 : 1;
+                    for (Posting posting : postings[position]) {
+                        wordScores[posting.doc] = Math.max(wordScores[posting.doc], posting.weight * factor);
+                    }
+                }
+                for (int doc = 0; doc < docs.length; doc++) {
+                    scores[doc] = scores[doc] < 0 || wordScores[doc] == 0 ? -1 : scores[doc] + wordScores[doc];
+                }
+            }
+            return scores;
+        }
+
+        boolean accepts(int doc, String category, Set<String> requiredTags) {
+            return (category == null || category.equals(categories[doc])) && tags.get(doc).containsAll(requiredTags);
+        }
+    }
+}
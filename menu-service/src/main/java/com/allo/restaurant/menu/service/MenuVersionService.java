@@ -0,0 +1,153 @@
+package com.allo.restaurant.menu.service;
+
+import com.allo.restaurant.menu.entity.MenuItem;
+import com.allo.restaurant.menu.entity.MenuItemRevision;
+import com.allo.restaurant.menu.exception.MenuItemNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Versions each tenant's menu. Every change (a create, update or delete, or a whole import) takes
+ * the next number of the tenant's counter, stamps it on the changed items and records their new
+ * state as immutable {@link MenuItemRevision}s, so the menu at any version can be read back item
+ * by item. Tenants count independently, so one restaurant's edits never contend with another's.
+ * <p>
+ * The live item is written before its revision and is the source of truth for its own version;
+ * revisions serve the older versions.
+ * <p>
+ * A version is taken before its change is written, so the counter runs ahead of what can be read.
+ * Each taken version is listed as pending on the counter, in the same update that takes it, until
+ * {@link #complete} is called once the change is written or has failed. Versions up to the
+ * {@linkplain #committedVersion committed version}, just below the oldest pending one, are fully
+ * written and can be read back; later ones are not served yet. A version left pending by a
+ * process that died is ignored after {@link #ABANDONED_AFTER}.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MenuVersionService {
+
+    private static final String COUNTERS_COLLECTION = "menu_versions";
+    private static final Duration ABANDONED_AFTER = Duration.ofMinutes(1);
+
+    /**
+     * Increments the counter and appends the new version to {@code pending} in one pipeline update.
+     */
+    private static final AggregationUpdate TAKE_NEXT_VERSION = AggregationUpdate.from(List.of(
+            context -> new Document("$set", new Document("version",
+                    new Document("$add", List.of(new Document("$ifNull", List.of("$version", 0L)), 1L)))),
+            context -> new Document("$set", new Document("pending", new Document("$concatArrays", List.of(
+                    new Document("$ifNull", List.of("$pending", List.of())),
+                    List.of(new Document("version", "$version").append("takenAt", "$$NOW"))))))));
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * Takes the tenant's next version, which stays pending until {@link #complete} is called with it.
+     */
+    public long nextVersion(String tenantId) {
+        Document counter = mongoTemplate.findAndModify(query(where("_id").is(tenantId)), TAKE_NEXT_VERSION,
+                FindAndModifyOptions.options().upsert(true).returnNew(true),
+                Document.class, COUNTERS_COLLECTION);
+        return ((Number) counter.get("version")).longValue();
+    }
+
+    /**
+     * Marks {@code version} as no longer pending, whether its change was written or not. Best
+     * effort: a version that stays pending is ignored once abandoned.
+     */
+    public void complete(String tenantId, long version) {
+        try {
+            mongoTemplate.updateFirst(query(where("_id").is(tenantId)),
+                    new Update().pull("pending", new Document("version", version)), COUNTERS_COLLECTION);
+        } catch (RuntimeException e) {
+            log.warn("Could not complete menu version {} of tenant {}: {}", version, tenantId, e.getMessage());
+        }
+    }
+
+    /**
+     * The latest version whose changes, and those of every version before it, are fully written.
+     */
+    public long committedVersion(String tenantId) {
+        Document counter = mongoTemplate.findById(tenantId, Document.class, COUNTERS_COLLECTION);
+        if (counter == null) {
+            return 0;
+        }
+        Date abandonedBefore = Date.from(Instant.now().minus(ABANDONED_AFTER));
+        return counter.getList("pending", Document.class, List.of()).stream()
+                .filter(pending -> pending.getDate("takenAt").after(abandonedBefore))
+                .mapToLong(pending -> ((Number) pending.get("version")).longValue() - 1)
+                .min()
+                .orElse(((Number) counter.get("version")).longValue());
+    }
+
+    public void recordChanges(String tenantId, Collection<MenuItem> changed, Collection<String> deletedIds, long version) {
+        LocalDateTime now = LocalDateTime.now();
+        List<MenuItemRevision> revisions = new ArrayList<>();
+        changed.forEach(menuItem -> revisions.add(revision(menuItem, version, false, now)));
+        deletedIds.forEach(id -> revisions.add(revision(MenuItem.builder().id(id).tenantId(tenantId).build(), version, true, now)));
+        if (!revisions.isEmpty()) {
+            mongoTemplate.insert(revisions, MenuItemRevision.class);
+        }
+    }
+
+    /**
+     * The item as it was at menu {@code version}.
+     *
+     * @throws MenuItemNotFoundException if the item did not exist at that version
+     * @throws IllegalArgumentException   if that version is not committed yet
+     */
+    public MenuItemRevision findAt(String tenantId, String id, long version) {
+        if (version > committedVersion(tenantId)) {
+            throw new IllegalArgumentException("Menu version " + version + " does not exist yet");
+        }
+        MenuItem live = mongoTemplate.findOne(query(where("tenantId").is(tenantId).and("_id").is(id)), MenuItem.class);
+        if (live != null && (live.getVersion() == null || live.getVersion() <= version)) {
+            return revision(live, live.getVersion() == null ? 0 : live.getVersion(), false, live.getUpdatedAt());
+        }
+
+        MenuItemRevision revision = mongoTemplate.findOne(
+                query(where("tenantId").is(tenantId).and("itemId").is(id).and("version").lte(version))
+                        .with(Sort.by(Sort.Direction.DESC, "version"))
+                        .limit(1),
+                MenuItemRevision.class);
+        if (revision == null || revision.isDeleted()) {
+            throw new MenuItemNotFoundException(id);
+        }
+        return revision;
+    }
+
+    private static MenuItemRevision revision(MenuItem menuItem, long version, boolean deleted, LocalDateTime createdAt) {
+        return MenuItemRevision.builder()
+                .id(menuItem.getId() + ":" + version)
+                .tenantId(menuItem.getTenantId())
+                .itemId(menuItem.getId())
+                .version(version)
+                .name(menuItem.getName())
+                .description(menuItem.getDescription())
+                .price(menuItem.getPrice())
+                .category(menuItem.getCategory())
+                .tags(menuItem.getTags())
+                .deleted(deleted)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,314 @@
+package com.allo.restaurant.menu.service;
+
+import com.allo.restaurant.menu.dto.MenuItemResponse;
+import com.allo.restaurant.menu.dto.StockReservationItemRequest;
+import com.allo.restaurant.menu.dto.StockReservationResponse;
+import com.allo.restaurant.menu.entity.MenuItem;
+import com.allo.restaurant.menu.entity.ReservedItem;
+import com.allo.restaurant.menu.entity.StockReservation;
+import com.allo.restaurant.menu.entity.StockReservationStatus;
+import com.allo.restaurant.menu.exception.InsufficientStockException;
+import com.allo.restaurant.menu.exception.MenuItemNotFoundException;
+import com.allo.restaurant.menu.exception.StockReservationConflictException;
+import com.mongodb.client.result.UpdateResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Takes stock for every line of an order in one call. Each line is decremented with a
+ * conditional {@code $inc} that only matches while enough stock is left, so concurrent orders can
+ * never oversell; if any line cannot be taken, the lines already taken are put back and nothing
+ * is reserved.
+ * <p>
+ * Reservations are keyed by the caller's reservation id, which makes retrying a reservation or a
+ * release safe: a reservation that already exists is returned as is and a released one is not
+ * released twice. A reservation only ever touches the items of its own tenant.
+ * <p>
+ * A reservation is inserted as {@link StockReservationStatus#PENDING PENDING} and only becomes
+ * {@link StockReservationStatus#RESERVED RESERVED} once every line has been taken, so neither a
+ * retry nor a release ever acts on stock that is still being taken. Each line is marked on the
+ * pending reservation before its stock is taken, so whoever removes a pending reservation knows
+ * what to put back: the request taking it when it fails, or {@link #sweepStalePending()} when
+ * that request died part way through. At worst a line marked just before a crash is put back
+ * without having been taken.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private final MongoTemplate mongoTemplate;
+
+    /**
+     * How long a reservation may stay pending before it is considered abandoned; far longer than
+     * taking the stock of one order ever takes.
+     */
+    @Value("${menu.reservations.pending-timeout:5m}")
+    private Duration pendingTimeout;
+
+    /**
+     * @param knownVersions menu item versions the caller already holds (may be {@code null}); items
+     *                      still at those versions are returned with only their id, version and stock
+     */
+    public StockReservationResponse reserve(String tenantId, String reservationId, List<StockReservationItemRequest> lines,
+                                            Map<String, Long> knownVersions) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        lines.forEach(line -> quantities.merge(line.getProductId(), line.getQuantity(), Integer::sum));
+
+        StockReservation reservation = StockReservation.builder()
+                .id(reservationId)
+                .tenantId(tenantId)
+                .items(quantities.entrySet().stream()
+                        .map(entry -> new ReservedItem(entry.getKey(), entry.getValue(), false))
+                        .toList())
+                .status(StockReservationStatus.PENDING)
+                .createdAt(LocalDateTime.now())
+                .build();
+        try {
+            mongoTemplate.insert(reservation);
+        } catch (DuplicateKeyException e) {
+            return replay(tenantId, reservationId, knownVersions);
+        }
+
+        Map<String, Integer> taken = new LinkedHashMap<>();
+        List<MenuItem> reserved;
+        UpdateResult held;
+        try {
+            reserved = take(tenantId, reservationId, quantities, taken);
+            List<ReservedItem> items = reserved.stream()
+                    .map(menuItem -> new ReservedItem(menuItem.getId(), quantities.get(menuItem.getId()), menuItem.getStock() != null))
+                    .toList();
+            held = mongoTemplate.updateFirst(takingStock(tenantId, reservationId),
+                    new Update().set("status", StockReservationStatus.RESERVED).set("items", items), StockReservation.class);
+        } catch (RuntimeException e) {
+            abandon(tenantId, reservationId, taken);
+            throw e;
+        }
+        if (held.getMatchedCount() == 0) {
+            abandon(tenantId, reservationId, taken);
+            throw new StockReservationConflictException(reservationId, "was released while it was being reserved");
+        }
+        return response(reservationId, reserved, knownVersions);
+    }
+
+    /**
+     * Puts the reserved stock back. Releasing an unknown or already released reservation does
+     * nothing. A pending reservation's stock is left alone: it is only marked for release, and the
+     * request still taking its stock puts back what it took when it finds the mark.
+     */
+    public void release(String tenantId, String reservationId) {
+        StockReservation reservation = mongoTemplate.findAndModify(
+                withStatus(tenantId, reservationId, StockReservationStatus.RESERVED),
+                new Update().set("status", StockReservationStatus.RELEASED).set("releasedAt", LocalDateTime.now()),
+                StockReservation.class);
+        if (reservation == null) {
+            mongoTemplate.updateFirst(withStatus(tenantId, reservationId, StockReservationStatus.PENDING),
+                    new Update().set("releaseRequested", true), StockReservation.class);
+            return;
+        }
+
+        putBack(tenantId, tracked(reservation.getItems()));
+        log.info("Released stock reservation {}", reservationId);
+    }
+
+    /**
+     * Puts back the stock marked on reservations left pending for longer than the pending timeout,
+     * by a request that died or lost MongoDB part way through, and removes them. Each reservation
+     * is claimed by removing it, so only one instance puts its stock back.
+     */
+    @Scheduled(initialDelayString = "${menu.reservations.sweep-interval:1m}",
+            fixedDelayString = "${menu.reservations.sweep-interval:1m}")
+    public void sweepStalePending() {
+        try {
+            List<StockReservation> stale = mongoTemplate.find(query(where("status").is(StockReservationStatus.PENDING)
+                    .and("createdAt").lt(LocalDateTime.now().minus(pendingTimeout))), StockReservation.class);
+            for (StockReservation reservation : stale) {
+                StockReservation claimed = mongoTemplate.findAndRemove(
+                        withStatus(reservation.getTenantId(), reservation.getId(), StockReservationStatus.PENDING),
+                        StockReservation.class);
+                if (claimed != null) {
+                    putBack(claimed.getTenantId(), tracked(claimed.getItems()));
+                    log.warn("Put back the stock of stock reservation {}, pending since {}", claimed.getId(), claimed.getCreatedAt());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not sweep stale stock reservations: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Removes a reservation that could not be completed and puts back the stock this request took.
+     * If the reservation cannot be removed, it stays pending with its lines marked and the sweep
+     * puts the stock back; if it is already gone, the sweep has put it back.
+     */
+    private void abandon(String tenantId, String reservationId, Map<String, Integer> taken) {
+        try {
+            if (mongoTemplate.findAndRemove(withStatus(tenantId, reservationId, StockReservationStatus.PENDING),
+                    StockReservation.class) != null) {
+                putBack(tenantId, taken);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not abandon stock reservation {}, leaving it to the sweep: {}", reservationId, e.getMessage());
+        }
+    }
+
+    /**
+     * @param taken filled with the lines whose stock has been taken, for {@link #abandon} to put
+     *              back if the reservation fails
+     */
+    private List<MenuItem> take(String tenantId, String reservationId, Map<String, Integer> quantities, Map<String, Integer> taken) {
+        Map<String, MenuItem> menuItems = mongoTemplate.find(byIds(tenantId, quantities.keySet()), MenuItem.class)
+                .stream()
+                .collect(Collectors.toMap(MenuItem::getId, Function.identity()));
+        quantities.keySet().stream()
+                .filter(productId -> !menuItems.containsKey(productId))
+                .findFirst()
+                .ifPresent(productId -> {
+                    throw new MenuItemNotFoundException(productId);
+                });
+
+        Map<String, Integer> shortages = new LinkedHashMap<>();
+        quantities.forEach((productId, quantity) -> {
+            Integer stock = menuItems.get(productId).getStock();
+            if (stock != null && stock < quantity) {
+                shortages.put(productId, stock);
+            }
+        });
+        if (!shortages.isEmpty()) {
+            throw new InsufficientStockException(shortages);
+        }
+
+        List<MenuItem> reserved = new ArrayList<>();
+        int line = 0;
+        for (Map.Entry<String, Integer> entry : quantities.entrySet()) {
+            MenuItem menuItem = menuItems.get(entry.getKey());
+            int position = line++;
+            if (menuItem.getStock() == null) {
+                reserved.add(menuItem);
+                continue;
+            }
+            UpdateResult marked = mongoTemplate.updateFirst(takingStock(tenantId, reservationId),
+                    new Update().set("items." + position + ".tracked", true), StockReservation.class);
+            if (marked.getMatchedCount() == 0) {
+                throw new StockReservationConflictException(reservationId, "was released while it was being reserved");
+            }
+            MenuItem decremented = mongoTemplate.findAndModify(
+                    query(where("tenantId").is(tenantId).and("_id").is(entry.getKey()).and("stock").gte(entry.getValue())),
+                    new Update().inc("stock", -entry.getValue()),
+                    FindAndModifyOptions.options().returnNew(true),
+                    MenuItem.class);
+            if (decremented == null) {
+                throw new InsufficientStockException(shortages(tenantId, quantities));
+            }
+            taken.put(entry.getKey(), entry.getValue());
+            reserved.add(decremented);
+        }
+        return reserved;
+    }
+
+    /**
+     * Puts back the stock taken by a released reservation, or by one that failed part way through.
+     */
+    private void putBack(String tenantId, Map<String, Integer> taken) {
+        if (taken.isEmpty()) {
+            return;
+        }
+        BulkOperations bulkOps = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class);
+        taken.forEach((productId, quantity) -> bulkOps.updateOne(
+                query(where("tenantId").is(tenantId).and("_id").is(productId)), new Update().inc("stock", quantity)));
+        bulkOps.execute();
+    }
+
+    private static Map<String, Integer> tracked(List<ReservedItem> items) {
+        Map<String, Integer> tracked = new LinkedHashMap<>();
+        items.stream()
+                .filter(ReservedItem::isTracked)
+                .forEach(item -> tracked.put(item.getProductId(), item.getQuantity()));
+        return tracked;
+    }
+
+    private Map<String, Integer> shortages(String tenantId, Map<String, Integer> quantities) {
+        Map<String, Integer> shortages = new LinkedHashMap<>();
+        mongoTemplate.find(byIds(tenantId, quantities.keySet()), MenuItem.class).stream()
+                .filter(menuItem -> menuItem.getStock() != null && menuItem.getStock() < quantities.get(menuItem.getId()))
+                .forEach(menuItem -> shortages.put(menuItem.getId(), menuItem.getStock()));
+        return shortages;
+    }
+
+    private StockReservationResponse replay(String tenantId, String reservationId, Map<String, Long> knownVersions) {
+        StockReservation existing = mongoTemplate.findById(reservationId, StockReservation.class);
+        if (existing != null && !tenantId.equals(existing.getTenantId())) {
+            throw new StockReservationConflictException(reservationId, "belongs to another tenant");
+        }
+        if (existing != null && existing.getStatus() == StockReservationStatus.PENDING) {
+            throw new StockReservationConflictException(reservationId, "is still being reserved");
+        }
+        if (existing == null || existing.getStatus() != StockReservationStatus.RESERVED) {
+            throw new StockReservationConflictException(reservationId, "has already been released");
+        }
+        List<String> productIds = existing.getItems().stream().map(ReservedItem::getProductId).toList();
+        return response(reservationId, mongoTemplate.find(byIds(tenantId, productIds), MenuItem.class), knownVersions);
+    }
+
+    private static Query withStatus(String tenantId, String reservationId, StockReservationStatus status) {
+        return query(where("tenantId").is(tenantId).and("_id").is(reservationId).and("status").is(status));
+    }
+
+    /**
+     * The pending reservation, as long as it has not been marked for release.
+     */
+    private static Query takingStock(String tenantId, String reservationId) {
+        return query(where("tenantId").is(tenantId).and("_id").is(reservationId)
+                .and("status").is(StockReservationStatus.PENDING).and("releaseRequested").ne(true));
+    }
+
+    private static Query byIds(String tenantId, Collection<String> ids) {
+        return query(where("tenantId").is(tenantId).and("_id").in(ids));
+    }
+
+    private StockReservationResponse response(String reservationId, List<MenuItem> menuItems, Map<String, Long> knownVersions) {
+        List<MenuItemResponse> items = menuItems.stream()
+                .map(menuItem -> isKnown(menuItem, knownVersions) ? withoutDetails(menuItem) : MenuItemService.mapToResponse(menuItem))
+                .toList();
+        return StockReservationResponse.builder()
+                .reservationId(reservationId)
+                .items(items)
+                .build();
+    }
+
+    private static boolean isKnown(MenuItem menuItem, Map<String, Long> knownVersions) {
+        return knownVersions != null && menuItem.getVersion() != null
+                && menuItem.getVersion().equals(knownVersions.get(menuItem.getId()));
+    }
+
+    private static MenuItemResponse withoutDetails(MenuItem menuItem) {
+        return MenuItemResponse.builder()
+                .id(menuItem.getId())
+                .version(menuItem.getVersion())
+                .stock(menuItem.getStock())
+                .available(menuItem.getStock() == null || menuItem.getStock() > 0)
+                .build();
+    }
+}
@@ -0,0 +1,101 @@
+package com.allo.restaurant.menu.benchmark;
+
+import com.allo.restaurant.menu.dto.MenuItemListResponse;
+import com.allo.restaurant.menu.dto.MenuItemResponse;
+import com.allo.restaurant.menu.json.MenuItemPayloads;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures writing a menu page of unchanged items, from the item responses the service builds for
+ * every request to the response bytes.
+ * <ul>
+ *     <li>{@code jackson}: the page encoded by the application's {@code ObjectMapper}.</li>
+ *     <li>{@code cached}: {@link MenuItemPayloads#page}, which checks each item against its cached
+ *     JSON and has Jackson write the envelope around it.</li>
+ * </ul>
+ * The GC profiler is enabled, so {@code gc.alloc.rate.norm} reports bytes allocated per page.
+ * Run with {@code ./mvnw test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.allo.restaurant.menu.benchmark.MenuPayloadBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MenuPayloadBenchmark {
+
+    private static final String TENANT = "downtown";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 1, 15, 12, 30);
+
+    @Param({"10", "50"})
+    public int items;
+
+    private ObjectMapper objectMapper;
+    private MenuItemPayloads menuItemPayloads;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new BlackbirdModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        menuItemPayloads = new MenuItemPayloads(objectMapper);
+        menuItemPayloads.page(TENANT, page());
+    }
+
+    @Benchmark
+    public byte[] jackson() throws Exception {
+        return objectMapper.writeValueAsBytes(page());
+    }
+
+    @Benchmark
+    public byte[] cached() {
+        return menuItemPayloads.page(TENANT, page());
+    }
+
+    private MenuItemListResponse page() {
+        return MenuItemListResponse.builder()
+                .items(IntStream.range(0, items).mapToObj(MenuPayloadBenchmark::item).toList())
+                .totalRecords(500)
+                .build();
+    }
+
+    private static MenuItemResponse item(int i) {
+        return MenuItemResponse.builder()
+                .id("65f1c2a9e4b0a1b2c3d4%04x".formatted(i))
+                .name("Item " + i)
+                .description("House specialty number " + i + ", made fresh every morning with local ingredients")
+                .price(new BigDecimal("14.90"))
+                .category("mains")
+                .tags(List.of("vegetarian", "popular"))
+                .stock(20 + i)
+                .available(true)
+                .version(40L + i)
+                .createdAt(CREATED_AT)
+                .updatedAt(CREATED_AT.plusDays(i))
+                .build();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MenuPayloadBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
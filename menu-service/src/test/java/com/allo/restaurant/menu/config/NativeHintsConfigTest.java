@@ -0,0 +1,36 @@
+package com.allo.restaurant.menu.config;
+
+import com.allo.restaurant.menu.dto.MenuItemImportRow;
+import com.allo.restaurant.menu.entity.MenuItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeHintsConfig.DataTypeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Should let Jackson construct and populate rows of a menu import")
+    void shouldRegisterImportRows() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(MenuItemImportRow.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(MenuItemImportRow.class, "setPrice")).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Should let the Mongo converter reach entity fields")
+    void shouldRegisterEntityFields() {
+        assertThat(RuntimeHintsPredicates.reflection().onField(MenuItem.class, "tenantId")).accepts(hints);
+    }
+}
@@ -0,0 +1,64 @@
+package com.allo.restaurant.menu.controller;
+
+import com.allo.restaurant.menu.dto.MenuItemListResponse;
+import com.allo.restaurant.menu.dto.MenuItemLookupRequest;
+import com.allo.restaurant.menu.dto.MenuItemResponse;
+import com.allo.restaurant.menu.exception.MenuItemNotFoundException;
+import com.allo.restaurant.menu.service.MenuItemService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuItemRSocketControllerTest {
+
+    private static final String TENANT = "downtown";
+
+    @Mock
+    private MenuItemService menuItemService;
+
+    @InjectMocks
+    private MenuItemRSocketController controller;
+
+    private MenuItemResponse item(String id) {
+        return MenuItemResponse.builder().id(id).name("Item " + id).version(1L).available(true).build();
+    }
+
+    @Test
+    @DisplayName("Should complete empty for a missing item instead of failing")
+    void shouldCompleteEmptyForMissingItem() {
+        when(menuItemService.getMenuItemById(TENANT, "item-1")).thenReturn(item("item-1"));
+        when(menuItemService.getMenuItemById(TENANT, "missing")).thenThrow(new MenuItemNotFoundException("missing"));
+
+        assertThat(controller.getMenuItemById(TENANT, "item-1").block()).isEqualTo(item("item-1"));
+        assertThat(controller.getMenuItemById(TENANT, "missing").blockOptional()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should stream the items found by a batch lookup")
+    void shouldStreamLookedUpItems() {
+        when(menuItemService.getMenuItemsByIds(TENANT, List.of("item-1", "item-2", "missing")))
+                .thenReturn(MenuItemListResponse.builder().items(List.of(item("item-1"), item("item-2"))).totalRecords(2).build());
+
+        List<MenuItemResponse> items = controller.getMenuItemsByIds(TENANT,
+                MenuItemLookupRequest.builder().ids(List.of("item-1", "item-2", "missing")).build()).collectList().block();
+
+        assertThat(items).extracting(MenuItemResponse::getId).containsExactly("item-1", "item-2");
+    }
+
+    @Test
+    @DisplayName("Should reject a malformed tenant in the route before reading the menu")
+    void shouldRejectMalformedTenant() {
+        assertThatThrownBy(() -> controller.getMenuItemById("Not.A.Tenant", "item-1").block())
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(menuItemService);
+    }
+}
@@ -0,0 +1,92 @@
+package com.allo.restaurant.menu.json;
+
+import com.allo.restaurant.menu.dto.MenuItemListResponse;
+import com.allo.restaurant.menu.dto.MenuItemResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MenuItemPayloadsTest {
+
+    private static final String TENANT = "downtown";
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .registerModule(new BlackbirdModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private MenuItemPayloads menuItemPayloads;
+
+    @BeforeEach
+    void setUp() {
+        menuItemPayloads = new MenuItemPayloads(objectMapper);
+    }
+
+    private MenuItemResponse item(String id, Integer stock) {
+        return MenuItemResponse.builder()
+                .id(id)
+                .name("Pizza")
+                .description("Delicious cheese pizza")
+                .price(new BigDecimal("14.90"))
+                .category("mains")
+                .tags(List.of("vegetarian"))
+                .stock(stock)
+                .available(stock == null || stock > 0)
+                .version(5L)
+                .createdAt(LocalDateTime.of(2025, 1, 15, 12, 30))
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should write pages exactly as Jackson would")
+    void shouldWritePagesLikeJackson() throws Exception {
+        MenuItemResponse dessert = item("item-3", 1);
+        dessert.setName("Crème brûlée");
+        MenuItemListResponse page = MenuItemListResponse.builder()
+                .items(List.of(item("item-1", 3), item("item-2", null), dessert))
+                .totalRecords(12)
+                .build();
+        MenuItemListResponse empty = MenuItemListResponse.builder().items(List.of()).totalRecords(0).build();
+
+        assertThat(menuItemPayloads.page(TENANT, page)).isEqualTo(objectMapper.writeValueAsBytes(page));
+        assertThat(menuItemPayloads.page(TENANT, empty)).isEqualTo(objectMapper.writeValueAsBytes(empty));
+    }
+
+    @Test
+    @DisplayName("Should reuse an item's JSON until its version, stock or update time changes")
+    void shouldReuseUnchangedItems() throws Exception {
+        MenuItemResponse pizza = item("item-1", 3);
+        byte[] json = menuItemPayloads.item(TENANT, pizza);
+        pizza.setName("Renamed without a new version");
+
+        assertThat(menuItemPayloads.item(TENANT, pizza)).isEqualTo(json);
+        assertThat(menuItemPayloads.item(TENANT, item("item-1", 2)))
+                .isEqualTo(objectMapper.writeValueAsBytes(item("item-1", 2)));
+        MenuItemResponse restocked = item("item-1", 2);
+        restocked.setUpdatedAt(LocalDateTime.of(2025, 1, 16, 9, 0));
+        assertThat(menuItemPayloads.item(TENANT, restocked)).isEqualTo(objectMapper.writeValueAsBytes(restocked));
+        assertThat(menuItemPayloads.item("uptown", pizza)).isEqualTo(objectMapper.writeValueAsBytes(pizza));
+    }
+
+    @Test
+    @DisplayName("Should forget deleted items")
+    void shouldEvictDeletedItems() throws Exception {
+        MenuItemResponse pizza = item("item-1", 3);
+        menuItemPayloads.item(TENANT, pizza);
+        pizza.setName("Recreated");
+
+        menuItemPayloads.evict(TENANT, List.of("item-1"));
+
+        assertThat(menuItemPayloads.item(TENANT, pizza)).isEqualTo(objectMapper.writeValueAsBytes(pizza));
+    }
+}
@@ -0,0 +1,105 @@
+package com.allo.restaurant.menu.messaging;
+
+import com.allo.restaurant.menu.dto.MenuItemChangeEvent;
+import com.allo.restaurant.menu.dto.MenuItemChangeType;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.UpdateDescription;
+import org.bson.BsonDateTime;
+import org.bson.BsonDecimal128;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonObjectId;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MenuChangeStreamPublisherTest {
+
+    private static final String TENANT = "downtown";
+    private static final ObjectId ITEM_ID = new ObjectId();
+    private static final long WALL_TIME = 1_700_000_000_000L;
+
+    private static ChangeStreamDocument<Document> change(String operationType, Document fullDocument, Document before,
+                                                         UpdateDescription updateDescription) {
+        return new ChangeStreamDocument<>(operationType, new BsonDocument(), null, null, fullDocument, before,
+                new BsonDocument("_id", new BsonObjectId(ITEM_ID)), new BsonTimestamp(1_700_000_000, 1),
+                updateDescription, null, null, new BsonDateTime(WALL_TIME), null, null);
+    }
+
+    private static Document pizza() {
+        return new Document("_id", ITEM_ID)
+                .append("tenantId", TENANT)
+                .append("name", "Pizza")
+                .append("price", "14.90")
+                .append("stock", 5)
+                .append("version", 3L)
+                .append("_class", "com.allo.restaurant.menu.entity.MenuItem");
+    }
+
+    @Nested
+    @DisplayName("toEvent")
+    class ToEventTests {
+
+        @Test
+        @DisplayName("Should publish every field of a created item except its keys")
+        void shouldPublishCreatedItem() {
+            MenuItemChangeEvent event = MenuChangeStreamPublisher.toEvent(change("insert", pizza(), null, null));
+
+            assertThat(event.getTenantId()).isEqualTo(TENANT);
+            assertThat(event.getId()).isEqualTo(ITEM_ID.toHexString());
+            assertThat(event.getChange()).isEqualTo(MenuItemChangeType.CREATED);
+            assertThat(event.getFields()).containsOnlyKeys("name", "price", "stock", "version");
+            assertThat(event.getOccurredAt())
+                    .isEqualTo(LocalDateTime.ofInstant(new Date(WALL_TIME).toInstant(), ZoneId.systemDefault()));
+        }
+
+        @Test
+        @DisplayName("Should publish only the updated and removed fields, taking the tenant from the pre-image")
+        void shouldPublishUpdatedFields() {
+            Date updatedAt = new Date(WALL_TIME);
+            BsonDocument updated = new BsonDocument("stock", new BsonInt32(4))
+                    .append("price", new BsonDecimal128(Decimal128.parse("3.20")))
+                    .append("updatedAt", new BsonDateTime(updatedAt.getTime()));
+
+            MenuItemChangeEvent event = MenuChangeStreamPublisher.toEvent(
+                    change("update", null, pizza(), new UpdateDescription(List.of("description"), updated)));
+
+            assertThat(event.getTenantId()).isEqualTo(TENANT);
+            assertThat(event.getChange()).isEqualTo(MenuItemChangeType.UPDATED);
+            assertThat(event.getFields())
+                    .containsEntry("stock", 4)
+                    .containsEntry("price", new BigDecimal("3.20"))
+                    .containsEntry("updatedAt", LocalDateTime.ofInstant(updatedAt.toInstant(), ZoneId.systemDefault()))
+                    .containsEntry("description", null)
+                    .hasSize(4);
+        }
+
+        @Test
+        @DisplayName("Should publish a deletion without fields")
+        void shouldPublishDeletion() {
+            MenuItemChangeEvent event = MenuChangeStreamPublisher.toEvent(change("delete", null, pizza(), null));
+
+            assertThat(event.getChange()).isEqualTo(MenuItemChangeType.DELETED);
+            assertThat(event.getFields()).isEmpty();
+            assertThat(MenuChangeStreamPublisher.routingKey(event)).isEqualTo("menu.downtown.deleted");
+        }
+
+        @Test
+        @DisplayName("Should skip changes whose tenant is unknown")
+        void shouldSkipUnknownTenant() {
+            assertThat(MenuChangeStreamPublisher.toEvent(change("delete", null, null, null))).isNull();
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.allo.restaurant.menu.repository;
+
+import com.allo.restaurant.menu.config.MongoOperationProperties;
+import com.allo.restaurant.menu.config.MongoOperationRouting;
+import com.allo.restaurant.menu.entity.MenuItem;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository against a single-node replica set and checks the read preference on the
+ * commands the driver actually sends.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MenuItemRepositoryRoutingTest {
+
+    private static final String TENANT = "downtown";
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private final List<CommandStartedEvent> commands = new CopyOnWriteArrayList<>();
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private MenuItemRepository menuItemRepository;
+
+    @BeforeEach
+    void setUp() {
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(MONGO.getReplicaSetUrl()))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        commands.add(event);
+                    }
+                })
+                .build());
+
+        MongoOperationProperties.Operation listing = new MongoOperationProperties.Operation();
+        listing.setReadPreference("secondaryPreferred");
+        listing.setMaxStaleness(Duration.ofSeconds(90));
+        MongoOperationProperties properties = new MongoOperationProperties();
+        properties.setOperations(Map.of(MongoOperationRouting.MENU_LISTING, listing));
+        MongoOperationRouting routing = new MongoOperationRouting(properties);
+
+        mongoTemplate = new MongoTemplate(new SimpleMongoClientDatabaseFactory(mongoClient, "menu-service"));
+        mongoTemplate.dropCollection(MenuItem.class);
+        menuItemRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(MenuItemRepository.class,
+                RepositoryFragments.just(new MenuItemListingRepositoryImpl(mongoTemplate, routing)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoClient.close();
+    }
+
+    private MenuItem item(String id) {
+        return MenuItem.builder()
+                .id(id)
+                .tenantId(TENANT)
+                .name("Item " + id)
+                .price(new BigDecimal("9.90"))
+                .build();
+    }
+
+    private List<BsonDocument> sent(String commandName) {
+        return commands.stream()
+                .filter(event -> event.getCommandName().equals(commandName))
+                .map(CommandStartedEvent::getCommand)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should read listing pages and their counts from a secondary with bounded staleness")
+    void shouldReadListingFromSecondary() {
+        mongoTemplate.insertAll(List.of(item("item-1"), item("item-2"), item("item-3")));
+        commands.clear();
+
+        Page<MenuItem> page = menuItemRepository.findListing(TENANT, PageRequest.of(0, 2));
+
+        assertThat(page.getContent()).hasSize(2);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(List.of(sent("find"), sent("aggregate"))).allSatisfy(reads -> assertThat(reads).singleElement()
+                .satisfies(read -> {
+                    BsonDocument readPreference = read.getDocument("$readPreference");
+                    assertThat(readPreference.getString("mode").getValue()).isEqualTo("secondaryPreferred");
+                    assertThat(readPreference.getNumber("maxStalenessSeconds").longValue()).isEqualTo(90);
+                }));
+    }
+
+    @Test
+    @DisplayName("Should keep lookups by id on the primary")
+    void shouldReadItemsByIdFromPrimary() {
+        mongoTemplate.insert(item("item-1"));
+        commands.clear();
+
+        assertThat(menuItemRepository.findByTenantIdAndId(TENANT, "item-1")).isPresent();
+
+        // A direct connection to a replica set member sends primary reads as primaryPreferred.
+        assertThat(sent("find")).singleElement()
+                .satisfies(find -> assertThat(find.getDocument("$readPreference", new BsonDocument())
+                        .getString("mode", new BsonString("primary")).getValue()).isIn("primary", "primaryPreferred"));
+    }
+}
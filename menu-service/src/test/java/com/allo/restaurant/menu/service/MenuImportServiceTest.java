@@ -0,0 +1,229 @@
+package com.allo.restaurant.menu.service;
+
+import com.allo.restaurant.menu.dto.*;
+import com.allo.restaurant.menu.entity.MenuItem;
+import com.allo.restaurant.menu.exception.InvalidMenuImportException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuImportServiceTest {
+
+    private static final String TENANT = "downtown";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private MenuSearchIndex menuSearchIndex;
+
+    @Mock
+    private MenuVersionService menuVersionService;
+
+    private MenuImportService menuImportService;
+
+    private MenuItem pizza;
+    private MenuItem pasta;
+
+    @BeforeEach
+    void setUp() {
+        menuImportService = new MenuImportService(mongoTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), menuSearchIndex, menuVersionService);
+        ReflectionTestUtils.setField(menuImportService, "maxImportSize", 10);
+
+        pizza = MenuItem.builder()
+                .id("item-1")
+                .tenantId(TENANT)
+                .name("Pizza")
+                .description("Delicious cheese pizza")
+                .price(new BigDecimal("12.90"))
+                .createdAt(LocalDateTime.now())
+                .build();
+        pasta = MenuItem.builder()
+                .id("item-2")
+                .tenantId(TENANT)
+                .name("Pasta")
+                .description("Carbonara")
+                .price(new BigDecimal("10.00"))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private MenuItemImportRow row(String id, String name, String description, String price) {
+        return MenuItemImportRow.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .price(price == null ? null : new BigDecimal(price))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("importMenu")
+    class ImportMenuTests {
+
+        @Test
+        @DisplayName("Should create, update and delete only what changed, in one batch and one menu version")
+        void shouldApplyDiffInOneBatch() {
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(pizza, pasta));
+            when(menuVersionService.nextVersion(TENANT)).thenReturn(7L);
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class)).thenReturn(bulkOperations);
+
+            MenuImportResponse response = menuImportService.importMenu(TENANT, List.of(
+                    row(null, "Pizza", "Delicious cheese pizza", "12.9"),
+                    row("item-2", "Pasta Carbonara", "Carbonara", "10.00"),
+                    row(null, "Salad", "Green salad", "7.50")), true);
+
+            assertThat(response.getReceived()).isEqualTo(3);
+            assertThat(response.getCreated()).isEqualTo(1);
+            assertThat(response.getUpdated()).isEqualTo(1);
+            assertThat(response.getUnchanged()).isEqualTo(1);
+            assertThat(response.getDeleted()).isZero();
+            assertThat(response.getChanges()).extracting(MenuItemChange::getName, MenuItemChange::getChange)
+                    .containsExactly(
+                            tuple("Pasta Carbonara", MenuItemChangeType.UPDATED),
+                            tuple("Salad", MenuItemChangeType.CREATED));
+
+            verify(bulkOperations).updateOne(any(Query.class), any(Update.class));
+            verify(bulkOperations).insert(any(MenuItem.class));
+            verify(bulkOperations, never()).remove(any(Query.class));
+            verify(bulkOperations).execute();
+            verify(menuSearchIndex).apply(eq(TENANT), argThat(items -> items.size() == 2), eq(List.of()));
+            verify(menuVersionService).recordChanges(eq(TENANT),
+                    argThat(items -> items.stream().allMatch(item -> item.getVersion() == 7L && TENANT.equals(item.getTenantId())) && items.size() == 2),
+                    eq(List.of()), eq(7L));
+        }
+
+        @Test
+        @DisplayName("Should delete items missing from the upload only when requested")
+        void shouldDeleteMissingItems() {
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(pizza, pasta));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class)).thenReturn(bulkOperations);
+
+            MenuImportResponse response = menuImportService.importMenu(TENANT, 
+                    List.of(row("item-1", "Pizza", "Delicious cheese pizza", "12.90")), true);
+
+            assertThat(response.getDeleted()).isEqualTo(1);
+            assertThat(response.getChanges()).containsExactly(MenuItemChange.builder()
+                    .id("item-2").name("Pasta").change(MenuItemChangeType.DELETED).build());
+            verify(bulkOperations).remove(any(Query.class));
+            verify(bulkOperations).execute();
+            verify(menuSearchIndex).apply(TENANT, List.of(), List.of("item-2"));
+        }
+
+        @Test
+        @DisplayName("Should not write anything when the upload matches the current menu")
+        void shouldSkipWriteWhenNothingChanged() {
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(pizza, pasta));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class)).thenReturn(bulkOperations);
+
+            MenuImportResponse response = menuImportService.importMenu(TENANT, 
+                    List.of(row(null, "Pizza", "Delicious cheese pizza", "12.90")), false);
+
+            assertThat(response.getUnchanged()).isEqualTo(1);
+            assertThat(response.getChanges()).isEmpty();
+            verifyNoInteractions(bulkOperations);
+            verify(menuVersionService, never()).recordChanges(any(), any(), any(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should reject the whole upload when any row is invalid")
+        void shouldRejectInvalidRows() {
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(pizza));
+
+            assertThatThrownBy(() -> menuImportService.importMenu(TENANT, List.of(
+                    row("unknown", "Soup", "Tomato soup", "5.00"),
+                    row(null, "Salad", "", "0"),
+                    row(null, "Salad", "Green salad", "7.50")), true))
+                    .isInstanceOf(InvalidMenuImportException.class)
+                    .satisfies(e -> assertThat(((InvalidMenuImportException) e).getErrors())
+                            .containsEntry("[0].id", "Menu item not found with id: unknown")
+                            .containsEntry("[1].description", "Description is required")
+                            .containsEntry("[1].price", "Price must be greater than 0")
+                            .containsEntry("[2].name", "Duplicate name in import"));
+
+            verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(MenuItem.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("readCsv")
+    class ReadCsvTests {
+
+        @Test
+        @DisplayName("Should read rows by header, treating an empty id as a new item")
+        void shouldReadRows() {
+            String csv = """
+                    id,name,description,price
+                    item-1,Pizza,Delicious cheese pizza,12.90
+                    ,Salad,"Green salad, no dressing",7.50
+                    """;
+
+            List<MenuItemImportRow> rows = menuImportService.readCsv(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(rows).hasSize(2);
+            assertThat(rows.get(0).getId()).isEqualTo("item-1");
+            assertThat(rows.get(1).getDescription()).isEqualTo("Green salad, no dressing");
+            assertThat(rows.get(1).getPrice()).isEqualByComparingTo(new BigDecimal("7.50"));
+        }
+
+        @Test
+        @DisplayName("Should read the optional category and semicolon-separated tags")
+        void shouldReadCategoryAndTags() {
+            String csv = """
+                    id,name,description,price,category,tags
+                    ,Margherita,Tomato and basil,11.00,Pizza,vegetarian;classic
+                    ,Water,Still,2.00,,
+                    """;
+
+            List<MenuItemImportRow> rows = menuImportService.readCsv(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(rows.get(0).getCategory()).isEqualTo("Pizza");
+            assertThat(rows.get(0).getTags()).containsExactly("vegetarian", "classic");
+            assertThat(rows.get(1).getTags()).isNullOrEmpty();
+        }
+
+        @Test
+        @DisplayName("Should report the row that cannot be parsed")
+        void shouldRejectMalformedRow() {
+            String csv = """
+                    id,name,description,price
+                    ,Salad,Green salad,not-a-price
+                    """;
+
+            assertThatThrownBy(() -> menuImportService.readCsv(
+                    new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8))))
+                    .isInstanceOf(InvalidMenuImportException.class)
+                    .satisfies(e -> assertThat(((InvalidMenuImportException) e).getErrors())
+                            .containsEntry("[0]", "Malformed CSV row"));
+        }
+    }
+}
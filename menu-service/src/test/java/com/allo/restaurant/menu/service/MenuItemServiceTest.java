@@ -10,26 +10,44 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.*;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class MenuItemServiceTest {
 
+    private static final String TENANT = "downtown";
+
     @Mock
     private MenuItemRepository menuItemRepository;
 
+    @Mock
+    private MenuSearchIndex menuSearchIndex;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private MenuVersionService menuVersionService;
+
     @InjectMocks
     private MenuItemService menuItemService;
 
@@ -39,6 +57,7 @@ class MenuItemServiceTest {
     void setUp() {
         savedMenuItem = MenuItem.builder()
                 .id("item-1")
+                .tenantId(TENANT)
                 .name("Pizza")
                 .description("Delicious cheese pizza")
                 .price(new BigDecimal("12.90"))
@@ -59,9 +78,11 @@ class MenuItemServiceTest {
                     .price(new BigDecimal("12.90"))
                     .build();
 
+            savedMenuItem.setVersion(4L);
+            when(menuVersionService.nextVersion(TENANT)).thenReturn(4L);
             when(menuItemRepository.save(any(MenuItem.class))).thenReturn(savedMenuItem);
 
-            MenuItemResponse response = menuItemService.createMenuItem(request);
+            MenuItemResponse response = menuItemService.createMenuItem(TENANT, request);
 
             assertThat(response).isNotNull();
             assertThat(response.getId()).isEqualTo("item-1");
@@ -69,6 +90,10 @@ class MenuItemServiceTest {
             assertThat(response.getDescription()).isEqualTo("Delicious cheese pizza");
             assertThat(response.getPrice()).isEqualByComparingTo(new BigDecimal("12.90"));
             assertThat(response.getCreatedAt()).isNotNull();
+            assertThat(response.getVersion()).isEqualTo(4L);
+            verify(menuItemRepository).save(argThat(menuItem -> menuItem.getVersion() == 4L && TENANT.equals(menuItem.getTenantId())));
+            verify(menuVersionService).recordChanges(TENANT, List.of(savedMenuItem), List.of(), 4L);
+            verify(menuVersionService).complete(TENANT, 4L);
         }
     }
 
@@ -94,10 +119,15 @@ class MenuItemServiceTest {
                     .updatedAt(LocalDateTime.now())
                     .build();
 
-            when(menuItemRepository.findById("item-1")).thenReturn(Optional.of(savedMenuItem));
-            when(menuItemRepository.save(any(MenuItem.class))).thenReturn(updatedMenuItem);
+            when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MenuItem.class)))
+                    .thenReturn(updatedMenuItem);
 
-            MenuItemResponse response = menuItemService.updateMenuItem("item-1", request);
+            MenuItemResponse response = menuItemService.updateMenuItem(TENANT, "item-1", request);
+
+            ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+            verify(mongoTemplate).findAndModify(any(Query.class), update.capture(), any(FindAndModifyOptions.class), eq(MenuItem.class));
+            assertThat(update.getValue().modifies("stock")).isFalse();
+            verify(menuItemRepository, never()).save(any());
 
             assertThat(response.getId()).isEqualTo("item-1");
             assertThat(response.getName()).isEqualTo("Burguer");
@@ -115,13 +145,30 @@ class MenuItemServiceTest {
                     .price(new BigDecimal("10.00"))
                     .build();
 
-            when(menuItemRepository.findById("non-existent")).thenReturn(Optional.empty());
-
-            assertThatThrownBy(() -> menuItemService.updateMenuItem("non-existent", request))
+            assertThatThrownBy(() -> menuItemService.updateMenuItem(TENANT, "non-existent", request))
                     .isInstanceOf(MenuItemNotFoundException.class)
                     .hasMessageContaining("non-existent");
 
             verify(menuItemRepository, never()).save(any());
+            verifyNoInteractions(menuSearchIndex);
+        }
+    }
+
+    @Nested
+    @DisplayName("updateStock")
+    class UpdateStockTests {
+
+        @Test
+        @DisplayName("Should set the stock and report the item as unavailable when none is left")
+        void shouldSetStock() {
+            savedMenuItem.setStock(0);
+            when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MenuItem.class)))
+                    .thenReturn(savedMenuItem);
+
+            MenuItemResponse response = menuItemService.updateStock(TENANT, "item-1", 0);
+
+            assertThat(response.getStock()).isZero();
+            assertThat(response.isAvailable()).isFalse();
         }
     }
 
@@ -132,25 +179,30 @@ class MenuItemServiceTest {
         @Test
         @DisplayName("Should delete menu item successfully")
         void shouldDeleteMenuItemSuccessfully() {
-            when(menuItemRepository.existsById("item-1")).thenReturn(true);
+            when(menuVersionService.nextVersion(TENANT)).thenReturn(6L);
+            when(menuItemRepository.removeByTenantIdAndId(TENANT, "item-1")).thenReturn(1L);
 
-            DeleteMenuItemResponse response = menuItemService.deleteMenuItem("item-1");
+            DeleteMenuItemResponse response = menuItemService.deleteMenuItem(TENANT, "item-1");
 
             assertThat(response.getId()).isEqualTo("item-1");
             assertThat(response.getMessage()).isEqualTo("Menu item deleted successfully");
-            verify(menuItemRepository).deleteById("item-1");
+            InOrder inOrder = inOrder(menuVersionService, menuItemRepository);
+            inOrder.verify(menuVersionService).nextVersion(TENANT);
+            inOrder.verify(menuItemRepository).removeByTenantIdAndId(TENANT, "item-1");
+            inOrder.verify(menuVersionService).recordChanges(TENANT, List.of(), List.of("item-1"), 6L);
+            inOrder.verify(menuVersionService).complete(TENANT, 6L);
         }
 
         @Test
         @DisplayName("Should throw MenuItemNotFoundException when item not found")
         void shouldThrowWhenItemNotFound() {
-            when(menuItemRepository.existsById("non-existent")).thenReturn(false);
+            when(menuItemRepository.removeByTenantIdAndId(TENANT, "non-existent")).thenReturn(0L);
 
-            assertThatThrownBy(() -> menuItemService.deleteMenuItem("non-existent"))
+            assertThatThrownBy(() -> menuItemService.deleteMenuItem(TENANT, "non-existent"))
                     .isInstanceOf(MenuItemNotFoundException.class)
                     .hasMessageContaining("non-existent");
-
-            verify(menuItemRepository, never()).deleteById(any());
+            verify(menuVersionService, never()).recordChanges(any(), any(), any(), anyLong());
+            verify(menuVersionService).complete(TENANT, 0L);
         }
     }
 
@@ -171,9 +223,9 @@ class MenuItemServiceTest {
 
             Page<MenuItem> page = new PageImpl<>(List.of(item1, item2), PageRequest.of(0, 10), 2);
 
-            when(menuItemRepository.findAll(any(PageRequest.class))).thenReturn(page);
+            when(menuItemRepository.findListing(eq(TENANT), any(PageRequest.class))).thenReturn(page);
 
-            MenuItemListResponse response = menuItemService.getAllMenuItems(10, 0);
+            MenuItemListResponse response = menuItemService.getAllMenuItems(TENANT, 10, 0);
 
             assertThat(response.getItems()).hasSize(2);
             assertThat(response.getTotalRecords()).isEqualTo(2);
@@ -186,15 +238,36 @@ class MenuItemServiceTest {
         void shouldReturnEmptyListWhenNoItems() {
             Page<MenuItem> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
 
-            when(menuItemRepository.findAll(any(PageRequest.class))).thenReturn(emptyPage);
+            when(menuItemRepository.findListing(eq(TENANT), any(PageRequest.class))).thenReturn(emptyPage);
 
-            MenuItemListResponse response = menuItemService.getAllMenuItems(10, 0);
+            MenuItemListResponse response = menuItemService.getAllMenuItems(TENANT, 10, 0);
 
             assertThat(response.getItems()).isEmpty();
             assertThat(response.getTotalRecords()).isEqualTo(0);
         }
     }
 
+    @Nested
+    @DisplayName("getMenuItemsByIds")
+    class GetMenuItemsByIdsTests {
+
+        @Test
+        @DisplayName("Should return only the items that exist, querying each id once")
+        void shouldReturnExistingItems() {
+            when(menuItemRepository.findByTenantIdAndIdIn(eq(TENANT), any())).thenReturn(List.of(savedMenuItem));
+
+            MenuItemListResponse response = menuItemService.getMenuItemsByIds(TENANT, List.of("item-1", "missing", "item-1"));
+
+            assertThat(response.getItems()).extracting(MenuItemResponse::getId).containsExactly("item-1");
+            assertThat(response.getTotalRecords()).isEqualTo(1);
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Collection<String>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+            verify(menuItemRepository).findByTenantIdAndIdIn(eq(TENANT), idsCaptor.capture());
+            assertThat(idsCaptor.getValue()).containsExactly("item-1", "missing");
+        }
+    }
+
     @Nested
     @DisplayName("getMenuItemById")
     class GetMenuItemByIdTests {
@@ -202,9 +275,9 @@ class MenuItemServiceTest {
         @Test
         @DisplayName("Should return menu item when found")
         void shouldReturnMenuItemWhenFound() {
-            when(menuItemRepository.findById("item-1")).thenReturn(Optional.of(savedMenuItem));
+            when(menuItemRepository.findByTenantIdAndId(TENANT, "item-1")).thenReturn(Optional.of(savedMenuItem));
 
-            MenuItemResponse response = menuItemService.getMenuItemById("item-1");
+            MenuItemResponse response = menuItemService.getMenuItemById(TENANT, "item-1");
 
             assertThat(response).isNotNull();
             assertThat(response.getId()).isEqualTo("item-1");
@@ -216,9 +289,9 @@ class MenuItemServiceTest {
         @Test
         @DisplayName("Should throw MenuItemNotFoundException when not found")
         void shouldThrowWhenNotFound() {
-            when(menuItemRepository.findById("non-existent")).thenReturn(Optional.empty());
+            when(menuItemRepository.findByTenantIdAndId(TENANT, "non-existent")).thenReturn(Optional.empty());
 
-            assertThatThrownBy(() -> menuItemService.getMenuItemById("non-existent"))
+            assertThatThrownBy(() -> menuItemService.getMenuItemById(TENANT, "non-existent"))
                     .isInstanceOf(MenuItemNotFoundException.class)
                     .hasMessageContaining("non-existent");
         }
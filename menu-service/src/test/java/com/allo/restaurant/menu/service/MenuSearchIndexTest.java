@@ -0,0 +1,142 @@
+package com.allo.restaurant.menu.service;
+
+import com.allo.restaurant.menu.entity.MenuItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuSearchIndexTest {
+
+    private static final String TENANT = "downtown";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private MenuSearchIndex menuSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        menuSearchIndex = new MenuSearchIndex(mongoTemplate);
+    }
+
+    private MenuItem item(String id, String name, String description, String category, String... tags) {
+        return MenuItem.builder()
+                .id(id)
+                .tenantId(TENANT)
+                .name(name)
+                .description(description)
+                .price(BigDecimal.TEN)
+                .category(category)
+                .tags(List.of(tags))
+                .build();
+    }
+
+    private List<String> names(String query, String category, List<String> tags) {
+        return menuSearchIndex.search(TENANT, query, category, tags, 10).stream().map(MenuItem::getName).toList();
+    }
+
+    @Nested
+    @DisplayName("search")
+    class SearchTests {
+
+        @BeforeEach
+        void loadMenu() {
+            when(mongoTemplate.findAll(MenuItem.class)).thenReturn(List.of(
+                    item("1", "Pepperoni Pizza", "Spicy pepperoni and mozzarella", "Pizza"),
+                    item("2", "Margherita", "Tomato, mozzarella and basil", "Pizza", "vegetarian"),
+                    item("3", "Pesto Pasta", "Fresh basil pesto", "Pasta", "vegetarian"),
+                    item("4", "Crème Brûlée", "Vanilla custard", "Dessert")));
+            menuSearchIndex.rebuild();
+        }
+
+        @Test
+        @DisplayName("Should match word prefixes and rank name matches above description matches")
+        void shouldRankPrefixMatches() {
+            assertThat(names("pe", null, null)).containsExactly("Pepperoni Pizza", "Pesto Pasta");
+            assertThat(names("basil", null, null)).containsExactly("Margherita", "Pesto Pasta");
+            assertThat(names("pesto", null, null)).containsExactly("Pesto Pasta");
+            assertThat(names("piz", null, null)).containsExactly("Pepperoni Pizza", "Margherita");
+        }
+
+        @Test
+        @DisplayName("Should require every word and ignore case and accents")
+        void shouldMatchAllWords() {
+            assertThat(names("mozz pep", null, null)).containsExactly("Pepperoni Pizza");
+            assertThat(names("CREME bru", null, null)).containsExactly("Crème Brûlée");
+            assertThat(names("sushi", null, null)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should filter by category and tags, listing everything by name for a blank query")
+        void shouldFilterByCategoryAndTags() {
+            assertThat(names(null, "pizza", null)).containsExactly("Margherita", "Pepperoni Pizza");
+            assertThat(names("", null, List.of("Vegetarian"))).containsExactly("Margherita", "Pesto Pasta");
+            assertThat(names("basil", "Pasta", List.of("vegetarian"))).containsExactly("Pesto Pasta");
+        }
+
+        @Test
+        @DisplayName("Should reflect local changes without reloading")
+        void shouldApplyChanges() {
+            menuSearchIndex.apply(TENANT, List.of(item("5", "Penne Arrabbiata", "Spicy tomato", "Pasta")), List.of("1"));
+
+            assertThat(names("pe", null, null)).containsExactly("Penne Arrabbiata", "Pesto Pasta");
+            verify(mongoTemplate, times(1)).findAll(MenuItem.class);
+        }
+
+        @Test
+        @DisplayName("Should only search the requesting tenant's menu")
+        void shouldIsolateTenants() {
+            menuSearchIndex.apply("uptown", List.of(item("6", "Pepper Steak", "Grilled", "Grill").toBuilder().tenantId("uptown").build()), List.of());
+
+            assertThat(names("pe", null, null)).containsExactly("Pepperoni Pizza", "Pesto Pasta");
+            assertThat(menuSearchIndex.search("uptown", "pe", null, null, 10)).extracting(MenuItem::getName)
+                    .containsExactly("Pepper Steak");
+            assertThat(menuSearchIndex.search("unknown", null, null, null, 10)).isEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("Should search the tenant's menu read from MongoDB the same way until the index is loaded")
+    void shouldFallBackBeforeLoad() {
+        when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(
+                item("1", "Pepperoni Pizza", "Spicy", "Pizza"),
+                item("2", "Crème Brûlée", "Vanilla custard", "Dessert")));
+
+        assertThat(menuSearchIndex.isLoaded()).isFalse();
+        assertThat(names("pep piz", "PIZZA", null)).containsExactly("Pepperoni Pizza");
+        assertThat(names("pepperoni sushi", null, null)).isEmpty();
+        assertThat(names("creme", "dessert", null)).containsExactly("Crème Brûlée");
+        verify(mongoTemplate, atLeastOnce()).find(argThat((Query query) -> TENANT.equals(query.getQueryObject().get("tenantId"))),
+                eq(MenuItem.class));
+        menuSearchIndex.apply(TENANT, List.of(item("3", "Margherita", "Basil", "Pizza")), List.of());
+        assertThat(menuSearchIndex.isLoaded()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should keep changes applied while the menu is being read")
+    void shouldReplayChangesDuringRebuild() {
+        when(mongoTemplate.findAll(MenuItem.class)).thenAnswer(invocation -> {
+            menuSearchIndex.apply(TENANT, List.of(item("2", "Margherita", "Basil", "Pizza")), List.of("1"));
+            return List.of(item("1", "Pepperoni Pizza", "Spicy", "Pizza"));
+        });
+
+        menuSearchIndex.rebuild();
+
+        assertThat(names(null, null, null)).containsExactly("Margherita");
+    }
+}
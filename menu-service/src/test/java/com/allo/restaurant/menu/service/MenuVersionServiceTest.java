@@ -0,0 +1,182 @@
+package com.allo.restaurant.menu.service;
+
+import com.allo.restaurant.menu.entity.MenuItem;
+import com.allo.restaurant.menu.entity.MenuItemRevision;
+import com.allo.restaurant.menu.exception.MenuItemNotFoundException;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MenuVersionServiceTest {
+
+    private static final String TENANT = "downtown";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @InjectMocks
+    private MenuVersionService menuVersionService;
+
+    private MenuItem pizza;
+
+    @BeforeEach
+    void setUp() {
+        pizza = MenuItem.builder()
+                .id("item-1")
+                .tenantId(TENANT)
+                .name("Pizza")
+                .description("Delicious cheese pizza")
+                .price(new BigDecimal("14.90"))
+                .version(5L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should record changed and deleted items as revisions of the same version")
+    void shouldRecordRevisions() {
+        menuVersionService.recordChanges(TENANT, List.of(pizza), List.of("item-2"), 5L);
+
+        verify(mongoTemplate).insert(argThat((List<MenuItemRevision> revisions) -> revisions.size() == 2
+                        && revisions.get(0).getId().equals("item-1:5") && !revisions.get(0).isDeleted()
+                        && revisions.get(1).getId().equals("item-2:5") && revisions.get(1).isDeleted()
+                        && revisions.stream().allMatch(revision -> TENANT.equals(revision.getTenantId()))),
+                eq(MenuItemRevision.class));
+    }
+
+    @Test
+    @DisplayName("Should count versions per tenant")
+    void shouldCountVersionsPerTenant() {
+        when(mongoTemplate.findAndModify(any(Query.class), any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(Document.class), eq("menu_versions")))
+                .thenReturn(new Document("_id", TENANT).append("version", 3L));
+
+        assertThat(menuVersionService.nextVersion(TENANT)).isEqualTo(3L);
+
+        verify(mongoTemplate).findAndModify(argThat((Query query) -> TENANT.equals(query.getQueryObject().get("_id"))),
+                any(UpdateDefinition.class), any(FindAndModifyOptions.class), eq(Document.class), eq("menu_versions"));
+    }
+
+    @Test
+    @DisplayName("Should remove a completed version from the pending ones")
+    void shouldCompleteVersion() {
+        menuVersionService.complete(TENANT, 3L);
+
+        verify(mongoTemplate).updateFirst(argThat((Query query) -> TENANT.equals(query.getQueryObject().get("_id"))),
+                argThat((Update update) -> update.getUpdateObject().get("$pull", Document.class)
+                        .get("pending", Document.class).get("version").equals(3L)), eq("menu_versions"));
+    }
+
+    @Nested
+    @DisplayName("committedVersion")
+    class CommittedVersionTests {
+
+        @Test
+        @DisplayName("Should stop just below the oldest pending version")
+        void shouldStopBelowPendingVersion() {
+            Date now = new Date();
+            when(mongoTemplate.findById(TENANT, Document.class, "menu_versions")).thenReturn(new Document("version", 9L)
+                    .append("pending", List.of(new Document("version", 9L).append("takenAt", now),
+                            new Document("version", 7L).append("takenAt", now))));
+
+            assertThat(menuVersionService.committedVersion(TENANT)).isEqualTo(6L);
+        }
+
+        @Test
+        @DisplayName("Should ignore versions left pending by a process that died")
+        void shouldIgnoreAbandonedVersion() {
+            Date longAgo = Date.from(Instant.now().minus(Duration.ofMinutes(5)));
+            when(mongoTemplate.findById(TENANT, Document.class, "menu_versions")).thenReturn(new Document("version", 9L)
+                    .append("pending", List.of(new Document("version", 7L).append("takenAt", longAgo))));
+
+            assertThat(menuVersionService.committedVersion(TENANT)).isEqualTo(9L);
+        }
+    }
+
+    @Nested
+    @DisplayName("findAt")
+    class FindAtTests {
+
+        @BeforeEach
+        void currentVersion() {
+            when(mongoTemplate.findById(TENANT, Document.class, "menu_versions")).thenReturn(new Document("version", 9L));
+        }
+
+        @Test
+        @DisplayName("Should serve the live item when it has not changed since the requested version")
+        void shouldServeLiveItem() {
+            when(mongoTemplate.findOne(any(Query.class), eq(MenuItem.class))).thenReturn(pizza);
+
+            MenuItemRevision revision = menuVersionService.findAt(TENANT, "item-1", 8L);
+
+            assertThat(revision.getVersion()).isEqualTo(5L);
+            assertThat(revision.getPrice()).isEqualByComparingTo("14.90");
+            verify(mongoTemplate, never()).findOne(any(Query.class), eq(MenuItemRevision.class));
+        }
+
+        @Test
+        @DisplayName("Should serve the latest revision at or before an older version")
+        void shouldServeOlderRevision() {
+            when(mongoTemplate.findOne(any(Query.class), eq(MenuItem.class))).thenReturn(pizza);
+            when(mongoTemplate.findOne(any(Query.class), eq(MenuItemRevision.class))).thenReturn(MenuItemRevision.builder()
+                    .id("item-1:2").itemId("item-1").version(2L).name("Pizza").price(new BigDecimal("12.90")).build());
+
+            MenuItemRevision revision = menuVersionService.findAt(TENANT, "item-1", 4L);
+
+            assertThat(revision.getVersion()).isEqualTo(2L);
+            assertThat(revision.getPrice()).isEqualByComparingTo("12.90");
+        }
+
+        @Test
+        @DisplayName("Should not find items that were deleted or did not exist yet at that version")
+        void shouldRejectDeletedItem() {
+            when(mongoTemplate.findOne(any(Query.class), eq(MenuItem.class))).thenReturn(null);
+            when(mongoTemplate.findOne(any(Query.class), eq(MenuItemRevision.class)))
+                    .thenReturn(MenuItemRevision.builder().id("item-2:6").itemId("item-2").version(6L).deleted(true).build())
+                    .thenReturn(null);
+
+            assertThatThrownBy(() -> menuVersionService.findAt(TENANT, "item-2", 7L)).isInstanceOf(MenuItemNotFoundException.class);
+            assertThatThrownBy(() -> menuVersionService.findAt(TENANT, "item-2", 1L)).isInstanceOf(MenuItemNotFoundException.class);
+        }
+
+        @Test
+        @DisplayName("Should reject versions the menu has not reached, whose answer could still change")
+        void shouldRejectFutureVersion() {
+            assertThatThrownBy(() -> menuVersionService.findAt(TENANT, "item-1", 10L))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(mongoTemplate, never()).findOne(any(Query.class), eq(MenuItem.class));
+        }
+
+        @Test
+        @DisplayName("Should reject versions taken but not yet written")
+        void shouldRejectPendingVersion() {
+            when(mongoTemplate.findById(TENANT, Document.class, "menu_versions")).thenReturn(new Document("version", 9L)
+                    .append("pending", List.of(new Document("version", 9L).append("takenAt", new Date()))));
+
+            assertThatThrownBy(() -> menuVersionService.findAt(TENANT, "item-1", 9L))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(mongoTemplate, never()).findOne(any(Query.class), eq(MenuItem.class));
+        }
+    }
+}
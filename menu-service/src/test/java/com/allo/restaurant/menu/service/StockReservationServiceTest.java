@@ -0,0 +1,328 @@
+package com.allo.restaurant.menu.service;
+
+import com.allo.restaurant.menu.dto.StockReservationItemRequest;
+import com.allo.restaurant.menu.dto.StockReservationResponse;
+import com.allo.restaurant.menu.entity.MenuItem;
+import com.allo.restaurant.menu.entity.ReservedItem;
+import com.allo.restaurant.menu.entity.StockReservation;
+import com.allo.restaurant.menu.entity.StockReservationStatus;
+import com.allo.restaurant.menu.exception.InsufficientStockException;
+import com.allo.restaurant.menu.exception.MenuItemNotFoundException;
+import com.allo.restaurant.menu.exception.StockReservationConflictException;
+import com.mongodb.client.result.UpdateResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceTest {
+
+    private static final String TENANT = "downtown";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @InjectMocks
+    private StockReservationService stockReservationService;
+
+    private MenuItem pizza;
+    private MenuItem soda;
+
+    @BeforeEach
+    void setUp() {
+        pizza = MenuItem.builder().id("item-1").name("Pizza").price(new BigDecimal("12.90")).stock(5).version(3L).build();
+        soda = MenuItem.builder().id("item-2").name("Soda").price(new BigDecimal("3.00")).version(1L).build();
+    }
+
+    private StockReservationItemRequest line(String productId, int quantity) {
+        return StockReservationItemRequest.builder().productId(productId).quantity(quantity).build();
+    }
+
+    private MenuItem withStock(MenuItem menuItem, Integer stock) {
+        return menuItem.toBuilder().stock(stock).build();
+    }
+
+    private void holdPendingReservations(long matched) {
+        when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(StockReservation.class)))
+                .thenReturn(UpdateResult.acknowledged(matched, matched, null));
+    }
+
+    private StockReservation existing(String tenantId, StockReservationStatus status) {
+        return StockReservation.builder()
+                .id("order-1")
+                .tenantId(tenantId)
+                .items(List.of(new ReservedItem("item-1", 2, true)))
+                .status(status)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("reserve")
+    class ReserveTests {
+
+        @Test
+        @DisplayName("Should decrement tracked stock once per product, leave untracked items alone and omit details the caller holds")
+        void shouldReserveStock() {
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(pizza, soda));
+            when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MenuItem.class)))
+                    .thenReturn(withStock(pizza, 2));
+            holdPendingReservations(1);
+
+            StockReservationResponse response = stockReservationService.reserve(TENANT, "order-1",
+                    List.of(line("item-1", 1), line("item-2", 4), line("item-1", 2)), Map.of("item-1", 2L, "item-2", 1L));
+
+            assertThat(response.getReservationId()).isEqualTo("order-1");
+            assertThat(response.getItems()).extracting("id", "version", "name", "stock", "available")
+                    .containsExactly(tuple("item-1", 3L, "Pizza", 2, true), tuple("item-2", 1L, null, null, true));
+            verify(mongoTemplate, times(1))
+                    .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MenuItem.class));
+            verify(mongoTemplate).insert(argThat((StockReservation reservation) -> TENANT.equals(reservation.getTenantId())
+                    && reservation.getStatus() == StockReservationStatus.PENDING));
+            verify(mongoTemplate).updateFirst(
+                    argThat((Query query) -> query.getQueryObject().get("status") == StockReservationStatus.PENDING),
+                    eq(new Update().set("status", StockReservationStatus.RESERVED)
+                            .set("items", List.of(new ReservedItem("item-1", 3, true), new ReservedItem("item-2", 4, false)))),
+                    eq(StockReservation.class));
+        }
+
+        @Test
+        @DisplayName("Should reject the order without touching stock when an item is short")
+        void shouldRejectInsufficientStock() {
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(pizza));
+
+            assertThatThrownBy(() -> stockReservationService.reserve(TENANT, "order-1", List.of(line("item-1", 6)), null))
+                    .isInstanceOf(InsufficientStockException.class)
+                    .satisfies(e -> assertThat(((InsufficientStockException) e).getAvailable()).containsEntry("item-1", 5));
+
+            verify(mongoTemplate, never())
+                    .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MenuItem.class));
+            verify(mongoTemplate).findAndRemove(
+                    argThat((Query query) -> query.getQueryObject().get("status") == StockReservationStatus.PENDING),
+                    eq(StockReservation.class));
+        }
+
+        @Test
+        @DisplayName("Should put back the lines already taken when a concurrent order wins a later line")
+        void shouldCompensatePartialReservation() {
+            MenuItem burger = MenuItem.builder().id("item-3").name("Burger").price(BigDecimal.TEN).stock(1).build();
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class)))
+                    .thenReturn(List.of(pizza, burger))
+                    .thenReturn(List.of(pizza, withStock(burger, 0)));
+            when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MenuItem.class)))
+                    .thenReturn(withStock(pizza, 4))
+                    .thenReturn(null);
+            holdPendingReservations(1);
+            when(mongoTemplate.findAndRemove(any(Query.class), eq(StockReservation.class)))
+                    .thenReturn(existing(TENANT, StockReservationStatus.PENDING));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class)).thenReturn(bulkOperations);
+
+            assertThatThrownBy(() -> stockReservationService.reserve(TENANT, "order-1", List.of(line("item-1", 1), line("item-3", 1)), null))
+                    .isInstanceOf(InsufficientStockException.class)
+                    .satisfies(e -> assertThat(((InsufficientStockException) e).getAvailable()).containsOnlyKeys("item-3"));
+
+            verify(mongoTemplate).updateFirst(any(Query.class), eq(new Update().set("items.0.tracked", true)), eq(StockReservation.class));
+            verify(mongoTemplate).updateFirst(any(Query.class), eq(new Update().set("items.1.tracked", true)), eq(StockReservation.class));
+            verify(bulkOperations, times(1)).updateOne(any(Query.class), eq(new Update().inc("stock", 1)));
+            verify(bulkOperations).execute();
+        }
+
+        @Test
+        @DisplayName("Should put the stock back and remove the reservation when it cannot be completed")
+        void shouldAbandonWhenCompletionFails() {
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(pizza));
+            when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MenuItem.class)))
+                    .thenReturn(withStock(pizza, 3));
+            when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(StockReservation.class)))
+                    .thenReturn(UpdateResult.acknowledged(1, 1L, null))
+                    .thenThrow(new DataAccessResourceFailureException("connection reset"));
+            when(mongoTemplate.findAndRemove(any(Query.class), eq(StockReservation.class)))
+                    .thenReturn(existing(TENANT, StockReservationStatus.PENDING));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class)).thenReturn(bulkOperations);
+
+            assertThatThrownBy(() -> stockReservationService.reserve(TENANT, "order-1", List.of(line("item-1", 2)), null))
+                    .isInstanceOf(DataAccessResourceFailureException.class);
+
+            verify(bulkOperations).updateOne(any(Query.class), eq(new Update().inc("stock", 2)));
+        }
+
+        @Test
+        @DisplayName("Should leave the stock to the sweep when the reservation cannot be removed")
+        void shouldLeaveStockToSweep() {
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(pizza));
+            when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MenuItem.class)))
+                    .thenReturn(withStock(pizza, 3));
+            when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(StockReservation.class)))
+                    .thenReturn(UpdateResult.acknowledged(1, 1L, null))
+                    .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+            when(mongoTemplate.findAndRemove(any(Query.class), eq(StockReservation.class)))
+                    .thenThrow(new DataAccessResourceFailureException("connection reset"));
+
+            assertThatThrownBy(() -> stockReservationService.reserve(TENANT, "order-1", List.of(line("item-1", 2)), null))
+                    .isInstanceOf(StockReservationConflictException.class);
+
+            verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(MenuItem.class));
+        }
+
+        @Test
+        @DisplayName("Should fail when an item does not exist")
+        void shouldRejectUnknownItem() {
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(pizza));
+
+            assertThatThrownBy(() -> stockReservationService.reserve(TENANT, "order-1", List.of(line("item-1", 1), line("missing", 1)), null))
+                    .isInstanceOf(MenuItemNotFoundException.class)
+                    .hasMessageContaining("missing");
+        }
+
+        @Test
+        @DisplayName("Should return the existing reservation when the same reservation is retried")
+        void shouldReplayExistingReservation() {
+            when(mongoTemplate.insert(any(StockReservation.class))).thenThrow(new DuplicateKeyException("duplicate"));
+            when(mongoTemplate.findById("order-1", StockReservation.class))
+                    .thenReturn(existing(TENANT, StockReservationStatus.RESERVED));
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(withStock(pizza, 3)));
+
+            StockReservationResponse response = stockReservationService.reserve(TENANT, "order-1", List.of(line("item-1", 2)), null);
+
+            assertThat(response.getItems()).extracting("stock").containsExactly(3);
+            verify(mongoTemplate, never())
+                    .findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MenuItem.class));
+        }
+
+        @Test
+        @DisplayName("Should not replay a reservation made by another tenant")
+        void shouldRejectOtherTenantsReservation() {
+            when(mongoTemplate.insert(any(StockReservation.class))).thenThrow(new DuplicateKeyException("duplicate"));
+            when(mongoTemplate.findById("order-1", StockReservation.class))
+                    .thenReturn(existing("uptown", StockReservationStatus.RESERVED));
+
+            assertThatThrownBy(() -> stockReservationService.reserve(TENANT, "order-1", List.of(line("item-1", 2)), null))
+                    .isInstanceOf(StockReservationConflictException.class);
+            verify(mongoTemplate, never()).find(any(Query.class), eq(MenuItem.class));
+        }
+
+        @Test
+        @DisplayName("Should not replay a reservation whose stock is still being taken")
+        void shouldRejectPendingReservation() {
+            when(mongoTemplate.insert(any(StockReservation.class))).thenThrow(new DuplicateKeyException("duplicate"));
+            when(mongoTemplate.findById("order-1", StockReservation.class))
+                    .thenReturn(existing(TENANT, StockReservationStatus.PENDING));
+
+            assertThatThrownBy(() -> stockReservationService.reserve(TENANT, "order-1", List.of(line("item-1", 2)), null))
+                    .isInstanceOf(StockReservationConflictException.class)
+                    .hasMessageContaining("still being reserved");
+            verify(mongoTemplate, never()).find(any(Query.class), eq(MenuItem.class));
+        }
+
+        @Test
+        @DisplayName("Should put the stock back when the reservation is released while it is being taken")
+        void shouldPutBackWhenReleasedWhilePending() {
+            when(mongoTemplate.find(any(Query.class), eq(MenuItem.class))).thenReturn(List.of(pizza, soda));
+            when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class), eq(MenuItem.class)))
+                    .thenReturn(withStock(pizza, 3));
+            when(mongoTemplate.updateFirst(any(Query.class), any(Update.class), eq(StockReservation.class)))
+                    .thenReturn(UpdateResult.acknowledged(1, 1L, null))
+                    .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+            when(mongoTemplate.findAndRemove(any(Query.class), eq(StockReservation.class)))
+                    .thenReturn(existing(TENANT, StockReservationStatus.PENDING));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class)).thenReturn(bulkOperations);
+
+            assertThatThrownBy(() -> stockReservationService.reserve(TENANT, "order-1", List.of(line("item-1", 2), line("item-2", 1)), null))
+                    .isInstanceOf(StockReservationConflictException.class);
+
+            verify(bulkOperations, times(1)).updateOne(any(Query.class), eq(new Update().inc("stock", 2)));
+            verify(bulkOperations).execute();
+        }
+    }
+
+    @Nested
+    @DisplayName("release")
+    class ReleaseTests {
+
+        @Test
+        @DisplayName("Should put the reserved stock of tracked items back once")
+        void shouldReleaseOnce() {
+            when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(StockReservation.class)))
+                    .thenReturn(StockReservation.builder()
+                            .id("order-1")
+                            .tenantId(TENANT)
+                            .items(List.of(new ReservedItem("item-1", 2, true), new ReservedItem("item-2", 1, false)))
+                            .status(StockReservationStatus.RESERVED)
+                            .build())
+                    .thenReturn(null);
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class)).thenReturn(bulkOperations);
+
+            stockReservationService.release(TENANT, "order-1");
+            stockReservationService.release(TENANT, "order-1");
+
+            verify(bulkOperations, times(1)).updateOne(any(Query.class), eq(new Update().inc("stock", 2)));
+            verify(bulkOperations, times(1)).execute();
+        }
+
+        @Test
+        @DisplayName("Should leave the stock of a pending reservation to the request taking it")
+        void shouldLeavePendingStockAlone() {
+            when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), eq(StockReservation.class))).thenReturn(null);
+
+            stockReservationService.release(TENANT, "order-1");
+
+            verify(mongoTemplate).updateFirst(
+                    argThat((Query query) -> query.getQueryObject().get("status") == StockReservationStatus.PENDING),
+                    eq(new Update().set("releaseRequested", true)), eq(StockReservation.class));
+            verify(mongoTemplate, never()).bulkOps(any(BulkOperations.BulkMode.class), eq(MenuItem.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("sweepStalePending")
+    class SweepTests {
+
+        @Test
+        @DisplayName("Should put back the marked lines of stale pending reservations it claims")
+        void shouldPutBackStalePending() {
+            ReflectionTestUtils.setField(stockReservationService, "pendingTimeout", Duration.ofMinutes(5));
+            StockReservation stale = StockReservation.builder()
+                    .id("order-1")
+                    .tenantId(TENANT)
+                    .items(List.of(new ReservedItem("item-1", 2, true), new ReservedItem("item-3", 1, false)))
+                    .status(StockReservationStatus.PENDING)
+                    .build();
+            StockReservation claimedElsewhere = existing(TENANT, StockReservationStatus.PENDING);
+            when(mongoTemplate.find(any(Query.class), eq(StockReservation.class))).thenReturn(List.of(stale, claimedElsewhere));
+            when(mongoTemplate.findAndRemove(any(Query.class), eq(StockReservation.class))).thenReturn(stale).thenReturn(null);
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MenuItem.class)).thenReturn(bulkOperations);
+
+            stockReservationService.sweepStalePending();
+
+            verify(mongoTemplate).find(argThat((Query query) -> query.getQueryObject().get("status") == StockReservationStatus.PENDING
+                    && query.getQueryObject().containsKey("createdAt")), eq(StockReservation.class));
+            verify(bulkOperations, times(1)).updateOne(any(Query.class), eq(new Update().inc("stock", 2)));
+            verify(bulkOperations, times(1)).execute();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.allo.restaurant.order.client;
+
+import com.allo.restaurant.order.exception.InsufficientStockException;
+import com.allo.restaurant.order.exception.MenuServiceUnavailableException;
+
+import java.util.Map;
+
+/**
+ * The parts of a menu-service error response the clients translate into exceptions: the id of a
+ * missing menu item, or the stock left of items that could not be reserved.
+ */
+record MenuErrorBody(String id, Map<String, Integer> available) {
+
+    /**
+     * A conflict without stock levels is a reservation id still in use by an earlier attempt,
+     * which is worth retrying; otherwise the order is short of stock.
+     */
+    static RuntimeException conflict(MenuErrorBody body, String reservationId) {
+        if (body == null || body.available() == null) {
+            return new MenuServiceUnavailableException("Stock reservation " + reservationId + " is still in progress");
+        }
+        return new InsufficientStockException(body.available());
+    }
+}
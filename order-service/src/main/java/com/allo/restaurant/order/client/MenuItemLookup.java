@@ -0,0 +1,27 @@
+package com.allo.restaurant.order.client;
+
+import com.allo.restaurant.order.dto.MenuItemResponse;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * How {@link MenuServiceClient} looks menu items up, chosen with {@code menu.service.lookup-transport}
+ * when the application starts (see {@link com.allo.restaurant.order.config.MenuItemLookupConfig}).
+ * Only bulk imports look items up; orders created one at a time get their items from the
+ * reservation, which always goes over REST.
+ * The client wraps every call in the {@code menuService} circuit breaker and retry, so
+ * implementations only make the call.
+ */
+public interface MenuItemLookup {
+
+    /**
+     * @throws com.allo.restaurant.order.exception.MenuItemNotFoundException if the item does not exist
+     */
+    MenuItemResponse getMenuItemById(String tenantId, String id);
+
+    /**
+     * Ids that do not exist in the menu are simply missing from the result.
+     */
+    List<MenuItemResponse> getMenuItemsByIds(String tenantId, Collection<String> ids);
+}
@@ -0,0 +1,67 @@
+package com.allo.restaurant.order.client;
+
+import com.allo.restaurant.order.dto.MenuItemResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Menu item details by (tenant, id, version). A menu item version never changes, so entries are
+ * never checked or invalidated; a lookup either hits the exact version or misses. Only the latest
+ * version seen of each item is kept, which bounds the cache by the size of the menus. Entries are
+ * keyed by tenant, so one restaurant can never be served another's item.
+ * <p>
+ * Stock is not part of a version and is not served from here.
+ */
+@Component
+public class MenuItemVersionCache {
+
+    private final Map<Key, MenuItemResponse> latest = new ConcurrentHashMap<>();
+
+    public void put(String tenantId, MenuItemResponse menuItem) {
+        if (menuItem.getVersion() == null || menuItem.getName() == null) {
+            return;
+        }
+        latest.merge(new Key(tenantId, menuItem.getId()), menuItem,
+                (cached, candidate) -> candidate.getVersion() > cached.getVersion() ? candidate : cached);
+    }
+
+    /**
+     * The details of {@code id} at {@code version}, with the stock of {@code current}, or
+     * {@code null} if that version is not cached.
+     */
+    public MenuItemResponse resolve(String tenantId, MenuItemResponse current) {
+        MenuItemResponse cached = latest.get(new Key(tenantId, current.getId()));
+        if (cached == null || !cached.getVersion().equals(current.getVersion())) {
+            return null;
+        }
+        return MenuItemResponse.builder()
+                .id(cached.getId())
+                .name(cached.getName())
+                .description(cached.getDescription())
+                .price(cached.getPrice())
+                .version(cached.getVersion())
+                .stock(current.getStock())
+                .available(current.isAvailable())
+                .createdAt(cached.getCreatedAt())
+                .updatedAt(cached.getUpdatedAt())
+                .build();
+    }
+
+    public Map<String, Long> knownVersions(String tenantId, Collection<String> ids) {
+        Map<String, Long> versions = new HashMap<>();
+        ids.forEach(id -> {
+            MenuItemResponse cached = latest.get(new Key(tenantId, id));
+            if (cached != null) {
+                versions.put(id, cached.getVersion());
+            }
+        });
+        return versions;
+    }
+
+    private record Key(String tenantId, String id) {
+    }
+}
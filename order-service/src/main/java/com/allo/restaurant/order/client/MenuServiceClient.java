@@ -1,51 +1,240 @@
 package com.allo.restaurant.order.client;
 
 import com.allo.restaurant.order.dto.MenuItemResponse;
+import com.allo.restaurant.order.dto.OrderItemRequest;
+import com.allo.restaurant.order.dto.StockReservationItemRequest;
+import com.allo.restaurant.order.dto.StockReservationRequest;
+import com.allo.restaurant.order.dto.StockReservationResponse;
+import com.allo.restaurant.order.exception.InsufficientStockException;
 import com.allo.restaurant.order.exception.MenuItemNotFoundException;
 import com.allo.restaurant.order.exception.MenuServiceUnavailableException;
+import com.allo.restaurant.order.logging.LogMarkers;
+import com.allo.restaurant.order.tenant.TenantIds;
 
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Every call acts on the menu of the given tenant, forwarded to menu-service in the
+ * {@value TenantIds#HEADER} header.
+ * <p>
+ * Item lookups go through the configured {@link MenuItemLookup}, REST or RSocket; reservations
+ * always use REST.
+ */
 @Slf4j
 @Component
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class MenuServiceClient {
 
+    private static final String CIRCUIT_BREAKER_NAME = "menuService";
+
     private final RestClient.Builder restClientBuilder;
+    private final ObservationRegistry observationRegistry;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final MenuItemVersionCache menuItemVersionCache;
+    private final MenuItemLookup menuItemLookup;
 
     @Value("${menu.service.url}")
     private String menuServiceUrl;
 
-    @CircuitBreaker(name = "menuService", fallbackMethod = "getMenuItemFallback")
-    @Retry(name = "menuService")
-    public MenuItemResponse getMenuItemById(String id) {
-        log.info("Attempting to fetch menu item with id: {}", id);
+    @CircuitBreaker(name = CIRCUIT_BREAKER_NAME, fallbackMethod = "getMenuItemFallback")
+    @Retry(name = CIRCUIT_BREAKER_NAME)
+    public MenuItemResponse getMenuItemById(String tenantId, String id) {
+        log.info(LogMarkers.HOT_PATH, "Attempting to fetch menu item with id: {}", id);
+
+        return observe("getMenuItemById", () -> menuItemLookup.getMenuItemById(tenantId, id));
+    }
+
+    /**
+     * Fetches all the given menu items in a single request. Ids that do not exist in the menu
+     * are simply missing from the result. The items are kept in the {@link MenuItemVersionCache},
+     * so reservations made right after come back without their details.
+     */
+    @CircuitBreaker(name = CIRCUIT_BREAKER_NAME, fallbackMethod = "getMenuItemsFallback")
+    @Retry(name = CIRCUIT_BREAKER_NAME)
+    public List<MenuItemResponse> getMenuItemsByIds(String tenantId, Collection<String> ids) {
+        log.info(LogMarkers.HOT_PATH, "Attempting to fetch {} menu items", ids.size());
+
+        List<MenuItemResponse> menuItems = observe("getMenuItemsByIds", () -> menuItemLookup.getMenuItemsByIds(tenantId, ids));
+        menuItems.forEach(menuItem -> menuItemVersionCache.put(tenantId, menuItem));
+        return menuItems;
+    }
+
+    /**
+     * Takes stock for every item of an order in one request. The reservation id makes the call
+     * safe to retry: menu-service returns the existing reservation instead of taking stock twice.
+     * <p>
+     * The menu item versions held in the {@link MenuItemVersionCache} are sent along, and items
+     * still at those versions come back without their details, which are then served from the
+     * cache. A version evicted in the meantime by a newer one is fetched by (id, version).
+     */
+    @CircuitBreaker(name = CIRCUIT_BREAKER_NAME, fallbackMethod = "reserveMenuItemsFallback")
+    @Retry(name = CIRCUIT_BREAKER_NAME)
+    public List<MenuItemResponse> reserveMenuItems(String tenantId, String reservationId, List<OrderItemRequest> items) {
+        log.info(LogMarkers.HOT_PATH, "Attempting to reserve {} menu items for {}", items.size(), reservationId);
 
         RestClient restClient = restClientBuilder.baseUrl(menuServiceUrl).build();
 
+        StockReservationResponse response = observe("reserveMenuItems", () -> {
+            try {
+                return restClient
+                        .post()
+                        .uri("/menu-items/reservations")
+                        .header(TenantIds.HEADER, tenantId)
+                        .body(toReservationRequest(reservationId, items, menuItemVersionCache.knownVersions(tenantId,
+                                items.stream().map(OrderItemRequest::getProductId).toList())))
+                        .retrieve()
+                        .body(StockReservationResponse.class);
+            } catch (HttpClientErrorException.NotFound e) {
+                MenuErrorBody body = e.getResponseBodyAs(MenuErrorBody.class);
+                throw new MenuItemNotFoundException(body == null ? reservationId : body.id());
+            } catch (HttpClientErrorException.Conflict e) {
+                throw MenuErrorBody.conflict(e.getResponseBodyAs(MenuErrorBody.class), reservationId);
+            }
+        });
+        return response.getItems().stream()
+                .map(menuItem -> withDetails(restClient, tenantId, menuItem))
+                .toList();
+    }
+
+    /**
+     * A reservation can return an item at a version menu-service has not committed yet, written
+     * while the reservation ran; menu-service rejects a fetch of that version with a {@code 400}
+     * until its watermark catches up. The item is then fetched as it is now instead, which is the
+     * version reserved or a newer one.
+     */
+    private MenuItemResponse withDetails(RestClient restClient, String tenantId, MenuItemResponse menuItem) {
+        if (menuItem.getName() != null) {
+            menuItemVersionCache.put(tenantId, menuItem);
+            return menuItem;
+        }
+        MenuItemResponse cached = menuItemVersionCache.resolve(tenantId, menuItem);
+        meterRegistry.counter("menu.client.version.cache", "result", cached == null ? "miss" : "hit").increment();
+        if (cached != null) {
+            return cached;
+        }
+        MenuItemResponse version;
         try {
-            return restClient
+            version = observe("getMenuItemAtVersion", () -> restClient
                     .get()
-                    .uri("/menu-items/{id}", id)
+                    .uri("/menu-items/{id}/versions/{version}", menuItem.getId(), menuItem.getVersion())
+                    .header(TenantIds.HEADER, tenantId)
                     .retrieve()
-                    .body(MenuItemResponse.class);
-        } catch (HttpClientErrorException.NotFound e) {
-            throw new MenuItemNotFoundException(id);
+                    .body(MenuItemResponse.class));
+        } catch (HttpClientErrorException.BadRequest e) {
+            log.debug("Menu item {} version {} is not committed yet, using its current version", menuItem.getId(), menuItem.getVersion());
+            meterRegistry.counter("menu.client.version.uncommitted").increment();
+            version = observe("getMenuItemById", () -> menuItemLookup.getMenuItemById(tenantId, menuItem.getId()));
         }
+        version.setStock(menuItem.getStock());
+        version.setAvailable(menuItem.isAvailable());
+        return version;
+    }
+
+    /**
+     * Puts back the stock taken by {@link #reserveMenuItems}. Releasing twice is harmless.
+     */
+    @CircuitBreaker(name = CIRCUIT_BREAKER_NAME, fallbackMethod = "releaseReservationFallback")
+    @Retry(name = CIRCUIT_BREAKER_NAME)
+    public void releaseReservation(String tenantId, String reservationId) {
+        RestClient restClient = restClientBuilder.baseUrl(menuServiceUrl).build();
+
+        observe("releaseReservation", () -> restClient
+                .delete()
+                .uri("/menu-items/reservations/{reservationId}", reservationId)
+                .header(TenantIds.HEADER, tenantId)
+                .retrieve()
+                .toBodilessEntity());
     }
 
-    private MenuItemResponse getMenuItemFallback(String id, Throwable t) {
+    static StockReservationRequest toReservationRequest(String reservationId, List<OrderItemRequest> items,
+                                                        Map<String, Long> knownVersions) {
+        return StockReservationRequest.builder()
+                .reservationId(reservationId)
+                .knownVersions(knownVersions)
+                .items(items.stream()
+                        .map(item -> new StockReservationItemRequest(item.getProductId(), item.getQuantity()))
+                        .toList())
+                .build();
+    }
+
+    private <T> T observe(String operation, Supplier<T> call) {
+        Observation observation = Observation.createNotStarted("menu.client.requests", observationRegistry)
+                .contextualName("menu-item-lookup")
+                .lowCardinalityKeyValue("operation", operation)
+                .lowCardinalityKeyValue("circuit.state", circuitBreakerState())
+                .start();
+
+        try (Observation.Scope scope = observation.openScope()) {
+            T result = call.get();
+            observation.lowCardinalityKeyValue("outcome", "SUCCESS");
+            return result;
+        } catch (MenuItemNotFoundException e) {
+            observation.lowCardinalityKeyValue("outcome", "NOT_FOUND");
+            throw e;
+        } catch (InsufficientStockException e) {
+            observation.lowCardinalityKeyValue("outcome", "OUT_OF_STOCK");
+            throw e;
+        } catch (RuntimeException e) {
+            observation.lowCardinalityKeyValue("outcome", "ERROR");
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    private MenuItemResponse getMenuItemFallback(String tenantId, String id, Throwable t) {
         if (t instanceof MenuItemNotFoundException) {
             throw (MenuItemNotFoundException) t;
         }
+        throw unavailable("getMenuItemById", t);
+    }
+
+    private List<MenuItemResponse> getMenuItemsFallback(String tenantId, Collection<String> ids, Throwable t) {
+        throw unavailable("getMenuItemsByIds", t);
+    }
+
+    private List<MenuItemResponse> reserveMenuItemsFallback(String tenantId, String reservationId, List<OrderItemRequest> items, Throwable t) {
+        if (t instanceof MenuItemNotFoundException || t instanceof InsufficientStockException) {
+            throw (RuntimeException) t;
+        }
+        throw unavailable("reserveMenuItems", t);
+    }
+
+    private void releaseReservationFallback(String tenantId, String reservationId, Throwable t) {
+        throw unavailable("releaseReservation", t);
+    }
+
+    private MenuServiceUnavailableException unavailable(String operation, Throwable t) {
+        meterRegistry.counter("menu.client.fallbacks",
+                        "operation", operation,
+                        "circuit.state", circuitBreakerState(),
+                        "exception", t.getClass().getSimpleName())
+                .increment();
         log.error("Circuit breaker activated for Menu Service. Error: {}", t.getMessage());
-        throw new MenuServiceUnavailableException("Menu Service is currently unavailable. Please try again later.");
+        return new MenuServiceUnavailableException("Menu Service is currently unavailable. Please try again later.");
+    }
+
+    private String circuitBreakerState() {
+        return circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_NAME).getState().name();
     }
 }
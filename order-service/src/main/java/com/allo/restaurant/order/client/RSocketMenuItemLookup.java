@@ -0,0 +1,57 @@
+package com.allo.restaurant.order.client;
+
+import com.allo.restaurant.order.dto.MenuItemLookupRequest;
+import com.allo.restaurant.order.dto.MenuItemResponse;
+import com.allo.restaurant.order.exception.MenuItemNotFoundException;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.util.MimeTypeUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Looks menu items up over RSocket: CBOR payloads on a single TCP connection to menu-service, which
+ * every request thread shares and which is opened on first use and reopened after it drops. A
+ * batch lookup comes back as a stream of items.
+ * <p>
+ * The calls block the request thread for at most {@code menu.service.rsocket.timeout}, like the
+ * REST lookups do.
+ */
+public class RSocketMenuItemLookup implements MenuItemLookup, DisposableBean {
+
+    private final RSocketRequester requester;
+    private final Duration timeout;
+
+    public RSocketMenuItemLookup(RSocketRequester.Builder requesterBuilder, String host, int port, Duration timeout) {
+        this.requester = requesterBuilder
+                .dataMimeType(MimeTypeUtils.parseMimeType("application/cbor"))
+                .tcp(host, port);
+        this.timeout = timeout;
+    }
+
+    @Override
+    public MenuItemResponse getMenuItemById(String tenantId, String id) {
+        return requester.route("tenants.{tenantId}.menu-items.get", tenantId)
+                .data(id)
+                .retrieveMono(MenuItemResponse.class)
+                .blockOptional(timeout)
+                .orElseThrow(() -> new MenuItemNotFoundException(id));
+    }
+
+    @Override
+    public List<MenuItemResponse> getMenuItemsByIds(String tenantId, Collection<String> ids) {
+        return requester.route("tenants.{tenantId}.menu-items.lookup", tenantId)
+                .data(MenuItemLookupRequest.builder().ids(new ArrayList<>(ids)).build())
+                .retrieveFlux(MenuItemResponse.class)
+                .collectList()
+                .block(timeout);
+    }
+
+    @Override
+    public void destroy() {
+        requester.dispose();
+    }
+}
@@ -0,0 +1,125 @@
+package com.allo.restaurant.order.client;
+
+import com.allo.restaurant.order.dto.MenuItemResponse;
+import com.allo.restaurant.order.dto.OrderItemRequest;
+import com.allo.restaurant.order.dto.StockReservationResponse;
+import com.allo.restaurant.order.exception.InsufficientStockException;
+import com.allo.restaurant.order.exception.MenuItemNotFoundException;
+import com.allo.restaurant.order.exception.MenuServiceUnavailableException;
+import com.allo.restaurant.order.logging.LogMarkers;
+import com.allo.restaurant.order.tenant.TenantIds;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Non-blocking counterpart of {@link MenuServiceClient}, sharing its {@code menuService}
+ * circuit breaker and retry configuration.
+ */
+@Slf4j
+@Component
+@Profile("reactive")
+public class ReactiveMenuServiceClient {
+
+    private final WebClient webClient;
+    private final ObservationRegistry observationRegistry;
+
+    public ReactiveMenuServiceClient(WebClient.Builder webClientBuilder,
+                                     ObservationRegistry observationRegistry,
+                                     @Value("${menu.service.url}") String menuServiceUrl) {
+        this.webClient = webClientBuilder.baseUrl(menuServiceUrl).build();
+        this.observationRegistry = observationRegistry;
+    }
+
+    @CircuitBreaker(name = "menuService", fallbackMethod = "getMenuItemFallback")
+    @Retry(name = "menuService")
+    public Mono<MenuItemResponse> getMenuItemById(String tenantId, String id) {
+        return webClient
+                .get()
+                .uri("/menu-items/{id}", id)
+                .header(TenantIds.HEADER, tenantId)
+                .retrieve()
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.NOT_FOUND),
+                        response -> Mono.error(new MenuItemNotFoundException(id)))
+                .bodyToMono(MenuItemResponse.class)
+                .doOnSubscribe(subscription ->
+                        log.info(LogMarkers.HOT_PATH, "Attempting to fetch menu item with id: {}", id))
+                .name("menu.client.requests")
+                .tag("operation", "getMenuItemById")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    /**
+     * Non-blocking {@link MenuServiceClient#reserveMenuItems}, always fetching the full item details.
+     */
+    @CircuitBreaker(name = "menuService", fallbackMethod = "reserveMenuItemsFallback")
+    @Retry(name = "menuService")
+    public Mono<List<MenuItemResponse>> reserveMenuItems(String tenantId, String reservationId, List<OrderItemRequest> items) {
+        return webClient
+                .post()
+                .uri("/menu-items/reservations")
+                .header(TenantIds.HEADER, tenantId)
+                .bodyValue(MenuServiceClient.toReservationRequest(reservationId, items, Map.of()))
+                .retrieve()
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.NOT_FOUND),
+                        response -> response.bodyToMono(MenuErrorBody.class)
+                                .map(body -> new MenuItemNotFoundException(body.id())))
+                .onStatus(status -> status.isSameCodeAs(HttpStatus.CONFLICT),
+                        response -> response.bodyToMono(MenuErrorBody.class)
+                                .map(body -> MenuErrorBody.conflict(body, reservationId)))
+                .bodyToMono(StockReservationResponse.class)
+                .map(StockReservationResponse::getItems)
+                .doOnSubscribe(subscription -> log.info(LogMarkers.HOT_PATH,
+                        "Attempting to reserve {} menu items for {}", items.size(), reservationId))
+                .name("menu.client.requests")
+                .tag("operation", "reserveMenuItems")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    @CircuitBreaker(name = "menuService", fallbackMethod = "releaseReservationFallback")
+    @Retry(name = "menuService")
+    public Mono<Void> releaseReservation(String tenantId, String reservationId) {
+        return webClient
+                .delete()
+                .uri("/menu-items/reservations/{reservationId}", reservationId)
+                .header(TenantIds.HEADER, tenantId)
+                .retrieve()
+                .toBodilessEntity()
+                .then()
+                .name("menu.client.requests")
+                .tag("operation", "releaseReservation")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    private Mono<MenuItemResponse> getMenuItemFallback(String tenantId, String id, Throwable t) {
+        if (t instanceof MenuItemNotFoundException) {
+            return Mono.error(t);
+        }
+        log.error("Circuit breaker activated for Menu Service. Error: {}", t.getMessage());
+        return Mono.error(new MenuServiceUnavailableException("Menu Service is currently unavailable. Please try again later."));
+    }
+
+    private Mono<List<MenuItemResponse>> reserveMenuItemsFallback(String tenantId, String reservationId, List<OrderItemRequest> items, Throwable t) {
+        if (t instanceof MenuItemNotFoundException || t instanceof InsufficientStockException) {
+            return Mono.error(t);
+        }
+        log.error("Circuit breaker activated for Menu Service. Error: {}", t.getMessage());
+        return Mono.error(new MenuServiceUnavailableException("Menu Service is currently unavailable. Please try again later."));
+    }
+
+    private Mono<Void> releaseReservationFallback(String tenantId, String reservationId, Throwable t) {
+        log.error("Circuit breaker activated for Menu Service. Error: {}", t.getMessage());
+        return Mono.error(new MenuServiceUnavailableException("Menu Service is currently unavailable. Please try again later."));
+    }
+}
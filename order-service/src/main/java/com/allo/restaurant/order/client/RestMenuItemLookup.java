@@ -0,0 +1,51 @@
+package com.allo.restaurant.order.client;
+
+import com.allo.restaurant.order.dto.MenuItemListResponse;
+import com.allo.restaurant.order.dto.MenuItemLookupRequest;
+import com.allo.restaurant.order.dto.MenuItemResponse;
+import com.allo.restaurant.order.exception.MenuItemNotFoundException;
+import com.allo.restaurant.order.tenant.TenantIds;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Looks menu items up with JSON over HTTP, one request per call.
+ */
+public class RestMenuItemLookup implements MenuItemLookup {
+
+    private final RestClient restClient;
+
+    public RestMenuItemLookup(RestClient.Builder restClientBuilder, String menuServiceUrl) {
+        this.restClient = restClientBuilder.baseUrl(menuServiceUrl).build();
+    }
+
+    @Override
+    public MenuItemResponse getMenuItemById(String tenantId, String id) {
+        try {
+            return restClient
+                    .get()
+                    .uri("/menu-items/{id}", id)
+                    .header(TenantIds.HEADER, tenantId)
+                    .retrieve()
+                    .body(MenuItemResponse.class);
+        } catch (HttpClientErrorException.NotFound e) {
+            throw new MenuItemNotFoundException(id);
+        }
+    }
+
+    @Override
+    public List<MenuItemResponse> getMenuItemsByIds(String tenantId, Collection<String> ids) {
+        return restClient
+                .post()
+                .uri("/menu-items/lookup")
+                .header(TenantIds.HEADER, tenantId)
+                .body(MenuItemLookupRequest.builder().ids(new ArrayList<>(ids)).build())
+                .retrieve()
+                .body(MenuItemListResponse.class)
+                .getItems();
+    }
+}
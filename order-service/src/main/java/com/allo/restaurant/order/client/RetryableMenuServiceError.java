@@ -0,0 +1,21 @@
+package com.allo.restaurant.order.client;
+
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.function.Predicate;
+
+/**
+ * Decides which failed menu-service calls the {@code menuService} retry repeats: everything but a
+ * 4xx response, which menu-service would give again for the same request.
+ */
+public class RetryableMenuServiceError implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        if (throwable instanceof HttpClientErrorException) {
+            return false;
+        }
+        return !(throwable instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+}
@@ -0,0 +1,26 @@
+package com.allo.restaurant.order.config;
+
+import com.allo.restaurant.order.limit.AdaptiveConcurrencyLimiter;
+import com.allo.restaurant.order.limit.ConcurrencyLimitInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Sheds load on the blocking stack, where every request in flight holds a thread. The reactive
+ * stack does not block threads while waiting on MongoDB or the Menu Service.
+ */
+@Configuration
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConcurrencyLimitInterceptor(limiter)).order(2);
+    }
+}
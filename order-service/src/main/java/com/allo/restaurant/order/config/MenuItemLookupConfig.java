@@ -0,0 +1,38 @@
+package com.allo.restaurant.order.config;
+
+import com.allo.restaurant.order.client.MenuItemLookup;
+import com.allo.restaurant.order.client.RSocketMenuItemLookup;
+import com.allo.restaurant.order.client.RestMenuItemLookup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.web.client.RestClient;
+
+import java.time.Duration;
+
+/**
+ * Picks the {@link MenuItemLookup} transport when the context starts rather than with a bean
+ * condition: conditions are evaluated once when a native image is built, so a condition on
+ * {@code menu.service.lookup-transport} would ignore the value the image is started with.
+ */
+@Configuration
+@Profile("!reactive")
+public class MenuItemLookupConfig {
+
+    @Bean
+    public MenuItemLookup menuItemLookup(@Value("${menu.service.lookup-transport:rest}") String transport,
+                                         @Value("${menu.service.url}") String menuServiceUrl,
+                                         @Value("${menu.service.rsocket.host}") String rsocketHost,
+                                         @Value("${menu.service.rsocket.port}") int rsocketPort,
+                                         @Value("${menu.service.rsocket.timeout:2s}") Duration rsocketTimeout,
+                                         RestClient.Builder restClientBuilder,
+                                         RSocketRequester.Builder rsocketRequesterBuilder) {
+        return switch (transport) {
+            case "rest" -> new RestMenuItemLookup(restClientBuilder, menuServiceUrl);
+            case "rsocket" -> new RSocketMenuItemLookup(rsocketRequesterBuilder, rsocketHost, rsocketPort, rsocketTimeout);
+            default -> throw new IllegalArgumentException("Unknown menu.service.lookup-transport: " + transport);
+        };
+    }
+}
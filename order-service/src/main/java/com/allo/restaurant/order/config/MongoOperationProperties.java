@@ -0,0 +1,31 @@
+package com.allo.restaurant.order.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties("mongodb")
+public class MongoOperationProperties {
+
+    /**
+     * Read preference and write concern by operation name (see {@link MongoOperationRouting}).
+     * Operations not listed read from the primary and write with the client's default write concern.
+     */
+    private Map<String, Operation> operations = new HashMap<>();
+
+    @Data
+    public static class Operation {
+        /** e.g. {@code secondaryPreferred}; the primary when empty. */
+        private String readPreference;
+        /** How far a secondary may lag behind the primary and still serve the read; MongoDB requires at least 90s. */
+        private Duration maxStaleness;
+        /** e.g. {@code majority}; the client's default when empty. */
+        private String writeConcern;
+        /** How long a write waits for its write concern before it fails. */
+        private Duration writeTimeout;
+    }
+}
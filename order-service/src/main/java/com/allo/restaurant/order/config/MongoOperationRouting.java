@@ -0,0 +1,59 @@
+package com.allo.restaurant.order.config;
+
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Where each operation reads from and how many replicas its writes wait for, as configured under
+ * {@code mongodb.operations}. History and exports tolerate reading from a secondary that lags a
+ * little, which moves that load off the primary; a new order waits for a majority of the replica
+ * set, so it survives a failover once the client has seen it created.
+ * <p>
+ * The settings are parsed once at startup, so a typo fails the application rather than a request.
+ */
+@Component
+public class MongoOperationRouting {
+
+    public static final String ORDER_HISTORY = "order-history";
+    public static final String ORDER_EXPORT = "order-export";
+    public static final String ORDER_CREATE = "order-create";
+
+    private final Map<String, ReadPreference> readPreferences = new HashMap<>();
+    private final Map<String, WriteConcern> writeConcerns = new HashMap<>();
+
+    public MongoOperationRouting(MongoOperationProperties properties) {
+        properties.getOperations().forEach((operation, settings) -> {
+            if (StringUtils.hasText(settings.getReadPreference())) {
+                readPreferences.put(operation, settings.getMaxStaleness() == null
+                        ? ReadPreference.valueOf(settings.getReadPreference())
+                        : ReadPreference.valueOf(settings.getReadPreference(), List.of(),
+                                settings.getMaxStaleness().toSeconds(), TimeUnit.SECONDS));
+            }
+            if (StringUtils.hasText(settings.getWriteConcern())) {
+                WriteConcern writeConcern = WriteConcern.valueOf(settings.getWriteConcern());
+                if (writeConcern == null) {
+                    throw new IllegalArgumentException("Unknown write concern for " + operation + ": " + settings.getWriteConcern());
+                }
+                if (settings.getWriteTimeout() != null) {
+                    writeConcern = writeConcern.withWTimeout(settings.getWriteTimeout().toMillis(), TimeUnit.MILLISECONDS);
+                }
+                writeConcerns.put(operation, writeConcern);
+            }
+        });
+    }
+
+    public ReadPreference readPreference(String operation) {
+        return readPreferences.getOrDefault(operation, ReadPreference.primary());
+    }
+
+    public WriteConcern writeConcern(String operation, WriteConcern defaultWriteConcern) {
+        return writeConcerns.getOrDefault(operation, defaultWriteConcern);
+    }
+}
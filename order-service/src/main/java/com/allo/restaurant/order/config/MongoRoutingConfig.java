@@ -0,0 +1,57 @@
+package com.allo.restaurant.order.config;
+
+import com.allo.restaurant.order.entity.Order;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.ReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.MongoAction;
+import org.springframework.data.mongodb.core.MongoActionOperation;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.WriteConcernResolver;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+
+/**
+ * Replaces the auto-configured templates with ones that apply the {@code order-create} write
+ * concern to inserted orders. Orders are only ever inserted when they are created, so status
+ * updates and other saves keep the client's default write concern.
+ * <p>
+ * Read preferences are set per query by the repositories and services that can use a secondary.
+ * The reactive template only exists under the {@code reactive} profile; the other modes do not
+ * configure a reactive client at all (see {@code application.yaml}).
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(MongoOperationProperties.class)
+public class MongoRoutingConfig {
+
+    @Bean
+    public MongoTemplate mongoTemplate(MongoDatabaseFactory factory, MongoConverter converter, MongoOperationRouting routing) {
+        MongoTemplate template = new MongoTemplate(factory, converter);
+        template.setWriteConcernResolver(orderCreateWriteConcern(routing));
+        return template;
+    }
+
+    @Bean
+    @Profile("reactive")
+    public ReactiveMongoTemplate reactiveMongoTemplate(ReactiveMongoDatabaseFactory factory, MongoConverter converter,
+                                                       MongoOperationRouting routing) {
+        ReactiveMongoTemplate template = new ReactiveMongoTemplate(factory, converter);
+        template.setWriteConcernResolver(orderCreateWriteConcern(routing));
+        return template;
+    }
+
+    private static WriteConcernResolver orderCreateWriteConcern(MongoOperationRouting routing) {
+        return action -> isOrderInsert(action)
+                ? routing.writeConcern(MongoOperationRouting.ORDER_CREATE, action.getDefaultWriteConcern())
+                : action.getDefaultWriteConcern();
+    }
+
+    private static boolean isOrderInsert(MongoAction action) {
+        return Order.class.equals(action.getEntityType())
+                && (action.getMongoActionOperation() == MongoActionOperation.INSERT
+                || action.getMongoActionOperation() == MongoActionOperation.INSERT_LIST);
+    }
+}
@@ -0,0 +1,32 @@
+package com.allo.restaurant.order.config;
+
+import com.allo.restaurant.common.aot.DataPackageHints;
+import com.allo.restaurant.order.OrderServiceApplication;
+import com.allo.restaurant.order.client.RetryableMenuServiceError;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Reflection hints for the native image: the dto and entity packages, which include RabbitMQ
+ * messages, Menu Service responses and the NDJSON import and export, and the retry predicate.
+ */
+@Configuration(proxyBeanMethods = false)
+@ImportRuntimeHints(NativeHintsConfig.DataTypeHints.class)
+public class NativeHintsConfig {
+
+    static class DataTypeHints extends DataPackageHints {
+
+        DataTypeHints() {
+            super(OrderServiceApplication.class);
+        }
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            super.registerHints(hints, classLoader);
+            // Named in application.yaml and constructed by Resilience4j.
+            hints.reflection().registerType(RetryableMenuServiceError.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+    }
+}
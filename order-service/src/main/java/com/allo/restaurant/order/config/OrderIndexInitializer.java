@@ -0,0 +1,138 @@
+package com.allo.restaurant.order.config;
+
+import com.allo.restaurant.order.entity.ItemSalesRollup;
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderEvent;
+import com.allo.restaurant.order.entity.PricingRule;
+import com.allo.restaurant.order.entity.SalesRollup;
+import com.allo.restaurant.order.service.ActiveOrderIndex;
+import com.allo.restaurant.order.service.OrderArchiveService;
+import com.allo.restaurant.order.service.PricingEngine;
+import com.allo.restaurant.order.service.SalesAnalyticsService;
+import com.allo.restaurant.order.tenant.TenantIds;
+import com.mongodb.client.model.CreateCollectionOptions;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Creates the indexes the order queries rely on. Every index leads with the tenant, so a query
+ * only ever scans its own tenant's entries, and {@code {tenantId, _id}} is indexed as the shard
+ * key. This runs on a background thread once the application is ready, so startup never waits for
+ * MongoDB to become reachable.
+ * <p>
+ * Orders and pricing rules written before they were partitioned by tenant are assigned to the
+ * default tenant first, and the indexes that did not lead with the tenant are dropped. The sales
+ * rollups were keyed by time alone, so they are rebuilt for the default tenant.
+ * <p>
+ * The order archive is created with zstd block compression: it is large, rarely read and never
+ * updated, so it is worth trading some CPU on reads for disk and cache space.
+ * <p>
+ * Order events are unique by {@code {tenantId, orderId, sequence}}, which is also the index a
+ * timeline is read from in order.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OrderIndexInitializer {
+
+    static final String SHARD_KEY_INDEX = "tenantId_id";
+
+    private static final Set<String> UNPARTITIONED_INDEXES = Set.of("createdAt", "status_createdAt");
+
+    private final MongoTemplate mongoTemplate;
+    private final ActiveOrderIndex activeOrderIndex;
+    private final PricingEngine pricingEngine;
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        Thread.ofVirtual().name("order-index-initializer").start(() -> {
+            try {
+                assignDefaultTenant();
+
+                IndexOperations indexOps = mongoTemplate.indexOps(Order.class);
+                indexOps.getIndexInfo().stream()
+                        .map(IndexInfo::getName)
+                        .filter(UNPARTITIONED_INDEXES::contains)
+                        .forEach(indexOps::dropIndex);
+                ensureShardKeyIndex(indexOps);
+                indexOps.ensureIndex(new Index("tenantId", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.ASC)
+                        .named("tenantId_createdAt"));
+                indexOps.ensureIndex(new Index("tenantId", Sort.Direction.ASC)
+                        .on("status", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.ASC)
+                        .named("tenantId_status_createdAt"));
+
+                if (!mongoTemplate.collectionExists(OrderArchiveService.COLLECTION)) {
+                    mongoTemplate.getDb().createCollection(OrderArchiveService.COLLECTION, new CreateCollectionOptions()
+                            .storageEngineOptions(new Document("wiredTiger", new Document("configString", "block_compressor=zstd"))));
+                }
+                IndexOperations archiveIndexOps = mongoTemplate.indexOps(OrderArchiveService.COLLECTION);
+                ensureShardKeyIndex(archiveIndexOps);
+                archiveIndexOps.ensureIndex(new Index("tenantId", Sort.Direction.ASC)
+                        .on("createdAt", Sort.Direction.ASC)
+                        .named("tenantId_createdAt"));
+
+                IndexOperations eventIndexOps = mongoTemplate.indexOps(OrderEvent.class);
+                ensureShardKeyIndex(eventIndexOps);
+                eventIndexOps.ensureIndex(new Index("tenantId", Sort.Direction.ASC)
+                        .on("orderId", Sort.Direction.ASC)
+                        .on("sequence", Sort.Direction.ASC)
+                        .unique()
+                        .named("tenantId_orderId_sequence"));
+
+                ensureShardKeyIndex(mongoTemplate.indexOps(PricingRule.class));
+                mongoTemplate.indexOps(SalesRollup.class).ensureIndex(new Index("_id.tenantId", Sort.Direction.ASC)
+                        .on("_id.hour", Sort.Direction.ASC)
+                        .named("tenantId_hour"));
+                mongoTemplate.indexOps(ItemSalesRollup.class).ensureIndex(new Index("_id.tenantId", Sort.Direction.ASC)
+                        .on("_id.day", Sort.Direction.ASC)
+                        .named("tenantId_day"));
+            } catch (RuntimeException e) {
+                log.warn("Could not create order indexes: {}", e.getMessage());
+            }
+        });
+    }
+
+    private void assignDefaultTenant() {
+        Update defaultTenant = new Update().set("tenantId", TenantIds.DEFAULT);
+        long orders = mongoTemplate.updateMulti(query(where("tenantId").exists(false)), defaultTenant, Order.class)
+                .getModifiedCount();
+        long pricingRules = mongoTemplate.updateMulti(query(where("tenantId").exists(false)), defaultTenant, PricingRule.class)
+                .getModifiedCount();
+
+        if (orders > 0) {
+            log.info("Assigned {} orders to the {} tenant", orders, TenantIds.DEFAULT);
+            activeOrderIndex.resync();
+            mongoTemplate.remove(query(where("_id.tenantId").exists(false)), SalesRollup.class);
+            mongoTemplate.remove(query(where("_id.tenantId").exists(false)), ItemSalesRollup.class);
+            salesAnalyticsService.backfill(TenantIds.DEFAULT);
+        }
+        if (pricingRules > 0) {
+            log.info("Assigned {} pricing rules to the {} tenant", pricingRules, TenantIds.DEFAULT);
+            pricingEngine.refresh();
+        }
+    }
+
+    private static void ensureShardKeyIndex(IndexOperations indexOps) {
+        indexOps.ensureIndex(new Index("tenantId", Sort.Direction.ASC)
+                .on("_id", Sort.Direction.ASC)
+                .named(SHARD_KEY_INDEX));
+    }
+}
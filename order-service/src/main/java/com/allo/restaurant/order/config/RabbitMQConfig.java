@@ -21,6 +21,9 @@ public class RabbitMQConfig {
     @Value("${rabbitmq.routing.key}")
     private String routingKey;
 
+    @Value("${rabbitmq.routing.created-key}")
+    private String createdRoutingKey;
+
     @Bean
     public Queue queue() {
         return new Queue(queueName, true);
@@ -36,6 +39,29 @@ public class RabbitMQConfig {
         return BindingBuilder.bind(queue).to(exchange).with(routingKey);
     }
 
+    /**
+     * Per-instance queue that receives a copy of every creation and status change, so each
+     * instance can index them and push them to the stream subscribers connected to it. Removed by
+     * the broker when the instance stops.
+     */
+    @Bean
+    public Queue orderStatusStreamQueue() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding orderStatusStreamBinding(Queue orderStatusStreamQueue, TopicExchange exchange) {
+        return BindingBuilder.bind(orderStatusStreamQueue).to(exchange).with(routingKey);
+    }
+
+    /**
+     * Creations only go to the stream queue: the notification queue is for status changes.
+     */
+    @Bean
+    public Binding orderCreatedStreamBinding(Queue orderStatusStreamQueue, TopicExchange exchange) {
+        return BindingBuilder.bind(orderStatusStreamQueue).to(exchange).with(createdRoutingKey);
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -45,6 +71,7 @@ public class RabbitMQConfig {
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory, MessageConverter jsonMessageConverter) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(jsonMessageConverter);
+        rabbitTemplate.setObservationEnabled(true);
         return rabbitTemplate;
     }
 }
@@ -0,0 +1,94 @@
+package com.allo.restaurant.order.config;
+
+import com.allo.restaurant.common.ratelimit.RateLimitProperties;
+import com.allo.restaurant.common.ratelimit.RateLimiter;
+import com.allo.restaurant.order.exception.RateLimitExceededException;
+import com.allo.restaurant.order.tenant.TenantIds;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.net.InetSocketAddress;
+import java.util.Optional;
+
+/**
+ * Applies the per-client {@link RateLimiter} before a request takes a concurrency permit, so a
+ * client over its rate does not crowd out the others.
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    RateLimiter rateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        return new RateLimiter(properties, meterRegistry);
+    }
+
+    /**
+     * Runs after the tenant header has been validated; the rejection goes through the exception
+     * handlers as a 429.
+     */
+    @Configuration
+    @Profile("!reactive")
+    @RequiredArgsConstructor
+    static class Servlet implements WebMvcConfigurer {
+
+        private final RateLimiter rateLimiter;
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                    rateLimiter.findRule(request.getMethod(), request.getRequestURI()).ifPresent(rule -> {
+                        long wait = rateLimiter.tryAcquire(rule, rateLimiter.clientKey(
+                                Optional.ofNullable(request.getHeader(TenantIds.HEADER)).orElse(TenantIds.DEFAULT),
+                                request.getHeader(RateLimiter.API_KEY_HEADER),
+                                request.getHeader(RateLimiter.TERMINAL_ID_HEADER),
+                                request.getRemoteAddr()));
+                        if (wait > 0) {
+                            throw new RateLimitExceededException(rule.name(), RateLimiter.retryAfterSeconds(wait));
+                        }
+                    });
+                    return true;
+                }
+            }).order(1);
+        }
+    }
+
+    @Bean
+    @Profile("reactive")
+    WebFilter rateLimitFilter(RateLimiter rateLimiter) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Optional<RateLimiter.Rule> rule = rateLimiter.findRule(request.getMethod().name(), request.getPath().value());
+            if (rule.isEmpty()) {
+                return chain.filter(exchange);
+            }
+            HttpHeaders headers = request.getHeaders();
+            long wait = rateLimiter.tryAcquire(rule.get(), rateLimiter.clientKey(
+                    Optional.ofNullable(headers.getFirst(TenantIds.HEADER)).orElse(TenantIds.DEFAULT),
+                    headers.getFirst(RateLimiter.API_KEY_HEADER),
+                    headers.getFirst(RateLimiter.TERMINAL_ID_HEADER),
+                    Optional.ofNullable(request.getRemoteAddress()).map(InetSocketAddress::getHostString).orElse("unknown")));
+            if (wait == 0) {
+                return chain.filter(exchange);
+            }
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(RateLimiter.retryAfterSeconds(wait)));
+            return exchange.getResponse().setComplete();
+        };
+    }
+}
@@ -0,0 +1,60 @@
+package com.allo.restaurant.order.config;
+
+import com.allo.restaurant.order.tenant.TenantIds;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Rejects a malformed {@value TenantIds#HEADER} header before any handler runs, so controllers can
+ * take the header as given.
+ */
+@Configuration
+public class TenantWebConfig {
+
+    /**
+     * The rejection goes through the exception handlers like any other 400.
+     */
+    @Configuration
+    @Profile("!reactive")
+    static class Servlet implements WebMvcConfigurer {
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new HandlerInterceptor() {
+                @Override
+                public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                    String tenantId = request.getHeader(TenantIds.HEADER);
+                    if (tenantId != null) {
+                        TenantIds.validate(tenantId);
+                    }
+                    return true;
+                }
+            });
+        }
+    }
+
+    @Bean
+    @Profile("reactive")
+    WebFilter tenantHeaderFilter() {
+        return (exchange, chain) -> {
+            String tenantId = exchange.getRequest().getHeaders().getFirst(TenantIds.HEADER);
+            if (tenantId != null) {
+                try {
+                    TenantIds.validate(tenantId);
+                } catch (IllegalArgumentException e) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+                }
+            }
+            return chain.filter(exchange);
+        };
+    }
+}
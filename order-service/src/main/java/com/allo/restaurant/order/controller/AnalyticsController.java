@@ -0,0 +1,54 @@
+package com.allo.restaurant.order.controller;
+
+import com.allo.restaurant.order.dto.AnalyticsBackfillResponse;
+import com.allo.restaurant.order.dto.SalesReportResponse;
+import com.allo.restaurant.order.dto.TopItemsResponse;
+import com.allo.restaurant.order.service.SalesAnalyticsService;
+import com.allo.restaurant.order.tenant.TenantIds;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+
+@RestController
+@RequestMapping("/analytics")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class AnalyticsController {
+
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    @GetMapping("/sales")
+    public ResponseEntity<SalesReportResponse> getSales(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(1));
+        SalesReportResponse response = salesAnalyticsService.getSales(tenantId, start, end);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/top-items")
+    public ResponseEntity<TopItemsResponse> getTopItems(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(defaultValue = "10") int limit) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : end.minus(Duration.ofDays(30));
+        TopItemsResponse response = salesAnalyticsService.getTopItems(tenantId, start, end, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/backfill")
+    public ResponseEntity<AnalyticsBackfillResponse> backfill(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId) {
+        AnalyticsBackfillResponse response = salesAnalyticsService.backfill(tenantId);
+        return ResponseEntity.ok(response);
+    }
+}
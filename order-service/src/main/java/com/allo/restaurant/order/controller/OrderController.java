@@ -1,45 +1,162 @@
 package com.allo.restaurant.order.controller;
 
 import com.allo.restaurant.order.dto.*;
+import com.allo.restaurant.order.entity.OrderStatus;
+import com.allo.restaurant.order.limit.ConcurrencyLimited;
+import com.allo.restaurant.order.limit.RequestPriority;
+import com.allo.restaurant.order.service.ActiveOrderIndex;
+import com.allo.restaurant.order.service.BulkOrderService;
+import com.allo.restaurant.order.service.OrderExportService;
 import com.allo.restaurant.order.service.OrderService;
+import com.allo.restaurant.order.service.OrderStatusStreamService;
+import com.allo.restaurant.order.tenant.TenantIds;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Every endpoint acts on the orders of the tenant named by the {@value TenantIds#HEADER} header.
+ * Creating, listing and updating orders is {@link ConcurrencyLimited}: under overload history and
+ * imports are shed first, status updates last.
+ */
 @RestController
 @RequestMapping("/orders")
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class OrderController {
 
     private final OrderService orderService;
+    private final BulkOrderService bulkOrderService;
+    private final OrderExportService orderExportService;
+    private final OrderStatusStreamService orderStatusStreamService;
+    private final ActiveOrderIndex activeOrderIndex;
 
     @PostMapping
-    public ResponseEntity<OrderResponse> createOrder(@Valid @RequestBody CreateOrderRequest request) {
-        OrderResponse response = orderService.createOrder(request);
+    @ConcurrencyLimited(RequestPriority.NORMAL)
+    public ResponseEntity<OrderResponse> createOrder(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @Valid @RequestBody CreateOrderRequest request) {
+        OrderResponse response = orderService.createOrder(tenantId, request);
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ConcurrencyLimited(RequestPriority.LOW)
+    public ResponseEntity<BulkOrderResponse> createOrders(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            InputStream body) throws IOException {
+        return bulkResponse(bulkOrderService.createOrders(tenantId, bulkOrderService.readJsonArray(body)));
+    }
+
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @ConcurrencyLimited(RequestPriority.LOW)
+    public ResponseEntity<BulkOrderResponse> createOrdersFromStream(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            InputStream body) throws IOException {
+        return bulkResponse(bulkOrderService.createOrders(tenantId, bulkOrderService.readNdjson(body)));
+    }
+
     @PatchMapping("/{orderId}/status")
+    @ConcurrencyLimited(RequestPriority.CRITICAL)
     public ResponseEntity<UpdateOrderStatusResponse> updateOrderStatus(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
             @PathVariable String orderId,
             @Valid @RequestBody UpdateOrderStatusRequest request) {
-        UpdateOrderStatusResponse response = orderService.updateOrderStatus(orderId, request);
+        UpdateOrderStatusResponse response = orderService.updateOrderStatus(tenantId, orderId, request);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping
+    @ConcurrencyLimited(RequestPriority.LOW)
     public ResponseEntity<OrderHistoryResponse> getOrderHistory(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
             @RequestParam(defaultValue = "10") int limit,
             @RequestParam(defaultValue = "0") int offset) {
-        OrderHistoryResponse response = orderService.getOrderHistory(limit, offset);
+        OrderHistoryResponse response = orderService.getOrderHistory(tenantId, limit, offset);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/active")
+    public ResponseEntity<ActiveOrderListResponse> getActiveOrders(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @RequestParam(required = false) Set<OrderStatus> status,
+            @RequestParam(defaultValue = "500") int limit) {
+        ActiveOrderListResponse response = activeOrderIndex.getActiveOrders(tenantId, status, limit);
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Set<OrderStatus> status) {
+        OrderExportFormat exportFormat = OrderExportFormat.of(format);
+        orderExportService.validateRange(from, to);
+
+        StreamingResponseBody body = out -> orderExportService.export(tenantId, from, to, status, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("orders." + exportFormat.getExtension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatuses(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @RequestParam(required = false) Set<OrderStatus> status) {
+        return orderStatusStreamService.subscribeToStatuses(tenantId, status);
+    }
+
+    @GetMapping(value = "/{orderId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamOrderStatus(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String orderId) {
+        OrderResponse order = orderService.getOrderById(tenantId, orderId);
+        return orderStatusStreamService.subscribeToOrder(tenantId, orderId, OrderStatusEvent.builder()
+                .orderId(order.getId())
+                .tenantId(tenantId)
+                .status(order.getStatus())
+                .occurredAt(order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt())
+                .build());
+    }
+
+    @GetMapping("/{orderId}/timeline")
+    public ResponseEntity<OrderTimelineResponse> getOrderTimeline(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String orderId) {
+        OrderTimelineResponse response = orderService.getOrderTimeline(tenantId, orderId);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{orderId}")
-    public ResponseEntity<OrderResponse> getOrderById(@PathVariable String orderId) {
-        OrderResponse response = orderService.getOrderById(orderId);
+    public ResponseEntity<OrderResponse> getOrderById(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String orderId) {
+        OrderResponse response = orderService.getOrderById(tenantId, orderId);
         return ResponseEntity.ok(response);
     }
+
+    private ResponseEntity<BulkOrderResponse> bulkResponse(BulkOrderResponse response) {
+        HttpStatus status = response.getFailed() == 0 ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+        return ResponseEntity.status(status).body(response);
+    }
 }
@@ -0,0 +1,46 @@
+package com.allo.restaurant.order.controller;
+
+import com.allo.restaurant.order.dto.CreatePricingRuleRequest;
+import com.allo.restaurant.order.dto.PricingRuleResponse;
+import com.allo.restaurant.order.service.PricingRuleService;
+import com.allo.restaurant.order.tenant.TenantIds;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/pricing-rules")
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class PricingRuleController {
+
+    private final PricingRuleService pricingRuleService;
+
+    @GetMapping
+    public ResponseEntity<List<PricingRuleResponse>> getPricingRules(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId) {
+        List<PricingRuleResponse> response = pricingRuleService.getPricingRules(tenantId);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping
+    public ResponseEntity<PricingRuleResponse> createPricingRule(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @Valid @RequestBody CreatePricingRuleRequest request) {
+        PricingRuleResponse response = pricingRuleService.createPricingRule(tenantId, request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> deletePricingRule(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String id) {
+        pricingRuleService.deletePricingRule(tenantId, id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,63 @@
+package com.allo.restaurant.order.controller;
+
+import com.allo.restaurant.order.dto.*;
+import com.allo.restaurant.order.service.ReactiveOrderService;
+import com.allo.restaurant.order.tenant.TenantIds;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/orders")
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOrderController {
+
+    private final ReactiveOrderService orderService;
+
+    @PostMapping
+    public Mono<ResponseEntity<OrderResponse>> createOrder(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @Valid @RequestBody CreateOrderRequest request) {
+        return orderService.createOrder(tenantId, request)
+                .map(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
+    }
+
+    @PatchMapping("/{orderId}/status")
+    public Mono<ResponseEntity<UpdateOrderStatusResponse>> updateOrderStatus(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String orderId,
+            @Valid @RequestBody UpdateOrderStatusRequest request) {
+        return orderService.updateOrderStatus(tenantId, orderId, request)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<OrderHistoryResponse>> getOrderHistory(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0") int offset) {
+        return orderService.getOrderHistory(tenantId, limit, offset)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{orderId}/timeline")
+    public Mono<ResponseEntity<OrderTimelineResponse>> getOrderTimeline(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String orderId) {
+        return orderService.getOrderTimeline(tenantId, orderId)
+                .map(ResponseEntity::ok);
+    }
+
+    @GetMapping("/{orderId}")
+    public Mono<ResponseEntity<OrderResponse>> getOrderById(
+            @RequestHeader(value = TenantIds.HEADER, defaultValue = TenantIds.DEFAULT) String tenantId,
+            @PathVariable String orderId) {
+        return orderService.getOrderById(tenantId, orderId)
+                .map(ResponseEntity::ok);
+    }
+}
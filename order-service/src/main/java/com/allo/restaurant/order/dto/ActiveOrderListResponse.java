@@ -0,0 +1,17 @@
+package com.allo.restaurant.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveOrderListResponse {
+    private List<ActiveOrderResponse> orders;
+    private long totalRecords;
+}
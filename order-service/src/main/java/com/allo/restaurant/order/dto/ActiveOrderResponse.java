@@ -0,0 +1,26 @@
+package com.allo.restaurant.order.dto;
+
+import com.allo.restaurant.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Kitchen view of an order that still needs work: what to prepare, without customer details.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActiveOrderResponse {
+    private String id;
+    private String tenantId;
+    private OrderStatus status;
+    private List<OrderItemResponse> orderItems;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,15 @@
+package com.allo.restaurant.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnalyticsBackfillResponse {
+    private long salesBuckets;
+    private long itemBuckets;
+}
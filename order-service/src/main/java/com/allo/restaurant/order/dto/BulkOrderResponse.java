@@ -0,0 +1,19 @@
+package com.allo.restaurant.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkOrderResponse {
+    private int received;
+    private int created;
+    private int failed;
+    private List<BulkOrderResult> results;
+}
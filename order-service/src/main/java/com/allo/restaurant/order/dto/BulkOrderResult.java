@@ -0,0 +1,23 @@
+package com.allo.restaurant.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BulkOrderResult {
+    private int index;
+    private BulkOrderResultStatus status;
+    private String orderId;
+    private BigDecimal totalAmount;
+    private List<String> errors;
+}
@@ -0,0 +1,6 @@
+package com.allo.restaurant.order.dto;
+
+public enum BulkOrderResultStatus {
+    CREATED,
+    FAILED
+}
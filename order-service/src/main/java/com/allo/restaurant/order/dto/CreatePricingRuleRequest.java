@@ -0,0 +1,47 @@
+package com.allo.restaurant.order.dto;
+
+import com.allo.restaurant.order.entity.PricingRuleType;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreatePricingRuleRequest {
+    @NotBlank(message = "Name is required")
+    private String name;
+
+    @NotNull(message = "Type is required")
+    private PricingRuleType type;
+
+    private List<String> productIds;
+
+    @DecimalMin(value = "0.01", message = "Percentage must be greater than 0")
+    @DecimalMax(value = "100", message = "Percentage must be at most 100")
+    @Digits(integer = 3, fraction = 2, message = "Percentage must have at most 2 decimal places")
+    private BigDecimal percentage;
+
+    @DecimalMin(value = "0.01", message = "Amount off must be greater than 0")
+    private BigDecimal amountOff;
+
+    private Set<DayOfWeek> daysOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private LocalDateTime validFrom;
+    private LocalDateTime validUntil;
+}
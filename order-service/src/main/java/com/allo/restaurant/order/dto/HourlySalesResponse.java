@@ -0,0 +1,20 @@
+package com.allo.restaurant.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HourlySalesResponse {
+    private Instant hour;
+    private long orders;
+    private long items;
+    private BigDecimal revenue;
+}
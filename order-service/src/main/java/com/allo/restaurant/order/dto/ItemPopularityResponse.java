@@ -0,0 +1,19 @@
+package com.allo.restaurant.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemPopularityResponse {
+    private String productId;
+    private String name;
+    private long quantity;
+    private BigDecimal revenue;
+}
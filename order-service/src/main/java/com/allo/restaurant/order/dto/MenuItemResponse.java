@@ -17,6 +17,9 @@ public class MenuItemResponse {
     private String name;
     private String description;
     private BigDecimal price;
+    private Integer stock;
+    private boolean available;
+    private Long version;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
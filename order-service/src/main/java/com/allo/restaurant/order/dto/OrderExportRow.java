@@ -0,0 +1,30 @@
+package com.allo.restaurant.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Flat, one-line-per-order view used for CSV exports.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "createdAt", "updatedAt", "status", "customerName", "customerEmail",
+        "customerAddress", "itemCount", "totalAmount"})
+public class OrderExportRow {
+    private String id;
+    private String createdAt;
+    private String updatedAt;
+    private String status;
+    private String customerName;
+    private String customerEmail;
+    private String customerAddress;
+    private int itemCount;
+    private BigDecimal totalAmount;
+}
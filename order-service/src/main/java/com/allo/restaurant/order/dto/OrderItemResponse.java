@@ -16,4 +16,5 @@ public class OrderItemResponse {
     private String name;
     private int quantity;
     private BigDecimal price;
+    private Long menuVersion;
 }
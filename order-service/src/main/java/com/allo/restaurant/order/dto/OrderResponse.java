@@ -18,6 +18,10 @@ public class OrderResponse {
     private String id;
     private CustomerRequest customer;
     private List<OrderItemResponse> orderItems;
+    private BigDecimal subtotal;
+    private BigDecimal discountAmount;
+    private BigDecimal taxAmount;
+    private List<PriceAdjustmentResponse> adjustments;
     private BigDecimal totalAmount;
     private OrderStatus status;
     private LocalDateTime createdAt;
@@ -0,0 +1,25 @@
+package com.allo.restaurant.order.dto;
+
+import com.allo.restaurant.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * A status the order was in: from the event that entered it until the next one. {@code leftAt} and
+ * {@code durationSeconds} are {@code null} for the status the order is still in.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStageResponse {
+    private int sequence;
+    private OrderStatus status;
+    private LocalDateTime enteredAt;
+    private LocalDateTime leftAt;
+    private Long durationSeconds;
+}
@@ -0,0 +1,24 @@
+package com.allo.restaurant.order.dto;
+
+import com.allo.restaurant.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Status change pushed to stream subscribers. Unlike {@link OrderStatusNotification} it carries
+ * no customer details, so it is safe to show on shared screens such as the kitchen display.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderStatusEvent {
+    private String orderId;
+    private String tenantId;
+    private OrderStatus status;
+    private LocalDateTime occurredAt;
+}
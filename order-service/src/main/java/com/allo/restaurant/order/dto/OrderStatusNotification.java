@@ -6,14 +6,26 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Published when an order is created and on every status change. Besides the customer details it
+ * carries the order's items and timestamps, so other instances can index an order they have not
+ * seen being created.
+ */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class OrderStatusNotification {
     private String orderId;
+    private String tenantId;
     private String fullName;
     private String address;
     private String email;
     private OrderStatus status;
+    private List<OrderItemResponse> orderItems;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
 }
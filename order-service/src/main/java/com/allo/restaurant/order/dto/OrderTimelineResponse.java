@@ -0,0 +1,25 @@
+package com.allo.restaurant.order.dto;
+
+import com.allo.restaurant.order.entity.OrderStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * An order's state replayed from its events, with every status it went through in order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderTimelineResponse {
+    private String orderId;
+    private OrderStatus status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private List<OrderStageResponse> stages;
+}
@@ -0,0 +1,20 @@
+package com.allo.restaurant.order.dto;
+
+import com.allo.restaurant.order.entity.PricingRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceAdjustmentResponse {
+    private String ruleId;
+    private String name;
+    private PricingRuleType type;
+    private BigDecimal amount;
+}
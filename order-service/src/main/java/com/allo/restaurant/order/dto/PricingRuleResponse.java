@@ -0,0 +1,33 @@
+package com.allo.restaurant.order.dto;
+
+import com.allo.restaurant.order.entity.PricingRuleType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingRuleResponse {
+    private String id;
+    private String name;
+    private PricingRuleType type;
+    private List<String> productIds;
+    private BigDecimal percentage;
+    private BigDecimal amountOff;
+    private Set<DayOfWeek> daysOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private LocalDateTime validFrom;
+    private LocalDateTime validUntil;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.allo.restaurant.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SalesReportResponse {
+    private Instant from;
+    private Instant to;
+    private long orders;
+    private BigDecimal revenue;
+    private List<HourlySalesResponse> hours;
+}
@@ -0,0 +1,55 @@
+package com.allo.restaurant.order.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+import java.util.Objects;
+
+/**
+ * An amount of money held as a whole number of minor units (cents for USD). Pricing and totals
+ * are computed with plain {@code long} arithmetic; {@link BigDecimal} is only used at the edges,
+ * where amounts are read from the Menu Service and written to JSON or MongoDB.
+ */
+public record Money(long minorUnits, Currency currency) {
+
+    public Money {
+        Objects.requireNonNull(currency, "currency");
+    }
+
+    public static Money zero(Currency currency) {
+        return new Money(0, currency);
+    }
+
+    /**
+     * Converts a decimal amount, rounding half-even to the currency's minor unit.
+     *
+     * @throws ArithmeticException if the amount does not fit in a {@code long} of minor units
+     */
+    public static Money of(BigDecimal amount, Currency currency) {
+        BigDecimal minor = amount.setScale(currency.getDefaultFractionDigits(), RoundingMode.HALF_EVEN);
+        return new Money(minor.unscaledValue().longValueExact(), currency);
+    }
+
+    public Money plus(Money other) {
+        requireSameCurrency(other);
+        return new Money(Math.addExact(minorUnits, other.minorUnits), currency);
+    }
+
+    public Money times(long quantity) {
+        return new Money(Math.multiplyExact(minorUnits, quantity), currency);
+    }
+
+    public Money negate() {
+        return new Money(Math.negateExact(minorUnits), currency);
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, currency.getDefaultFractionDigits());
+    }
+
+    private void requireSameCurrency(Money other) {
+        if (!currency.equals(other.currency)) {
+            throw new IllegalArgumentException("Cannot combine " + currency + " and " + other.currency + " amounts");
+        }
+    }
+}
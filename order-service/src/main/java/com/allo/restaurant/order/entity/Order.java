@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -19,10 +21,27 @@ import java.util.List;
 public class Order {
     @Id
     private String id;
+    /**
+     * Restaurant the order was placed at; the leading key of every order index and of the shard key.
+     */
+    private String tenantId;
     private Customer customer;
     private List<OrderItem> orderItems;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal subtotal;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal discountAmount;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal taxAmount;
+    private List<PriceAdjustment> adjustments;
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal totalAmount;
     private OrderStatus status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    /**
+     * Sequence of the order's last event in {@code order_events}: 1 on creation, plus one per
+     * status change. {@code null} for orders created before events were recorded.
+     */
+    private Integer eventSequence;
 }
@@ -0,0 +1,39 @@
+package com.allo.restaurant.order.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * One step of an order's lifecycle: its creation, or a change of its status. Events are only ever
+ * inserted, and are unique by (tenant, order, sequence).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "order_events")
+public class OrderEvent {
+    @Id
+    private String id;
+    private String tenantId;
+    private String orderId;
+    /**
+     * Position of the event in the order's log; the order's {@code eventSequence} at the time.
+     */
+    private int sequence;
+    /**
+     * The status the order entered.
+     */
+    private OrderStatus status;
+    /**
+     * {@code null} for the order's creation.
+     */
+    private OrderStatus previousStatus;
+    private LocalDateTime occurredAt;
+}
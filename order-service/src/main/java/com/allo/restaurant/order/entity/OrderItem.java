@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
 
 import java.math.BigDecimal;
 
@@ -15,5 +17,10 @@ public class OrderItem {
     private String productId;
     private String name;
     private int quantity;
+    @Field(targetType = FieldType.DECIMAL128)
     private BigDecimal price;
+    /**
+     * Menu version the name and price were taken from.
+     */
+    private Long menuVersion;
 }
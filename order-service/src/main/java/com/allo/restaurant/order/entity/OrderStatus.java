@@ -5,5 +5,12 @@ public enum OrderStatus {
     PREPARING,
     DELIVERED,
     CANCELLED,
-    READY
+    READY;
+
+    /**
+     * Whether an order in this status still needs work, i.e. it is not delivered or cancelled.
+     */
+    public boolean isActive() {
+        return this != DELIVERED && this != CANCELLED;
+    }
 }
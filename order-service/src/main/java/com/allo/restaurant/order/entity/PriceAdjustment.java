@@ -0,0 +1,22 @@
+package com.allo.restaurant.order.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceAdjustment {
+    private String ruleId;
+    private String name;
+    private PricingRuleType type;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal amount;
+}
@@ -0,0 +1,46 @@
+package com.allo.restaurant.order.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A tax, promotion or combo discount. Empty {@code productIds} match every product (except for
+ * combos); a rule without {@code startTime}/{@code endTime} applies all day, and a window whose
+ * end is before its start runs past midnight.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "pricing_rules")
+public class PricingRule {
+    @Id
+    private String id;
+    private String tenantId;
+    private String name;
+    private PricingRuleType type;
+    private List<String> productIds;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal percentage;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal amountOff;
+    private Set<DayOfWeek> daysOfWeek;
+    private LocalTime startTime;
+    private LocalTime endTime;
+    private LocalDateTime validFrom;
+    private LocalDateTime validUntil;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,16 @@
+package com.allo.restaurant.order.entity;
+
+public enum PricingRuleType {
+    /**
+     * Percentage added on the (discounted) amount of the matching items.
+     */
+    TAX,
+    /**
+     * Percentage off the matching items; only the best promotion applies to an item.
+     */
+    PERCENT_OFF,
+    /**
+     * Fixed amount off for every complete set of the listed products in the cart.
+     */
+    COMBO
+}
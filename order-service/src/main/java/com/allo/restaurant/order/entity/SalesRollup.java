@@ -0,0 +1,40 @@
+package com.allo.restaurant.order.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.util.Date;
+
+/**
+ * Sales of one restaurant in one hour, keyed by the tenant and the start of the hour (UTC).
+ * Cancelled orders are not counted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "sales_rollups")
+public class SalesRollup {
+    @Id
+    private Key id;
+    private long orders;
+    private long items;
+    @Field(targetType = FieldType.DECIMAL128)
+    private BigDecimal revenue;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key {
+        private String tenantId;
+        private Date hour;
+    }
+}
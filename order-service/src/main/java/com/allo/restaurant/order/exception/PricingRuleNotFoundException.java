@@ -0,0 +1,7 @@
+package com.allo.restaurant.order.exception;
+
+public class PricingRuleNotFoundException extends RuntimeException {
+    public PricingRuleNotFoundException(String id) {
+        super("Pricing rule not found with id: " + id);
+    }
+}
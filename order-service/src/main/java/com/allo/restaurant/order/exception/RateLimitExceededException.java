@@ -0,0 +1,16 @@
+package com.allo.restaurant.order.exception;
+
+import lombok.Getter;
+
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+    /**
+     * How many seconds the client should wait before retrying.
+     */
+    private final long retryAfterSeconds;
+
+    public RateLimitExceededException(String endpoint, long retryAfterSeconds) {
+        super("Rate limit exceeded for " + endpoint + ", retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
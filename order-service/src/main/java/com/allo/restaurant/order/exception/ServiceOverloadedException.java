@@ -0,0 +1,18 @@
+package com.allo.restaurant.order.exception;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+    /**
+     * How long the client should wait before retrying.
+     */
+    private final Duration retryAfter;
+
+    public ServiceOverloadedException(Duration retryAfter) {
+        super("Too many requests in progress, retry later");
+        this.retryAfter = retryAfter;
+    }
+}
@@ -0,0 +1,143 @@
+package com.allo.restaurant.order.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bounds how many limited requests run at once, with a limit that follows the observed latency
+ * (the gradient algorithm): while requests take about as long as usual the limit grows by roughly
+ * its square root per sample, and once they take longer than {@code tolerance} times the long-term
+ * average the limit shrinks in proportion. A request over the limit is rejected at once instead of
+ * queueing behind requests that are already slow, so a slow Menu Service or MongoDB cannot tie up
+ * every request thread.
+ * <p>
+ * Acquiring a permit is a single compare-and-set; only the limit update on release is
+ * synchronized.
+ */
+@Component
+@Profile("!reactive")
+public class AdaptiveConcurrencyLimiter {
+
+    /** Samples averaged plainly before the long-term latency switches to an exponential average. */
+    private static final int WARMUP_SAMPLES = 10;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final int longWindow;
+    @Getter
+    private final Duration retryAfter;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RequestPriority, Counter> rejected = new EnumMap<>(RequestPriority.class);
+    private volatile double limit;
+
+    // Guarded by this
+    private double longRttNanos;
+    private long samples;
+
+    public AdaptiveConcurrencyLimiter(MeterRegistry meterRegistry,
+                                      @Value("${orders.concurrency.initial-limit:20}") int initialLimit,
+                                      @Value("${orders.concurrency.min-limit:4}") int minLimit,
+                                      @Value("${orders.concurrency.max-limit:200}") int maxLimit,
+                                      @Value("${orders.concurrency.smoothing:0.2}") double smoothing,
+                                      @Value("${orders.concurrency.tolerance:1.5}") double tolerance,
+                                      @Value("${orders.concurrency.long-window:600}") int longWindow,
+                                      @Value("${orders.concurrency.retry-after:1s}") Duration retryAfter) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.longWindow = longWindow;
+        this.retryAfter = retryAfter;
+
+        Gauge.builder("orders.concurrency.limit", this, AdaptiveConcurrencyLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("orders.concurrency.in.flight", inFlight, AtomicInteger::get).register(meterRegistry);
+        for (RequestPriority priority : RequestPriority.values()) {
+            rejected.put(priority, meterRegistry.counter("orders.concurrency.rejected", "priority", priority.name().toLowerCase()));
+        }
+    }
+
+    /**
+     * @return a permit to release once the request completes, or empty if the share of the limit
+     *         {@code priority} may fill is already in flight
+     */
+    public Optional<Permit> tryAcquire(RequestPriority priority) {
+        int allowed = Math.max(1, (int) (limit * priority.getShare()));
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= allowed) {
+                rejected.get(priority).increment();
+                return Optional.empty();
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return Optional.of(new Permit(System.nanoTime(), current + 1));
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @param dropped whether the request failed on the server side, which counts as overload even
+     *                when few requests were in flight
+     */
+    synchronized void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        samples++;
+        if (samples <= WARMUP_SAMPLES) {
+            longRttNanos += (rttNanos - longRttNanos) / samples;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) / longWindow;
+        }
+        // After a slow spell the long-term average lags far behind; pull it down so the limit can recover.
+        if (longRttNanos / rttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+        // With less than half the limit in use, latency says nothing about where the limit should be.
+        if (!dropped && inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / rttNanos));
+        double target = limit * gradient + Math.sqrt(limit);
+        double smoothed = limit * (1 - smoothing) + target * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+
+    /**
+     * One admitted request. Release it exactly once, when the request has completed.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+
+        private Permit(long startNanos, int inFlightAtStart) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void release(boolean dropped) {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart, dropped);
+        }
+    }
+}
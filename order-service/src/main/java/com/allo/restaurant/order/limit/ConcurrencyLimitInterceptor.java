@@ -0,0 +1,44 @@
+package com.allo.restaurant.order.limit;
+
+import com.allo.restaurant.order.exception.ServiceOverloadedException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admits requests to {@link ConcurrencyLimited} handlers through the
+ * {@link AdaptiveConcurrencyLimiter}, and releases the permit with the request's latency once the
+ * response is complete. A rejection goes through the exception handlers as a {@code 503}.
+ */
+@RequiredArgsConstructor
+public class ConcurrencyLimitInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = ConcurrencyLimitInterceptor.class.getName() + ".permit";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        ConcurrencyLimited limited = handlerMethod.getMethodAnnotation(ConcurrencyLimited.class);
+        if (limited == null) {
+            return true;
+        }
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(limited.value())
+                .orElseThrow(() -> new ServiceOverloadedException(limiter.getRetryAfter()));
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof AdaptiveConcurrencyLimiter.Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.release(ex != null || response.getStatus() >= 500);
+        }
+    }
+}
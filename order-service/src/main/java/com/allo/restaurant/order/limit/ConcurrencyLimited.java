@@ -0,0 +1,17 @@
+package com.allo.restaurant.order.limit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Puts a handler method behind the {@link AdaptiveConcurrencyLimiter}: a request is rejected with
+ * {@code 503} when its priority's share of the limit is already in flight.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ConcurrencyLimited {
+
+    RequestPriority value();
+}
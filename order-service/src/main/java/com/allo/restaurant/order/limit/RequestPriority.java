@@ -0,0 +1,22 @@
+package com.allo.restaurant.order.limit;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * How much of the concurrency limit requests of each kind may fill. Lower priorities are shed
+ * first, so there is always room left for the kitchen to move orders along while history listing
+ * and imports wait.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RequestPriority {
+    /** Status updates: may use the whole limit. */
+    CRITICAL(1.0),
+    /** Order creation. */
+    NORMAL(0.9),
+    /** History listing and bulk imports. */
+    LOW(0.5);
+
+    private final double share;
+}
@@ -0,0 +1,32 @@
+package com.allo.restaurant.order.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Keeps roughly one in {@code rate} INFO/DEBUG messages marked with {@link LogMarkers#HOT_PATH}.
+ * Runs before Logback builds the logging event, so dropped messages cost no formatting or I/O.
+ * WARN and ERROR are never sampled.
+ */
+public class HotPathSamplingFilter extends TurboFilter {
+
+    private int rate = 1;
+
+    public void setRate(int rate) {
+        this.rate = Math.max(1, rate);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        if (rate == 1 || marker == null || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !marker.contains(LogMarkers.HOT_PATH)) {
+            return FilterReply.NEUTRAL;
+        }
+        return ThreadLocalRandom.current().nextInt(rate) == 0 ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,16 @@
+package com.allo.restaurant.order.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.MarkerFactory;
+
+public final class LogMarkers {
+
+    /**
+     * Marks messages logged once (or more) per request. Below WARN they are sampled by
+     * {@link HotPathSamplingFilter} instead of being written every time.
+     */
+    public static final Marker HOT_PATH = MarkerFactory.getMarker("HOT_PATH");
+
+    private LogMarkers() {
+    }
+}
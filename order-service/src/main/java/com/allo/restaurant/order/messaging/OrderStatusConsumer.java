@@ -1,31 +1,39 @@
 package com.allo.restaurant.order.messaging;
 
 import com.allo.restaurant.order.dto.OrderStatusNotification;
+import com.allo.restaurant.order.logging.LogMarkers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+import java.util.Date;
+
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class OrderStatusConsumer {
 
+    private final MeterRegistry meterRegistry;
+
     @RabbitListener(queues = "${rabbitmq.queue.name}")
-    public void consumeOrderStatusChange(OrderStatusNotification notification) {
-        log.info("""
-                ========== ORDER STATUS NOTIFICATION ==========
-                Order ID: {}
-                Customer: {}
-                Address: {}
-                Email: {}
-                New Status: {}
-                Simulating notification sent to customer {} at {}
-                ================================================""",
+    public void consumeOrderStatusChange(OrderStatusNotification notification,
+                                         @Header(name = AmqpHeaders.TIMESTAMP, required = false) Date publishedAt) {
+        if (publishedAt != null) {
+            long lagMillis = Math.max(0, System.currentTimeMillis() - publishedAt.getTime());
+            meterRegistry.timer("order.status.notification.lag").record(Duration.ofMillis(lagMillis));
+        }
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        log.info(LogMarkers.HOT_PATH, "Order status notification sent to customer: orderId={}, status={}, email={}",
                 notification.getOrderId(),
-                notification.getFullName(),
-                notification.getAddress(),
-                notification.getEmail(),
                 notification.getStatus(),
-                notification.getFullName(),
                 notification.getEmail());
+        sample.stop(meterRegistry.timer("order.status.notification.consume"));
     }
 }
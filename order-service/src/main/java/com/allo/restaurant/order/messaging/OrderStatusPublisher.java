@@ -1,18 +1,25 @@
 package com.allo.restaurant.order.messaging;
 
 import com.allo.restaurant.order.dto.OrderStatusNotification;
+import com.allo.restaurant.order.logging.LogMarkers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.Date;
+import java.util.List;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class OrderStatusPublisher {
 
     private final RabbitTemplate rabbitTemplate;
+    private final MeterRegistry meterRegistry;
 
     @Value("${rabbitmq.exchange.name}")
     private String exchangeName;
@@ -20,8 +27,43 @@ public class OrderStatusPublisher {
     @Value("${rabbitmq.routing.key}")
     private String routingKey;
 
+    @Value("${rabbitmq.routing.created-key}")
+    private String createdRoutingKey;
+
     public void publishOrderStatusChange(OrderStatusNotification notification) {
-        log.info("Publishing order status change: orderId={}, status={}", notification.getOrderId(), notification.getStatus());
-        rabbitTemplate.convertAndSend(exchangeName, routingKey, notification);
+        log.info(LogMarkers.HOT_PATH, "Publishing order status change: orderId={}, status={}", notification.getOrderId(), notification.getStatus());
+        publish(routingKey, notification);
+    }
+
+    /**
+     * Publishes newly created orders under their own routing key, bound only to the queue of each
+     * instance's active order index and stream, so no customer is notified of a creation. Best
+     * effort: the orders are already stored, and an order that could not be published is picked
+     * up by the next resync of the index.
+     */
+    public void publishOrdersCreated(List<OrderStatusNotification> notifications) {
+        for (OrderStatusNotification notification : notifications) {
+            try {
+                publish(createdRoutingKey, notification);
+            } catch (RuntimeException e) {
+                log.warn("Could not publish the creation of order {}: {}", notification.getOrderId(), e.getMessage());
+            }
+        }
+    }
+
+    private void publish(String routingKey, OrderStatusNotification notification) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "SUCCESS";
+        try {
+            rabbitTemplate.convertAndSend(exchangeName, routingKey, notification, message -> {
+                message.getMessageProperties().setTimestamp(new Date());
+                return message;
+            });
+        } catch (RuntimeException e) {
+            outcome = "ERROR";
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("order.status.notification.publish", "outcome", outcome));
+        }
     }
 }
@@ -0,0 +1,50 @@
+package com.allo.restaurant.order.messaging;
+
+import com.allo.restaurant.order.dto.ActiveOrderResponse;
+import com.allo.restaurant.order.dto.OrderStatusEvent;
+import com.allo.restaurant.order.dto.OrderStatusNotification;
+import com.allo.restaurant.order.service.ActiveOrderIndex;
+import com.allo.restaurant.order.service.OrderStatusStreamService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+
+/**
+ * Feeds the creations and status changes published by {@link OrderStatusPublisher}, on any
+ * instance, to the stream subscribers connected to this instance and to its {@link ActiveOrderIndex}.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderStatusStreamListener {
+
+    private final OrderStatusStreamService orderStatusStreamService;
+    private final ActiveOrderIndex activeOrderIndex;
+
+    @RabbitListener(queues = "#{orderStatusStreamQueue.name}")
+    public void onOrderStatusChange(OrderStatusNotification notification,
+                                    @Header(name = AmqpHeaders.TIMESTAMP, required = false) Date publishedAt) {
+        OrderStatusEvent event = OrderStatusEvent.builder()
+                .orderId(notification.getOrderId())
+                .tenantId(notification.getTenantId())
+                .status(notification.getStatus())
+                .occurredAt(publishedAt != null
+                        ? LocalDateTime.ofInstant(publishedAt.toInstant(), ZoneId.systemDefault())
+                        : LocalDateTime.now())
+                .build();
+        activeOrderIndex.applyStatusChange(ActiveOrderResponse.builder()
+                .id(notification.getOrderId())
+                .tenantId(notification.getTenantId())
+                .status(notification.getStatus())
+                .orderItems(notification.getOrderItems())
+                .createdAt(notification.getCreatedAt())
+                .updatedAt(notification.getUpdatedAt() != null ? notification.getUpdatedAt() : event.getOccurredAt())
+                .build());
+        orderStatusStreamService.broadcast(event);
+    }
+}
@@ -0,0 +1,14 @@
+package com.allo.restaurant.order.repository;
+
+import com.allo.restaurant.order.entity.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+public interface OrderHistoryRepository {
+
+    /**
+     * A page of the tenant's orders, read with the {@code order-history} read preference, so it
+     * may lag the primary by up to the configured max staleness.
+     */
+    Page<Order> findHistory(String tenantId, Pageable pageable);
+}
@@ -1,12 +1,16 @@
 package com.allo.restaurant.order.repository;
 
 import com.allo.restaurant.order.entity.Order;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Optional;
+
+/**
+ * Every query is scoped to one tenant, so it can use the tenant-leading indexes and be routed to a
+ * single shard.
+ */
 @Repository
-public interface OrderRepository extends MongoRepository<Order, String> {
-    Page<Order> findAll(Pageable pageable);
+public interface OrderRepository extends MongoRepository<Order, String>, OrderHistoryRepository, OrderStatusRepository {
+    Optional<Order> findByTenantIdAndId(String tenantId, String id);
 }
@@ -0,0 +1,14 @@
+package com.allo.restaurant.order.repository;
+
+import com.allo.restaurant.order.entity.Order;
+
+public interface OrderStatusRepository {
+
+    /**
+     * Writes the order's status, update time and event sequence, provided its event sequence in the
+     * database is still {@code expectedEventSequence}, the one it was read with.
+     *
+     * @return whether the order was updated; {@code false} if another update got there first
+     */
+    boolean updateStatus(Order order, Integer expectedEventSequence);
+}
@@ -0,0 +1,43 @@
+package com.allo.restaurant.order.repository;
+
+import com.allo.restaurant.order.entity.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * A compare-and-set on the event sequence rather than a {@code save}: of two updates that read the
+ * same order, the second no longer matches, instead of overwriting the first while the event log
+ * keeps the first one's event.
+ */
+@RequiredArgsConstructor
+class OrderStatusRepositoryImpl implements OrderStatusRepository {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public boolean updateStatus(Order order, Integer expectedEventSequence) {
+        return mongoTemplate.updateFirst(atSequence(order, expectedEventSequence), statusOf(order), Order.class)
+                .getMatchedCount() > 0;
+    }
+
+    /**
+     * Matches a missing {@code eventSequence} too when {@code expectedEventSequence} is {@code null}.
+     */
+    static Query atSequence(Order order, Integer expectedEventSequence) {
+        return query(where("tenantId").is(order.getTenantId())
+                .and("_id").is(order.getId())
+                .and("eventSequence").is(expectedEventSequence));
+    }
+
+    static Update statusOf(Order order) {
+        return new Update()
+                .set("status", order.getStatus())
+                .set("updatedAt", order.getUpdatedAt())
+                .set("eventSequence", order.getEventSequence());
+    }
+}
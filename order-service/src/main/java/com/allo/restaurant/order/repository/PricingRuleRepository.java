@@ -0,0 +1,14 @@
+package com.allo.restaurant.order.repository;
+
+import com.allo.restaurant.order.entity.PricingRule;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface PricingRuleRepository extends MongoRepository<PricingRule, String> {
+    List<PricingRule> findByTenantId(String tenantId);
+
+    long removeByTenantIdAndId(String tenantId, String id);
+}
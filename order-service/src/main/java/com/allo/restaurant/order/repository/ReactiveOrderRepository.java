@@ -0,0 +1,19 @@
+package com.allo.restaurant.order.repository;
+
+import com.allo.restaurant.order.entity.Order;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@Profile("reactive")
+public interface ReactiveOrderRepository extends ReactiveMongoRepository<Order, String>, ReactiveOrderStatusRepository {
+    Flux<Order> findByTenantId(String tenantId, Pageable pageable);
+
+    Mono<Order> findByTenantIdAndId(String tenantId, String id);
+
+    Mono<Long> countByTenantId(String tenantId);
+}
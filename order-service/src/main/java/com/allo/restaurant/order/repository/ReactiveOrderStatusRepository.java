@@ -0,0 +1,12 @@
+package com.allo.restaurant.order.repository;
+
+import com.allo.restaurant.order.entity.Order;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveOrderStatusRepository {
+
+    /**
+     * As {@link OrderStatusRepository#updateStatus}.
+     */
+    Mono<Boolean> updateStatus(Order order, Integer expectedEventSequence);
+}
@@ -0,0 +1,19 @@
+package com.allo.restaurant.order.repository;
+
+import com.allo.restaurant.order.entity.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+class ReactiveOrderStatusRepositoryImpl implements ReactiveOrderStatusRepository {
+
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    @Override
+    public Mono<Boolean> updateStatus(Order order, Integer expectedEventSequence) {
+        return mongoTemplate.updateFirst(OrderStatusRepositoryImpl.atSequence(order, expectedEventSequence),
+                        OrderStatusRepositoryImpl.statusOf(order), Order.class)
+                .map(result -> result.getMatchedCount() > 0);
+    }
+}
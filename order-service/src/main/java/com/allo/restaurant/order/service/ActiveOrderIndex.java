@@ -0,0 +1,258 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.dto.ActiveOrderListResponse;
+import com.allo.restaurant.order.dto.ActiveOrderResponse;
+import com.allo.restaurant.order.dto.OrderItemResponse;
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderStatus;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * In-memory index of the orders that are neither delivered nor cancelled, kept per tenant and
+ * status and sorted oldest first. Reads cost O(active orders of the tenant) no matter how large the
+ * order history grows or how busy the other restaurants are.
+ * <p>
+ * The index is loaded from MongoDB once the application is ready and reloaded periodically.
+ * Between reloads it is kept current by {@link #apply(Order)} for local writes and
+ * {@link #applyStatusChange} for the creations and status changes published by every instance.
+ * Until the first load completes, reads fall back to MongoDB.
+ */
+@Slf4j
+@Service
+public class ActiveOrderIndex {
+
+    private static final Comparator<ActiveOrderResponse> OLDEST_FIRST = Comparator
+            .comparing(ActiveOrderResponse::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(ActiveOrderResponse::getId);
+
+    private static final Set<OrderStatus> ACTIVE_STATUSES = EnumSet.copyOf(Arrays.stream(OrderStatus.values())
+            .filter(OrderStatus::isActive)
+            .toList());
+
+    private final MongoTemplate mongoTemplate;
+    private final Object lock = new Object();
+
+    private volatile Snapshot snapshot;
+    private List<Consumer<Snapshot>> pendingChanges;
+
+    public ActiveOrderIndex(MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        Gauge.builder("orders.active.index.size", this, index -> index.snapshot != null ? index.snapshot.byId.size() : 0)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread.ofVirtual().name("active-order-index-loader").start(this::resync);
+    }
+
+    @Scheduled(initialDelayString = "${orders.active-index.resync-interval:5m}",
+            fixedDelayString = "${orders.active-index.resync-interval:5m}")
+    public void resync() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            log.warn("Could not load the active order index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the index with the active orders currently stored. Changes applied while the
+     * orders are being read are replayed on the new index before it is swapped in.
+     */
+    public void rebuild() {
+        synchronized (lock) {
+            pendingChanges = new ArrayList<>();
+        }
+        try {
+            Snapshot fresh = new Snapshot();
+            List<String> tenantIds = mongoTemplate.findDistinct(new Query(), "tenantId", Order.class, String.class);
+            for (String tenantId : tenantIds) {
+                try (Stream<Order> orders = mongoTemplate.stream(activeQuery(tenantId, ACTIVE_STATUSES), Order.class)) {
+                    orders.forEach(order -> fresh.put(toActiveOrder(order)));
+                }
+            }
+            synchronized (lock) {
+                pendingChanges.forEach(change -> change.accept(fresh));
+                snapshot = fresh;
+            }
+            log.info("Active order index loaded with {} orders", fresh.byId.size());
+        } finally {
+            synchronized (lock) {
+                pendingChanges = null;
+            }
+        }
+    }
+
+    /**
+     * Records an order that was just created or updated on this instance.
+     */
+    public void apply(Order order) {
+        ActiveOrderResponse activeOrder = toActiveOrder(order);
+        change(index -> index.put(activeOrder));
+    }
+
+    /**
+     * Records the state of an order published by any instance, adding the order if the index does
+     * not know it yet. States older than what the index already knows about the order, including
+     * orders that have since left it, are ignored.
+     */
+    public void applyStatusChange(ActiveOrderResponse order) {
+        change(index -> index.upsert(order));
+    }
+
+    /**
+     * Active orders of {@code tenantId} in the given statuses (all active statuses when empty),
+     * oldest first.
+     */
+    public ActiveOrderListResponse getActiveOrders(String tenantId, Set<OrderStatus> statuses, int limit) {
+        Set<OrderStatus> requested = statuses == null || statuses.isEmpty()
+                ? ACTIVE_STATUSES
+                : EnumSet.copyOf(statuses);
+        requested.retainAll(ACTIVE_STATUSES);
+
+        Snapshot current = snapshot;
+        if (current == null) {
+            List<ActiveOrderResponse> orders = mongoTemplate.find(activeQuery(tenantId, requested).limit(limit), Order.class).stream()
+                    .map(ActiveOrderIndex::toActiveOrder)
+                    .toList();
+            return ActiveOrderListResponse.builder()
+                    .orders(orders)
+                    .totalRecords(mongoTemplate.count(activeQuery(tenantId, requested), Order.class))
+                    .build();
+        }
+
+        Map<OrderStatus, NavigableSet<ActiveOrderResponse>> byStatus = current.byTenant.get(tenantId);
+        if (byStatus == null) {
+            return ActiveOrderListResponse.builder().orders(List.of()).totalRecords(0).build();
+        }
+        List<NavigableSet<ActiveOrderResponse>> sources = requested.stream()
+                .map(byStatus::get)
+                .toList();
+        return ActiveOrderListResponse.builder()
+                .orders(mergeOldestFirst(sources, limit))
+                .totalRecords(sources.stream().mapToLong(Set::size).sum())
+                .build();
+    }
+
+    boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    private void change(Consumer<Snapshot> change) {
+        synchronized (lock) {
+            if (snapshot != null) {
+                change.accept(snapshot);
+            }
+            if (pendingChanges != null) {
+                pendingChanges.add(change);
+            }
+        }
+    }
+
+    private static Query activeQuery(String tenantId, Set<OrderStatus> statuses) {
+        return new Query(Criteria.where("tenantId").is(tenantId).and("status").in(statuses))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"));
+    }
+
+    private static List<ActiveOrderResponse> mergeOldestFirst(List<NavigableSet<ActiveOrderResponse>> sources, int limit) {
+        PriorityQueue<Map.Entry<ActiveOrderResponse, Iterator<ActiveOrderResponse>>> heads =
+                new PriorityQueue<>(Map.Entry.comparingByKey(OLDEST_FIRST));
+        for (NavigableSet<ActiveOrderResponse> source : sources) {
+            Iterator<ActiveOrderResponse> iterator = source.iterator();
+            if (iterator.hasNext()) {
+                heads.add(Map.entry(iterator.next(), iterator));
+            }
+        }
+
+        List<ActiveOrderResponse> merged = new ArrayList<>();
+        while (!heads.isEmpty() && merged.size() < limit) {
+            Map.Entry<ActiveOrderResponse, Iterator<ActiveOrderResponse>> head = heads.poll();
+            merged.add(head.getKey());
+            if (head.getValue().hasNext()) {
+                heads.add(Map.entry(head.getValue().next(), head.getValue()));
+            }
+        }
+        return merged;
+    }
+
+    private static ActiveOrderResponse toActiveOrder(Order order) {
+        return ActiveOrderResponse.builder()
+                .id(order.getId())
+                .tenantId(order.getTenantId())
+                .status(order.getStatus())
+                .orderItems(OrderMapper.toOrderItemResponses(order.getOrderItems()))
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+
+    /**
+     * Entries are never mutated once indexed; a change replaces the entry so the sorted sets
+     * stay consistent. Orders that left the index since it was loaded are remembered with the
+     * time they left, so a late message cannot bring them back.
+     */
+    private static final class Snapshot {
+
+        private final Map<String, ActiveOrderResponse> byId = new ConcurrentHashMap<>();
+        private final Map<String, Map<OrderStatus, NavigableSet<ActiveOrderResponse>>> byTenant = new ConcurrentHashMap<>();
+        private final Map<String, LocalDateTime> finished = new HashMap<>();
+
+        void put(ActiveOrderResponse activeOrder) {
+            remove(activeOrder.getId());
+            if (activeOrder.getTenantId() != null && activeOrder.getStatus() != null && activeOrder.getStatus().isActive()) {
+                finished.remove(activeOrder.getId());
+                byId.put(activeOrder.getId(), activeOrder);
+                byTenant.computeIfAbsent(activeOrder.getTenantId(), tenantId -> {
+                    Map<OrderStatus, NavigableSet<ActiveOrderResponse>> byStatus = new EnumMap<>(OrderStatus.class);
+                    ACTIVE_STATUSES.forEach(status -> byStatus.put(status, new ConcurrentSkipListSet<>(OLDEST_FIRST)));
+                    return byStatus;
+                }).get(activeOrder.getStatus()).add(activeOrder);
+            } else if (activeOrder.getStatus() != null) {
+                finished.put(activeOrder.getId(), activeOrder.getUpdatedAt() != null ? activeOrder.getUpdatedAt() : LocalDateTime.MIN);
+            }
+        }
+
+        void upsert(ActiveOrderResponse order) {
+            ActiveOrderResponse existing = byId.get(order.getId());
+            LocalDateTime knownAt = existing != null ? existing.getUpdatedAt() : finished.get(order.getId());
+            if (order.getUpdatedAt() != null && knownAt != null && order.getUpdatedAt().isBefore(knownAt)) {
+                return;
+            }
+            List<OrderItemResponse> orderItems = order.getOrderItems() != null ? order.getOrderItems()
+                    : existing != null ? existing.getOrderItems() : List.of();
+            put(ActiveOrderResponse.builder()
+                    .id(order.getId())
+                    .tenantId(existing != null ? existing.getTenantId() : order.getTenantId())
+                    .status(order.getStatus())
+                    .orderItems(orderItems)
+                    .createdAt(existing != null ? existing.getCreatedAt() : order.getCreatedAt())
+                    .updatedAt(order.getUpdatedAt())
+                    .build());
+        }
+
+        private void remove(String orderId) {
+            ActiveOrderResponse previous = byId.remove(orderId);
+            if (previous != null) {
+                byTenant.get(previous.getTenantId()).get(previous.getStatus()).remove(previous);
+            }
+        }
+    }
+}
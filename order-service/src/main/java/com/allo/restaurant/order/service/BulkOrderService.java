@@ -0,0 +1,311 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.client.MenuServiceClient;
+import com.allo.restaurant.order.dto.*;
+import com.allo.restaurant.order.entity.*;
+import com.allo.restaurant.order.exception.InsufficientStockException;
+import com.allo.restaurant.order.exception.MenuItemNotFoundException;
+import com.allo.restaurant.order.exception.MenuServiceUnavailableException;
+import com.allo.restaurant.order.messaging.OrderStatusPublisher;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.observation.annotation.Observed;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Imports many orders at once: the distinct product ids are resolved with one Menu Service call
+ * per {@value #LOOKUP_BATCH_SIZE} ids and all valid orders are written with one unordered
+ * {@code insertMany}, so one bad order never prevents the others from being created.
+ * <p>
+ * Stock is reserved for each order as it is for an order created on its own, under the order's
+ * id, and an order that cannot be reserved, for lack of stock or otherwise, fails alone. The
+ * lookup drops orders with unknown items before anything is reserved and fills the version cache,
+ * so the reservations come back without item details. The reservation of an order that is not
+ * inserted is released, unless the order may have been written after all.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class BulkOrderService {
+
+    /**
+     * The most ids menu-service accepts in one lookup.
+     */
+    static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private final MenuServiceClient menuServiceClient;
+    private final MongoTemplate mongoTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ActiveOrderIndex activeOrderIndex;
+    private final SalesAnalyticsService salesAnalyticsService;
+    private final PricingEngine pricingEngine;
+    private final OrderEventService orderEventService;
+    private final OrderStatusPublisher orderStatusPublisher;
+
+    @Value("${orders.bulk.max-size:1000}")
+    private int maxBulkSize;
+
+    /**
+     * Parses one {@link CreateOrderRequest} per non-blank line. Lines that are not valid JSON
+     * become {@code null} entries, reported as failures by {@link #createOrders(String, List)}.
+     */
+    public List<CreateOrderRequest> readNdjson(InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(CreateOrderRequest.class);
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = lines.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                checkBulkSize(requests.size() + 1);
+                try {
+                    requests.add(reader.readValue(line));
+                } catch (IOException e) {
+                    requests.add(null);
+                }
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * Parses a JSON array of {@link CreateOrderRequest}s one element at a time, so an oversized
+     * import is rejected once it goes past the maximum rather than after all of it has been read.
+     * Elements that are not valid orders become {@code null} entries, like malformed NDJSON lines;
+     * a body that is not a JSON array is rejected as a whole.
+     */
+    public List<CreateOrderRequest> readJsonArray(InputStream body) throws IOException {
+        ObjectReader reader = objectMapper.readerFor(CreateOrderRequest.class);
+        List<CreateOrderRequest> requests = new ArrayList<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("A bulk import must be a JSON array of orders");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                checkBulkSize(requests.size() + 1);
+                JsonNode element = parser.readValueAsTree();
+                try {
+                    requests.add(reader.readValue(element));
+                } catch (IOException e) {
+                    requests.add(null);
+                }
+            }
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException("Malformed bulk import JSON: " + e.getOriginalMessage());
+        }
+        return requests;
+    }
+
+    @Observed(name = "orders.bulk.create", contextualName = "create-orders-bulk")
+    public BulkOrderResponse createOrders(String tenantId, List<CreateOrderRequest> requests) {
+        checkBulkSize(requests.size());
+
+        BulkOrderResult[] results = new BulkOrderResult[requests.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int index = 0; index < requests.size(); index++) {
+            List<String> errors = validate(requests.get(index));
+            if (errors.isEmpty()) {
+                validIndexes.add(index);
+            } else {
+                results[index] = failed(index, errors);
+            }
+        }
+
+        Map<String, MenuItemResponse> menuItems = lookupMenuItems(tenantId, validIndexes.stream()
+                .flatMap(index -> requests.get(index).getOrderItems().stream())
+                .map(OrderItemRequest::getProductId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+
+        List<Order> orders = new ArrayList<>();
+        List<Integer> orderIndexes = new ArrayList<>();
+        for (int index : validIndexes) {
+            CreateOrderRequest request = requests.get(index);
+            List<String> missing = request.getOrderItems().stream()
+                    .map(OrderItemRequest::getProductId)
+                    .filter(productId -> !menuItems.containsKey(productId))
+                    .distinct()
+                    .map(productId -> new MenuItemNotFoundException(productId).getMessage())
+                    .toList();
+            if (!missing.isEmpty()) {
+                results[index] = failed(index, missing);
+                continue;
+            }
+
+            String orderId = new ObjectId().toHexString();
+            try {
+                orders.add(reservedOrder(tenantId, orderId, request));
+                orderIndexes.add(index);
+            } catch (MenuItemNotFoundException | InsufficientStockException | MenuServiceUnavailableException e) {
+                results[index] = failed(index, List.of(e.getMessage()));
+            } catch (RuntimeException e) {
+                orders.forEach(order -> releaseReservation(tenantId, order.getId()));
+                throw e;
+            }
+        }
+
+        Map<Integer, String> insertErrors;
+        try {
+            insertErrors = insertUnordered(orders);
+        } catch (RuntimeException e) {
+            if (!OrderService.isWriteConcernError(e)) {
+                orders.forEach(order -> releaseReservation(tenantId, order.getId()));
+            }
+            throw e;
+        }
+        List<Order> inserted = new ArrayList<>();
+        for (int position = 0; position < orders.size(); position++) {
+            int index = orderIndexes.get(position);
+            String insertError = insertErrors.get(position);
+            if (insertError != null) {
+                releaseReservation(tenantId, orders.get(position).getId());
+                results[index] = failed(index, List.of(insertError));
+            } else {
+                activeOrderIndex.apply(orders.get(position));
+                inserted.add(orders.get(position));
+                results[index] = created(index, orders.get(position));
+            }
+        }
+
+        salesAnalyticsService.recordCreated(inserted);
+        orderEventService.recordCreated(inserted);
+        orderStatusPublisher.publishOrdersCreated(inserted.stream().map(OrderMapper::toNotification).toList());
+
+        int created = (int) Arrays.stream(results)
+                .filter(result -> result.getStatus() == BulkOrderResultStatus.CREATED)
+                .count();
+        return BulkOrderResponse.builder()
+                .received(requests.size())
+                .created(created)
+                .failed(requests.size() - created)
+                .results(Arrays.asList(results))
+                .build();
+    }
+
+    /**
+     * Reserves the order's stock, which also returns the menu items to price it with, and builds
+     * the order under the reservation's id. The reservation is released if the order cannot be
+     * built.
+     */
+    private Order reservedOrder(String tenantId, String orderId, CreateOrderRequest request) {
+        Map<String, MenuItemResponse> reserved;
+        try {
+            reserved = menuServiceClient.reserveMenuItems(tenantId, orderId, request.getOrderItems()).stream()
+                    .collect(Collectors.toMap(MenuItemResponse::getId, Function.identity()));
+        } catch (MenuServiceUnavailableException e) {
+            // The reservation may have gone through before the response was lost.
+            releaseReservation(tenantId, orderId);
+            throw e;
+        }
+
+        try {
+            List<OrderItem> orderItems = request.getOrderItems().stream()
+                    .map(itemRequest -> OrderMapper.toOrderItem(reserved.get(itemRequest.getProductId()), itemRequest))
+                    .collect(Collectors.toList());
+            LocalDateTime now = LocalDateTime.now();
+            Order order = OrderMapper.newOrder(tenantId, OrderMapper.toCustomer(request.getCustomer()), orderItems,
+                    pricingEngine.price(tenantId, orderItems, now), now);
+            order.setId(orderId);
+            return order;
+        } catch (RuntimeException e) {
+            releaseReservation(tenantId, orderId);
+            throw e;
+        }
+    }
+
+    /**
+     * Best effort, as in {@link OrderService}: failing the import over a reservation that cannot
+     * be released would leave the other orders' stock reserved as well.
+     */
+    private void releaseReservation(String tenantId, String orderId) {
+        try {
+            menuServiceClient.releaseReservation(tenantId, orderId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the stock reserved for order {}: {}", orderId, e.getMessage());
+        }
+    }
+
+    private void checkBulkSize(int size) {
+        if (size > maxBulkSize) {
+            throw new IllegalArgumentException("A bulk import can contain at most " + maxBulkSize + " orders");
+        }
+    }
+
+    private List<String> validate(CreateOrderRequest request) {
+        if (request == null) {
+            return List.of("Malformed order JSON");
+        }
+        return validator.validate(request).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .toList();
+    }
+
+    private Map<String, MenuItemResponse> lookupMenuItems(String tenantId, Set<String> productIds) {
+        List<String> ids = new ArrayList<>(productIds);
+        Map<String, MenuItemResponse> menuItems = new HashMap<>();
+        for (int from = 0; from < ids.size(); from += LOOKUP_BATCH_SIZE) {
+            menuServiceClient.getMenuItemsByIds(tenantId, ids.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, ids.size())))
+                    .forEach(menuItem -> menuItems.putIfAbsent(menuItem.getId(), menuItem));
+        }
+        return menuItems;
+    }
+
+    private Map<Integer, String> insertUnordered(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return Map.of();
+        }
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class)
+                    .insert(orders)
+                    .execute();
+            return Map.of();
+        } catch (BulkOperationException e) {
+            return e.getErrors().stream()
+                    .collect(Collectors.toMap(BulkWriteError::getIndex, BulkWriteError::getMessage, (first, second) -> first));
+        }
+    }
+
+    private static BulkOrderResult created(int index, Order order) {
+        return BulkOrderResult.builder()
+                .index(index)
+                .status(BulkOrderResultStatus.CREATED)
+                .orderId(order.getId())
+                .totalAmount(order.getTotalAmount())
+                .build();
+    }
+
+    private static BulkOrderResult failed(int index, List<String> errors) {
+        return BulkOrderResult.builder()
+                .index(index)
+                .status(BulkOrderResultStatus.FAILED)
+                .errors(errors)
+                .build();
+    }
+}
@@ -0,0 +1,271 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.entity.Money;
+import com.allo.restaurant.order.entity.OrderItem;
+import com.allo.restaurant.order.entity.PriceAdjustment;
+import com.allo.restaurant.order.entity.PricingRule;
+import com.allo.restaurant.order.entity.PricingRuleType;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Immutable, pre-indexed form of the pricing rules. Percentages become basis points and amounts
+ * minor units; promotions are indexed by {@code productId}. The rules in effect are resolved once
+ * per minute (time windows have minute precision) and shared by every order priced in that minute,
+ * so pricing a cart is one map lookup per item plus a pass over the active taxes and combos.
+ * <p>
+ * Item promotions don't stack: each item gets its best one. Combo discounts are then taken off the
+ * amounts of the combo's items, in proportion to those amounts, and taxes apply to what is left.
+ * Combos are applied in rule order and a unit counts towards one combo set only, so combos that
+ * share an item never discount the same unit twice.
+ */
+public final class CompiledPricingRules {
+
+    public static final CompiledPricingRules EMPTY = compile(List.of());
+
+    private static final long BASIS_POINTS = 10_000;
+
+    private final List<Rule> rules;
+    private final AtomicReference<ActiveRules> lastActive = new AtomicReference<>();
+
+    private CompiledPricingRules(List<Rule> rules) {
+        this.rules = rules;
+    }
+
+    public static CompiledPricingRules compile(Collection<PricingRule> pricingRules) {
+        List<Rule> rules = new ArrayList<>(pricingRules.size());
+        for (PricingRule pricingRule : pricingRules) {
+            rules.add(Rule.of(rules.size(), pricingRule));
+        }
+        return new CompiledPricingRules(List.copyOf(rules));
+    }
+
+    public int size() {
+        return rules.size();
+    }
+
+    public PricingResult price(List<OrderItem> orderItems, LocalDateTime at) {
+        ActiveRules active = activeAt(at);
+        long[] ruleAmounts = new long[rules.size()];
+
+        long subtotal = 0;
+        long itemDiscount = 0;
+        Map<String, Long> netByProduct = new LinkedHashMap<>();
+        for (OrderItem item : orderItems) {
+            long line = OrderMapper.lineTotal(item).minorUnits();
+            subtotal = Math.addExact(subtotal, line);
+
+            Rule promotion = active.bestPromotion(item.getProductId());
+            if (promotion != null) {
+                long discount = percentOf(line, promotion.basisPoints);
+                ruleAmounts[promotion.index] += discount;
+                itemDiscount += discount;
+                line -= discount;
+            }
+            netByProduct.merge(item.getProductId(), line, Long::sum);
+        }
+
+        long comboDiscount = 0;
+        if (!active.combos.isEmpty()) {
+            Map<String, Integer> unusedQuantities = new HashMap<>();
+            for (OrderItem item : orderItems) {
+                unusedQuantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+            for (Rule combo : active.combos) {
+                int sets = combo.completeSets(unusedQuantities);
+                long discount = Math.min(combo.amountOff * sets, combo.netOf(netByProduct));
+                if (discount > 0) {
+                    combo.useSets(sets, unusedQuantities);
+                    combo.takeOff(discount, netByProduct);
+                    ruleAmounts[combo.index] += discount;
+                    comboDiscount += discount;
+                }
+            }
+        }
+
+        long tax = 0;
+        for (Rule rule : active.taxes) {
+            long base = 0;
+            for (Map.Entry<String, Long> net : netByProduct.entrySet()) {
+                if (rule.matches(net.getKey())) {
+                    base += net.getValue();
+                }
+            }
+            long amount = percentOf(base, rule.basisPoints);
+            ruleAmounts[rule.index] += amount;
+            tax += amount;
+        }
+
+        long discount = itemDiscount + comboDiscount;
+        return new PricingResult(
+                new Money(subtotal, OrderMapper.CURRENCY),
+                new Money(discount, OrderMapper.CURRENCY),
+                new Money(tax, OrderMapper.CURRENCY),
+                new Money(subtotal - discount + tax, OrderMapper.CURRENCY),
+                adjustments(ruleAmounts));
+    }
+
+    private List<PriceAdjustment> adjustments(long[] ruleAmounts) {
+        List<PriceAdjustment> adjustments = new ArrayList<>();
+        for (Rule rule : rules) {
+            if (ruleAmounts[rule.index] != 0) {
+                adjustments.add(PriceAdjustment.builder()
+                        .ruleId(rule.id)
+                        .name(rule.name)
+                        .type(rule.type)
+                        .amount(new Money(ruleAmounts[rule.index], OrderMapper.CURRENCY).toBigDecimal())
+                        .build());
+            }
+        }
+        return adjustments;
+    }
+
+    private ActiveRules activeAt(LocalDateTime at) {
+        long minute = at.toEpochSecond(ZoneOffset.UTC) / 60;
+        ActiveRules cached = lastActive.get();
+        if (cached != null && cached.minute == minute) {
+            return cached;
+        }
+        ActiveRules active = ActiveRules.resolve(minute, rules, at);
+        lastActive.set(active);
+        return active;
+    }
+
+    /**
+     * Half-up rounding to the minor unit.
+     */
+    private static long percentOf(long amount, long basisPoints) {
+        return (Math.multiplyExact(amount, basisPoints) + BASIS_POINTS / 2) / BASIS_POINTS;
+    }
+
+    private record Rule(int index, String id, String name, PricingRuleType type, Set<String> productIds,
+                        long basisPoints, long amountOff, Set<DayOfWeek> daysOfWeek, int startMinute,
+                        int endMinute, LocalDateTime validFrom, LocalDateTime validUntil) {
+
+        static Rule of(int index, PricingRule rule) {
+            return new Rule(index, rule.getId(), rule.getName(), rule.getType(),
+                    rule.getProductIds() == null ? Set.of() : Set.copyOf(rule.getProductIds()),
+                    rule.getPercentage() == null ? 0 : rule.getPercentage().movePointRight(2).longValueExact(),
+                    rule.getAmountOff() == null ? 0 : Money.of(rule.getAmountOff(), OrderMapper.CURRENCY).minorUnits(),
+                    rule.getDaysOfWeek() == null || rule.getDaysOfWeek().isEmpty()
+                            ? EnumSet.allOf(DayOfWeek.class)
+                            : EnumSet.copyOf(rule.getDaysOfWeek()),
+                    rule.getStartTime() == null ? -1 : rule.getStartTime().getHour() * 60 + rule.getStartTime().getMinute(),
+                    rule.getEndTime() == null ? -1 : rule.getEndTime().getHour() * 60 + rule.getEndTime().getMinute(),
+                    rule.getValidFrom(), rule.getValidUntil());
+        }
+
+        boolean activeAt(LocalDateTime at) {
+            if ((validFrom != null && at.isBefore(validFrom)) || (validUntil != null && !at.isBefore(validUntil))) {
+                return false;
+            }
+            if (!daysOfWeek.contains(at.getDayOfWeek())) {
+                return false;
+            }
+            if (startMinute < 0 || endMinute < 0) {
+                return true;
+            }
+            int minute = at.getHour() * 60 + at.getMinute();
+            return startMinute <= endMinute
+                    ? minute >= startMinute && minute < endMinute
+                    : minute >= startMinute || minute < endMinute;
+        }
+
+        boolean matches(String productId) {
+            return productIds.isEmpty() || productIds.contains(productId);
+        }
+
+        int completeSets(Map<String, Integer> quantities) {
+            int sets = Integer.MAX_VALUE;
+            for (String productId : productIds) {
+                sets = Math.min(sets, quantities.getOrDefault(productId, 0));
+            }
+            return productIds.isEmpty() ? 0 : sets;
+        }
+
+        /**
+         * Takes the units of {@code sets} complete sets out of {@code quantities}, so later combos
+         * only count what is left.
+         */
+        void useSets(int sets, Map<String, Integer> quantities) {
+            for (String productId : productIds) {
+                quantities.merge(productId, -sets, Integer::sum);
+            }
+        }
+
+        long netOf(Map<String, Long> netByProduct) {
+            long net = 0;
+            for (String productId : productIds) {
+                net += netByProduct.getOrDefault(productId, 0L);
+            }
+            return net;
+        }
+
+        /**
+         * Spreads {@code discount}, at most {@link #netOf} the combo's products, over those
+         * products in proportion to their amounts; the last one takes the rounding remainder.
+         */
+        void takeOff(long discount, Map<String, Long> netByProduct) {
+            long net = netOf(netByProduct);
+            long left = discount;
+            String last = null;
+            for (String productId : productIds) {
+                long amount = netByProduct.getOrDefault(productId, 0L);
+                if (amount == 0) {
+                    continue;
+                }
+                long share = Math.multiplyExact(discount, amount) / net;
+                netByProduct.put(productId, amount - share);
+                left -= share;
+                last = productId;
+            }
+            if (last != null) {
+                netByProduct.merge(last, -left, Long::sum);
+            }
+        }
+    }
+
+    private record ActiveRules(long minute, Map<String, Rule> promotionsByProduct, Rule globalPromotion,
+                               List<Rule> taxes, List<Rule> combos) {
+
+        static ActiveRules resolve(long minute, List<Rule> rules, LocalDateTime at) {
+            Map<String, Rule> promotionsByProduct = new HashMap<>();
+            Rule globalPromotion = null;
+            List<Rule> taxes = new ArrayList<>();
+            List<Rule> combos = new ArrayList<>();
+            for (Rule rule : rules) {
+                if (!rule.activeAt(at)) {
+                    continue;
+                }
+                switch (rule.type) {
+                    case TAX -> taxes.add(rule);
+                    case COMBO -> combos.add(rule);
+                    case PERCENT_OFF -> {
+                        if (rule.productIds.isEmpty()) {
+                            globalPromotion = better(globalPromotion, rule);
+                        } else {
+                            rule.productIds.forEach(productId ->
+                                    promotionsByProduct.merge(productId, rule, ActiveRules::better));
+                        }
+                    }
+                }
+            }
+            return new ActiveRules(minute, promotionsByProduct, globalPromotion, List.copyOf(taxes), List.copyOf(combos));
+        }
+
+        Rule bestPromotion(String productId) {
+            return better(promotionsByProduct.get(productId), globalPromotion);
+        }
+
+        private static Rule better(Rule current, Rule candidate) {
+            if (current == null) {
+                return candidate;
+            }
+            return candidate == null || current.basisPoints >= candidate.basisPoints ? current : candidate;
+        }
+    }
+}
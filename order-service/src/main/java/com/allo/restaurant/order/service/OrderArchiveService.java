@@ -0,0 +1,180 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Moves delivered and cancelled orders older than {@code orders.archive.after} from {@code orders}
+ * to {@code orders_archive}, so the hot collection and its indexes only hold recent and active
+ * orders, and reads them back for the lookups that reach that far.
+ * <p>
+ * An order is copied to the archive before it is removed from {@code orders}, so a crash in
+ * between leaves it in both collections, never in neither; readers prefer the hot copy and the
+ * next run finishes the move. Every archived order was created before the cutoff of the run that
+ * moved it, which is never later than the current cutoff, so anything created since the current
+ * cutoff is known to be in the hot collection without reading the archive.
+ */
+@Slf4j
+@Service
+public class OrderArchiveService {
+
+    public static final String COLLECTION = "orders_archive";
+
+    static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    private static final Set<OrderStatus> COMPLETED_STATUSES = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+    private static final Comparator<Order> NEWEST_ORDER_FIRST = Comparator.comparing(Order::getCreatedAt).reversed();
+
+    private final MongoTemplate mongoTemplate;
+    private final Duration archiveAfter;
+    private final int batchSize;
+    private final Counter archivedOrders;
+    private final Map<String, Long> archivedCounts = new ConcurrentHashMap<>();
+
+    public OrderArchiveService(MongoTemplate mongoTemplate, MeterRegistry meterRegistry,
+                               @Value("${orders.archive.after:30d}") Duration archiveAfter,
+                               @Value("${orders.archive.batch-size:500}") int batchSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.archiveAfter = archiveAfter;
+        this.batchSize = batchSize;
+        this.archivedOrders = meterRegistry.counter("orders.archive.moved");
+    }
+
+    @Scheduled(initialDelayString = "${orders.archive.interval:1h}", fixedDelayString = "${orders.archive.interval:1h}")
+    public void archiveInBackground() {
+        try {
+            archiveCompletedOrders();
+        } catch (RuntimeException e) {
+            log.warn("Could not archive completed orders: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return how many orders were moved to the archive
+     */
+    public long archiveCompletedOrders() {
+        LocalDateTime cutoff = cutoff();
+        long moved = 0;
+        for (String tenantId : mongoTemplate.findDistinct(new Query(), "tenantId", Order.class, String.class)) {
+            List<Order> batch;
+            do {
+                batch = mongoTemplate.find(query(where("tenantId").is(tenantId)
+                        .and("status").in(COMPLETED_STATUSES)
+                        .and("createdAt").lt(cutoff))
+                        .limit(batchSize), Order.class);
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                BulkOperations archive = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class, COLLECTION);
+                batch.forEach(order -> archive.replaceOne(query(where("_id").is(order.getId())), order,
+                        FindAndReplaceOptions.options().upsert()));
+                archive.execute();
+
+                // The status check keeps an order that was reopened meanwhile in the hot collection.
+                mongoTemplate.remove(query(where("tenantId").is(tenantId)
+                        .and("_id").in(batch.stream().map(Order::getId).toList())
+                        .and("status").in(COMPLETED_STATUSES)), Order.class);
+                moved += batch.size();
+                archivedOrders.increment(batch.size());
+            } while (batch.size() == batchSize);
+            archivedCounts.put(tenantId, mongoTemplate.count(query(where("tenantId").is(tenantId)), COLLECTION));
+        }
+        if (moved > 0) {
+            log.info("Archived {} completed orders created before {}", moved, cutoff);
+        }
+        return moved;
+    }
+
+    public Optional<Order> findById(String tenantId, String orderId) {
+        return Optional.ofNullable(mongoTemplate.findOne(
+                query(where("tenantId").is(tenantId).and("_id").is(orderId)), Order.class, COLLECTION));
+    }
+
+    /**
+     * How many orders of {@code tenantId} are archived, as of the last run of the archiver on this
+     * instance.
+     */
+    public long count(String tenantId) {
+        return archivedCounts.computeIfAbsent(tenantId,
+                id -> mongoTemplate.count(query(where("tenantId").is(id)), COLLECTION));
+    }
+
+    /**
+     * Whether a page of {@code limit} orders read newest first from the hot collection could be
+     * missing archived orders. It cannot when the page is full and its oldest order was created
+     * after the cutoff.
+     */
+    public boolean reachesArchive(List<Order> hotPage, int limit) {
+        return hotPage.size() < limit || hotPage.get(hotPage.size() - 1).getCreatedAt().isBefore(cutoff());
+    }
+
+    /**
+     * The page at {@code offset} of the tenant's orders across both collections, newest first.
+     * The hot orders created since the cutoff come first and are taken from {@code hotPage}; the
+     * rest of the page is merged from the older hot orders and the archive, reading
+     * {@code offset + limit} orders at most from each.
+     */
+    public List<Order> mergeHistory(String tenantId, List<Order> hotPage, int offset, int limit) {
+        LocalDateTime cutoff = cutoff();
+        List<Order> recent = hotPage.stream()
+                .takeWhile(order -> !order.getCreatedAt().isBefore(cutoff))
+                .toList();
+        int wanted = limit - recent.size();
+        if (wanted == 0) {
+            return recent;
+        }
+
+        long recentTotal = mongoTemplate.count(query(where("tenantId").is(tenantId).and("createdAt").gte(cutoff)), Order.class);
+        int skip = (int) Math.max(0, offset - recentTotal);
+        List<Order> olderHot = mongoTemplate.find(query(where("tenantId").is(tenantId).and("createdAt").lt(cutoff))
+                .with(NEWEST_FIRST).limit(skip + wanted), Order.class);
+        List<Order> archived = mongoTemplate.find(query(where("tenantId").is(tenantId))
+                .with(NEWEST_FIRST).limit(skip + wanted), Order.class, COLLECTION);
+
+        Map<String, Order> older = new LinkedHashMap<>();
+        Stream.concat(olderHot.stream(), archived.stream()).forEach(order -> older.putIfAbsent(order.getId(), order));
+        return Stream.concat(recent.stream(), older.values().stream()
+                        .sorted(NEWEST_ORDER_FIRST)
+                        .skip(skip)
+                        .limit(wanted))
+                .toList();
+    }
+
+    /**
+     * Whether orders created at or after {@code from} can be in the archive.
+     */
+    public boolean mayHoldOrdersFrom(LocalDateTime from) {
+        return from == null || from.isBefore(cutoff());
+    }
+
+    LocalDateTime cutoff() {
+        return LocalDateTime.now().minus(archiveAfter);
+    }
+}
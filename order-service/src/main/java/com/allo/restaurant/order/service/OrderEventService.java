@@ -0,0 +1,151 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.dto.OrderStageResponse;
+import com.allo.restaurant.order.dto.OrderTimelineResponse;
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderEvent;
+import com.allo.restaurant.order.entity.OrderStatus;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Appends each order's lifecycle to {@code order_events}: one event when the order is created and
+ * one per status change, numbered by the order's {@code eventSequence}. The sequence is advanced
+ * on the order document the caller has already read and is about to write, so recording an event
+ * costs one insert and no read. The order is only written if its sequence has not moved since it
+ * was read, so of two concurrent changes only the one that is recorded is applied.
+ * <p>
+ * Orders created before events were recorded get their creation event, dated by the order's
+ * {@code createdAt}, along with their first status change.
+ * <p>
+ * Recording is best effort, like releasing a reservation: the order has already been written,
+ * and a lost event only leaves a gap in the timeline.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrderEventService {
+
+    private static final Sort IN_SEQUENCE = Sort.by(Sort.Direction.ASC, "sequence");
+
+    private final MongoTemplate mongoTemplate;
+    private final OrderArchiveService orderArchiveService;
+
+    public void recordCreated(List<Order> orders) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        try {
+            mongoTemplate.insert(orders.stream().map(order -> event(order, null)).toList(), OrderEvent.class);
+        } catch (RuntimeException e) {
+            log.warn("Could not record the creation of {} orders: {}", orders.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * Records the change of {@code order} from {@code previousStatus} to its current status, under
+     * its current {@code eventSequence}, preceded by its creation event if {@code backfillCreation}.
+     */
+    public void recordStatusChange(Order order, OrderStatus previousStatus, boolean backfillCreation) {
+        try {
+            if (backfillCreation) {
+                mongoTemplate.insert(List.of(creationEvent(order), event(order, previousStatus)), OrderEvent.class);
+            } else {
+                mongoTemplate.insert(event(order, previousStatus));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Could not record status {} of order {}: {}", order.getStatus(), order.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * The order's state replayed from its events with one indexed range read. Orders created
+     * before events were recorded, and not changed since, have no stages and are described by the
+     * order itself.
+     */
+    public OrderTimelineResponse getTimeline(String tenantId, String orderId) {
+        List<OrderEvent> events = mongoTemplate.find(query(where("tenantId").is(tenantId).and("orderId").is(orderId))
+                .with(IN_SEQUENCE), OrderEvent.class);
+        if (!events.isEmpty()) {
+            return replay(orderId, events);
+        }
+
+        Order order = Optional.ofNullable(mongoTemplate.findOne(
+                        query(where("tenantId").is(tenantId).and("_id").is(orderId)), Order.class))
+                .or(() -> orderArchiveService.findById(tenantId, orderId))
+                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+        return OrderTimelineResponse.builder()
+                .orderId(order.getId())
+                .status(order.getStatus())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .stages(List.of())
+                .build();
+    }
+
+    /**
+     * Folds events, in sequence order, into the order's state: each event closes the stage opened
+     * by the one before it.
+     */
+    static OrderTimelineResponse replay(String orderId, List<OrderEvent> events) {
+        List<OrderStageResponse> stages = new ArrayList<>(events.size());
+        OrderTimelineResponse.OrderTimelineResponseBuilder timeline = OrderTimelineResponse.builder().orderId(orderId);
+        OrderStageResponse current = null;
+        for (OrderEvent event : events) {
+            if (event.getPreviousStatus() == null) {
+                timeline.createdAt(event.getOccurredAt());
+            }
+            if (current != null) {
+                current.setLeftAt(event.getOccurredAt());
+                current.setDurationSeconds(Duration.between(current.getEnteredAt(), event.getOccurredAt()).toSeconds());
+            }
+            current = OrderStageResponse.builder()
+                    .sequence(event.getSequence())
+                    .status(event.getStatus())
+                    .enteredAt(event.getOccurredAt())
+                    .build();
+            stages.add(current);
+        }
+        return timeline
+                .status(current.getStatus())
+                .updatedAt(current.getEnteredAt())
+                .stages(stages)
+                .build();
+    }
+
+    /**
+     * The first event of an order created before events were recorded. Which statuses it went
+     * through before its first recorded change is not known, so it starts out as created.
+     */
+    private static OrderEvent creationEvent(Order order) {
+        return OrderEvent.builder()
+                .tenantId(order.getTenantId())
+                .orderId(order.getId())
+                .sequence(1)
+                .status(OrderStatus.CREATED)
+                .occurredAt(order.getCreatedAt())
+                .build();
+    }
+
+    private static OrderEvent event(Order order, OrderStatus previousStatus) {
+        return OrderEvent.builder()
+                .tenantId(order.getTenantId())
+                .orderId(order.getId())
+                .sequence(order.getEventSequence())
+                .status(order.getStatus())
+                .previousStatus(previousStatus)
+                .occurredAt(previousStatus == null ? order.getCreatedAt() : order.getUpdatedAt())
+                .build();
+    }
+}
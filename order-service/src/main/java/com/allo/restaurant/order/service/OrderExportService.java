@@ -0,0 +1,182 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.config.MongoOperationRouting;
+import com.allo.restaurant.order.dto.OrderExportFormat;
+import com.allo.restaurant.order.dto.OrderExportRow;
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderStatus;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Streams orders straight from a Mongo cursor to the response. Only one cursor batch is held in
+ * memory at a time, and since writes to the response block while the client is slow, the cursor
+ * is only advanced as fast as the client reads.
+ * <p>
+ * When the range reaches back past the archive cutoff and the filter allows completed orders, a
+ * second cursor reads {@link OrderArchiveService#COLLECTION} and the two are merged oldest first.
+ * Both cursors read with the {@code order-export} read preference, so a long export can run on a
+ * secondary instead of the primary.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class OrderExportService {
+
+    private static final CsvMapper CSV_MAPPER = new CsvMapper();
+    private static final Set<OrderStatus> ARCHIVED_STATUSES = EnumSet.of(OrderStatus.DELIVERED, OrderStatus.CANCELLED);
+
+    private final MongoTemplate mongoTemplate;
+    private final ObjectMapper objectMapper;
+    private final OrderArchiveService orderArchiveService;
+    private final MongoOperationRouting routing;
+
+    @Value("${orders.export.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Checks the filter before anything is written, so a bad request still gets a proper 400.
+     */
+    public void validateRange(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+    }
+
+    /**
+     * Writes every order of {@code tenantId} created in {@code [from, to)} whose status is in
+     * {@code statuses} (any status when empty), oldest first.
+     */
+    public long export(String tenantId, LocalDateTime from, LocalDateTime to, Set<OrderStatus> statuses,
+                       OrderExportFormat format, OutputStream out) throws IOException {
+        long exported = 0;
+        Query query = query(tenantId, from, to, statuses);
+        boolean includeArchive = orderArchiveService.mayHoldOrdersFrom(from)
+                && (statuses == null || statuses.isEmpty() || statuses.stream().anyMatch(ARCHIVED_STATUSES::contains));
+        try (Stream<Order> orders = mongoTemplate.stream(query, Order.class);
+             Stream<Order> archived = includeArchive
+                     ? mongoTemplate.stream(query, Order.class, OrderArchiveService.COLLECTION)
+                     : Stream.empty();
+             SequenceWriter writer = writer(format).writeValues(out)) {
+            Iterator<Order> iterator = new OldestFirst(orders.iterator(), archived.iterator());
+            while (iterator.hasNext()) {
+                Order order = iterator.next();
+                writer.write(format == OrderExportFormat.CSV ? toExportRow(order) : OrderMapper.toOrderResponse(order));
+                if (++exported % batchSize == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        if (format == OrderExportFormat.NDJSON && exported > 0) {
+            out.write('\n');
+        }
+        log.info("Exported {} orders as {}", exported, format);
+        return exported;
+    }
+
+    Query query(String tenantId, LocalDateTime from, LocalDateTime to, Set<OrderStatus> statuses) {
+        Query query = new Query(Criteria.where("tenantId").is(tenantId))
+                .with(Sort.by(Sort.Direction.ASC, "createdAt"))
+                .cursorBatchSize(batchSize)
+                .withReadPreference(routing.readPreference(MongoOperationRouting.ORDER_EXPORT));
+        if (from != null || to != null) {
+            Criteria createdAt = Criteria.where("createdAt");
+            if (from != null) {
+                createdAt.gte(from);
+            }
+            if (to != null) {
+                createdAt.lt(to);
+            }
+            query.addCriteria(createdAt);
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            query.addCriteria(Criteria.where("status").in(statuses));
+        }
+        return query;
+    }
+
+    /**
+     * Merges two cursors that are each sorted oldest first. An order found in both, because the
+     * archiver was interrupted between copying and removing it, is written once.
+     */
+    private static final class OldestFirst implements Iterator<Order> {
+
+        private final Iterator<Order> hot;
+        private final Iterator<Order> archived;
+        private Order nextHot;
+        private Order nextArchived;
+
+        OldestFirst(Iterator<Order> hot, Iterator<Order> archived) {
+            this.hot = hot;
+            this.archived = archived;
+            this.nextHot = hot.hasNext() ? hot.next() : null;
+            this.nextArchived = archived.hasNext() ? archived.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextHot != null || nextArchived != null;
+        }
+
+        @Override
+        public Order next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (nextArchived == null || (nextHot != null && !nextHot.getCreatedAt().isAfter(nextArchived.getCreatedAt()))) {
+                Order order = nextHot;
+                nextHot = hot.hasNext() ? hot.next() : null;
+                if (nextArchived != null && nextArchived.getId().equals(order.getId())) {
+                    nextArchived = archived.hasNext() ? archived.next() : null;
+                }
+                return order;
+            }
+            Order order = nextArchived;
+            nextArchived = archived.hasNext() ? archived.next() : null;
+            return order;
+        }
+    }
+
+    private ObjectWriter writer(OrderExportFormat format) {
+        ObjectWriter writer = format == OrderExportFormat.CSV
+                ? CSV_MAPPER.writer(CSV_MAPPER.schemaFor(OrderExportRow.class).withHeader())
+                : objectMapper.writer().withRootValueSeparator("\n");
+        return writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    private static OrderExportRow toExportRow(Order order) {
+        return OrderExportRow.builder()
+                .id(order.getId())
+                .createdAt(order.getCreatedAt() != null ? order.getCreatedAt().toString() : null)
+                .updatedAt(order.getUpdatedAt() != null ? order.getUpdatedAt().toString() : null)
+                .status(order.getStatus() != null ? order.getStatus().name() : null)
+                .customerName(order.getCustomer() != null ? order.getCustomer().getFullName() : null)
+                .customerEmail(order.getCustomer() != null ? order.getCustomer().getEmail() : null)
+                .customerAddress(order.getCustomer() != null ? order.getCustomer().getAddress() : null)
+                .itemCount(order.getOrderItems() != null ? order.getOrderItems().size() : 0)
+                .totalAmount(order.getTotalAmount())
+                .build();
+    }
+}
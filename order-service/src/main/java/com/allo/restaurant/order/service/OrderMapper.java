@@ -0,0 +1,144 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.dto.*;
+import com.allo.restaurant.order.entity.*;
+
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Entity/DTO conversions shared by the blocking {@link OrderService} and the {@link ReactiveOrderService}.
+ */
+final class OrderMapper {
+
+    /**
+     * Menu prices carry no currency, so every order is priced in this one.
+     */
+    static final Currency CURRENCY = Currency.getInstance("USD");
+
+    private OrderMapper() {
+    }
+
+    static Customer toCustomer(CustomerRequest request) {
+        return Customer.builder()
+                .fullName(request.getFullName())
+                .address(request.getAddress())
+                .email(request.getEmail())
+                .build();
+    }
+
+    static OrderItem toOrderItem(MenuItemResponse menuItem, OrderItemRequest itemRequest) {
+        return OrderItem.builder()
+                .productId(menuItem.getId())
+                .name(menuItem.getName())
+                .quantity(itemRequest.getQuantity())
+                .price(menuItem.getPrice())
+                .menuVersion(menuItem.getVersion())
+                .build();
+    }
+
+    /**
+     * A new order priced by the {@link PricingEngine}.
+     */
+    static Order newOrder(String tenantId, Customer customer, List<OrderItem> orderItems, PricingResult pricing,
+                          LocalDateTime createdAt) {
+        return Order.builder()
+                .tenantId(tenantId)
+                .customer(customer)
+                .orderItems(orderItems)
+                .subtotal(pricing.subtotal().toBigDecimal())
+                .discountAmount(pricing.discount().toBigDecimal())
+                .taxAmount(pricing.tax().toBigDecimal())
+                .adjustments(pricing.adjustments())
+                .totalAmount(pricing.total().toBigDecimal())
+                .status(OrderStatus.CREATED)
+                .createdAt(createdAt)
+                .eventSequence(1)
+                .build();
+    }
+
+    /**
+     * Moves the order on to its next event, recorded by the {@link OrderEventService} once the
+     * order is written. An order created before events were recorded moves on to 2, leaving 1 for
+     * the creation event backfilled along with it.
+     *
+     * @return whether the order had no events yet, and its creation event is to be backfilled
+     */
+    static boolean advanceEventSequence(Order order) {
+        if (order.getEventSequence() == null) {
+            order.setEventSequence(2);
+            return true;
+        }
+        order.setEventSequence(order.getEventSequence() + 1);
+        return false;
+    }
+
+    static Money lineTotal(OrderItem item) {
+        return Money.of(item.getPrice(), CURRENCY).times(item.getQuantity());
+    }
+
+    static OrderStatusNotification toNotification(Order order) {
+        return OrderStatusNotification.builder()
+                .orderId(order.getId())
+                .tenantId(order.getTenantId())
+                .fullName(order.getCustomer().getFullName())
+                .address(order.getCustomer().getAddress())
+                .email(order.getCustomer().getEmail())
+                .status(order.getStatus())
+                .orderItems(toOrderItemResponses(order.getOrderItems()))
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt() != null ? order.getUpdatedAt() : order.getCreatedAt())
+                .build();
+    }
+
+    static List<OrderItemResponse> toOrderItemResponses(List<OrderItem> orderItems) {
+        return orderItems.stream()
+                .map(item -> OrderItemResponse.builder()
+                        .productId(item.getProductId())
+                        .name(item.getName())
+                        .quantity(item.getQuantity())
+                        .price(item.getPrice())
+                        .menuVersion(item.getMenuVersion())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    static UpdateOrderStatusResponse toUpdateOrderStatusResponse(Order order) {
+        return UpdateOrderStatusResponse.builder()
+                .id(order.getId())
+                .status(order.getStatus())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+
+    static OrderResponse toOrderResponse(Order order) {
+        CustomerRequest customerRequest = CustomerRequest.builder()
+                .fullName(order.getCustomer().getFullName())
+                .address(order.getCustomer().getAddress())
+                .email(order.getCustomer().getEmail())
+                .build();
+
+        return OrderResponse.builder()
+                .id(order.getId())
+                .customer(customerRequest)
+                .orderItems(toOrderItemResponses(order.getOrderItems()))
+                .subtotal(order.getSubtotal())
+                .discountAmount(order.getDiscountAmount())
+                .taxAmount(order.getTaxAmount())
+                .adjustments(order.getAdjustments() == null ? null : order.getAdjustments().stream()
+                        .map(adjustment -> PriceAdjustmentResponse.builder()
+                                .ruleId(adjustment.getRuleId())
+                                .name(adjustment.getName())
+                                .type(adjustment.getType())
+                                .amount(adjustment.getAmount())
+                                .build())
+                        .collect(Collectors.toList()))
+                .totalAmount(order.getTotalAmount())
+                .status(order.getStatus())
+                .createdAt(order.getCreatedAt())
+                .updatedAt(order.getUpdatedAt())
+                .build();
+    }
+}
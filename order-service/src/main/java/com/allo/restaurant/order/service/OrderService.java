@@ -3,144 +3,225 @@ package com.allo.restaurant.order.service;
 import com.allo.restaurant.order.client.MenuServiceClient;
 import com.allo.restaurant.order.dto.*;
 import com.allo.restaurant.order.entity.*;
+import com.allo.restaurant.order.exception.MenuServiceUnavailableException;
 import com.allo.restaurant.order.messaging.OrderStatusPublisher;
 import com.allo.restaurant.order.repository.OrderRepository;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoWriteConcernException;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class OrderService {
 
+    private static final int STATUS_UPDATE_ATTEMPTS = 3;
+
     private final OrderRepository orderRepository;
     private final MenuServiceClient menuServiceClient;
     private final OrderStatusPublisher orderStatusPublisher;
+    private final ActiveOrderIndex activeOrderIndex;
+    private final SalesAnalyticsService salesAnalyticsService;
+    private final PricingEngine pricingEngine;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderEventService orderEventService;
+
+    /**
+     * Reserves stock for all items in one call to menu-service, which also returns the menu items
+     * to price, so checking availability costs no extra round trip. The order id is assigned up
+     * front and used as the reservation id; if the order cannot be saved the reservation is
+     * released again, unless the order was written after all.
+     */
+    @Observed(name = "orders.create", contextualName = "create-order")
+    public OrderResponse createOrder(String tenantId, CreateOrderRequest request) {
+        Customer customer = OrderMapper.toCustomer(request.getCustomer());
+        String orderId = new ObjectId().toHexString();
+
+        Map<String, MenuItemResponse> menuItems;
+        try {
+            menuItems = menuServiceClient.reserveMenuItems(tenantId, orderId, request.getOrderItems()).stream()
+                    .collect(Collectors.toMap(MenuItemResponse::getId, Function.identity()));
+        } catch (MenuServiceUnavailableException e) {
+            // The reservation may have gone through before the response was lost.
+            releaseReservation(tenantId, orderId);
+            throw e;
+        }
 
-    public OrderResponse createOrder(CreateOrderRequest request) {
-        Customer customer = Customer.builder()
-                .fullName(request.getCustomer().getFullName())
-                .address(request.getCustomer().getAddress())
-                .email(request.getCustomer().getEmail())
-                .build();
+        Order savedOrder;
+        try {
+            List<OrderItem> orderItems = request.getOrderItems().stream()
+                    .map(itemRequest -> OrderMapper.toOrderItem(menuItems.get(itemRequest.getProductId()), itemRequest))
+                    .collect(Collectors.toList());
+
+            LocalDateTime now = LocalDateTime.now();
+            Order order = OrderMapper.newOrder(tenantId, customer, orderItems, pricingEngine.price(tenantId, orderItems, now), now);
+            order.setId(orderId);
+
+            savedOrder = orderRepository.insert(order);
+        } catch (RuntimeException e) {
+            if (!orderMayExist(tenantId, orderId, e)) {
+                releaseReservation(tenantId, orderId);
+            }
+            throw e;
+        }
+        activeOrderIndex.apply(savedOrder);
+        salesAnalyticsService.recordCreated(List.of(savedOrder));
+        orderEventService.recordCreated(List.of(savedOrder));
+        orderStatusPublisher.publishOrdersCreated(List.of(OrderMapper.toNotification(savedOrder)));
+        return OrderMapper.toOrderResponse(savedOrder);
+    }
 
-        List<OrderItem> orderItems = request.getOrderItems().stream()
-                .map(itemRequest -> {
-                    MenuItemResponse menuItem = menuServiceClient.getMenuItemById(itemRequest.getProductId());
-                    return OrderItem.builder()
-                            .productId(menuItem.getId())
-                            .name(menuItem.getName())
-                            .quantity(itemRequest.getQuantity())
-                            .price(menuItem.getPrice())
-                            .build();
-                })
-                .collect(Collectors.toList());
+    /**
+     * A change to a different status is also appended to the order's event log; the order read
+     * here provides the event's sequence. The order is only written if no other update has moved
+     * its sequence on since it was read; otherwise it is read again and the status applied to the
+     * newer order, up to {@value #STATUS_UPDATE_ATTEMPTS} times.
+     */
+    @Observed(name = "orders.status.update", contextualName = "update-order-status")
+    public UpdateOrderStatusResponse updateOrderStatus(String tenantId, String orderId, UpdateOrderStatusRequest request) {
+        for (int attempt = 1; ; attempt++) {
+            Order order = orderRepository.findByTenantIdAndId(tenantId, orderId)
+                    .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
+
+            OrderStatus previousStatus = order.getStatus();
+            Integer readSequence = order.getEventSequence();
+            boolean statusChanged = request.getStatus() != previousStatus;
+            order.setStatus(request.getStatus());
+            order.setUpdatedAt(LocalDateTime.now());
+            boolean backfillCreation = statusChanged && OrderMapper.advanceEventSequence(order);
+
+            if (orderRepository.updateStatus(order, readSequence)) {
+                if (statusChanged) {
+                    orderEventService.recordStatusChange(order, previousStatus, backfillCreation);
+                }
+                return afterStatusUpdate(tenantId, order, previousStatus);
+            }
+            if (attempt == STATUS_UPDATE_ATTEMPTS) {
+                throw new OptimisticLockingFailureException("Order " + orderId + " is being updated concurrently");
+            }
+        }
+    }
 
-        BigDecimal totalAmount = orderItems.stream()
-                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    private UpdateOrderStatusResponse afterStatusUpdate(String tenantId, Order updatedOrder, OrderStatus previousStatus) {
+        String orderId = updatedOrder.getId();
+        activeOrderIndex.apply(updatedOrder);
+        salesAnalyticsService.recordStatusChange(previousStatus, updatedOrder);
+        if (updatedOrder.getStatus() == OrderStatus.CANCELLED && previousStatus != OrderStatus.CANCELLED) {
+            releaseReservation(tenantId, orderId);
+        }
 
-        Order order = Order.builder()
-                .customer(customer)
-                .orderItems(orderItems)
-                .totalAmount(totalAmount)
-                .status(OrderStatus.CREATED)
-                .createdAt(LocalDateTime.now())
-                .build();
+        orderStatusPublisher.publishOrderStatusChange(OrderMapper.toNotification(updatedOrder));
 
-        Order savedOrder = orderRepository.save(order);
-        return mapToOrderResponse(savedOrder);
+        return OrderMapper.toUpdateOrderStatusResponse(updatedOrder);
     }
 
-    public UpdateOrderStatusResponse updateOrderStatus(String orderId, UpdateOrderStatusRequest request) {
-        Order order = orderRepository.findById(orderId)
-                .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
-
-        order.setStatus(request.getStatus());
-        order.setUpdatedAt(LocalDateTime.now());
-
-        Order updatedOrder = orderRepository.save(order);
+    /**
+     * A write concern error is reported after the insert has been applied on the primary, so the
+     * order may well exist and keep its stock; it is read back before giving the stock up. If it
+     * cannot even be read, the reservation is kept: holding stock is safer than overselling it.
+     */
+    private boolean orderMayExist(String tenantId, String orderId, RuntimeException e) {
+        if (!isWriteConcernError(e)) {
+            return false;
+        }
+        try {
+            return orderRepository.findByTenantIdAndId(tenantId, orderId).isPresent();
+        } catch (RuntimeException readFailure) {
+            log.warn("Could not check whether order {} was written: {}", orderId, readFailure.getMessage());
+            return true;
+        }
+    }
 
-        OrderStatusNotification notification = OrderStatusNotification.builder()
-                .orderId(updatedOrder.getId())
-                .fullName(updatedOrder.getCustomer().getFullName())
-                .address(updatedOrder.getCustomer().getAddress())
-                .email(updatedOrder.getCustomer().getEmail())
-                .status(updatedOrder.getStatus())
-                .build();
-        orderStatusPublisher.publishOrderStatusChange(notification);
+    static boolean isWriteConcernError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoWriteConcernException
+                    || cause instanceof MongoBulkWriteException bulk && bulk.getWriteConcernError() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        return UpdateOrderStatusResponse.builder()
-                .id(updatedOrder.getId())
-                .status(updatedOrder.getStatus())
-                .updatedAt(updatedOrder.getUpdatedAt())
-                .build();
+    /**
+     * Best effort: a reservation that cannot be released keeps its stock until it is restocked by
+     * hand, which is preferable to failing the order update over it.
+     */
+    private void releaseReservation(String tenantId, String orderId) {
+        try {
+            menuServiceClient.releaseReservation(tenantId, orderId);
+        } catch (RuntimeException e) {
+            log.warn("Could not release the stock reserved for order {}: {}", orderId, e.getMessage());
+        }
     }
 
-    public OrderHistoryResponse getOrderHistory(int limit, int offset) {
+    /**
+     * Orders newest first. Pages made only of orders created since the archive cutoff are read from
+     * the hot collection alone; only pages reaching further back also read the archive.
+     */
+    @Observed(name = "orders.history", contextualName = "get-order-history")
+    public OrderHistoryResponse getOrderHistory(String tenantId, int limit, int offset) {
         int pageNumber = offset / limit;
         int offsetInPage = offset % limit;
         
-        PageRequest pageRequest = PageRequest.of(pageNumber, limit);
-        Page<Order> page = orderRepository.findAll(pageRequest);
+        PageRequest pageRequest = PageRequest.of(pageNumber, limit, OrderArchiveService.NEWEST_FIRST);
+        Page<Order> page = orderRepository.findHistory(tenantId, pageRequest);
         
         List<Order> allOrders = new java.util.ArrayList<>(page.getContent());
         
         if (offsetInPage > 0 && page.hasNext()) {
-            Page<Order> nextPage = orderRepository.findAll(PageRequest.of(pageNumber + 1, limit));
+            Page<Order> nextPage = orderRepository.findHistory(tenantId, PageRequest.of(pageNumber + 1, limit, OrderArchiveService.NEWEST_FIRST));
             allOrders.addAll(nextPage.getContent());
         }
         
-        List<OrderResponse> orders = allOrders.stream()
+        List<Order> hotPage = allOrders.stream()
                 .skip(offsetInPage)
                 .limit(limit)
-                .map(this::mapToOrderResponse)
+                .toList();
+
+        long archived = orderArchiveService.count(tenantId);
+        if (archived > 0 && orderArchiveService.reachesArchive(hotPage, limit)) {
+            hotPage = orderArchiveService.mergeHistory(tenantId, hotPage, offset, limit);
+        }
+        List<OrderResponse> orders = hotPage.stream()
+                .map(OrderMapper::toOrderResponse)
                 .collect(Collectors.toList());
 
         return OrderHistoryResponse.builder()
                 .orders(orders)
                 .limit(limit)
                 .offset(offset)
-                .totalRecords(page.getTotalElements())
+                .totalRecords(page.getTotalElements() + archived)
                 .build();
     }
 
-    public OrderResponse getOrderById(String orderId) {
-        Order order = orderRepository.findById(orderId)
+    /**
+     * Falls back to the archive for orders that are no longer in the hot collection.
+     */
+    @Observed(name = "orders.get", contextualName = "get-order-by-id")
+    public OrderResponse getOrderById(String tenantId, String orderId) {
+        Order order = orderRepository.findByTenantIdAndId(tenantId, orderId)
+                .or(() -> orderArchiveService.findById(tenantId, orderId))
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + orderId));
-        return mapToOrderResponse(order);
+        return OrderMapper.toOrderResponse(order);
     }
 
-    private OrderResponse mapToOrderResponse(Order order) {
-        CustomerRequest customerRequest = CustomerRequest.builder()
-                .fullName(order.getCustomer().getFullName())
-                .address(order.getCustomer().getAddress())
-                .email(order.getCustomer().getEmail())
-                .build();
-
-        List<OrderItemResponse> orderItemResponses = order.getOrderItems().stream()
-                .map(item -> OrderItemResponse.builder()
-                        .productId(item.getProductId())
-                        .name(item.getName())
-                        .quantity(item.getQuantity())
-                        .price(item.getPrice())
-                        .build())
-                .collect(Collectors.toList());
-
-        return OrderResponse.builder()
-                .id(order.getId())
-                .customer(customerRequest)
-                .orderItems(orderItemResponses)
-                .totalAmount(order.getTotalAmount())
-                .status(order.getStatus())
-                .createdAt(order.getCreatedAt())
-                .updatedAt(order.getUpdatedAt())
-                .build();
+    @Observed(name = "orders.timeline", contextualName = "get-order-timeline")
+    public OrderTimelineResponse getOrderTimeline(String tenantId, String orderId) {
+        return orderEventService.getTimeline(tenantId, orderId);
     }
 }
@@ -0,0 +1,191 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.dto.OrderStatusEvent;
+import com.allo.restaurant.order.entity.OrderStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the open Server-Sent Events connections and pushes every order status change to the ones
+ * whose filter matches. A connection belongs to one tenant and follows either a single order of
+ * that tenant, and is closed once that order is delivered or cancelled, or every order of the
+ * tenant in a set of statuses (all active orders by default).
+ * <p>
+ * Each connection writes from its own virtual thread, fed by a small bounded queue, so
+ * {@link #broadcast} only enqueues and never waits on a client's socket. A client too slow to
+ * drain its queue is disconnected; it reconnects and reads the current state again.
+ */
+@Slf4j
+@Service
+public class OrderStatusStreamService {
+
+    static final String STATUS_EVENT = "order-status";
+
+    private static final Set<OrderStatus> ACTIVE_STATUSES = Arrays.stream(OrderStatus.values())
+            .filter(OrderStatus::isActive)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(OrderStatus.class)));
+
+    private static final Object HEARTBEAT = new Object();
+    private static final Object CLOSE = new Object();
+
+    private final CopyOnWriteArrayList<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final long timeoutMillis;
+    private final int queueSize;
+    private final Counter slowConnections;
+
+    public OrderStatusStreamService(MeterRegistry meterRegistry,
+                                    @Value("${orders.stream.timeout:30m}") Duration timeout,
+                                    @Value("${orders.stream.queue-size:64}") int queueSize) {
+        this.timeoutMillis = timeout.toMillis();
+        this.queueSize = queueSize;
+        this.slowConnections = meterRegistry.counter("orders.stream.dropped", "reason", "slow");
+        meterRegistry.gaugeCollectionSize("orders.stream.connections", Tags.empty(), subscriptions);
+    }
+
+    /**
+     * Opens a stream for one order. The current status is sent right away so the client never
+     * misses a change that happened before it connected.
+     */
+    public SseEmitter subscribeToOrder(String tenantId, String orderId, OrderStatusEvent current) {
+        Subscription subscription = register(new Subscription(createEmitter(), tenantId, orderId, null));
+        enqueue(subscription, current);
+        if (!current.getStatus().isActive()) {
+            remove(subscription);
+        }
+        return subscription.emitter;
+    }
+
+    /**
+     * Opens a stream for every order moving into one of the given statuses, or into any active
+     * status when none are given.
+     */
+    public SseEmitter subscribeToStatuses(String tenantId, Set<OrderStatus> statuses) {
+        Set<OrderStatus> filter = statuses == null || statuses.isEmpty() ? ACTIVE_STATUSES : EnumSet.copyOf(statuses);
+        return register(new Subscription(createEmitter(), tenantId, null, filter)).emitter;
+    }
+
+    public void broadcast(OrderStatusEvent event) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.matches(event)) {
+                enqueue(subscription, event);
+                if (subscription.orderId != null && !event.getStatus().isActive()) {
+                    remove(subscription);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends a comment line to every connection so idle proxies keep them open and connections
+     * whose client went away are detected and dropped.
+     */
+    @Scheduled(fixedDelayString = "${orders.stream.heartbeat-interval:15s}")
+    public void heartbeat() {
+        for (Subscription subscription : subscriptions) {
+            enqueue(subscription, HEARTBEAT);
+        }
+    }
+
+    int connectionCount() {
+        return subscriptions.size();
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private Subscription register(Subscription subscription) {
+        subscriptions.add(subscription);
+        SseEmitter emitter = subscription.emitter;
+        emitter.onCompletion(() -> remove(subscription));
+        emitter.onTimeout(() -> remove(subscription));
+        emitter.onError(e -> remove(subscription));
+        Thread.ofVirtual().name("order-stream-sender").start(subscription::send);
+        return subscription;
+    }
+
+    private void enqueue(Subscription subscription, Object message) {
+        if (!subscription.outbox.offer(message)) {
+            log.debug("Dropping order status stream that fell {} messages behind", queueSize);
+            slowConnections.increment();
+            remove(subscription);
+        }
+    }
+
+    /**
+     * Only signals the connection's sender, which completes the emitter: the emitter is locked
+     * while a write is in progress, so completing it here could block on a slow client.
+     */
+    private void remove(Subscription subscription) {
+        if (subscriptions.remove(subscription) && !subscription.outbox.offer(CLOSE)) {
+            subscription.outbox.clear();
+            subscription.outbox.offer(CLOSE);
+        }
+    }
+
+    private final class Subscription {
+
+        private final SseEmitter emitter;
+        private final String tenantId;
+        private final String orderId;
+        private final Set<OrderStatus> statuses;
+        private final BlockingQueue<Object> outbox = new ArrayBlockingQueue<>(queueSize);
+
+        private Subscription(SseEmitter emitter, String tenantId, String orderId, Set<OrderStatus> statuses) {
+            this.emitter = emitter;
+            this.tenantId = tenantId;
+            this.orderId = orderId;
+            this.statuses = statuses;
+        }
+
+        boolean matches(OrderStatusEvent event) {
+            if (!tenantId.equals(event.getTenantId())) {
+                return false;
+            }
+            return orderId != null
+                    ? orderId.equals(event.getOrderId())
+                    : statuses.contains(event.getStatus());
+        }
+
+        /**
+         * Writes queued messages until the connection is closed or its client goes away.
+         */
+        void send() {
+            try {
+                for (Object message = outbox.take(); message != CLOSE; message = outbox.take()) {
+                    if (message == HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        OrderStatusEvent event = (OrderStatusEvent) message;
+                        emitter.send(SseEmitter.event()
+                                .id(event.getOrderId() + ":" + event.getStatus())
+                                .name(STATUS_EVENT)
+                                .data(event));
+                    }
+                }
+                emitter.complete();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping order status stream: {}", e.getMessage());
+                remove(this);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.entity.OrderItem;
+import com.allo.restaurant.order.entity.PricingRule;
+import com.allo.restaurant.order.repository.PricingRuleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Prices carts against the current {@link CompiledPricingRules} of the cart's tenant. Rules are
+ * compiled once per change and swapped in atomically, so pricing never reads MongoDB or blocks on
+ * a reload. Rule changes made on this instance take effect immediately and only recompile the
+ * rules of that tenant; changes made on other instances are picked up by the periodic refresh.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PricingEngine {
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final ReentrantLock reloadLock = new ReentrantLock();
+
+    private volatile Map<String, CompiledPricingRules> rulesByTenant;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread.ofVirtual().name("pricing-rules-loader").start(this::refresh);
+    }
+
+    @Scheduled(initialDelayString = "${orders.pricing.refresh-interval:1m}",
+            fixedDelayString = "${orders.pricing.refresh-interval:1m}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            log.warn("Could not load the pricing rules: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reads and publishes under the same lock as {@link #reload(String)}, so a snapshot of all
+     * rules read before a tenant's rules changed can never be published over the recompiled rules
+     * of that tenant. A {@link ReentrantLock} rather than {@code synchronized}, so the virtual
+     * loader thread does not pin its carrier while it waits on MongoDB.
+     */
+    public void reload() {
+        reloadLock.lock();
+        try {
+            List<PricingRule> pricingRules = pricingRuleRepository.findAll();
+            Map<String, CompiledPricingRules> compiled = new HashMap<>();
+            pricingRules.stream()
+                    .filter(pricingRule -> pricingRule.getTenantId() != null)
+                    .collect(Collectors.groupingBy(PricingRule::getTenantId))
+                    .forEach((tenantId, tenantRules) -> compiled.put(tenantId, CompiledPricingRules.compile(tenantRules)));
+            rulesByTenant = compiled;
+            log.info("Pricing rules compiled: {} rules of {} tenants", pricingRules.size(), compiled.size());
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Recompiles the rules of one tenant after they changed on this instance.
+     */
+    public void reload(String tenantId) {
+        reloadLock.lock();
+        try {
+            Map<String, CompiledPricingRules> current = rulesByTenant;
+            if (current == null) {
+                reload();
+                return;
+            }
+            Map<String, CompiledPricingRules> next = new HashMap<>(current);
+            next.put(tenantId, CompiledPricingRules.compile(pricingRuleRepository.findByTenantId(tenantId)));
+            rulesByTenant = next;
+        } finally {
+            reloadLock.unlock();
+        }
+    }
+
+    /**
+     * Prices a cart of {@code tenantId} at the given time. If the rules have not been loaded yet,
+     * they are loaded first rather than pricing without them.
+     */
+    public PricingResult price(String tenantId, List<OrderItem> orderItems, LocalDateTime at) {
+        Map<String, CompiledPricingRules> current = rulesByTenant;
+        if (current == null) {
+            reload();
+            current = rulesByTenant;
+        }
+        return current.getOrDefault(tenantId, CompiledPricingRules.EMPTY).price(orderItems, at);
+    }
+}
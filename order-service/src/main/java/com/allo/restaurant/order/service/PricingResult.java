@@ -0,0 +1,13 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.entity.Money;
+import com.allo.restaurant.order.entity.PriceAdjustment;
+
+import java.util.List;
+
+/**
+ * Price of one cart: {@code total = subtotal - discount + tax}. Adjustment amounts are positive;
+ * their type tells whether they were added or taken off.
+ */
+public record PricingResult(Money subtotal, Money discount, Money tax, Money total, List<PriceAdjustment> adjustments) {
+}
@@ -0,0 +1,96 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.dto.CreatePricingRuleRequest;
+import com.allo.restaurant.order.dto.PricingRuleResponse;
+import com.allo.restaurant.order.entity.PricingRule;
+import com.allo.restaurant.order.entity.PricingRuleType;
+import com.allo.restaurant.order.exception.PricingRuleNotFoundException;
+import com.allo.restaurant.order.repository.PricingRuleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class PricingRuleService {
+
+    private final PricingRuleRepository pricingRuleRepository;
+    private final PricingEngine pricingEngine;
+
+    public List<PricingRuleResponse> getPricingRules(String tenantId) {
+        return pricingRuleRepository.findByTenantId(tenantId).stream()
+                .map(PricingRuleService::toResponse)
+                .toList();
+    }
+
+    public PricingRuleResponse createPricingRule(String tenantId, CreatePricingRuleRequest request) {
+        validate(request);
+
+        PricingRule pricingRule = PricingRule.builder()
+                .tenantId(tenantId)
+                .name(request.getName())
+                .type(request.getType())
+                .productIds(request.getProductIds())
+                .percentage(request.getPercentage())
+                .amountOff(request.getAmountOff())
+                .daysOfWeek(request.getDaysOfWeek())
+                .startTime(request.getStartTime())
+                .endTime(request.getEndTime())
+                .validFrom(request.getValidFrom())
+                .validUntil(request.getValidUntil())
+                .createdAt(LocalDateTime.now())
+                .build();
+
+        PricingRule savedRule = pricingRuleRepository.save(pricingRule);
+        pricingEngine.reload(tenantId);
+        return toResponse(savedRule);
+    }
+
+    public void deletePricingRule(String tenantId, String id) {
+        if (pricingRuleRepository.removeByTenantIdAndId(tenantId, id) == 0) {
+            throw new PricingRuleNotFoundException(id);
+        }
+        pricingEngine.reload(tenantId);
+    }
+
+    private static void validate(CreatePricingRuleRequest request) {
+        if (request.getType() == PricingRuleType.COMBO) {
+            if (request.getAmountOff() == null) {
+                throw new IllegalArgumentException("A COMBO rule requires amountOff");
+            }
+            if (request.getProductIds() == null || request.getProductIds().stream().distinct().count() < 2) {
+                throw new IllegalArgumentException("A COMBO rule requires at least two distinct productIds");
+            }
+        } else if (request.getPercentage() == null) {
+            throw new IllegalArgumentException("A " + request.getType() + " rule requires percentage");
+        }
+        if ((request.getStartTime() == null) != (request.getEndTime() == null)) {
+            throw new IllegalArgumentException("startTime and endTime must be given together");
+        }
+        if (request.getValidFrom() != null && request.getValidUntil() != null
+                && !request.getValidFrom().isBefore(request.getValidUntil())) {
+            throw new IllegalArgumentException("validFrom must be before validUntil");
+        }
+    }
+
+    private static PricingRuleResponse toResponse(PricingRule rule) {
+        return PricingRuleResponse.builder()
+                .id(rule.getId())
+                .name(rule.getName())
+                .type(rule.getType())
+                .productIds(rule.getProductIds())
+                .percentage(rule.getPercentage())
+                .amountOff(rule.getAmountOff())
+                .daysOfWeek(rule.getDaysOfWeek())
+                .startTime(rule.getStartTime())
+                .endTime(rule.getEndTime())
+                .validFrom(rule.getValidFrom())
+                .validUntil(rule.getValidUntil())
+                .createdAt(rule.getCreatedAt())
+                .build();
+    }
+}
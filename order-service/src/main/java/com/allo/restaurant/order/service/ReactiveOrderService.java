@@ -0,0 +1,210 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.client.ReactiveMenuServiceClient;
+import com.allo.restaurant.order.dto.*;
+import com.allo.restaurant.order.entity.*;
+import com.allo.restaurant.order.exception.MenuServiceUnavailableException;
+import com.allo.restaurant.order.messaging.OrderStatusPublisher;
+import com.allo.restaurant.order.repository.ReactiveOrderRepository;
+import io.micrometer.observation.ObservationRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.types.ObjectId;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import reactor.core.observability.micrometer.Micrometer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Non-blocking implementation of the {@link OrderService} flow, active with the {@code reactive} profile.
+ * Stock for all items of an order is reserved in one menu-service call, and the (blocking) RabbitMQ
+ * publish, event log, sales rollups, archive reads and pricing, which may load the rules from MongoDB,
+ * are moved off the event loop.
+ */
+@Slf4j
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOrderService {
+
+    private static final int STATUS_UPDATE_ATTEMPTS = 3;
+
+    private final ReactiveOrderRepository orderRepository;
+    private final ReactiveMenuServiceClient menuServiceClient;
+    private final OrderStatusPublisher orderStatusPublisher;
+    private final ObservationRegistry observationRegistry;
+    private final PricingEngine pricingEngine;
+    private final OrderArchiveService orderArchiveService;
+    private final OrderEventService orderEventService;
+    private final ActiveOrderIndex activeOrderIndex;
+    private final SalesAnalyticsService salesAnalyticsService;
+
+    public Mono<OrderResponse> createOrder(String tenantId, CreateOrderRequest request) {
+        Customer customer = OrderMapper.toCustomer(request.getCustomer());
+        String orderId = new ObjectId().toHexString();
+
+        return menuServiceClient.reserveMenuItems(tenantId, orderId, request.getOrderItems())
+                .onErrorResume(MenuServiceUnavailableException.class,
+                        e -> releaseReservation(tenantId, orderId).then(Mono.error(e)))
+                .flatMap(reserved -> {
+                    Map<String, MenuItemResponse> menuItems = reserved.stream()
+                            .collect(Collectors.toMap(MenuItemResponse::getId, Function.identity()));
+                    return Mono.fromCallable(() -> {
+                                List<OrderItem> orderItems = request.getOrderItems().stream()
+                                        .map(itemRequest -> OrderMapper.toOrderItem(menuItems.get(itemRequest.getProductId()), itemRequest))
+                                        .collect(Collectors.toList());
+                                LocalDateTime now = LocalDateTime.now();
+                                Order order = OrderMapper.newOrder(tenantId, customer, orderItems,
+                                        pricingEngine.price(tenantId, orderItems, now), now);
+                                order.setId(orderId);
+                                return order;
+                            })
+                            .subscribeOn(Schedulers.boundedElastic())
+                            .flatMap(orderRepository::insert)
+                            .onErrorResume(e -> orderMayExist(tenantId, orderId, e)
+                                    .flatMap(exists -> exists ? Mono.<Void>empty() : releaseReservation(tenantId, orderId))
+                                    .then(Mono.error(e)));
+                })
+                .doOnNext(activeOrderIndex::apply)
+                .flatMap(savedOrder -> Mono.fromRunnable(() -> {
+                            salesAnalyticsService.recordCreated(List.of(savedOrder));
+                            orderEventService.recordCreated(List.of(savedOrder));
+                            orderStatusPublisher.publishOrdersCreated(List.of(OrderMapper.toNotification(savedOrder)));
+                        })
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenReturn(savedOrder))
+                .map(OrderMapper::toOrderResponse)
+                .name("orders.create")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    public Mono<UpdateOrderStatusResponse> updateOrderStatus(String tenantId, String orderId, UpdateOrderStatusRequest request) {
+        return applyStatus(tenantId, orderId, request.getStatus(), 1)
+                .doOnNext(activeOrderIndex::apply)
+                .flatMap(updatedOrder -> Mono.fromRunnable(() ->
+                                orderStatusPublisher.publishOrderStatusChange(OrderMapper.toNotification(updatedOrder)))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .thenReturn(OrderMapper.toUpdateOrderStatusResponse(updatedOrder)))
+                .name("orders.status.update")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    /**
+     * As in {@link OrderService}: the order is only written if its event sequence has not moved
+     * since it was read, and read again otherwise.
+     */
+    private Mono<Order> applyStatus(String tenantId, String orderId, OrderStatus status, int attempt) {
+        return orderRepository.findByTenantIdAndId(tenantId, orderId)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Order not found with id: " + orderId)))
+                .flatMap(order -> {
+                    OrderStatus previousStatus = order.getStatus();
+                    Integer readSequence = order.getEventSequence();
+                    boolean statusChanged = status != previousStatus;
+                    boolean cancelling = status == OrderStatus.CANCELLED && statusChanged;
+                    order.setStatus(status);
+                    order.setUpdatedAt(LocalDateTime.now());
+                    boolean backfillCreation = statusChanged && OrderMapper.advanceEventSequence(order);
+                    return orderRepository.updateStatus(order, readSequence).flatMap(updated -> {
+                        if (!updated) {
+                            return attempt == STATUS_UPDATE_ATTEMPTS
+                                    ? Mono.error(new OptimisticLockingFailureException("Order " + orderId + " is being updated concurrently"))
+                                    : applyStatus(tenantId, orderId, status, attempt + 1);
+                        }
+                        return (statusChanged
+                                ? Mono.fromRunnable(() -> {
+                                            orderEventService.recordStatusChange(order, previousStatus, backfillCreation);
+                                            salesAnalyticsService.recordStatusChange(previousStatus, order);
+                                        })
+                                        .subscribeOn(Schedulers.boundedElastic())
+                                        .thenReturn(order)
+                                : Mono.just(order))
+                                .flatMap(saved -> cancelling ? releaseReservation(tenantId, orderId).thenReturn(saved) : Mono.just(saved));
+                    });
+                });
+    }
+
+    /**
+     * As in {@link OrderService}: after a write concern error the order is read back before its
+     * stock is given up.
+     */
+    private Mono<Boolean> orderMayExist(String tenantId, String orderId, Throwable e) {
+        if (!OrderService.isWriteConcernError(e)) {
+            return Mono.just(false);
+        }
+        return orderRepository.findByTenantIdAndId(tenantId, orderId)
+                .hasElement()
+                .onErrorReturn(true);
+    }
+
+    /**
+     * Best effort, as in {@link OrderService}: failing to release never fails the caller.
+     */
+    private Mono<Void> releaseReservation(String tenantId, String orderId) {
+        return menuServiceClient.releaseReservation(tenantId, orderId)
+                .onErrorResume(e -> {
+                    log.warn("Could not release the stock reserved for order {}: {}", orderId, e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    public Mono<OrderHistoryResponse> getOrderHistory(String tenantId, int limit, int offset) {
+        int pageNumber = offset / limit;
+        int offsetInPage = offset % limit;
+
+        Flux<Order> orders = orderRepository.findByTenantId(tenantId, PageRequest.of(pageNumber, limit, OrderArchiveService.NEWEST_FIRST));
+        if (offsetInPage > 0) {
+            orders = orders.concatWith(orderRepository.findByTenantId(tenantId,
+                    PageRequest.of(pageNumber + 1, limit, OrderArchiveService.NEWEST_FIRST)));
+        }
+
+        return Mono.zip(
+                        orders.skip(offsetInPage)
+                                .take(limit)
+                                .collectList(),
+                        orderRepository.countByTenantId(tenantId),
+                        Mono.fromCallable(() -> orderArchiveService.count(tenantId))
+                                .subscribeOn(Schedulers.boundedElastic()))
+                .flatMap(result -> {
+                    long archived = result.getT3();
+                    Mono<List<Order>> page = archived > 0 && orderArchiveService.reachesArchive(result.getT1(), limit)
+                            ? Mono.fromCallable(() -> orderArchiveService.mergeHistory(tenantId, result.getT1(), offset, limit))
+                                    .subscribeOn(Schedulers.boundedElastic())
+                            : Mono.just(result.getT1());
+                    return page.map(history -> OrderHistoryResponse.builder()
+                            .orders(history.stream().map(OrderMapper::toOrderResponse).toList())
+                            .limit(limit)
+                            .offset(offset)
+                            .totalRecords(result.getT2() + archived)
+                            .build());
+                })
+                .name("orders.history")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    public Mono<OrderTimelineResponse> getOrderTimeline(String tenantId, String orderId) {
+        return Mono.fromCallable(() -> orderEventService.getTimeline(tenantId, orderId))
+                .subscribeOn(Schedulers.boundedElastic())
+                .name("orders.timeline")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+
+    public Mono<OrderResponse> getOrderById(String tenantId, String orderId) {
+        return orderRepository.findByTenantIdAndId(tenantId, orderId)
+                .switchIfEmpty(Mono.fromCallable(() -> orderArchiveService.findById(tenantId, orderId).orElse(null))
+                        .subscribeOn(Schedulers.boundedElastic()))
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Order not found with id: " + orderId)))
+                .map(OrderMapper::toOrderResponse)
+                .name("orders.get")
+                .tap(Micrometer.observation(observationRegistry));
+    }
+}
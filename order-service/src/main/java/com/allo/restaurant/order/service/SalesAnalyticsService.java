@@ -0,0 +1,222 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.dto.*;
+import com.allo.restaurant.order.entity.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Maintains hourly sales and daily per-item rollups with atomic {@code $inc} upserts as orders are
+ * created and cancelled, and serves the analytics endpoints from them. Buckets are per tenant and
+ * UTC hour/day, matching what {@code $dateTrunc} produces, so {@link #backfill(String)} and the
+ * incremental updates write the same documents.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SalesAnalyticsService {
+
+    static final String SALES_COLLECTION = "sales_rollups";
+    static final String ITEM_SALES_COLLECTION = "item_sales_rollups";
+
+    private final MongoTemplate mongoTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public void recordCreated(Collection<Order> orders) {
+        record(orders.stream().filter(order -> order.getStatus() != OrderStatus.CANCELLED).toList(), 1);
+    }
+
+    /**
+     * Removes an order from the rollups when it is cancelled, and adds it back if a cancellation
+     * is reverted.
+     */
+    public void recordStatusChange(OrderStatus previousStatus, Order order) {
+        boolean wasCancelled = previousStatus == OrderStatus.CANCELLED;
+        boolean isCancelled = order.getStatus() == OrderStatus.CANCELLED;
+        if (wasCancelled != isCancelled) {
+            record(List.of(order), isCancelled ? -1 : 1);
+        }
+    }
+
+    public SalesReportResponse getSales(String tenantId, Instant from, Instant to) {
+        Query query = new Query(Criteria.where("_id.tenantId").is(tenantId)
+                .and("_id.hour").gte(Date.from(from)).lt(Date.from(to)))
+                .with(Sort.by(Sort.Direction.ASC, "_id.hour"));
+        List<HourlySalesResponse> hours = mongoTemplate.find(query, SalesRollup.class).stream()
+                .map(rollup -> HourlySalesResponse.builder()
+                        .hour(rollup.getId().getHour().toInstant())
+                        .orders(rollup.getOrders())
+                        .items(rollup.getItems())
+                        .revenue(rollup.getRevenue())
+                        .build())
+                .toList();
+
+        return SalesReportResponse.builder()
+                .from(from)
+                .to(to)
+                .orders(hours.stream().mapToLong(HourlySalesResponse::getOrders).sum())
+                .revenue(hours.stream().map(HourlySalesResponse::getRevenue).reduce(BigDecimal.ZERO, BigDecimal::add))
+                .hours(hours)
+                .build();
+    }
+
+    public TopItemsResponse getTopItems(String tenantId, Instant from, Instant to, int limit) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("_id.tenantId").is(tenantId)
+                        .and("_id.day").gte(Date.from(from)).lt(Date.from(to))),
+                Aggregation.group("_id.productId")
+                        .last("name").as("name")
+                        .sum("quantity").as("quantity")
+                        .sum("revenue").as("revenue"),
+                Aggregation.project("name", "quantity", "revenue").and("productId").previousOperation(),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "quantity").and(Sort.by("productId"))),
+                Aggregation.limit(limit));
+
+        List<ItemPopularityResponse> items = mongoTemplate
+                .aggregate(aggregation, ITEM_SALES_COLLECTION, ItemPopularityResponse.class)
+                .getMappedResults();
+        return TopItemsResponse.builder()
+                .from(from)
+                .to(to)
+                .items(items)
+                .build();
+    }
+
+    /**
+     * Recomputes both rollups of one tenant from its orders, archived ones included, with one
+     * aggregation pipeline each, written back with {@code $merge}. Use it to seed the rollups from
+     * historical data or to repair drift. Orders written while it runs may be missed, so run it during a quiet period.
+     * <p>
+     * Item revenue is the price rounded half-even to the minor unit times the quantity, as in
+     * {@link OrderMapper#lineTotal}, so a backfill writes the same amounts as the incremental updates.
+     */
+    public AnalyticsBackfillResponse backfill(String tenantId) {
+        Document tenantBuckets = new Document("_id.tenantId", tenantId);
+        mongoTemplate.getCollection(SALES_COLLECTION).deleteMany(tenantBuckets);
+        mongoTemplate.getCollection(ITEM_SALES_COLLECTION).deleteMany(tenantBuckets);
+
+        Document notCancelled = new Document("$match", new Document("tenantId", tenantId)
+                .append("status", new Document("$ne", OrderStatus.CANCELLED.name())));
+        Document withArchived = new Document("$unionWith", new Document("coll", OrderArchiveService.COLLECTION)
+                .append("pipeline", List.of(notCancelled)));
+
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Order.class)).aggregate(List.of(
+                notCancelled,
+                withArchived,
+                new Document("$group", new Document("_id", new Document("tenantId", "$tenantId")
+                        .append("hour", dateTrunc("$createdAt", "hour")))
+                        .append("orders", new Document("$sum", 1))
+                        .append("items", new Document("$sum", new Document("$sum", "$orderItems.quantity")))
+                        .append("revenue", new Document("$sum", new Document("$toDecimal", "$totalAmount")))),
+                merge(SALES_COLLECTION)
+        )).toCollection();
+
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Order.class)).aggregate(List.of(
+                notCancelled,
+                withArchived,
+                new Document("$unwind", "$orderItems"),
+                new Document("$group", new Document("_id", new Document("tenantId", "$tenantId")
+                        .append("productId", "$orderItems.productId")
+                        .append("day", dateTrunc("$createdAt", "day")))
+                        .append("name", new Document("$last", "$orderItems.name"))
+                        .append("quantity", new Document("$sum", "$orderItems.quantity"))
+                        .append("revenue", new Document("$sum", new Document("$multiply", List.of(
+                                new Document("$round", List.of(new Document("$toDecimal", "$orderItems.price"),
+                                        OrderMapper.CURRENCY.getDefaultFractionDigits())),
+                                "$orderItems.quantity"))))),
+                merge(ITEM_SALES_COLLECTION)
+        )).toCollection();
+
+        AnalyticsBackfillResponse response = AnalyticsBackfillResponse.builder()
+                .salesBuckets(mongoTemplate.getCollection(SALES_COLLECTION).countDocuments(tenantBuckets))
+                .itemBuckets(mongoTemplate.getCollection(ITEM_SALES_COLLECTION).countDocuments(tenantBuckets))
+                .build();
+        log.info("Sales rollups of {} backfilled: {} hourly buckets, {} item buckets",
+                tenantId, response.getSalesBuckets(), response.getItemBuckets());
+        return response;
+    }
+
+    /**
+     * Rollup updates must never fail the order write they follow; a failure is counted and the
+     * drift can be repaired with {@link #backfill(String)}.
+     */
+    private void record(List<Order> orders, int sign) {
+        if (orders.isEmpty()) {
+            return;
+        }
+        try {
+            BulkOperations sales = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SALES_COLLECTION);
+            BulkOperations items = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, ITEM_SALES_COLLECTION);
+            for (Order order : orders) {
+                Instant createdAt = toInstant(order.getCreatedAt());
+                Date hour = Date.from(createdAt.truncatedTo(ChronoUnit.HOURS));
+                Date day = Date.from(createdAt.truncatedTo(ChronoUnit.DAYS));
+
+                long quantity = order.getOrderItems().stream().mapToLong(OrderItem::getQuantity).sum();
+                Document hourKey = new Document("tenantId", order.getTenantId()).append("hour", hour);
+                sales.upsert(new Query(Criteria.where("_id").is(hourKey)), new Update()
+                        .inc("orders", sign)
+                        .inc("items", sign * quantity)
+                        .inc("revenue", decimal(order.getTotalAmount(), sign)));
+
+                for (OrderItem item : order.getOrderItems()) {
+                    Document key = new Document("tenantId", order.getTenantId())
+                            .append("productId", item.getProductId())
+                            .append("day", day);
+                    BigDecimal itemRevenue = OrderMapper.lineTotal(item).toBigDecimal();
+                    items.upsert(new Query(Criteria.where("_id").is(key)), new Update()
+                            .set("name", item.getName())
+                            .inc("quantity", (long) sign * item.getQuantity())
+                            .inc("revenue", decimal(itemRevenue, sign)));
+                }
+            }
+            sales.execute();
+            items.execute();
+        } catch (DataAccessException e) {
+            meterRegistry.counter("orders.rollup.failures").increment();
+            log.warn("Could not update sales rollups for {} orders: {}", orders.size(), e.getMessage());
+        }
+    }
+
+    private static Document dateTrunc(String field, String unit) {
+        return new Document("$dateTrunc", new Document("date", field).append("unit", unit));
+    }
+
+    private static Document merge(String collection) {
+        return new Document("$merge", new Document("into", collection)
+                .append("on", "_id")
+                .append("whenMatched", "replace")
+                .append("whenNotMatched", "insert"));
+    }
+
+    private static Decimal128 decimal(BigDecimal amount, int sign) {
+        return new Decimal128(sign < 0 ? amount.negate() : amount);
+    }
+
+    /**
+     * Same conversion Spring Data applies when it stores a {@link LocalDateTime}, so the bucket
+     * matches the {@code $dateTrunc} of the stored {@code createdAt}.
+     */
+    private static Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+}
@@ -0,0 +1,30 @@
+package com.allo.restaurant.order.tenant;
+
+import java.util.regex.Pattern;
+
+/**
+ * Every order belongs to one restaurant, the tenant, named by the {@value #HEADER} request header.
+ * Requests without the header act on the {@value #DEFAULT} tenant, which also owns the data
+ * written before orders were partitioned by tenant.
+ */
+public final class TenantIds {
+
+    public static final String HEADER = "X-Tenant-Id";
+    public static final String DEFAULT = "default";
+
+    private static final Pattern VALID = Pattern.compile("[a-z0-9][a-z0-9-]{0,31}");
+
+    private TenantIds() {
+    }
+
+    /**
+     * @throws IllegalArgumentException unless {@code tenantId} is 1 to 32 lowercase letters,
+     *                                  digits or dashes, starting with a letter or digit
+     */
+    public static String validate(String tenantId) {
+        if (tenantId == null || !VALID.matcher(tenantId).matches()) {
+            throw new IllegalArgumentException("Invalid " + HEADER + ": tenant ids are 1 to 32 lowercase letters, digits or dashes");
+        }
+        return tenantId;
+    }
+}
@@ -1,13 +1,25 @@
 package com.allo.restaurant.order;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 @SpringBootTest
 class OrderServiceApplicationTests {
 
+	@Autowired
+	private ApplicationContext context;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void shouldNotOpenReactiveMongoClient() {
+		assertThat(context.getBeanNamesForType(com.mongodb.reactivestreams.client.MongoClient.class)).isEmpty();
+	}
+
 }
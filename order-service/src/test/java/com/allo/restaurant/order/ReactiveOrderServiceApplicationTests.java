@@ -0,0 +1,30 @@
+package com.allo.restaurant.order;
+
+import com.allo.restaurant.order.client.MenuItemLookup;
+import com.allo.restaurant.order.client.MenuServiceClient;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+class ReactiveOrderServiceApplicationTests {
+
+	@Autowired
+	private ApplicationContext context;
+
+	@Test
+	void contextLoads() {
+	}
+
+	@Test
+	void shouldNotCreateBlockingMenuClients() {
+		assertThat(context.getBeanNamesForType(MenuServiceClient.class)).isEmpty();
+		assertThat(context.getBeanNamesForType(MenuItemLookup.class)).isEmpty();
+	}
+
+}
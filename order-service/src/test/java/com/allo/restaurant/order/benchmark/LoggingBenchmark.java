@@ -0,0 +1,169 @@
+package com.allo.restaurant.order.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import com.allo.restaurant.order.logging.HotPathSamplingFilter;
+import com.allo.restaurant.order.logging.LogMarkers;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.logging.logback.StructuredLogEncoder;
+import org.springframework.core.env.Environment;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the logging cost paid by a request thread for one order status round trip
+ * (menu lookup, publish, consume). Each configuration adds one change to the one before it, so
+ * each change is measured on its own:
+ * <ul>
+ *     <li>{@code TEXT}: synchronous text console appender, every message written, 8-line
+ *     notification block.</li>
+ *     <li>{@code SINGLE_LINE}: the notification block reduced to one line.</li>
+ *     <li>{@code JSON}: ECS JSON instead of text.</li>
+ *     <li>{@code ASYNC}: behind an {@link AsyncAppender}.</li>
+ *     <li>{@code SAMPLED}: hot-path messages sampled 1 in 10.</li>
+ * </ul>
+ * Output goes to a null stream so only formatting and appender overhead is measured. The async
+ * appender discards nothing and blocks when its queue is full, so what it cannot keep up with is
+ * paid for by the request thread rather than hidden by dropped events.
+ * Run with {@code ./mvnw test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.allo.restaurant.order.benchmark.LoggingBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final String CONSOLE_PATTERN =
+            "%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p 1 --- [%15.15t] %-40.40logger{39} : %m%n";
+
+    public enum Configuration {
+        TEXT, SINGLE_LINE, JSON, ASYNC, SAMPLED
+    }
+
+    @Param
+    public Configuration configuration;
+
+    private LoggerContext loggerContext;
+    private Logger clientLogger;
+    private Logger publisherLogger;
+    private Logger consumerLogger;
+
+    @Setup
+    public void setUp() {
+        loggerContext = new LoggerContext();
+        loggerContext.putObject(Environment.class.getName(),
+                new MockEnvironment().withProperty("spring.application.name", "order-service"));
+
+        Appender<ILoggingEvent> appender = nullAppender(configuration.compareTo(Configuration.JSON) < 0
+                ? patternEncoder()
+                : structuredEncoder());
+        if (configuration.compareTo(Configuration.ASYNC) >= 0) {
+            appender = asyncAppender(appender);
+        }
+
+        if (configuration == Configuration.SAMPLED) {
+            HotPathSamplingFilter samplingFilter = new HotPathSamplingFilter();
+            samplingFilter.setRate(10);
+            samplingFilter.setContext(loggerContext);
+            samplingFilter.start();
+            loggerContext.addTurboFilter(samplingFilter);
+        }
+
+        Logger root = loggerContext.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.setLevel(Level.INFO);
+        root.addAppender(appender);
+
+        clientLogger = loggerContext.getLogger("com.allo.restaurant.order.client.MenuServiceClient");
+        publisherLogger = loggerContext.getLogger("com.allo.restaurant.order.messaging.OrderStatusPublisher");
+        consumerLogger = loggerContext.getLogger("com.allo.restaurant.order.messaging.OrderStatusConsumer");
+    }
+
+    @TearDown
+    public void tearDown() {
+        loggerContext.stop();
+    }
+
+    @Benchmark
+    public void orderStatusRoundTrip() {
+        if (configuration == Configuration.TEXT) {
+            clientLogger.info("Attempting to fetch menu item with id: {}", "65f1c2a9e4b0a1b2c3d4e5f6");
+            publisherLogger.info("Publishing order status change: orderId={}, status={}", "65f1c2a9e4b0a1b2c3d4e5f7", "READY");
+            consumerLogger.info("""
+                    ========== ORDER STATUS NOTIFICATION ==========
+                    Order ID: {}
+                    Customer: {}
+                    Address: {}
+                    Email: {}
+                    New Status: {}
+                    Simulating notification sent to customer {} at {}
+                    ================================================""",
+                    "65f1c2a9e4b0a1b2c3d4e5f7", "John Doe", "123 Main St", "john@example.com", "READY",
+                    "John Doe", "john@example.com");
+        } else {
+            // Unsampled configurations log the same calls; only the sampling filter acts on the marker
+            clientLogger.info(LogMarkers.HOT_PATH, "Attempting to fetch menu item with id: {}", "65f1c2a9e4b0a1b2c3d4e5f6");
+            publisherLogger.info(LogMarkers.HOT_PATH, "Publishing order status change: orderId={}, status={}",
+                    "65f1c2a9e4b0a1b2c3d4e5f7", "READY");
+            consumerLogger.info(LogMarkers.HOT_PATH, "Order status notification sent to customer: orderId={}, status={}, email={}",
+                    "65f1c2a9e4b0a1b2c3d4e5f7", "READY", "john@example.com");
+        }
+    }
+
+    private Encoder<ILoggingEvent> patternEncoder() {
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern(CONSOLE_PATTERN);
+        encoder.start();
+        return encoder;
+    }
+
+    private Encoder<ILoggingEvent> structuredEncoder() {
+        StructuredLogEncoder encoder = new StructuredLogEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setFormat("ecs");
+        encoder.start();
+        return encoder;
+    }
+
+    private Appender<ILoggingEvent> nullAppender(Encoder<ILoggingEvent> encoder) {
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(loggerContext);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+        return appender;
+    }
+
+    private Appender<ILoggingEvent> asyncAppender(Appender<ILoggingEvent> delegate) {
+        AsyncAppender appender = new AsyncAppender();
+        appender.setContext(loggerContext);
+        appender.setQueueSize(8192);
+        appender.setIncludeCallerData(false);
+        appender.setDiscardingThreshold(0);
+        appender.addAppender(delegate);
+        appender.start();
+        return appender;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LoggingBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
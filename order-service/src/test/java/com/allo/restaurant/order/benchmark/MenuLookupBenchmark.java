@@ -0,0 +1,282 @@
+package com.allo.restaurant.order.benchmark;
+
+import com.allo.restaurant.order.client.MenuItemLookup;
+import com.allo.restaurant.order.client.MenuItemVersionCache;
+import com.allo.restaurant.order.client.MenuServiceClient;
+import com.allo.restaurant.order.client.RSocketMenuItemLookup;
+import com.allo.restaurant.order.client.RestMenuItemLookup;
+import com.allo.restaurant.order.dto.MenuItemListResponse;
+import com.allo.restaurant.order.dto.MenuItemLookupRequest;
+import com.allo.restaurant.order.dto.MenuItemResponse;
+import com.allo.restaurant.order.dto.OrderItemRequest;
+import com.allo.restaurant.order.dto.StockReservationRequest;
+import com.allo.restaurant.order.dto.StockReservationResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import org.springframework.stereotype.Controller;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.pattern.PathPatternRouteMatcher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+/**
+ * Looks menu items up through {@link RestMenuItemLookup} and {@link RSocketMenuItemLookup} against
+ * in-process stand-ins for menu-service that serve the same 200 items from memory, encoding every
+ * response with Jackson (JSON over HTTP, CBOR over RSocket) like menu-service does. With no
+ * database behind them, the figures are the cost of the transport and the codecs alone.
+ * <ul>
+ *     <li>{@code itemLookup}: one item by id.</li>
+ *     <li>{@code batchLookup}: 20 items in one call, as a bulk import does.</li>
+ *     <li>{@code orderReservation}: the reservation of a 3-item order through
+ *     {@link MenuServiceClient#reserveMenuItems}, which every order created one at a time makes.
+ *     It always goes over REST, so it is measured under both transports as the baseline the
+ *     lookup transport does not change.</li>
+ * </ul>
+ * Eight threads call concurrently, so the single multiplexed RSocket connection is shared while
+ * REST uses its connection pool. After each iteration the process CPU time per lookup is printed,
+ * which covers both the client and the stand-in server.
+ * <p>
+ * Run with {@code ./mvnw test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.allo.restaurant.order.benchmark.MenuLookupBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MenuLookupBenchmark {
+
+    private static final String TENANT = "downtown";
+    private static final int ITEMS = 200;
+    private static final int BATCH = 20;
+    private static final int ORDER_ITEMS = 3;
+
+    @Param({"rest", "rsocket"})
+    public String transport;
+
+    private final AtomicLong lookups = new AtomicLong();
+    private long cpuNanosAtStart;
+
+    private HttpServer httpServer;
+    private ExecutorService httpExecutor;
+    private CloseableChannel rsocketServer;
+    private RSocketMenuItemLookup rsocketLookup;
+    private MenuItemLookup lookup;
+    private MenuServiceClient menuServiceClient;
+    private List<String> batch;
+    private List<OrderItemRequest> orderItems;
+
+    @Controller
+    static class StubMenu {
+
+        final Map<String, MenuItemResponse> items = new LinkedHashMap<>();
+
+        StubMenu() {
+            for (int i = 0; i < ITEMS; i++) {
+                items.put("item-" + i, MenuItemResponse.builder()
+                        .id("item-" + i)
+                        .name("Menu item " + i)
+                        .description("House special number " + i + " with fries and a drink")
+                        .price(new BigDecimal("12.90").add(BigDecimal.valueOf(i, 2)))
+                        .stock(50)
+                        .available(true)
+                        .version(7L)
+                        .createdAt(LocalDateTime.of(2025, 1, 15, 12, 30))
+                        .updatedAt(LocalDateTime.of(2025, 2, 1, 9, 0))
+                        .build());
+            }
+        }
+
+        @MessageMapping("tenants.{tenantId}.menu-items.get")
+        Mono<MenuItemResponse> get(@DestinationVariable String tenantId, String id) {
+            return Mono.justOrEmpty(items.get(id));
+        }
+
+        @MessageMapping("tenants.{tenantId}.menu-items.lookup")
+        Flux<MenuItemResponse> lookup(@DestinationVariable String tenantId, MenuItemLookupRequest request) {
+            return Flux.fromIterable(request.getIds()).mapNotNull(items::get);
+        }
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        StubMenu menu = new StubMenu();
+        batch = IntStream.range(0, BATCH).mapToObj(i -> "item-" + (i * 7 % ITEMS)).toList();
+        orderItems = IntStream.range(0, ORDER_ITEMS)
+                .mapToObj(i -> OrderItemRequest.builder().productId("item-" + (i * 11 % ITEMS)).quantity(1).build())
+                .toList();
+
+        // Reservations go over REST whatever the lookup transport, so the HTTP stand-in always runs.
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .registerModule(new BlackbirdModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        // Like Tomcat, answer without waiting for Nagle's algorithm.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        httpExecutor = Executors.newFixedThreadPool(16);
+        httpServer = HttpServer.create(new InetSocketAddress("localhost", 0), 128);
+        httpServer.setExecutor(httpExecutor);
+        httpServer.createContext("/menu-items/", exchange -> {
+            String path = exchange.getRequestURI().getPath();
+            if (path.equals("/menu-items/reservations")) {
+                StockReservationRequest request = objectMapper.readValue(exchange.getRequestBody(), StockReservationRequest.class);
+                respond(exchange, objectMapper.writeValueAsBytes(reserve(menu, request)));
+            } else if (exchange.getRequestMethod().equals("POST")) {
+                MenuItemLookupRequest request = objectMapper.readValue(exchange.getRequestBody(), MenuItemLookupRequest.class);
+                List<MenuItemResponse> found = request.getIds().stream().map(menu.items::get).toList();
+                respond(exchange, objectMapper.writeValueAsBytes(
+                        MenuItemListResponse.builder().items(found).totalRecords(found.size()).build()));
+            } else {
+                String id = path.substring("/menu-items/".length());
+                respond(exchange, objectMapper.writeValueAsBytes(menu.items.get(id)));
+            }
+        });
+        httpServer.start();
+        String menuServiceUrl = "http://localhost:" + httpServer.getAddress().getPort();
+
+        if (transport.equals("rest")) {
+            lookup = new RestMenuItemLookup(RestClient.builder(), menuServiceUrl);
+        } else {
+            ObjectMapper cborMapper = Jackson2ObjectMapperBuilder.cbor()
+                    .postConfigurer(mapper -> mapper.registerModule(new BlackbirdModule()))
+                    .build();
+            RSocketStrategies strategies = RSocketStrategies.builder()
+                    .encoder(new Jackson2CborEncoder(cborMapper, MediaType.APPLICATION_CBOR))
+                    .decoder(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR))
+                    .routeMatcher(new PathPatternRouteMatcher())
+                    .build();
+            RSocketMessageHandler handler = new RSocketMessageHandler();
+            handler.setHandlers(List.of(menu));
+            handler.setRSocketStrategies(strategies);
+            handler.afterPropertiesSet();
+            rsocketServer = RSocketServer.create(handler.responder())
+                    .bind(TcpServerTransport.create("localhost", 0))
+                    .block();
+            rsocketLookup = new RSocketMenuItemLookup(RSocketRequester.builder().rsocketStrategies(strategies),
+                    "localhost", rsocketServer.address().getPort(), Duration.ofSeconds(5));
+            lookup = rsocketLookup;
+        }
+
+        menuServiceClient = new MenuServiceClient(RestClient.builder(), ObservationRegistry.NOOP,
+                new SimpleMeterRegistry(), CircuitBreakerRegistry.ofDefaults(), new MenuItemVersionCache(), lookup);
+        ReflectionTestUtils.setField(menuServiceClient, "menuServiceUrl", menuServiceUrl);
+    }
+
+    /**
+     * Like menu-service, returns items still at a version the client knows without their details.
+     */
+    private static StockReservationResponse reserve(StubMenu menu, StockReservationRequest request) {
+        Map<String, Long> known = request.getKnownVersions() == null ? Map.of() : request.getKnownVersions();
+        List<MenuItemResponse> items = request.getItems().stream()
+                .map(item -> menu.items.get(item.getProductId()))
+                .map(item -> item.getVersion().equals(known.get(item.getId()))
+                        ? MenuItemResponse.builder().id(item.getId()).version(item.getVersion())
+                                .stock(item.getStock()).available(true).build()
+                        : item)
+                .toList();
+        return StockReservationResponse.builder().reservationId(request.getReservationId()).items(items).build();
+    }
+
+    private static void respond(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        httpServer.stop(0);
+        httpExecutor.shutdownNow();
+        if (rsocketServer != null) {
+            rsocketLookup.destroy();
+            rsocketServer.dispose();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void startCpuClock() {
+        lookups.set(0);
+        cpuNanosAtStart = processCpuNanos();
+    }
+
+    @TearDown(Level.Iteration)
+    public void printCpuPerLookup() {
+        System.out.printf("%n  %s: %.1f us of CPU per lookup%n", transport,
+                (processCpuNanos() - cpuNanosAtStart) / 1000.0 / Math.max(1, lookups.get()));
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    @Benchmark
+    public MenuItemResponse itemLookup() {
+        lookups.incrementAndGet();
+        return lookup.getMenuItemById(TENANT, "item-42");
+    }
+
+    @Benchmark
+    public List<MenuItemResponse> batchLookup() {
+        lookups.incrementAndGet();
+        return lookup.getMenuItemsByIds(TENANT, batch);
+    }
+
+    @Benchmark
+    public List<MenuItemResponse> orderReservation() {
+        lookups.incrementAndGet();
+        return menuServiceClient.reserveMenuItems(TENANT, "reservation-" + lookups.get(), orderItems);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MenuLookupBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,81 @@
+package com.allo.restaurant.order.benchmark;
+
+import com.allo.restaurant.order.entity.Money;
+import com.allo.restaurant.order.entity.OrderItem;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Currency;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures computing an order total from its items, including the conversion of the result to
+ * the {@link BigDecimal} written to JSON and MongoDB.
+ * <ul>
+ *     <li>{@code bigDecimalStream}: the previous {@code multiply}/{@code reduce(BigDecimal::add)} stream.</li>
+ *     <li>{@code minorUnits}: each price converted once to {@link Money} and summed as {@code long}s,
+ *     as {@code OrderMapper.totalAmount} does now.</li>
+ * </ul>
+ * The GC profiler is enabled, so {@code gc.alloc.rate.norm} reports bytes allocated per total.
+ * Run with {@code ./mvnw test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.allo.restaurant.order.benchmark.MoneyBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoneyBenchmark {
+
+    private static final Currency CURRENCY = Currency.getInstance("USD");
+    private static final String[] PRICES = {"12.90", "5.50", "31.00", "8.75", "2.99"};
+
+    @Param({"3", "20"})
+    public int items;
+
+    private List<OrderItem> orderItems;
+
+    @Setup
+    public void setUp() {
+        orderItems = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            orderItems.add(OrderItem.builder()
+                    .productId("menu-" + i)
+                    .name("Item " + i)
+                    .quantity(1 + i % 4)
+                    .price(new BigDecimal(PRICES[i % PRICES.length]))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalStream() {
+        return orderItems.stream()
+                .map(item -> item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())))
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+
+    @Benchmark
+    public BigDecimal minorUnits() {
+        Money total = Money.zero(CURRENCY);
+        for (OrderItem item : orderItems) {
+            total = total.plus(Money.of(item.getPrice(), CURRENCY).times(item.getQuantity()));
+        }
+        return total.toBigDecimal();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MoneyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,167 @@
+package com.allo.restaurant.order.benchmark;
+
+import com.allo.restaurant.order.entity.OrderItem;
+import com.allo.restaurant.order.entity.PricingRule;
+import com.allo.restaurant.order.entity.PricingRuleType;
+import com.allo.restaurant.order.service.CompiledPricingRules;
+import com.allo.restaurant.order.service.PricingResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prices large carts against 500 rules (product promotions, most of them happy-hour windows, a
+ * few taxes and combos).
+ * <ul>
+ *     <li>{@code naiveScan}: every item checked against every rule with {@link BigDecimal}
+ *     arithmetic, the straightforward way to evaluate stored rules.</li>
+ *     <li>{@code compiled}: {@link CompiledPricingRules}, as used by {@code createOrder}.</li>
+ * </ul>
+ * Run with {@code ./mvnw test-compile exec:exec -Dexec.classpathScope=test -Dexec.executable=java
+ * -Dexec.args="-cp %classpath com.allo.restaurant.order.benchmark.PricingBenchmark"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PricingBenchmark {
+
+    private static final int PRODUCTS = 400;
+    private static final String[] PRICES = {"12.90", "5.50", "31.00", "8.75", "2.99"};
+    private static final LocalDateTime AT = LocalDateTime.of(2024, 3, 1, 17, 30);
+
+    @Param({"50", "500"})
+    public int items;
+
+    private List<PricingRule> rules;
+    private CompiledPricingRules compiledRules;
+    private List<OrderItem> cart;
+
+    @Setup
+    public void setUp() {
+        rules = new ArrayList<>();
+        rules.add(rule("tax", PricingRuleType.TAX, List.of(), "8.25", null));
+        rules.add(rule("alcohol-tax", PricingRuleType.TAX, products(0, 40), "5", null));
+        for (int i = 0; i < 480; i++) {
+            PricingRule promotion = rule("promo-" + i, PricingRuleType.PERCENT_OFF,
+                    List.of("menu-" + (i * 7 % PRODUCTS)), String.valueOf(5 + i % 30), null);
+            if (i % 3 != 0) {
+                promotion.setDaysOfWeek(Set.of(DayOfWeek.values()[i % 7]));
+                promotion.setStartTime(LocalTime.of(16 + i % 3, 0));
+                promotion.setEndTime(LocalTime.of(19, 0));
+            }
+            rules.add(promotion);
+        }
+        for (int i = 0; i < 18; i++) {
+            rules.add(rule("combo-" + i, PricingRuleType.COMBO, List.of("menu-" + i, "menu-" + (i + 100)), null, "2.00"));
+        }
+        compiledRules = CompiledPricingRules.compile(rules);
+
+        cart = new ArrayList<>();
+        for (int i = 0; i < items; i++) {
+            cart.add(OrderItem.builder()
+                    .productId("menu-" + (i * 13 % PRODUCTS))
+                    .name("Item " + i)
+                    .quantity(1 + i % 3)
+                    .price(new BigDecimal(PRICES[i % PRICES.length]))
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public PricingResult compiled() {
+        return compiledRules.price(cart, AT);
+    }
+
+    @Benchmark
+    public BigDecimal naiveScan() {
+        BigDecimal subtotal = BigDecimal.ZERO;
+        BigDecimal discount = BigDecimal.ZERO;
+        BigDecimal tax = BigDecimal.ZERO;
+        for (OrderItem item : cart) {
+            BigDecimal line = item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity()));
+            BigDecimal bestPercentage = BigDecimal.ZERO;
+            for (PricingRule rule : rules) {
+                if (rule.getType() == PricingRuleType.PERCENT_OFF && appliesTo(rule, item) && activeAt(rule)
+                        && rule.getPercentage().compareTo(bestPercentage) > 0) {
+                    bestPercentage = rule.getPercentage();
+                }
+            }
+            BigDecimal lineDiscount = line.multiply(bestPercentage).movePointLeft(2).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal net = line.subtract(lineDiscount);
+            for (PricingRule rule : rules) {
+                if (rule.getType() == PricingRuleType.TAX && appliesTo(rule, item) && activeAt(rule)) {
+                    tax = tax.add(net.multiply(rule.getPercentage()).movePointLeft(2).setScale(2, RoundingMode.HALF_UP));
+                }
+            }
+            subtotal = subtotal.add(line);
+            discount = discount.add(lineDiscount);
+        }
+        for (PricingRule rule : rules) {
+            if (rule.getType() == PricingRuleType.COMBO && activeAt(rule)) {
+                int sets = Integer.MAX_VALUE;
+                for (String productId : rule.getProductIds()) {
+                    sets = Math.min(sets, cart.stream()
+                            .filter(item -> item.getProductId().equals(productId))
+                            .mapToInt(OrderItem::getQuantity)
+                            .sum());
+                }
+                discount = discount.add(rule.getAmountOff().multiply(BigDecimal.valueOf(sets)));
+            }
+        }
+        return subtotal.subtract(discount).add(tax);
+    }
+
+    private static boolean appliesTo(PricingRule rule, OrderItem item) {
+        return rule.getProductIds().isEmpty() || rule.getProductIds().contains(item.getProductId());
+    }
+
+    private static boolean activeAt(PricingRule rule) {
+        if (rule.getDaysOfWeek() != null && !rule.getDaysOfWeek().contains(AT.getDayOfWeek())) {
+            return false;
+        }
+        LocalTime time = AT.toLocalTime();
+        return rule.getStartTime() == null || (!time.isBefore(rule.getStartTime()) && time.isBefore(rule.getEndTime()));
+    }
+
+    private static PricingRule rule(String id, PricingRuleType type, List<String> productIds, String percentage, String amountOff) {
+        return PricingRule.builder()
+                .id(id)
+                .name(id)
+                .type(type)
+                .productIds(productIds)
+                .percentage(percentage == null ? null : new BigDecimal(percentage))
+                .amountOff(amountOff == null ? null : new BigDecimal(amountOff))
+                .build();
+    }
+
+    private static List<String> products(int from, int to) {
+        List<String> productIds = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            productIds.add("menu-" + i);
+        }
+        return productIds;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PricingBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,67 @@
+package com.allo.restaurant.order.client;
+
+import com.allo.restaurant.order.dto.MenuItemResponse;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class MenuItemVersionCacheTest {
+
+    private static final String TENANT = "downtown";
+
+    private final MenuItemVersionCache cache = new MenuItemVersionCache();
+
+    private MenuItemResponse item(long version, String price) {
+        return MenuItemResponse.builder()
+                .id("menu-1")
+                .name("Classic Burger")
+                .price(new BigDecimal(price))
+                .version(version)
+                .stock(10)
+                .available(true)
+                .build();
+    }
+
+    private MenuItemResponse withoutDetails(long version, Integer stock) {
+        return MenuItemResponse.builder().id("menu-1").version(version).stock(stock).available(stock == null || stock > 0).build();
+    }
+
+    @Test
+    @DisplayName("Should serve the details of the exact version with the current stock")
+    void shouldResolveExactVersion() {
+        cache.put(TENANT, item(3, "12.90"));
+
+        MenuItemResponse resolved = cache.resolve(TENANT, withoutDetails(3, 0));
+
+        assertThat(resolved.getPrice()).isEqualByComparingTo("12.90");
+        assertThat(resolved.getStock()).isZero();
+        assertThat(resolved.isAvailable()).isFalse();
+        assertThat(cache.resolve(TENANT, withoutDetails(4, 5))).isNull();
+        assertThat(cache.knownVersions(TENANT, List.of("menu-1", "menu-2"))).isEqualTo(Map.of("menu-1", 3L));
+    }
+
+    @Test
+    @DisplayName("Should keep the newest version when versions arrive out of order")
+    void shouldKeepNewestVersion() {
+        cache.put(TENANT, item(5, "14.90"));
+        cache.put(TENANT, item(3, "12.90"));
+        cache.put(TENANT, withoutDetails(7, 1));
+
+        assertThat(cache.knownVersions(TENANT, List.of("menu-1"))).containsEntry("menu-1", 5L);
+        assertThat(cache.resolve(TENANT, withoutDetails(5, 1)).getPrice()).isEqualByComparingTo("14.90");
+    }
+
+    @Test
+    @DisplayName("Should not serve one tenant's item details to another")
+    void shouldIsolateTenants() {
+        cache.put(TENANT, item(3, "12.90"));
+
+        assertThat(cache.resolve("uptown", withoutDetails(3, 1))).isNull();
+        assertThat(cache.knownVersions("uptown", List.of("menu-1"))).isEmpty();
+    }
+}
@@ -0,0 +1,118 @@
+package com.allo.restaurant.order.client;
+
+import com.allo.restaurant.order.dto.MenuItemResponse;
+import com.allo.restaurant.order.dto.OrderItemRequest;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+@ExtendWith(MockitoExtension.class)
+class MenuServiceClientTest {
+
+    private static final String TENANT = "downtown";
+    private static final String MENU_SERVICE_URL = "http://menu-service";
+
+    @Mock
+    private MenuItemLookup menuItemLookup;
+
+    private final MenuItemVersionCache menuItemVersionCache = new MenuItemVersionCache();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private MockRestServiceServer server;
+
+    private MenuServiceClient menuServiceClient;
+
+    @BeforeEach
+    void setUp() {
+        RestClient.Builder restClientBuilder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(restClientBuilder).build();
+        menuServiceClient = new MenuServiceClient(restClientBuilder, ObservationRegistry.NOOP, meterRegistry,
+                CircuitBreakerRegistry.ofDefaults(), menuItemVersionCache, menuItemLookup);
+        ReflectionTestUtils.setField(menuServiceClient, "menuServiceUrl", MENU_SERVICE_URL);
+    }
+
+    private void reservationReturns(String items) {
+        server.expect(requestTo(MENU_SERVICE_URL + "/menu-items/reservations"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess("""
+                        {"reservationId": "order-1", "items": [%s]}
+                        """.formatted(items), MediaType.APPLICATION_JSON));
+    }
+
+    private List<MenuItemResponse> reserve() {
+        return menuServiceClient.reserveMenuItems(TENANT, "order-1",
+                List.of(OrderItemRequest.builder().productId("menu-1").quantity(2).build()));
+    }
+
+    @Test
+    @DisplayName("Should fetch the version reserved when it is not cached")
+    void shouldFetchReservedVersion() {
+        reservationReturns("""
+                {"id": "menu-1", "version": 3, "stock": 8, "available": true}""");
+        server.expect(requestTo(MENU_SERVICE_URL + "/menu-items/menu-1/versions/3"))
+                .andRespond(withSuccess("""
+                        {"id": "menu-1", "name": "Classic Burger", "price": 12.90, "version": 3, "available": true}
+                        """, MediaType.APPLICATION_JSON));
+
+        List<MenuItemResponse> reserved = reserve();
+
+        assertThat(reserved).singleElement().satisfies(menuItem -> {
+            assertThat(menuItem.getName()).isEqualTo("Classic Burger");
+            assertThat(menuItem.getVersion()).isEqualTo(3);
+            assertThat(menuItem.getStock()).isEqualTo(8);
+        });
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Should fall back to the current item when the version reserved is not committed yet")
+    void shouldFallBackWhenVersionNotCommitted() {
+        reservationReturns("""
+                {"id": "menu-1", "version": 4, "stock": 8, "available": true}""");
+        server.expect(requestTo(MENU_SERVICE_URL + "/menu-items/menu-1/versions/4"))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST).contentType(MediaType.APPLICATION_JSON).body("""
+                        {"status": 400, "message": "Menu version 4 does not exist yet"}
+                        """));
+        when(menuItemLookup.getMenuItemById(TENANT, "menu-1")).thenReturn(MenuItemResponse.builder()
+                .id("menu-1")
+                .name("Classic Burger")
+                .price(new BigDecimal("13.90"))
+                .version(4L)
+                .stock(10)
+                .available(true)
+                .build());
+
+        List<MenuItemResponse> reserved = reserve();
+
+        assertThat(reserved).singleElement().satisfies(menuItem -> {
+            assertThat(menuItem.getPrice()).isEqualByComparingTo("13.90");
+            assertThat(menuItem.getVersion()).isEqualTo(4);
+            assertThat(menuItem.getStock()).isEqualTo(8);
+        });
+        assertThat(meterRegistry.counter("menu.client.version.uncommitted").count()).isEqualTo(1);
+        server.verify();
+    }
+}
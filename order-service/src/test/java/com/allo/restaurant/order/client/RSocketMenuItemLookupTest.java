@@ -0,0 +1,135 @@
+package com.allo.restaurant.order.client;
+
+import com.allo.restaurant.order.dto.MenuItemLookupRequest;
+import com.allo.restaurant.order.dto.MenuItemResponse;
+import com.allo.restaurant.order.exception.MenuItemNotFoundException;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.messaging.handler.annotation.DestinationVariable;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.rsocket.RSocketRequester;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.messaging.rsocket.annotation.support.RSocketMessageHandler;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.util.pattern.PathPatternRouteMatcher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Runs the lookups against an in-process RSocket server that answers on menu-service's routes.
+ */
+class RSocketMenuItemLookupTest {
+
+    private static final String TENANT = "downtown";
+
+    private static final RSocketStrategies STRATEGIES = RSocketStrategies.builder()
+            .encoder(new Jackson2CborEncoder())
+            .decoder(new Jackson2CborDecoder())
+            .routeMatcher(new PathPatternRouteMatcher())
+            .build();
+
+    private static CloseableChannel server;
+
+    private RSocketMenuItemLookup lookup;
+
+    @Controller
+    static class StubMenu {
+
+        private static final Map<String, MenuItemResponse> ITEMS = Map.of(
+                "item-1", item("item-1", "Classic Burger", "12.90"),
+                "item-2", item("item-2", "Fries", "5.50"));
+
+        @MessageMapping("tenants.{tenantId}.menu-items.get")
+        Mono<MenuItemResponse> get(@DestinationVariable String tenantId, String id) {
+            return TENANT.equals(tenantId) ? Mono.justOrEmpty(ITEMS.get(id)) : Mono.empty();
+        }
+
+        @MessageMapping("tenants.{tenantId}.menu-items.lookup")
+        Flux<MenuItemResponse> lookup(@DestinationVariable String tenantId, MenuItemLookupRequest request) {
+            return TENANT.equals(tenantId)
+                    ? Flux.fromIterable(request.getIds()).mapNotNull(ITEMS::get)
+                    : Flux.empty();
+        }
+
+        private static MenuItemResponse item(String id, String name, String price) {
+            return MenuItemResponse.builder()
+                    .id(id)
+                    .name(name)
+                    .price(new BigDecimal(price))
+                    .stock(10)
+                    .available(true)
+                    .version(3L)
+                    .createdAt(LocalDateTime.of(2025, 1, 15, 12, 30))
+                    .build();
+        }
+    }
+
+    @BeforeAll
+    static void startServer() {
+        RSocketMessageHandler handler = new RSocketMessageHandler();
+        handler.setHandlers(List.of(new StubMenu()));
+        handler.setRSocketStrategies(STRATEGIES);
+        handler.afterPropertiesSet();
+        server = RSocketServer.create(handler.responder())
+                .bind(TcpServerTransport.create("localhost", 0))
+                .block();
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.dispose();
+    }
+
+    @BeforeEach
+    void setUp() {
+        lookup = new RSocketMenuItemLookup(RSocketRequester.builder().rsocketStrategies(STRATEGIES),
+                "localhost", server.address().getPort(), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        lookup.destroy();
+    }
+
+    @Test
+    @DisplayName("Should decode an item with its prices and dates intact")
+    void shouldLookItemUp() {
+        MenuItemResponse item = lookup.getMenuItemById(TENANT, "item-1");
+
+        assertThat(item.getName()).isEqualTo("Classic Burger");
+        assertThat(item.getPrice()).isEqualByComparingTo("12.90");
+        assertThat(item.getCreatedAt()).isEqualTo(LocalDateTime.of(2025, 1, 15, 12, 30));
+    }
+
+    @Test
+    @DisplayName("Should report a missing item as not found")
+    void shouldReportMissingItem() {
+        assertThatThrownBy(() -> lookup.getMenuItemById(TENANT, "missing")).isInstanceOf(MenuItemNotFoundException.class);
+        assertThatThrownBy(() -> lookup.getMenuItemById("uptown", "item-1")).isInstanceOf(MenuItemNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("Should collect a streamed batch lookup, leaving out missing ids")
+    void shouldLookItemsUp() {
+        assertThat(lookup.getMenuItemsByIds(TENANT, List.of("item-2", "missing", "item-1")))
+                .extracting(MenuItemResponse::getId)
+                .containsExactly("item-2", "item-1");
+    }
+}
@@ -0,0 +1,31 @@
+package com.allo.restaurant.order.client;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetryableMenuServiceErrorTest {
+
+    private final RetryableMenuServiceError retryable = new RetryableMenuServiceError();
+
+    @Test
+    @DisplayName("Should not retry requests menu-service rejected")
+    void shouldNotRetryClientErrors() {
+        assertThat(retryable.test(HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", null, null, null))).isFalse();
+        assertThat(retryable.test(WebClientResponseException.create(400, "Bad Request", null, null, null))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should retry server errors and failures to reach menu-service")
+    void shouldRetryOtherFailures() {
+        assertThat(retryable.test(HttpServerErrorException.create(HttpStatus.SERVICE_UNAVAILABLE, "Unavailable", null, null, null))).isTrue();
+        assertThat(retryable.test(WebClientResponseException.create(502, "Bad Gateway", null, null, null))).isTrue();
+        assertThat(retryable.test(new ResourceAccessException("Connection refused"))).isTrue();
+    }
+}
@@ -0,0 +1,38 @@
+package com.allo.restaurant.order.config;
+
+import com.allo.restaurant.order.dto.OrderStatusNotification;
+import com.allo.restaurant.order.entity.Money;
+import com.allo.restaurant.order.entity.Order;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @BeforeEach
+    void setUp() {
+        new NativeHintsConfig.DataTypeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    @DisplayName("Should let Jackson construct and populate DTOs sent over RabbitMQ")
+    void shouldRegisterMessageDtos() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(OrderStatusNotification.class)
+                .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onMethod(OrderStatusNotification.class, "setTenantId")).accepts(hints);
+    }
+
+    @Test
+    @DisplayName("Should let the Mongo converter reach entity and embedded fields")
+    void shouldRegisterEntityFields() {
+        assertThat(RuntimeHintsPredicates.reflection().onField(Order.class, "tenantId")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onField(Money.class, "minorUnits")).accepts(hints);
+    }
+}
@@ -0,0 +1,106 @@
+package com.allo.restaurant.order.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(meterRegistry, 20, 4, 200, 0.2, 1.5, 600, Duration.ofSeconds(1));
+    }
+
+    @Nested
+    @DisplayName("tryAcquire")
+    class AcquireTests {
+
+        @Test
+        @DisplayName("Should shed low priority requests at their share of the limit while status updates still get in")
+        void shouldShedLowPriorityFirst() {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                permits.add(limiter.tryAcquire(RequestPriority.LOW).orElseThrow());
+            }
+
+            assertThat(limiter.tryAcquire(RequestPriority.LOW)).isEmpty();
+            assertThat(limiter.tryAcquire(RequestPriority.NORMAL)).isPresent();
+            for (int i = 0; i < 9; i++) {
+                assertThat(limiter.tryAcquire(RequestPriority.CRITICAL)).isPresent();
+            }
+            assertThat(limiter.tryAcquire(RequestPriority.CRITICAL)).isEmpty();
+            assertThat(limiter.getInFlight()).isEqualTo(20);
+            assertThat(meterRegistry.counter("orders.concurrency.rejected", "priority", "low").count()).isEqualTo(1);
+            assertThat(meterRegistry.counter("orders.concurrency.rejected", "priority", "critical").count()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should admit again once a permit is released")
+        void shouldAdmitAfterRelease() {
+            List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<>();
+            Optional<AdaptiveConcurrencyLimiter.Permit> permit;
+            while ((permit = limiter.tryAcquire(RequestPriority.LOW)).isPresent()) {
+                permits.add(permit.get());
+            }
+
+            permits.get(0).release(false);
+
+            assertThat(limiter.tryAcquire(RequestPriority.LOW)).isPresent();
+        }
+    }
+
+    @Nested
+    @DisplayName("limit")
+    class LimitTests {
+
+        @Test
+        @DisplayName("Should grow while latency stays steady and the limit is in use")
+        void shouldGrowWithSteadyLatency() {
+            for (int i = 0; i < 100; i++) {
+                limiter.onSample(10 * MILLIS, limiter.getLimit(), false);
+            }
+
+            assertThat(limiter.getLimit()).isEqualTo(200);
+        }
+
+        @Test
+        @DisplayName("Should shrink once latency rises well above the long-term average")
+        void shouldShrinkWhenLatencyRises() {
+            for (int i = 0; i < 50; i++) {
+                limiter.onSample(10 * MILLIS, limiter.getLimit(), false);
+            }
+            int grown = limiter.getLimit();
+
+            for (int i = 0; i < 30; i++) {
+                limiter.onSample(80 * MILLIS, limiter.getLimit(), false);
+            }
+
+            assertThat(limiter.getLimit()).isLessThan(grown / 4);
+        }
+
+        @Test
+        @DisplayName("Should not grow while less than half of the limit is in use")
+        void shouldNotGrowWhenUnderused() {
+            for (int i = 0; i < 100; i++) {
+                limiter.onSample(10 * MILLIS, 2, false);
+            }
+
+            assertThat(limiter.getLimit()).isEqualTo(20);
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.allo.restaurant.order.repository;
+
+import com.allo.restaurant.order.config.MongoOperationProperties;
+import com.allo.restaurant.order.config.MongoOperationRouting;
+import com.allo.restaurant.order.config.MongoRoutingConfig;
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderStatus;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.SimpleMongoClientDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.repository.core.support.RepositoryComposition.RepositoryFragments;
+import org.testcontainers.containers.MongoDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the repository against a single-node replica set and checks the read preference and write
+ * concern on the commands the driver actually sends.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OrderRepositoryRoutingTest {
+
+    private static final String TENANT = "downtown";
+
+    @Container
+    static final MongoDBContainer MONGO = new MongoDBContainer("mongo:7.0");
+
+    private final List<CommandStartedEvent> commands = new CopyOnWriteArrayList<>();
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private OrderRepository orderRepository;
+
+    @BeforeEach
+    void setUp() {
+        mongoClient = MongoClients.create(MongoClientSettings.builder()
+                .applyConnectionString(new ConnectionString(MONGO.getReplicaSetUrl()))
+                .addCommandListener(new CommandListener() {
+                    @Override
+                    public void commandStarted(CommandStartedEvent event) {
+                        commands.add(event);
+                    }
+                })
+                .build());
+        SimpleMongoClientDatabaseFactory factory = new SimpleMongoClientDatabaseFactory(mongoClient, "order-service");
+
+        MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        MongoOperationProperties.Operation history = new MongoOperationProperties.Operation();
+        history.setReadPreference("secondaryPreferred");
+        history.setMaxStaleness(Duration.ofSeconds(90));
+        MongoOperationProperties.Operation create = new MongoOperationProperties.Operation();
+        create.setWriteConcern("majority");
+        create.setWriteTimeout(Duration.ofSeconds(5));
+        MongoOperationProperties properties = new MongoOperationProperties();
+        properties.setOperations(Map.of(MongoOperationRouting.ORDER_HISTORY, history, MongoOperationRouting.ORDER_CREATE, create));
+        MongoOperationRouting routing = new MongoOperationRouting(properties);
+
+        mongoTemplate = new MongoRoutingConfig().mongoTemplate(factory, converter, routing);
+        mongoTemplate.dropCollection(Order.class);
+        orderRepository = new MongoRepositoryFactory(mongoTemplate).getRepository(OrderRepository.class,
+                RepositoryFragments.just(new OrderHistoryRepositoryImpl(mongoTemplate, routing)));
+        commands.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        mongoClient.close();
+    }
+
+    private Order order(String id, int minutesAgo) {
+        return Order.builder()
+                .id(id)
+                .tenantId(TENANT)
+                .status(OrderStatus.CREATED)
+                .totalAmount(new BigDecimal("12.90"))
+                .createdAt(LocalDateTime.now().minusMinutes(minutesAgo))
+                .build();
+    }
+
+    private List<BsonDocument> sent(String commandName) {
+        return commands.stream()
+                .filter(event -> event.getCommandName().equals(commandName))
+                .map(CommandStartedEvent::getCommand)
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Should wait for a majority when an order is created, but not when it is updated")
+    void shouldWriteNewOrdersWithMajority() {
+        Order order = orderRepository.insert(order("order-1", 0));
+        order.setStatus(OrderStatus.PREPARING);
+        orderRepository.save(order);
+
+        assertThat(sent("insert")).singleElement().satisfies(insert -> {
+            assertThat(insert.getDocument("writeConcern").getString("w").getValue()).isEqualTo("majority");
+            assertThat(insert.getDocument("writeConcern").getNumber("wtimeout").intValue()).isEqualTo(5000);
+        });
+        assertThat(sent("update")).singleElement()
+                .satisfies(update -> assertThat(update.containsKey("writeConcern")).isFalse());
+    }
+
+    @Test
+    @DisplayName("Should read history pages and their counts from a secondary with bounded staleness")
+    void shouldReadHistoryFromSecondary() {
+        mongoTemplate.insertAll(List.of(order("order-1", 3), order("order-2", 2), order("order-3", 1)));
+        commands.clear();
+
+        Page<Order> page = orderRepository.findHistory(TENANT, PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertThat(page.getContent()).extracting(Order::getId).containsExactly("order-3", "order-2");
+        assertThat(page.getTotalElements()).isEqualTo(3);
+        assertThat(List.of(sent("find"), sent("aggregate"))).allSatisfy(reads -> assertThat(reads).singleElement()
+                .satisfies(read -> {
+                    BsonDocument readPreference = read.getDocument("$readPreference");
+                    assertThat(readPreference.getString("mode").getValue()).isEqualTo("secondaryPreferred");
+                    assertThat(readPreference.getNumber("maxStalenessSeconds").longValue()).isEqualTo(90);
+                }));
+    }
+}
@@ -0,0 +1,179 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.dto.ActiveOrderListResponse;
+import com.allo.restaurant.order.dto.ActiveOrderResponse;
+import com.allo.restaurant.order.dto.OrderItemResponse;
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderItem;
+import com.allo.restaurant.order.entity.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ActiveOrderIndexTest {
+
+    private static final String TENANT = "downtown";
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    private ActiveOrderIndex activeOrderIndex;
+
+    @BeforeEach
+    void setUp() {
+        activeOrderIndex = new ActiveOrderIndex(mongoTemplate, new SimpleMeterRegistry());
+    }
+
+    private Order order(String id, OrderStatus status, int minutesAgo) {
+        return Order.builder()
+                .id(id)
+                .tenantId(TENANT)
+                .status(status)
+                .orderItems(List.of(OrderItem.builder().productId("menu-1").name("Pizza").quantity(1).price(BigDecimal.TEN).build()))
+                .createdAt(NOW.minusMinutes(minutesAgo))
+                .updatedAt(NOW.minusMinutes(minutesAgo))
+                .build();
+    }
+
+    private ActiveOrderResponse published(String id, OrderStatus status, LocalDateTime updatedAt) {
+        return ActiveOrderResponse.builder().id(id).tenantId(TENANT).status(status).updatedAt(updatedAt).build();
+    }
+
+    private List<String> activeIds(Set<OrderStatus> statuses) {
+        return activeOrderIndex.getActiveOrders(TENANT, statuses, 100).getOrders().stream()
+                .map(ActiveOrderResponse::getId)
+                .toList();
+    }
+
+    @Nested
+    @DisplayName("rebuild")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("Should load active orders and serve them oldest first across statuses")
+        void shouldServeOldestFirst() {
+            when(mongoTemplate.findDistinct(any(Query.class), eq("tenantId"), eq(Order.class), eq(String.class)))
+                    .thenReturn(List.of(TENANT));
+            when(mongoTemplate.stream(any(Query.class), eq(Order.class))).thenReturn(Stream.of(
+                    order("order-1", OrderStatus.PREPARING, 10),
+                    order("order-2", OrderStatus.CREATED, 30),
+                    order("order-3", OrderStatus.READY, 20)));
+
+            activeOrderIndex.rebuild();
+
+            ActiveOrderListResponse response = activeOrderIndex.getActiveOrders(TENANT, null, 100);
+            assertThat(response.getOrders()).extracting(ActiveOrderResponse::getId)
+                    .containsExactly("order-2", "order-3", "order-1");
+            assertThat(response.getTotalRecords()).isEqualTo(3);
+            assertThat(activeIds(Set.of(OrderStatus.CREATED, OrderStatus.PREPARING)))
+                    .containsExactly("order-2", "order-1");
+            assertThat(activeOrderIndex.getActiveOrders(TENANT, null, 2).getOrders()).hasSize(2);
+            verify(mongoTemplate, never()).find(any(Query.class), eq(Order.class));
+        }
+
+        @Test
+        @DisplayName("Should fall back to MongoDB until the index is loaded")
+        void shouldFallBackBeforeLoad() {
+            when(mongoTemplate.find(any(Query.class), eq(Order.class)))
+                    .thenReturn(List.of(order("order-1", OrderStatus.CREATED, 5)));
+            when(mongoTemplate.count(any(Query.class), eq(Order.class))).thenReturn(1L);
+
+            assertThat(activeOrderIndex.isLoaded()).isFalse();
+            assertThat(activeIds(null)).containsExactly("order-1");
+        }
+    }
+
+    @Nested
+    @DisplayName("apply")
+    class ApplyTests {
+
+        @BeforeEach
+        void loadEmptyIndex() {
+            when(mongoTemplate.findDistinct(any(Query.class), eq("tenantId"), eq(Order.class), eq(String.class)))
+                    .thenReturn(List.of());
+            activeOrderIndex.rebuild();
+        }
+
+        @Test
+        @DisplayName("Should move orders between statuses and drop them once delivered")
+        void shouldTrackLocalWrites() {
+            Order order = order("order-1", OrderStatus.CREATED, 5);
+            activeOrderIndex.apply(order);
+            assertThat(activeIds(Set.of(OrderStatus.CREATED))).containsExactly("order-1");
+
+            order.setStatus(OrderStatus.READY);
+            activeOrderIndex.apply(order);
+            assertThat(activeIds(Set.of(OrderStatus.CREATED))).isEmpty();
+            assertThat(activeIds(Set.of(OrderStatus.READY))).containsExactly("order-1");
+
+            order.setStatus(OrderStatus.DELIVERED);
+            activeOrderIndex.apply(order);
+            assertThat(activeIds(null)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should apply status changes from other instances, ignoring stale ones")
+        void shouldApplyRemoteStatusChanges() {
+            activeOrderIndex.apply(order("order-1", OrderStatus.CREATED, 5));
+
+            activeOrderIndex.applyStatusChange(published("order-1", OrderStatus.PREPARING, NOW));
+            activeOrderIndex.applyStatusChange(published("order-1", OrderStatus.CREATED, NOW.minusMinutes(1)));
+
+            assertThat(activeIds(Set.of(OrderStatus.PREPARING))).containsExactly("order-1");
+            assertThat(activeOrderIndex.getActiveOrders(TENANT, null, 100).getOrders().get(0).getOrderItems()).hasSize(1);
+
+            activeOrderIndex.applyStatusChange(published("order-1", OrderStatus.CANCELLED, NOW.plusMinutes(1)));
+            activeOrderIndex.applyStatusChange(published("order-1", OrderStatus.READY, NOW));
+            assertThat(activeIds(null)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should add orders created or first seen on other instances")
+        void shouldAddRemoteOrders() {
+            ActiveOrderResponse created = published("order-2", OrderStatus.CREATED, NOW);
+            created.setOrderItems(List.of(OrderItemResponse.builder().productId("menu-1").name("Pizza").quantity(2).build()));
+            created.setCreatedAt(NOW);
+
+            activeOrderIndex.applyStatusChange(created);
+            activeOrderIndex.applyStatusChange(published("order-3", OrderStatus.READY, NOW.plusMinutes(1)));
+
+            assertThat(activeOrderIndex.getActiveOrders(TENANT, null, 100).getOrders())
+                    .extracting(ActiveOrderResponse::getId, order -> order.getOrderItems().size())
+                    .containsExactlyInAnyOrder(tuple("order-2", 1), tuple("order-3", 0));
+        }
+
+        @Test
+        @DisplayName("Should only serve the orders of the requested tenant")
+        void shouldIsolateTenants() {
+            activeOrderIndex.apply(order("order-1", OrderStatus.CREATED, 5));
+            Order uptown = order("order-2", OrderStatus.CREATED, 10);
+            uptown.setTenantId("uptown");
+            activeOrderIndex.apply(uptown);
+
+            assertThat(activeIds(null)).containsExactly("order-1");
+            assertThat(activeOrderIndex.getActiveOrders("uptown", null, 100).getOrders())
+                    .extracting(ActiveOrderResponse::getId).containsExactly("order-2");
+            assertThat(activeOrderIndex.getActiveOrders("midtown", null, 100).getTotalRecords()).isZero();
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.client.MenuServiceClient;
+import com.allo.restaurant.order.dto.*;
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.exception.InsufficientStockException;
+import com.allo.restaurant.order.messaging.OrderStatusPublisher;
+import com.allo.restaurant.order.repository.PricingRuleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import jakarta.validation.Validation;
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BulkOrderServiceTest {
+
+    private static final String TENANT = "downtown";
+
+    @Mock
+    private MenuServiceClient menuServiceClient;
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    @Mock
+    private ActiveOrderIndex activeOrderIndex;
+
+    @Mock
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Mock
+    private OrderEventService orderEventService;
+
+    @Mock
+    private OrderStatusPublisher orderStatusPublisher;
+
+    @Mock
+    private PricingRuleRepository pricingRuleRepository;
+
+    private BulkOrderService bulkOrderService;
+
+    private CustomerRequest customerRequest;
+
+    @BeforeEach
+    void setUp() {
+        bulkOrderService = new BulkOrderService(menuServiceClient, mongoTemplate,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), activeOrderIndex, salesAnalyticsService,
+                new PricingEngine(pricingRuleRepository), orderEventService, orderStatusPublisher);
+        ReflectionTestUtils.setField(bulkOrderService, "maxBulkSize", 3);
+
+        customerRequest = CustomerRequest.builder()
+                .fullName("John Doe")
+                .address("123 Main St")
+                .email("john@email.com")
+                .build();
+    }
+
+    private CreateOrderRequest order(String... productIds) {
+        return CreateOrderRequest.builder()
+                .customer(customerRequest)
+                .orderItems(Arrays.stream(productIds)
+                        .map(productId -> OrderItemRequest.builder().productId(productId).quantity(2).build())
+                        .toList())
+                .build();
+    }
+
+    private MenuItemResponse menuItem(String id, String price) {
+        return MenuItemResponse.builder().id(id).name("Item " + id).price(new BigDecimal(price)).build();
+    }
+
+    private void reservingFrom(MenuItemResponse... menuItems) {
+        when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(), anyList())).thenAnswer(invocation -> {
+            List<OrderItemRequest> items = invocation.getArgument(2);
+            return Arrays.stream(menuItems)
+                    .filter(menuItem -> items.stream().anyMatch(item -> item.getProductId().equals(menuItem.getId())))
+                    .toList();
+        });
+    }
+
+    @Nested
+    @DisplayName("createOrders")
+    class CreateOrdersTests {
+
+        @Test
+        @DisplayName("Should resolve all distinct product ids with one lookup and insert in one batch")
+        void shouldCreateAllOrdersWithOneLookup() {
+            when(menuServiceClient.getMenuItemsByIds(eq(TENANT), any()))
+                    .thenReturn(List.of(menuItem("menu-1", "10.00"), menuItem("menu-2", "2.50")));
+            reservingFrom(menuItem("menu-1", "10.00"), menuItem("menu-2", "2.50"));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class)).thenReturn(bulkOperations);
+            when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+            BulkOrderResponse response = bulkOrderService.createOrders(TENANT, List.of(
+                    order("menu-1", "menu-2"), order("menu-2"), order("menu-1")));
+
+            assertThat(response.getReceived()).isEqualTo(3);
+            assertThat(response.getCreated()).isEqualTo(3);
+            assertThat(response.getFailed()).isZero();
+            assertThat(response.getResults()).extracting(BulkOrderResult::getStatus)
+                    .containsOnly(BulkOrderResultStatus.CREATED);
+            assertThat(response.getResults()).allSatisfy(result -> assertThat(result.getOrderId()).isNotBlank());
+            assertThat(response.getResults().get(0).getTotalAmount()).isEqualByComparingTo(new BigDecimal("25.00"));
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Collection<String>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+            verify(menuServiceClient).getMenuItemsByIds(eq(TENANT), idsCaptor.capture());
+            assertThat(idsCaptor.getValue()).containsExactly("menu-1", "menu-2");
+            ArgumentCaptor<String> reservationIdCaptor = ArgumentCaptor.forClass(String.class);
+            verify(menuServiceClient, times(3)).reserveMenuItems(eq(TENANT), reservationIdCaptor.capture(), anyList());
+            assertThat(reservationIdCaptor.getAllValues())
+                    .containsExactlyElementsOf(response.getResults().stream().map(BulkOrderResult::getOrderId).toList());
+            verify(bulkOperations).execute();
+            verify(activeOrderIndex, times(3)).apply(any(Order.class));
+            verify(salesAnalyticsService).recordCreated(argThat(orders -> orders.size() == 3
+                    && orders.stream().allMatch(order -> TENANT.equals(order.getTenantId()))));
+            verify(orderEventService).recordCreated(argThat(orders -> orders.size() == 3
+                    && orders.stream().allMatch(order -> order.getEventSequence() == 1)));
+        }
+
+        @Test
+        @DisplayName("Should report invalid, malformed and unknown-item orders without failing the others")
+        void shouldReportPartialFailures() {
+            CreateOrderRequest invalid = CreateOrderRequest.builder()
+                    .customer(customerRequest)
+                    .orderItems(List.of())
+                    .build();
+
+            when(menuServiceClient.getMenuItemsByIds(eq(TENANT), any())).thenReturn(List.of(menuItem("menu-1", "10.00")));
+
+            List<CreateOrderRequest> requests = new ArrayList<>();
+            requests.add(invalid);
+            requests.add(null);
+            requests.add(order("menu-1", "unknown"));
+
+            BulkOrderResponse response = bulkOrderService.createOrders(TENANT, requests);
+
+            assertThat(response.getCreated()).isZero();
+            assertThat(response.getFailed()).isEqualTo(3);
+            assertThat(response.getResults().get(0).getErrors()).containsExactly("orderItems: Order must have at least one item");
+            assertThat(response.getResults().get(1).getErrors()).containsExactly("Malformed order JSON");
+            assertThat(response.getResults().get(2).getErrors()).containsExactly("Menu Item not found with id: unknown");
+            verify(menuServiceClient, never()).reserveMenuItems(any(), any(), any());
+            verifyNoInteractions(mongoTemplate);
+        }
+
+        @Test
+        @DisplayName("Should fail only the order whose stock cannot be reserved")
+        void shouldFailOrdersWithoutStock() {
+            when(menuServiceClient.getMenuItemsByIds(eq(TENANT), any()))
+                    .thenReturn(List.of(menuItem("menu-1", "10.00"), menuItem("menu-2", "2.50")));
+            reservingFrom(menuItem("menu-1", "10.00"));
+            when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(),
+                    argThat(items -> items.get(0).getProductId().equals("menu-2"))))
+                    .thenThrow(new InsufficientStockException(Map.of("menu-2", 1)));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class)).thenReturn(bulkOperations);
+            when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+
+            BulkOrderResponse response = bulkOrderService.createOrders(TENANT, List.of(order("menu-1"), order("menu-2")));
+
+            assertThat(response.getCreated()).isEqualTo(1);
+            assertThat(response.getResults().get(0).getStatus()).isEqualTo(BulkOrderResultStatus.CREATED);
+            assertThat(response.getResults().get(1).getStatus()).isEqualTo(BulkOrderResultStatus.FAILED);
+            assertThat(response.getResults().get(1).getErrors()).containsExactly("Insufficient stock for menu items: [menu-2]");
+            verify(bulkOperations).insert(argThat(orders -> orders.size() == 1));
+            verify(menuServiceClient, never()).releaseReservation(any(), any());
+        }
+
+        @Test
+        @DisplayName("Should map insert errors back to the orders that caused them")
+        void shouldReportInsertErrors() {
+            when(menuServiceClient.getMenuItemsByIds(eq(TENANT), any())).thenReturn(List.of(menuItem("menu-1", "10.00")));
+            reservingFrom(menuItem("menu-1", "10.00"));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class)).thenReturn(bulkOperations);
+            when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+            BulkWriteError writeError = new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 1);
+            when(bulkOperations.execute()).thenThrow(new BulkOperationException("Bulk write failed",
+                    new MongoBulkWriteException(BulkWriteResult.unacknowledged(), List.of(writeError), null,
+                            new ServerAddress(), Set.of())));
+
+            BulkOrderResponse response = bulkOrderService.createOrders(TENANT, List.of(order("menu-1"), order("menu-1")));
+
+            assertThat(response.getCreated()).isEqualTo(1);
+            assertThat(response.getResults().get(0).getStatus()).isEqualTo(BulkOrderResultStatus.CREATED);
+            assertThat(response.getResults().get(1).getStatus()).isEqualTo(BulkOrderResultStatus.FAILED);
+            assertThat(response.getResults().get(1).getErrors()).containsExactly("E11000 duplicate key error");
+            ArgumentCaptor<String> reservationIdCaptor = ArgumentCaptor.forClass(String.class);
+            verify(menuServiceClient, times(2)).reserveMenuItems(eq(TENANT), reservationIdCaptor.capture(), anyList());
+            verify(menuServiceClient).releaseReservation(TENANT, reservationIdCaptor.getAllValues().get(1));
+            verify(menuServiceClient, never()).releaseReservation(TENANT, reservationIdCaptor.getAllValues().get(0));
+        }
+
+        @Test
+        @DisplayName("Should reject imports larger than the configured maximum")
+        void shouldRejectOversizedImports() {
+            assertThatThrownBy(() -> bulkOrderService.createOrders(TENANT, 
+                    List.of(order("menu-1"), order("menu-1"), order("menu-1"), order("menu-1"))))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("A bulk import can contain at most 3 orders");
+
+            verifyNoInteractions(menuServiceClient);
+        }
+
+        @Test
+        @DisplayName("Should look up more distinct product ids than menu-service accepts at once in several calls")
+        void shouldChunkLookups() {
+            String[] productIds = IntStream.range(0, BulkOrderService.LOOKUP_BATCH_SIZE + 1)
+                    .mapToObj(i -> "menu-" + i)
+                    .toArray(String[]::new);
+            when(menuServiceClient.getMenuItemsByIds(eq(TENANT), any())).thenReturn(List.of(menuItem("menu-0", "1.00")));
+
+            bulkOrderService.createOrders(TENANT, List.of(order(productIds)));
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<Collection<String>> idsCaptor = ArgumentCaptor.forClass(Collection.class);
+            verify(menuServiceClient, times(2)).getMenuItemsByIds(eq(TENANT), idsCaptor.capture());
+            assertThat(idsCaptor.getAllValues()).extracting(Collection::size)
+                    .containsExactly(BulkOrderService.LOOKUP_BATCH_SIZE, 1);
+        }
+    }
+
+    @Nested
+    @DisplayName("readNdjson")
+    class ReadNdjsonTests {
+
+        @Test
+        @DisplayName("Should parse one order per line, skipping blank lines and keeping malformed ones as null")
+        void shouldParseLines() throws Exception {
+            String body = """
+                    {"customer":{"fullName":"John Doe","address":"123 Main St","email":"john@email.com"},"orderItems":[{"productId":"menu-1","quantity":1}]}
+
+                    {not json
+                    """;
+
+            List<CreateOrderRequest> requests = bulkOrderService.readNdjson(
+                    new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+            assertThat(requests).hasSize(2);
+            assertThat(requests.get(0).getOrderItems().get(0).getProductId()).isEqualTo("menu-1");
+            assertThat(requests.get(1)).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("readJsonArray")
+    class ReadJsonArrayTests {
+
+        private List<CreateOrderRequest> read(String body) throws Exception {
+            return bulkOrderService.readJsonArray(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Test
+        @DisplayName("Should parse each element, keeping those that are not orders as null")
+        void shouldParseElements() throws Exception {
+            List<CreateOrderRequest> requests = read("""
+                    [{"customer":{"fullName":"John Doe"},"orderItems":[{"productId":"menu-1","quantity":1}]},
+                     {"orderItems":"menu-1"},
+                     42]
+                    """);
+
+            assertThat(requests).hasSize(3);
+            assertThat(requests.get(0).getOrderItems().get(0).getProductId()).isEqualTo("menu-1");
+            assertThat(requests.get(1)).isNull();
+            assertThat(requests.get(2)).isNull();
+        }
+
+        @Test
+        @DisplayName("Should reject an oversized import as soon as it goes past the maximum")
+        void shouldRejectOversizedImportEarly() {
+            assertThatThrownBy(() -> read("[{}, {}, {}, {}, {not json"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("A bulk import can contain at most 3 orders");
+        }
+
+        @Test
+        @DisplayName("Should reject a body that is not a JSON array")
+        void shouldRejectNonArrays() {
+            assertThatThrownBy(() -> read("{\"orderItems\":[]}"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("A bulk import must be a JSON array of orders");
+            assertThatThrownBy(() -> read("[{}, {not json"))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageStartingWith("Malformed bulk import JSON");
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderArchiveServiceTest {
+
+    private static final String TENANT = "downtown";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations bulkOperations;
+
+    private OrderArchiveService orderArchiveService;
+
+    @BeforeEach
+    void setUp() {
+        orderArchiveService = new OrderArchiveService(mongoTemplate, new SimpleMeterRegistry(), Duration.ofDays(30), 2);
+    }
+
+    private Order order(String id, OrderStatus status, int daysAgo) {
+        return Order.builder()
+                .id(id)
+                .tenantId(TENANT)
+                .status(status)
+                .createdAt(LocalDateTime.now().minusDays(daysAgo))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("archiveCompletedOrders")
+    class ArchiveTests {
+
+        @Test
+        @DisplayName("Should copy completed orders to the archive before removing them, batch by batch")
+        void shouldMoveInBatches() {
+            when(mongoTemplate.findDistinct(any(Query.class), eq("tenantId"), eq(Order.class), eq(String.class)))
+                    .thenReturn(List.of(TENANT));
+            when(mongoTemplate.find(any(Query.class), eq(Order.class)))
+                    .thenReturn(List.of(order("order-1", OrderStatus.DELIVERED, 40), order("order-2", OrderStatus.CANCELLED, 50)))
+                    .thenReturn(List.of(order("order-3", OrderStatus.DELIVERED, 60)));
+            when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Order.class, OrderArchiveService.COLLECTION))
+                    .thenReturn(bulkOperations);
+            when(mongoTemplate.count(any(Query.class), eq(OrderArchiveService.COLLECTION))).thenReturn(3L);
+
+            assertThat(orderArchiveService.archiveCompletedOrders()).isEqualTo(3);
+
+            var inOrder = inOrder(bulkOperations, mongoTemplate);
+            inOrder.verify(bulkOperations).execute();
+            inOrder.verify(mongoTemplate).remove(any(Query.class), eq(Order.class));
+            verify(bulkOperations, times(3)).replaceOne(any(Query.class), any(Order.class), any(FindAndReplaceOptions.class));
+            verify(mongoTemplate, times(2)).remove(any(Query.class), eq(Order.class));
+            assertThat(orderArchiveService.count(TENANT)).isEqualTo(3);
+            verify(mongoTemplate, times(1)).count(any(Query.class), eq(OrderArchiveService.COLLECTION));
+        }
+    }
+
+    @Nested
+    @DisplayName("history")
+    class HistoryTests {
+
+        @Test
+        @DisplayName("Should only reach the archive when the page is short or older than the cutoff")
+        void shouldDecideWhetherPageReachesArchive() {
+            List<Order> recent = List.of(order("order-1", OrderStatus.CREATED, 1), order("order-2", OrderStatus.DELIVERED, 2));
+
+            assertThat(orderArchiveService.reachesArchive(recent, 2)).isFalse();
+            assertThat(orderArchiveService.reachesArchive(recent, 3)).isTrue();
+            assertThat(orderArchiveService.reachesArchive(List.of(order("order-1", OrderStatus.CREATED, 31)), 1)).isTrue();
+            verifyNoInteractions(mongoTemplate);
+        }
+
+        @Test
+        @DisplayName("Should keep recent hot orders first and merge older hot and archived orders newest first")
+        void shouldMergeOlderOrders() {
+            Order recent = order("order-1", OrderStatus.CREATED, 1);
+            Order stuck = order("order-2", OrderStatus.PREPARING, 60);
+            Order archived = order("order-3", OrderStatus.DELIVERED, 45);
+            when(mongoTemplate.count(any(Query.class), eq(Order.class))).thenReturn(1L);
+            when(mongoTemplate.find(any(Query.class), eq(Order.class))).thenReturn(List.of(stuck));
+            when(mongoTemplate.find(any(Query.class), eq(Order.class), eq(OrderArchiveService.COLLECTION)))
+                    .thenReturn(List.of(archived, stuck, order("order-4", OrderStatus.DELIVERED, 90)));
+
+            List<Order> page = orderArchiveService.mergeHistory(TENANT, List.of(recent, stuck), 0, 3);
+
+            assertThat(page).extracting(Order::getId).containsExactly("order-1", "order-3", "order-2");
+        }
+    }
+
+    @Test
+    @DisplayName("Should look archived orders up within the tenant")
+    void shouldFindArchivedOrder() {
+        Order archived = order("order-1", OrderStatus.DELIVERED, 45);
+        when(mongoTemplate.findOne(any(Query.class), eq(Order.class), eq(OrderArchiveService.COLLECTION))).thenReturn(archived);
+
+        assertThat(orderArchiveService.findById(TENANT, "order-1")).contains(archived);
+        verify(mongoTemplate).findOne(argThat((Query query) -> TENANT.equals(query.getQueryObject().get("tenantId"))),
+                eq(Order.class), eq(OrderArchiveService.COLLECTION));
+    }
+}
@@ -0,0 +1,141 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.dto.OrderTimelineResponse;
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderEvent;
+import com.allo.restaurant.order.entity.OrderStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderEventServiceTest {
+
+    private static final String TENANT = "downtown";
+    private static final LocalDateTime CREATED_AT = LocalDateTime.of(2025, 3, 1, 12, 0);
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @InjectMocks
+    private OrderEventService orderEventService;
+
+    private static OrderEvent event(int sequence, OrderStatus previousStatus, OrderStatus status, int minutes) {
+        return OrderEvent.builder()
+                .tenantId(TENANT)
+                .orderId("order-1")
+                .sequence(sequence)
+                .previousStatus(previousStatus)
+                .status(status)
+                .occurredAt(CREATED_AT.plusMinutes(minutes))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("record")
+    class RecordTests {
+
+        @Test
+        @DisplayName("Should append the status change under the order's current sequence")
+        void shouldAppendStatusChange() {
+            Order order = Order.builder().id("order-1").tenantId(TENANT).status(OrderStatus.PREPARING)
+                    .createdAt(CREATED_AT).updatedAt(CREATED_AT.plusMinutes(2)).eventSequence(2).build();
+
+            orderEventService.recordStatusChange(order, OrderStatus.CREATED, false);
+
+            verify(mongoTemplate).insert(argThat((OrderEvent event) -> event.getSequence() == 2
+                    && event.getStatus() == OrderStatus.PREPARING
+                    && event.getPreviousStatus() == OrderStatus.CREATED
+                    && event.getOccurredAt().equals(CREATED_AT.plusMinutes(2))
+                    && TENANT.equals(event.getTenantId())));
+        }
+
+        @Test
+        @DisplayName("Should record the creation of an order created before events were recorded along with its first change")
+        void shouldBackfillCreation() {
+            Order order = Order.builder().id("order-1").tenantId(TENANT).status(OrderStatus.PREPARING)
+                    .createdAt(CREATED_AT).updatedAt(CREATED_AT.plusMinutes(2)).eventSequence(2).build();
+
+            orderEventService.recordStatusChange(order, OrderStatus.CREATED, true);
+
+            verify(mongoTemplate).insert(argThat((List<OrderEvent> events) -> events.size() == 2
+                    && events.get(0).getSequence() == 1
+                    && events.get(0).getStatus() == OrderStatus.CREATED
+                    && events.get(0).getPreviousStatus() == null
+                    && events.get(0).getOccurredAt().equals(CREATED_AT)
+                    && events.get(1).getSequence() == 2
+                    && events.get(1).getPreviousStatus() == OrderStatus.CREATED), eq(OrderEvent.class));
+        }
+
+        @Test
+        @DisplayName("Should not fail the caller when the event cannot be recorded")
+        void shouldTolerateLostEvent() {
+            Order order = Order.builder().id("order-1").tenantId(TENANT).status(OrderStatus.READY).eventSequence(3).build();
+            when(mongoTemplate.insert(any(OrderEvent.class))).thenThrow(new DuplicateKeyException("E11000"));
+
+            assertThatCode(() -> orderEventService.recordStatusChange(order, OrderStatus.PREPARING, false)).doesNotThrowAnyException();
+        }
+    }
+
+    @Nested
+    @DisplayName("getTimeline")
+    class TimelineTests {
+
+        @Test
+        @DisplayName("Should replay the events into the current status and the time spent in each one")
+        void shouldReplayEvents() {
+            when(mongoTemplate.find(any(Query.class), eq(OrderEvent.class))).thenReturn(List.of(
+                    event(1, null, OrderStatus.CREATED, 0),
+                    event(2, OrderStatus.CREATED, OrderStatus.PREPARING, 2),
+                    event(3, OrderStatus.PREPARING, OrderStatus.READY, 14)));
+
+            OrderTimelineResponse timeline = orderEventService.getTimeline(TENANT, "order-1");
+
+            assertThat(timeline.getStatus()).isEqualTo(OrderStatus.READY);
+            assertThat(timeline.getCreatedAt()).isEqualTo(CREATED_AT);
+            assertThat(timeline.getUpdatedAt()).isEqualTo(CREATED_AT.plusMinutes(14));
+            assertThat(timeline.getStages()).extracting("status", "durationSeconds").containsExactly(
+                    tuple(OrderStatus.CREATED, 120L),
+                    tuple(OrderStatus.PREPARING, 720L),
+                    tuple(OrderStatus.READY, null));
+            verify(mongoTemplate).find(argThat((Query query) -> TENANT.equals(query.getQueryObject().get("tenantId"))
+                    && query.getSortObject().containsKey("sequence")), eq(OrderEvent.class));
+            verifyNoInteractions(orderArchiveService);
+        }
+
+        @Test
+        @DisplayName("Should describe orders without events by the archived order, or reject unknown orders")
+        void shouldFallBackToOrder() {
+            when(mongoTemplate.find(any(Query.class), eq(OrderEvent.class))).thenReturn(List.of());
+            when(mongoTemplate.findOne(any(Query.class), eq(Order.class))).thenReturn(null);
+            when(orderArchiveService.findById(TENANT, "order-1")).thenReturn(Optional.of(Order.builder()
+                    .id("order-1").status(OrderStatus.DELIVERED).createdAt(CREATED_AT).build()));
+
+            OrderTimelineResponse timeline = orderEventService.getTimeline(TENANT, "order-1");
+
+            assertThat(timeline.getStatus()).isEqualTo(OrderStatus.DELIVERED);
+            assertThat(timeline.getStages()).isEmpty();
+            assertThatThrownBy(() -> orderEventService.getTimeline(TENANT, "order-2"))
+                    .hasMessage("Order not found with id: order-2");
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.config.MongoOperationProperties;
+import com.allo.restaurant.order.config.MongoOperationRouting;
+import com.allo.restaurant.order.dto.OrderExportFormat;
+import com.allo.restaurant.order.entity.Customer;
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderItem;
+import com.allo.restaurant.order.entity.OrderStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.assertj.core.api.InstanceOfAssertFactories;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OrderExportServiceTest {
+
+    private static final String TENANT = "downtown";
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    private OrderExportService orderExportService;
+
+    private Order order;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        orderExportService = new OrderExportService(mongoTemplate, objectMapper, orderArchiveService,
+                new MongoOperationRouting(new MongoOperationProperties()));
+        ReflectionTestUtils.setField(orderExportService, "batchSize", 1);
+
+        order = Order.builder()
+                .id("order-1")
+                .customer(Customer.builder().fullName("John Doe").address("123 Main St, Apt 4").email("john@email.com").build())
+                .orderItems(List.of(OrderItem.builder().productId("menu-1").name("Pizza").quantity(2).price(new BigDecimal("10.00")).build()))
+                .totalAmount(new BigDecimal("20.00"))
+                .status(OrderStatus.DELIVERED)
+                .createdAt(LocalDateTime.of(2024, 3, 1, 12, 30))
+                .build();
+    }
+
+    @Nested
+    @DisplayName("export")
+    class ExportTests {
+
+        @Test
+        @DisplayName("Should write one JSON document per line")
+        void shouldWriteNdjson() throws Exception {
+            when(mongoTemplate.stream(any(Query.class), eq(Order.class))).thenReturn(Stream.of(order, order));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            long exported = orderExportService.export(TENANT, null, null, Set.of(), OrderExportFormat.NDJSON, out);
+
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+            assertThat(exported).isEqualTo(2);
+            assertThat(lines).hasSize(3);
+            assertThat(lines[0]).startsWith("{\"id\":\"order-1\"").contains("\"status\":\"DELIVERED\"");
+            assertThat(lines[1]).isEqualTo(lines[0]);
+            assertThat(lines[2]).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should write a header and one flat row per order")
+        void shouldWriteCsv() throws Exception {
+            when(mongoTemplate.stream(any(Query.class), eq(Order.class))).thenReturn(Stream.of(order));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            orderExportService.export(TENANT, null, null, Set.of(), OrderExportFormat.CSV, out);
+
+            assertThat(out.toString(StandardCharsets.UTF_8).lines()).containsExactly(
+                    "id,createdAt,updatedAt,status,customerName,customerEmail,customerAddress,itemCount,totalAmount",
+                    "order-1,2024-03-01T12:30,,DELIVERED,\"John Doe\",john@email.com,\"123 Main St, Apt 4\",1,20.00");
+        }
+        @Test
+        @DisplayName("Should merge archived orders oldest first when the range reaches the archive, writing each order once")
+        void shouldMergeArchive() throws Exception {
+            Order older = Order.builder().id("order-0").status(OrderStatus.CANCELLED)
+                    .createdAt(LocalDateTime.of(2024, 2, 1, 9, 0)).orderItems(List.of()).build();
+            Order newer = Order.builder().id("order-2").status(OrderStatus.CREATED)
+                    .createdAt(LocalDateTime.of(2024, 4, 1, 9, 0)).orderItems(List.of()).build();
+            when(orderArchiveService.mayHoldOrdersFrom(null)).thenReturn(true);
+            when(mongoTemplate.stream(any(Query.class), eq(Order.class))).thenReturn(Stream.of(order, newer));
+            when(mongoTemplate.stream(any(Query.class), eq(Order.class), eq(OrderArchiveService.COLLECTION)))
+                    .thenReturn(Stream.of(older, order));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            long exported = orderExportService.export(TENANT, null, null, Set.of(), OrderExportFormat.CSV, out);
+
+            assertThat(exported).isEqualTo(3);
+            assertThat(out.toString(StandardCharsets.UTF_8).lines().skip(1).map(line -> line.substring(0, 7)))
+                    .containsExactly("order-0", "order-1", "order-2");
+        }
+
+        @Test
+        @DisplayName("Should not read the archive for statuses that are never archived")
+        void shouldSkipArchiveForActiveStatuses() throws Exception {
+            when(orderArchiveService.mayHoldOrdersFrom(null)).thenReturn(true);
+            when(mongoTemplate.stream(any(Query.class), eq(Order.class))).thenReturn(Stream.of(order));
+
+            orderExportService.export(TENANT, null, null, Set.of(OrderStatus.PREPARING), OrderExportFormat.CSV, new ByteArrayOutputStream());
+
+            verify(mongoTemplate, never()).stream(any(Query.class), eq(Order.class), eq(OrderArchiveService.COLLECTION));
+        }
+    }
+
+    @Nested
+    @DisplayName("query")
+    class QueryTests {
+
+        @Test
+        @DisplayName("Should filter by tenant, half-open date range and statuses, oldest first")
+        void shouldBuildFilter() {
+            LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+            LocalDateTime to = LocalDateTime.of(2024, 4, 1, 0, 0);
+
+            Query query = orderExportService.query(TENANT, from, to, Set.of(OrderStatus.DELIVERED));
+
+            assertThat(query.getQueryObject()).containsEntry("tenantId", TENANT);
+            assertThat(query.getQueryObject().get("createdAt", Document.class))
+                    .containsEntry("$gte", from).containsEntry("$lt", to);
+            assertThat(query.getQueryObject().get("status", Document.class).get("$in"))
+                    .asInstanceOf(InstanceOfAssertFactories.COLLECTION)
+                    .containsExactly(OrderStatus.DELIVERED);
+            assertThat(query.getSortObject()).containsEntry("createdAt", 1);
+        }
+
+        @Test
+        @DisplayName("Should reject a range that ends before it starts")
+        void shouldRejectInvertedRange() {
+            assertThatThrownBy(() -> orderExportService.validateRange(
+                    LocalDateTime.of(2024, 4, 1, 0, 0), LocalDateTime.of(2024, 1, 1, 0, 0)))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -3,8 +3,14 @@ package com.allo.restaurant.order.service;
 import com.allo.restaurant.order.client.MenuServiceClient;
 import com.allo.restaurant.order.dto.*;
 import com.allo.restaurant.order.entity.*;
+import com.allo.restaurant.order.exception.InsufficientStockException;
 import com.allo.restaurant.order.messaging.OrderStatusPublisher;
 import com.allo.restaurant.order.repository.OrderRepository;
+import com.mongodb.MongoWriteConcernException;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcernResult;
+import com.mongodb.bulk.WriteConcernError;
+import org.bson.BsonDocument;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,20 +20,30 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
 
+    private static final String TENANT = "downtown";
+
     @Mock
     private OrderRepository orderRepository;
 
@@ -37,6 +53,21 @@ class OrderServiceTest {
     @Mock
     private OrderStatusPublisher orderStatusPublisher;
 
+    @Mock
+    private ActiveOrderIndex activeOrderIndex;
+
+    @Mock
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @Mock
+    private PricingEngine pricingEngine;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @Mock
+    private OrderEventService orderEventService;
+
     @InjectMocks
     private OrderService orderService;
 
@@ -64,6 +95,7 @@ class OrderServiceTest {
                 .name("Classic Burger")
                 .description("Artisan burger")
                 .price(new BigDecimal("12.90"))
+                .version(3L)
                 .createdAt(LocalDateTime.now())
                 .build();
 
@@ -88,6 +120,11 @@ class OrderServiceTest {
     @DisplayName("createOrder")
     class CreateOrderTests {
 
+        private void priceWithoutRules() {
+            when(pricingEngine.price(eq(TENANT), anyList(), any(LocalDateTime.class))).thenAnswer(invocation ->
+                    CompiledPricingRules.EMPTY.price(invocation.getArgument(1), invocation.getArgument(2)));
+        }
+
         @Test
         @DisplayName("Should create order successfully with valid request")
         void shouldCreateOrderSuccessfully() {
@@ -101,10 +138,12 @@ class OrderServiceTest {
                     ))
                     .build();
 
-            when(menuServiceClient.getMenuItemById("menu-1")).thenReturn(menuItemResponse);
-            when(orderRepository.save(any(Order.class))).thenReturn(savedOrder);
+            when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(), eq(request.getOrderItems())))
+                    .thenReturn(List.of(menuItemResponse));
+            when(orderRepository.insert(any(Order.class))).thenReturn(savedOrder);
+            priceWithoutRules();
 
-            OrderResponse response = orderService.createOrder(request);
+            OrderResponse response = orderService.createOrder(TENANT, request);
 
             assertThat(response).isNotNull();
             assertThat(response.getId()).isEqualTo("order-1");
@@ -118,8 +157,15 @@ class OrderServiceTest {
             assertThat(response.getOrderItems().get(0).getPrice()).isEqualByComparingTo(new BigDecimal("12.90"));
             assertThat(response.getTotalAmount()).isEqualByComparingTo(new BigDecimal("25.80"));
 
-            verify(menuServiceClient).getMenuItemById("menu-1");
-            verify(orderRepository).save(any(Order.class));
+            ArgumentCaptor<String> reservationId = ArgumentCaptor.forClass(String.class);
+            verify(menuServiceClient).reserveMenuItems(eq(TENANT), reservationId.capture(), eq(request.getOrderItems()));
+            verify(orderRepository).insert(argThat((Order order) -> order.getId().equals(reservationId.getValue())
+                    && TENANT.equals(order.getTenantId())));
+            verify(salesAnalyticsService).recordCreated(List.of(savedOrder));
+            verify(orderEventService).recordCreated(List.of(savedOrder));
+            verify(orderStatusPublisher).publishOrdersCreated(argThat(notifications -> notifications.size() == 1
+                    && notifications.get(0).getOrderItems().equals(response.getOrderItems())));
+            verify(menuServiceClient, never()).releaseReservation(anyString(), anyString());
         }
 
         @Test
@@ -152,17 +198,24 @@ class OrderServiceTest {
                     .createdAt(LocalDateTime.now())
                     .build();
 
-            when(menuServiceClient.getMenuItemById("menu-1")).thenReturn(menuItemResponse);
-            when(menuServiceClient.getMenuItemById("menu-2")).thenReturn(secondItem);
-            when(orderRepository.save(any(Order.class))).thenReturn(multiItemOrder);
+            when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(), eq(request.getOrderItems())))
+                    .thenReturn(List.of(secondItem, menuItemResponse));
+            when(orderRepository.insert(any(Order.class))).thenReturn(multiItemOrder);
+            priceWithoutRules();
 
-            OrderResponse response = orderService.createOrder(request);
+            OrderResponse response = orderService.createOrder(TENANT, request);
 
             assertThat(response.getOrderItems()).hasSize(2);
             assertThat(response.getTotalAmount()).isEqualByComparingTo(new BigDecimal("42.30"));
 
-            verify(menuServiceClient).getMenuItemById("menu-1");
-            verify(menuServiceClient).getMenuItemById("menu-2");
+            ArgumentCaptor<Order> orderCaptor = ArgumentCaptor.forClass(Order.class);
+            verify(orderRepository).insert(orderCaptor.capture());
+            assertThat(orderCaptor.getValue().getSubtotal()).isEqualTo(new BigDecimal("42.30"));
+            assertThat(orderCaptor.getValue().getTotalAmount()).isEqualTo(new BigDecimal("42.30"));
+            assertThat(orderCaptor.getValue().getOrderItems()).extracting(OrderItem::getMenuVersion).containsExactly(3L, null);
+
+            verify(menuServiceClient, times(1)).reserveMenuItems(eq(TENANT), anyString(), anyList());
+            verify(menuServiceClient, never()).getMenuItemById(anyString(), anyString());
         }
 
         @Test
@@ -175,14 +228,76 @@ class OrderServiceTest {
                     ))
                     .build();
 
-            when(menuServiceClient.getMenuItemById("invalid-id"))
+            when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(), anyList()))
                     .thenThrow(new RuntimeException("Menu Service unavailable"));
 
-            assertThatThrownBy(() -> orderService.createOrder(request))
+            assertThatThrownBy(() -> orderService.createOrder(TENANT, request))
                     .isInstanceOf(RuntimeException.class)
                     .hasMessage("Menu Service unavailable");
 
-            verify(orderRepository, never()).save(any());
+            verify(orderRepository, never()).insert(any(Order.class));
+        }
+
+        @Test
+        @DisplayName("Should reject the order when an item is out of stock")
+        void shouldRejectOutOfStockOrder() {
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                    .customer(customerRequest)
+                    .orderItems(List.of(OrderItemRequest.builder().productId("menu-1").quantity(5).build()))
+                    .build();
+
+            when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(), anyList()))
+                    .thenThrow(new InsufficientStockException(Map.of("menu-1", 2)));
+
+            assertThatThrownBy(() -> orderService.createOrder(TENANT, request))
+                    .isInstanceOf(InsufficientStockException.class)
+                    .hasMessageContaining("menu-1");
+
+            verify(orderRepository, never()).insert(any(Order.class));
+            verify(menuServiceClient, never()).releaseReservation(anyString(), anyString());
+        }
+
+        @Test
+        @DisplayName("Should release the reservation when the order cannot be saved")
+        void shouldReleaseReservationWhenSaveFails() {
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                    .customer(customerRequest)
+                    .orderItems(List.of(OrderItemRequest.builder().productId("menu-1").quantity(2).build()))
+                    .build();
+
+            when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(), anyList())).thenReturn(List.of(menuItemResponse));
+            when(orderRepository.insert(any(Order.class))).thenThrow(new RuntimeException("MongoDB unavailable"));
+            priceWithoutRules();
+
+            assertThatThrownBy(() -> orderService.createOrder(TENANT, request))
+                    .hasMessage("MongoDB unavailable");
+
+            ArgumentCaptor<String> reservationId = ArgumentCaptor.forClass(String.class);
+            verify(menuServiceClient).reserveMenuItems(eq(TENANT), reservationId.capture(), anyList());
+            verify(menuServiceClient).releaseReservation(TENANT, reservationId.getValue());
+            verifyNoInteractions(activeOrderIndex, salesAnalyticsService);
+        }
+        @Test
+        @DisplayName("Should keep the reservation when the order was written despite a write concern error")
+        void shouldKeepReservationWhenOrderWasWritten() {
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                    .customer(customerRequest)
+                    .orderItems(List.of(OrderItemRequest.builder().productId("menu-1").quantity(2).build()))
+                    .build();
+            MongoWriteConcernException writeConcernError = new MongoWriteConcernException(
+                    new WriteConcernError(64, "WriteConcernFailed", "waiting for replication timed out", new BsonDocument()),
+                    WriteConcernResult.acknowledged(1, false, null), new ServerAddress(), List.of());
+
+            when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(), anyList())).thenReturn(List.of(menuItemResponse));
+            when(orderRepository.insert(any(Order.class)))
+                    .thenThrow(new DataIntegrityViolationException("Write concern error", writeConcernError));
+            when(orderRepository.findByTenantIdAndId(eq(TENANT), anyString())).thenReturn(Optional.of(savedOrder));
+            priceWithoutRules();
+
+            assertThatThrownBy(() -> orderService.createOrder(TENANT, request))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+
+            verify(menuServiceClient, never()).releaseReservation(anyString(), anyString());
         }
     }
 
@@ -200,30 +315,87 @@ class OrderServiceTest {
                     .totalAmount(savedOrder.getTotalAmount())
                     .status(OrderStatus.CREATED)
                     .createdAt(LocalDateTime.now())
-                    .build();
-
-            Order updatedOrder = Order.builder()
-                    .id("order-1")
-                    .customer(customer)
-                    .orderItems(savedOrder.getOrderItems())
-                    .totalAmount(savedOrder.getTotalAmount())
-                    .status(OrderStatus.PREPARING)
-                    .createdAt(existingOrder.getCreatedAt())
-                    .updatedAt(LocalDateTime.now())
+                    .eventSequence(1)
                     .build();
 
             UpdateOrderStatusRequest request = UpdateOrderStatusRequest.builder()
                     .status(OrderStatus.PREPARING)
                     .build();
 
-            when(orderRepository.findById("order-1")).thenReturn(Optional.of(existingOrder));
-            when(orderRepository.save(any(Order.class))).thenReturn(updatedOrder);
+            when(orderRepository.findByTenantIdAndId(TENANT, "order-1")).thenReturn(Optional.of(existingOrder));
+            when(orderRepository.updateStatus(any(Order.class), eq(1))).thenReturn(true);
 
-            UpdateOrderStatusResponse response = orderService.updateOrderStatus("order-1", request);
+            UpdateOrderStatusResponse response = orderService.updateOrderStatus(TENANT, "order-1", request);
 
             assertThat(response.getId()).isEqualTo("order-1");
             assertThat(response.getStatus()).isEqualTo(OrderStatus.PREPARING);
             assertThat(response.getUpdatedAt()).isNotNull();
+            verify(orderRepository).updateStatus(argThat(order -> order.getEventSequence() == 2
+                    && order.getStatus() == OrderStatus.PREPARING), eq(1));
+            verify(orderEventService).recordStatusChange(existingOrder, OrderStatus.CREATED, false);
+        }
+
+        @Test
+        @DisplayName("Should backfill the creation event of an order created before events were recorded")
+        void shouldBackfillCreationOfLegacyOrder() {
+            savedOrder.setEventSequence(null);
+            when(orderRepository.findByTenantIdAndId(TENANT, "order-1")).thenReturn(Optional.of(savedOrder));
+            when(orderRepository.updateStatus(any(Order.class), isNull())).thenReturn(true);
+
+            orderService.updateOrderStatus(TENANT, "order-1", UpdateOrderStatusRequest.builder().status(OrderStatus.PREPARING).build());
+
+            assertThat(savedOrder.getEventSequence()).isEqualTo(2);
+            verify(orderEventService).recordStatusChange(savedOrder, OrderStatus.CREATED, true);
+        }
+
+        @Test
+        @DisplayName("Should apply the status to the order read again when another update got there first")
+        void shouldRetryOnConcurrentUpdate() {
+            Order stale = Order.builder().id("order-1").tenantId(TENANT).customer(customer).orderItems(List.of())
+                    .status(OrderStatus.CREATED).eventSequence(1).build();
+            Order current = Order.builder().id("order-1").tenantId(TENANT).customer(customer).orderItems(List.of())
+                    .status(OrderStatus.PREPARING).eventSequence(2).build();
+            when(orderRepository.findByTenantIdAndId(TENANT, "order-1"))
+                    .thenReturn(Optional.of(stale))
+                    .thenReturn(Optional.of(current));
+            when(orderRepository.updateStatus(any(Order.class), eq(1))).thenReturn(false);
+            when(orderRepository.updateStatus(any(Order.class), eq(2))).thenReturn(true);
+
+            orderService.updateOrderStatus(TENANT, "order-1", UpdateOrderStatusRequest.builder().status(OrderStatus.READY).build());
+
+            assertThat(current.getEventSequence()).isEqualTo(3);
+            verify(orderEventService).recordStatusChange(current, OrderStatus.PREPARING, false);
+            verify(orderEventService, never()).recordStatusChange(eq(stale), any(), anyBoolean());
+            verify(salesAnalyticsService).recordStatusChange(OrderStatus.PREPARING, current);
+        }
+
+        @Test
+        @DisplayName("Should give up with a conflict when the order keeps changing")
+        void shouldFailWhenOrderKeepsChanging() {
+            when(orderRepository.findByTenantIdAndId(TENANT, "order-1"))
+                    .thenAnswer(invocation -> Optional.of(Order.builder().id("order-1").tenantId(TENANT)
+                            .status(OrderStatus.CREATED).eventSequence(1).build()));
+            when(orderRepository.updateStatus(any(Order.class), eq(1))).thenReturn(false);
+
+            assertThatThrownBy(() -> orderService.updateOrderStatus(TENANT, "order-1",
+                    UpdateOrderStatusRequest.builder().status(OrderStatus.READY).build()))
+                    .isInstanceOf(OptimisticLockingFailureException.class);
+
+            verify(orderRepository, times(3)).updateStatus(any(Order.class), eq(1));
+            verifyNoInteractions(orderEventService, orderStatusPublisher);
+        }
+
+        @Test
+        @DisplayName("Should not record an event when the status does not change")
+        void shouldNotRecordEventWithoutStatusChange() {
+            savedOrder.setEventSequence(1);
+            when(orderRepository.findByTenantIdAndId(TENANT, "order-1")).thenReturn(Optional.of(savedOrder));
+            when(orderRepository.updateStatus(any(Order.class), eq(1))).thenReturn(true);
+
+            orderService.updateOrderStatus(TENANT, "order-1", UpdateOrderStatusRequest.builder().status(OrderStatus.CREATED).build());
+
+            assertThat(savedOrder.getEventSequence()).isEqualTo(1);
+            verify(orderEventService, never()).recordStatusChange(any(), any(), anyBoolean());
         }
 
         @Test
@@ -237,27 +409,20 @@ class OrderServiceTest {
                     .createdAt(LocalDateTime.now())
                     .build();
 
-            Order updatedOrder = Order.builder()
-                    .id("order-1")
-                    .customer(customer)
-                    .orderItems(savedOrder.getOrderItems())
-                    .status(OrderStatus.DELIVERED)
-                    .createdAt(existingOrder.getCreatedAt())
-                    .updatedAt(LocalDateTime.now())
-                    .build();
-
             UpdateOrderStatusRequest request = UpdateOrderStatusRequest.builder()
                     .status(OrderStatus.DELIVERED)
                     .build();
 
-            when(orderRepository.findById("order-1")).thenReturn(Optional.of(existingOrder));
-            when(orderRepository.save(any(Order.class))).thenReturn(updatedOrder);
+            when(orderRepository.findByTenantIdAndId(TENANT, "order-1")).thenReturn(Optional.of(existingOrder));
+            when(orderRepository.updateStatus(any(Order.class), isNull())).thenReturn(true);
 
-            orderService.updateOrderStatus("order-1", request);
+            orderService.updateOrderStatus(TENANT, "order-1", request);
 
             ArgumentCaptor<OrderStatusNotification> notificationCaptor =
                     ArgumentCaptor.forClass(OrderStatusNotification.class);
             verify(orderStatusPublisher).publishOrderStatusChange(notificationCaptor.capture());
+            verify(activeOrderIndex).apply(existingOrder);
+            verify(salesAnalyticsService).recordStatusChange(OrderStatus.CREATED, existingOrder);
 
             OrderStatusNotification notification = notificationCaptor.getValue();
             assertThat(notification.getOrderId()).isEqualTo("order-1");
@@ -274,15 +439,30 @@ class OrderServiceTest {
                     .status(OrderStatus.PREPARING)
                     .build();
 
-            when(orderRepository.findById("non-existent")).thenReturn(Optional.empty());
+            when(orderRepository.findByTenantIdAndId(TENANT, "non-existent")).thenReturn(Optional.empty());
 
-            assertThatThrownBy(() -> orderService.updateOrderStatus("non-existent", request))
+            assertThatThrownBy(() -> orderService.updateOrderStatus(TENANT, "non-existent", request))
                     .isInstanceOf(RuntimeException.class)
                     .hasMessage("Order not found with id: non-existent");
 
-            verify(orderRepository, never()).save(any());
+            verify(orderRepository, never()).updateStatus(any(), any());
             verify(orderStatusPublisher, never()).publishOrderStatusChange(any());
         }
+
+        @Test
+        @DisplayName("Should release the reserved stock when the order is cancelled, even if menu-service fails")
+        void shouldReleaseStockWhenCancelled() {
+            when(orderRepository.findByTenantIdAndId(TENANT, "order-1")).thenReturn(Optional.of(savedOrder));
+            when(orderRepository.updateStatus(any(Order.class), any())).thenReturn(true);
+            doThrow(new RuntimeException("Menu Service unavailable")).when(menuServiceClient).releaseReservation(TENANT, "order-1");
+
+            UpdateOrderStatusResponse response = orderService.updateOrderStatus(TENANT, "order-1",
+                    UpdateOrderStatusRequest.builder().status(OrderStatus.CANCELLED).build());
+
+            assertThat(response.getStatus()).isEqualTo(OrderStatus.CANCELLED);
+            verify(menuServiceClient).releaseReservation(TENANT, "order-1");
+            verify(orderStatusPublisher).publishOrderStatusChange(any());
+        }
     }
 
     @Nested
@@ -312,9 +492,9 @@ class OrderServiceTest {
 
             Page<Order> page = new PageImpl<>(List.of(order1, order2), PageRequest.of(0, 10), 2);
 
-            when(orderRepository.findAll(any(PageRequest.class))).thenReturn(page);
+            when(orderRepository.findHistory(eq(TENANT), any(PageRequest.class))).thenReturn(page);
 
-            OrderHistoryResponse response = orderService.getOrderHistory(10, 0);
+            OrderHistoryResponse response = orderService.getOrderHistory(TENANT, 10, 0);
 
             assertThat(response.getOrders()).hasSize(2);
             assertThat(response.getLimit()).isEqualTo(10);
@@ -327,15 +507,38 @@ class OrderServiceTest {
         void shouldReturnEmptyListWhenNoOrders() {
             Page<Order> emptyPage = new PageImpl<>(List.of(), PageRequest.of(0, 10), 0);
 
-            when(orderRepository.findAll(any(PageRequest.class))).thenReturn(emptyPage);
+            when(orderRepository.findHistory(eq(TENANT), any(PageRequest.class))).thenReturn(emptyPage);
 
-            OrderHistoryResponse response = orderService.getOrderHistory(10, 0);
+            OrderHistoryResponse response = orderService.getOrderHistory(TENANT, 10, 0);
 
             assertThat(response.getOrders()).isEmpty();
             assertThat(response.getTotalRecords()).isEqualTo(0);
         }
 
-       
+        @Test
+        @DisplayName("Should read the archive only when the page reaches past the hot orders")
+        void shouldMergeArchiveWhenPageReachesIt() {
+            Order archived = Order.builder()
+                    .id("order-0")
+                    .tenantId(TENANT)
+                    .customer(customer)
+                    .orderItems(savedOrder.getOrderItems())
+                    .totalAmount(new BigDecimal("25.80"))
+                    .status(OrderStatus.DELIVERED)
+                    .createdAt(LocalDateTime.now().minusDays(90))
+                    .build();
+            Page<Order> page = new PageImpl<>(List.of(savedOrder), PageRequest.of(0, 10), 1);
+
+            when(orderRepository.findHistory(eq(TENANT), any(PageRequest.class))).thenReturn(page);
+            when(orderArchiveService.count(TENANT)).thenReturn(1L);
+            when(orderArchiveService.reachesArchive(List.of(savedOrder), 10)).thenReturn(true);
+            when(orderArchiveService.mergeHistory(TENANT, List.of(savedOrder), 0, 10)).thenReturn(List.of(savedOrder, archived));
+
+            OrderHistoryResponse response = orderService.getOrderHistory(TENANT, 10, 0);
+
+            assertThat(response.getOrders()).extracting(OrderResponse::getId).containsExactly("order-1", "order-0");
+            assertThat(response.getTotalRecords()).isEqualTo(2);
+        }
     }
 
     @Nested
@@ -345,9 +548,9 @@ class OrderServiceTest {
         @Test
         @DisplayName("Should return order when found")
         void shouldReturnOrderWhenFound() {
-            when(orderRepository.findById("order-1")).thenReturn(Optional.of(savedOrder));
+            when(orderRepository.findByTenantIdAndId(TENANT, "order-1")).thenReturn(Optional.of(savedOrder));
 
-            OrderResponse response = orderService.getOrderById("order-1");
+            OrderResponse response = orderService.getOrderById(TENANT, "order-1");
 
             assertThat(response).isNotNull();
             assertThat(response.getId()).isEqualTo("order-1");
@@ -357,12 +560,24 @@ class OrderServiceTest {
             assertThat(response.getTotalAmount()).isEqualByComparingTo(new BigDecimal("25.80"));
         }
 
+        @Test
+        @DisplayName("Should read archived orders through from the archive")
+        void shouldFallBackToArchive() {
+            savedOrder.setStatus(OrderStatus.DELIVERED);
+            when(orderRepository.findByTenantIdAndId(TENANT, "order-1")).thenReturn(Optional.empty());
+            when(orderArchiveService.findById(TENANT, "order-1")).thenReturn(Optional.of(savedOrder));
+
+            OrderResponse response = orderService.getOrderById(TENANT, "order-1");
+
+            assertThat(response.getStatus()).isEqualTo(OrderStatus.DELIVERED);
+        }
+
         @Test
         @DisplayName("Should throw exception when order not found")
         void shouldThrowExceptionWhenOrderNotFound() {
-            when(orderRepository.findById("non-existent")).thenReturn(Optional.empty());
+            when(orderRepository.findByTenantIdAndId(TENANT, "non-existent")).thenReturn(Optional.empty());
 
-            assertThatThrownBy(() -> orderService.getOrderById("non-existent"))
+            assertThatThrownBy(() -> orderService.getOrderById(TENANT, "non-existent"))
                     .isInstanceOf(RuntimeException.class)
                     .hasMessage("Order not found with id: non-existent");
         }
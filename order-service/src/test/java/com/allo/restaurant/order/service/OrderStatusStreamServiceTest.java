@@ -0,0 +1,194 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.dto.OrderStatusEvent;
+import com.allo.restaurant.order.entity.OrderStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+class OrderStatusStreamServiceTest {
+
+    private static final String TENANT = "downtown";
+
+    private OrderStatusStreamService orderStatusStreamService;
+
+    private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        orderStatusStreamService = new OrderStatusStreamService(new SimpleMeterRegistry(), Duration.ofMinutes(1), 4) {
+            @Override
+            SseEmitter createEmitter() {
+                RecordingEmitter emitter = new RecordingEmitter();
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private OrderStatusEvent event(String orderId, OrderStatus status) {
+        return OrderStatusEvent.builder()
+                .orderId(orderId)
+                .tenantId(TENANT)
+                .status(status)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Nested
+    @DisplayName("subscribeToOrder")
+    class SubscribeToOrderTests {
+
+        @Test
+        @DisplayName("Should send the current status first, then only changes of that order")
+        void shouldFollowSingleOrder() {
+            orderStatusStreamService.subscribeToOrder(TENANT, "order-1", event("order-1", OrderStatus.CREATED));
+
+            orderStatusStreamService.broadcast(event("order-2", OrderStatus.PREPARING));
+            orderStatusStreamService.broadcast(event("order-1", OrderStatus.PREPARING));
+
+            await().untilAsserted(() -> assertThat(emitters.get(0).statuses())
+                    .containsExactly(OrderStatus.CREATED, OrderStatus.PREPARING));
+            assertThat(orderStatusStreamService.connectionCount()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should close the stream once the order is delivered or cancelled")
+        void shouldCloseOnTerminalStatus() {
+            orderStatusStreamService.subscribeToOrder(TENANT, "order-1", event("order-1", OrderStatus.READY));
+
+            orderStatusStreamService.broadcast(event("order-1", OrderStatus.DELIVERED));
+            orderStatusStreamService.broadcast(event("order-1", OrderStatus.CANCELLED));
+
+            assertThat(orderStatusStreamService.connectionCount()).isZero();
+            await().until(() -> emitters.get(0).completed);
+            assertThat(emitters.get(0).statuses()).containsExactly(OrderStatus.READY, OrderStatus.DELIVERED);
+        }
+    }
+
+    @Nested
+    @DisplayName("subscribeToStatuses")
+    class SubscribeToStatusesTests {
+
+        @Test
+        @DisplayName("Should only push orders moving into the requested statuses")
+        void shouldFilterByStatus() {
+            orderStatusStreamService.subscribeToStatuses(TENANT, Set.of(OrderStatus.CREATED, OrderStatus.PREPARING));
+
+            orderStatusStreamService.broadcast(event("order-1", OrderStatus.CREATED));
+            orderStatusStreamService.broadcast(event("order-2", OrderStatus.READY));
+            orderStatusStreamService.broadcast(event("order-1", OrderStatus.PREPARING));
+
+            await().untilAsserted(() -> assertThat(emitters.get(0).statuses())
+                    .containsExactly(OrderStatus.CREATED, OrderStatus.PREPARING));
+        }
+
+        @Test
+        @DisplayName("Should default to all active statuses")
+        void shouldDefaultToActiveStatuses() {
+            orderStatusStreamService.subscribeToStatuses(TENANT, null);
+
+            for (OrderStatus status : OrderStatus.values()) {
+                orderStatusStreamService.broadcast(event("order-1", status));
+            }
+
+            await().untilAsserted(() -> assertThat(emitters.get(0).statuses())
+                    .containsExactly(OrderStatus.CREATED, OrderStatus.PREPARING, OrderStatus.READY));
+        }
+
+        @Test
+        @DisplayName("Should not push orders of other tenants")
+        void shouldIsolateTenants() {
+            orderStatusStreamService.subscribeToStatuses(TENANT, null);
+
+            OrderStatusEvent uptown = event("order-2", OrderStatus.CREATED);
+            uptown.setTenantId("uptown");
+            orderStatusStreamService.broadcast(uptown);
+            orderStatusStreamService.broadcast(event("order-1", OrderStatus.CREATED));
+
+            await().untilAsserted(() -> assertThat(emitters.get(0).statuses()).containsExactly(OrderStatus.CREATED));
+        }
+
+        @Test
+        @DisplayName("Should drop connections whose client went away")
+        void shouldDropBrokenConnections() {
+            orderStatusStreamService.subscribeToStatuses(TENANT, null);
+            emitters.get(0).broken = true;
+
+            orderStatusStreamService.heartbeat();
+
+            await().until(() -> orderStatusStreamService.connectionCount() == 0);
+        }
+
+        @Test
+        @DisplayName("Should drop a client that falls behind without holding up the others")
+        void shouldDropSlowConnections() {
+            orderStatusStreamService.subscribeToStatuses(TENANT, null);
+            orderStatusStreamService.subscribeToStatuses(TENANT, null);
+            CountDownLatch stalled = new CountDownLatch(1);
+            emitters.get(0).stalled = stalled;
+
+            for (int i = 0; i < 6; i++) {
+                orderStatusStreamService.broadcast(event("order-" + i, OrderStatus.CREATED));
+                int sent = i + 1;
+                await().until(() -> emitters.get(1).statuses().size() == sent);
+                await().until(() -> emitters.get(0).sending);
+            }
+
+            assertThat(orderStatusStreamService.connectionCount()).isEqualTo(1);
+            stalled.countDown();
+            await().until(() -> emitters.get(0).completed);
+        }
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+
+        private final List<Object> data = new CopyOnWriteArrayList<>();
+        private volatile boolean broken;
+        private volatile boolean completed;
+        private volatile CountDownLatch stalled;
+        private volatile boolean sending;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            if (broken) {
+                throw new IOException("Broken pipe");
+            }
+            if (stalled != null) {
+                sending = true;
+                try {
+                    stalled.await();
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+            }
+            builder.build().forEach(part -> data.add(part.getData()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<OrderStatus> statuses() {
+            return data.stream()
+                    .filter(OrderStatusEvent.class::isInstance)
+                    .map(part -> ((OrderStatusEvent) part).getStatus())
+                    .toList();
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.entity.OrderItem;
+import com.allo.restaurant.order.entity.PriceAdjustment;
+import com.allo.restaurant.order.entity.PricingRule;
+import com.allo.restaurant.order.entity.PricingRuleType;
+import com.allo.restaurant.order.repository.PricingRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PricingEngineTest {
+
+    private static final String TENANT = "downtown";
+
+    // A Friday
+    private static final LocalDateTime HAPPY_HOUR = LocalDateTime.of(2024, 3, 1, 17, 30);
+    private static final LocalDateTime LUNCH = LocalDateTime.of(2024, 3, 1, 12, 0);
+
+    @Mock
+    private PricingRuleRepository pricingRuleRepository;
+
+    private PricingEngine pricingEngine;
+
+    @BeforeEach
+    void setUp() {
+        pricingEngine = new PricingEngine(pricingRuleRepository);
+    }
+
+    private OrderItem item(String productId, String price, int quantity) {
+        return OrderItem.builder().productId(productId).name(productId).quantity(quantity).price(new BigDecimal(price)).build();
+    }
+
+    private PricingRule tax(String percentage) {
+        return PricingRule.builder().tenantId(TENANT).id("tax").name("Sales tax").type(PricingRuleType.TAX)
+                .percentage(new BigDecimal(percentage)).build();
+    }
+
+    private PricingRule happyHour(String productId, String percentage) {
+        return PricingRule.builder().tenantId(TENANT).id("happy-" + productId).name("Happy hour").type(PricingRuleType.PERCENT_OFF)
+                .productIds(List.of(productId)).percentage(new BigDecimal(percentage))
+                .daysOfWeek(Set.of(DayOfWeek.FRIDAY))
+                .startTime(LocalTime.of(17, 0)).endTime(LocalTime.of(19, 0)).build();
+    }
+
+    @Nested
+    @DisplayName("price")
+    class PriceTests {
+
+        @Test
+        @DisplayName("Should price at the plain subtotal when there are no rules")
+        void shouldPriceWithoutRules() {
+            PricingResult result = pricingEngine.price(TENANT, List.of(item("beer", "6.00", 2), item("fries", "5.50", 1)), LUNCH);
+
+            assertThat(result.subtotal().toBigDecimal()).isEqualTo(new BigDecimal("17.50"));
+            assertThat(result.total().toBigDecimal()).isEqualTo(new BigDecimal("17.50"));
+            assertThat(result.adjustments()).isEmpty();
+            verify(pricingRuleRepository).findAll();
+        }
+
+        @Test
+        @DisplayName("Should apply promotions only inside their time window and tax the discounted amount")
+        void shouldApplyHappyHourAndTax() {
+            when(pricingRuleRepository.findAll()).thenReturn(List.of(tax("10"), happyHour("beer", "50")));
+            List<OrderItem> cart = List.of(item("beer", "6.00", 2), item("fries", "5.50", 1));
+
+            PricingResult happyHour = pricingEngine.price(TENANT, cart, HAPPY_HOUR);
+            assertThat(happyHour.discount().toBigDecimal()).isEqualTo(new BigDecimal("6.00"));
+            assertThat(happyHour.tax().toBigDecimal()).isEqualTo(new BigDecimal("1.15"));
+            assertThat(happyHour.total().toBigDecimal()).isEqualTo(new BigDecimal("12.65"));
+            assertThat(happyHour.adjustments()).extracting(PriceAdjustment::getRuleId).containsExactly("tax", "happy-beer");
+
+            PricingResult lunch = pricingEngine.price(TENANT, cart, LUNCH);
+            assertThat(lunch.discount().minorUnits()).isZero();
+            assertThat(lunch.total().toBigDecimal()).isEqualTo(new BigDecimal("19.25"));
+        }
+
+        @Test
+        @DisplayName("Should give each item its best promotion and discount every complete combo")
+        void shouldApplyBestPromotionAndCombos() {
+            when(pricingRuleRepository.findAll()).thenReturn(List.of(
+                    PricingRule.builder().tenantId(TENANT).id("all").name("Opening week").type(PricingRuleType.PERCENT_OFF)
+                            .percentage(new BigDecimal("10")).build(),
+                    happyHour("burger", "25"),
+                    PricingRule.builder().tenantId(TENANT).id("combo").name("Burger + fries").type(PricingRuleType.COMBO)
+                            .productIds(List.of("burger", "fries")).amountOff(new BigDecimal("2.00")).build()));
+
+            PricingResult result = pricingEngine.price(TENANT, List.of(item("burger", "12.00", 3), item("fries", "5.00", 2)), HAPPY_HOUR);
+
+            // burger 36.00 - 25% = 9.00 off; fries 10.00 - 10% = 1.00 off; two combos = 4.00 off
+            assertThat(result.discount().toBigDecimal()).isEqualTo(new BigDecimal("14.00"));
+            assertThat(result.total().toBigDecimal()).isEqualTo(new BigDecimal("32.00"));
+            assertThat(result.adjustments())
+                    .extracting(PriceAdjustment::getRuleId, PriceAdjustment::getAmount)
+                    .containsExactly(
+                            tuple("all", new BigDecimal("1.00")),
+                            tuple("happy-burger", new BigDecimal("9.00")),
+                            tuple("combo", new BigDecimal("4.00")));
+        }
+
+        @Test
+        @DisplayName("Should count each unit towards one combo only when combos share an item")
+        void shouldNotShareUnitsBetweenCombos() {
+            when(pricingRuleRepository.findAll()).thenReturn(List.of(
+                    PricingRule.builder().tenantId(TENANT).id("burger-fries").name("Burger + fries").type(PricingRuleType.COMBO)
+                            .productIds(List.of("burger", "fries")).amountOff(new BigDecimal("2.00")).build(),
+                    PricingRule.builder().tenantId(TENANT).id("burger-beer").name("Burger + beer").type(PricingRuleType.COMBO)
+                            .productIds(List.of("burger", "beer")).amountOff(new BigDecimal("3.00")).build()));
+
+            PricingResult result = pricingEngine.price(TENANT,
+                    List.of(item("burger", "12.00", 2), item("fries", "5.00", 1), item("beer", "6.00", 2)), LUNCH);
+
+            // two burgers: one goes with the fries, the other with one of the beers
+            assertThat(result.discount().toBigDecimal()).isEqualTo(new BigDecimal("5.00"));
+            assertThat(result.adjustments())
+                    .extracting(PriceAdjustment::getRuleId, PriceAdjustment::getAmount)
+                    .containsExactly(
+                            tuple("burger-fries", new BigDecimal("2.00")),
+                            tuple("burger-beer", new BigDecimal("3.00")));
+        }
+
+        @Test
+        @DisplayName("Should take combo discounts off the items before taxing them")
+        void shouldTaxAfterCombos() {
+            PricingRule drinksTax = PricingRule.builder().tenantId(TENANT).id("drinks-tax").name("Drinks tax")
+                    .type(PricingRuleType.TAX).productIds(List.of("beer")).percentage(new BigDecimal("20")).build();
+            when(pricingRuleRepository.findAll()).thenReturn(List.of(tax("10"), drinksTax,
+                    PricingRule.builder().tenantId(TENANT).id("combo").name("Burger + beer").type(PricingRuleType.COMBO)
+                            .productIds(List.of("burger", "beer")).amountOff(new BigDecimal("3.00")).build()));
+
+            PricingResult result = pricingEngine.price(TENANT, List.of(item("burger", "12.00", 1), item("beer", "6.00", 1)), LUNCH);
+
+            // 3.00 off split 2.00 burger / 1.00 beer: 10% of 15.00 plus 20% of 5.00
+            assertThat(result.discount().toBigDecimal()).isEqualTo(new BigDecimal("3.00"));
+            assertThat(result.tax().toBigDecimal()).isEqualTo(new BigDecimal("2.50"));
+            assertThat(result.total().toBigDecimal()).isEqualTo(new BigDecimal("17.50"));
+        }
+    }
+
+    @Nested
+    @DisplayName("reload")
+    class ReloadTests {
+
+        @Test
+        @DisplayName("Should swap in the new rules and keep pricing from memory until the next reload")
+        void shouldSwapRules() {
+            when(pricingRuleRepository.findAll()).thenReturn(List.of(), List.of(tax("10")));
+            List<OrderItem> cart = List.of(item("beer", "6.00", 1));
+
+            assertThat(pricingEngine.price(TENANT, cart, LUNCH).total().toBigDecimal()).isEqualTo(new BigDecimal("6.00"));
+            pricingEngine.reload();
+            assertThat(pricingEngine.price(TENANT, cart, LUNCH).total().toBigDecimal()).isEqualTo(new BigDecimal("6.60"));
+            assertThat(pricingEngine.price(TENANT, cart, LUNCH).total().toBigDecimal()).isEqualTo(new BigDecimal("6.60"));
+
+            verify(pricingRuleRepository, times(2)).findAll();
+        }
+
+        @Test
+        @DisplayName("Should price each tenant with its own rules and recompile only the tenant that changed")
+        void shouldKeepRulesPerTenant() {
+            PricingRule uptownTax = PricingRule.builder().tenantId("uptown").id("uptown-tax").name("Sales tax")
+                    .type(PricingRuleType.TAX).percentage(new BigDecimal("20")).build();
+            when(pricingRuleRepository.findAll()).thenReturn(List.of(tax("10"), uptownTax));
+            when(pricingRuleRepository.findByTenantId(TENANT)).thenReturn(List.of());
+            List<OrderItem> cart = List.of(item("beer", "6.00", 1));
+
+            assertThat(pricingEngine.price(TENANT, cart, LUNCH).total().toBigDecimal()).isEqualTo(new BigDecimal("6.60"));
+            assertThat(pricingEngine.price("uptown", cart, LUNCH).total().toBigDecimal()).isEqualTo(new BigDecimal("7.20"));
+            assertThat(pricingEngine.price("elsewhere", cart, LUNCH).total().toBigDecimal()).isEqualTo(new BigDecimal("6.00"));
+
+            pricingEngine.reload(TENANT);
+
+            assertThat(pricingEngine.price(TENANT, cart, LUNCH).total().toBigDecimal()).isEqualTo(new BigDecimal("6.00"));
+            assertThat(pricingEngine.price("uptown", cart, LUNCH).total().toBigDecimal()).isEqualTo(new BigDecimal("7.20"));
+            verify(pricingRuleRepository, times(1)).findAll();
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.client.ReactiveMenuServiceClient;
+import com.allo.restaurant.order.dto.*;
+import com.allo.restaurant.order.entity.*;
+import com.allo.restaurant.order.exception.MenuItemNotFoundException;
+import com.allo.restaurant.order.messaging.OrderStatusPublisher;
+import com.allo.restaurant.order.repository.PricingRuleRepository;
+import com.allo.restaurant.order.repository.ReactiveOrderRepository;
+import io.micrometer.observation.ObservationRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveOrderServiceTest {
+
+    private static final String TENANT = "downtown";
+
+    @Mock
+    private ReactiveOrderRepository orderRepository;
+
+    @Mock
+    private ReactiveMenuServiceClient menuServiceClient;
+
+    @Mock
+    private OrderStatusPublisher orderStatusPublisher;
+
+    @Mock
+    private PricingRuleRepository pricingRuleRepository;
+
+    @Mock
+    private OrderArchiveService orderArchiveService;
+
+    @Mock
+    private OrderEventService orderEventService;
+
+    @Mock
+    private ActiveOrderIndex activeOrderIndex;
+
+    @Mock
+    private SalesAnalyticsService salesAnalyticsService;
+
+    private ReactiveOrderService orderService;
+
+    private CustomerRequest customerRequest;
+    private Order savedOrder;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new ReactiveOrderService(orderRepository, menuServiceClient, orderStatusPublisher,
+                ObservationRegistry.NOOP, new PricingEngine(pricingRuleRepository), orderArchiveService,
+                orderEventService, activeOrderIndex, salesAnalyticsService);
+
+        customerRequest = CustomerRequest.builder()
+                .fullName("John Doe")
+                .address("123 Main St")
+                .email("john@email.com")
+                .build();
+
+        savedOrder = Order.builder()
+                .id("order-1")
+                .customer(Customer.builder()
+                        .fullName("John Doe")
+                        .address("123 Main St")
+                        .email("john@email.com")
+                        .build())
+                .orderItems(List.of(
+                        OrderItem.builder()
+                                .productId("menu-1")
+                                .name("Classic Burger")
+                                .quantity(2)
+                                .price(new BigDecimal("12.90"))
+                                .build()
+                ))
+                .totalAmount(new BigDecimal("25.80"))
+                .status(OrderStatus.CREATED)
+                .createdAt(LocalDateTime.now())
+                .eventSequence(1)
+                .build();
+    }
+
+    @Nested
+    @DisplayName("createOrder")
+    class CreateOrderTests {
+
+        @Test
+        @DisplayName("Should reserve every item in one call and save the order under the reservation id")
+        void shouldCreateOrderSuccessfully() {
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                    .customer(customerRequest)
+                    .orderItems(List.of(
+                            OrderItemRequest.builder().productId("menu-1").quantity(2).build(),
+                            OrderItemRequest.builder().productId("menu-2").quantity(3).build()
+                    ))
+                    .build();
+
+            when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(), anyList())).thenReturn(Mono.just(List.of(
+                    MenuItemResponse.builder().id("menu-1").name("Classic Burger").price(new BigDecimal("12.90")).build(),
+                    MenuItemResponse.builder().id("menu-2").name("Fries").price(new BigDecimal("5.50")).build())));
+            when(orderRepository.insert(any(Order.class)))
+                    .thenAnswer(invocation -> Mono.just(invocation.<Order>getArgument(0)));
+
+            StepVerifier.create(orderService.createOrder(TENANT, request))
+                    .assertNext(response -> {
+                        assertThat(response.getStatus()).isEqualTo(OrderStatus.CREATED);
+                        assertThat(response.getOrderItems()).extracting(OrderItemResponse::getProductId)
+                                .containsExactly("menu-1", "menu-2");
+                        assertThat(response.getTotalAmount()).isEqualByComparingTo(new BigDecimal("42.30"));
+                    })
+                    .verifyComplete();
+
+            ArgumentCaptor<String> reservationId = ArgumentCaptor.forClass(String.class);
+            verify(menuServiceClient).reserveMenuItems(eq(TENANT), reservationId.capture(), anyList());
+            verify(orderRepository).insert(argThat((Order order) -> order.getId().equals(reservationId.getValue())));
+            verify(orderEventService).recordCreated(argThat(orders -> orders.get(0).getEventSequence() == 1));
+            verify(salesAnalyticsService).recordCreated(argThat(orders -> orders.size() == 1));
+            verify(activeOrderIndex).apply(argThat((Order order) -> order.getId().equals(reservationId.getValue())));
+            verify(orderStatusPublisher).publishOrdersCreated(argThat(notifications ->
+                    notifications.get(0).getStatus() == OrderStatus.CREATED && notifications.get(0).getOrderItems().size() == 2));
+        }
+
+        @Test
+        @DisplayName("Should not save the order when a menu item does not exist")
+        void shouldPropagateMenuItemNotFound() {
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                    .customer(customerRequest)
+                    .orderItems(List.of(OrderItemRequest.builder().productId("invalid-id").quantity(1).build()))
+                    .build();
+
+            when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(), anyList()))
+                    .thenReturn(Mono.error(new MenuItemNotFoundException("invalid-id")));
+
+            StepVerifier.create(orderService.createOrder(TENANT, request))
+                    .expectError(MenuItemNotFoundException.class)
+                    .verify();
+
+            verify(orderRepository, never()).insert(any(Order.class));
+        }
+
+        @Test
+        @DisplayName("Should release the reservation when the order cannot be saved")
+        void shouldReleaseReservationWhenSaveFails() {
+            CreateOrderRequest request = CreateOrderRequest.builder()
+                    .customer(customerRequest)
+                    .orderItems(List.of(OrderItemRequest.builder().productId("menu-1").quantity(1).build()))
+                    .build();
+
+            when(menuServiceClient.reserveMenuItems(eq(TENANT), anyString(), anyList())).thenReturn(Mono.just(List.of(
+                    MenuItemResponse.builder().id("menu-1").name("Classic Burger").price(new BigDecimal("12.90")).build())));
+            when(orderRepository.insert(any(Order.class))).thenReturn(Mono.error(new RuntimeException("MongoDB unavailable")));
+            when(menuServiceClient.releaseReservation(eq(TENANT), anyString())).thenReturn(Mono.empty());
+
+            StepVerifier.create(orderService.createOrder(TENANT, request))
+                    .expectErrorMessage("MongoDB unavailable")
+                    .verify();
+
+            ArgumentCaptor<String> reservationId = ArgumentCaptor.forClass(String.class);
+            verify(menuServiceClient).reserveMenuItems(eq(TENANT), reservationId.capture(), anyList());
+            verify(menuServiceClient).releaseReservation(TENANT, reservationId.getValue());
+        }
+    }
+
+    @Nested
+    @DisplayName("updateOrderStatus")
+    class UpdateOrderStatusTests {
+
+        @Test
+        @DisplayName("Should save the new status and publish a notification")
+        void shouldUpdateStatusAndPublish() {
+            when(orderRepository.findByTenantIdAndId(TENANT, "order-1")).thenReturn(Mono.just(savedOrder));
+            when(orderRepository.updateStatus(any(Order.class), any())).thenReturn(Mono.just(true));
+
+            UpdateOrderStatusRequest request = UpdateOrderStatusRequest.builder()
+                    .status(OrderStatus.READY)
+                    .build();
+
+            StepVerifier.create(orderService.updateOrderStatus(TENANT, "order-1", request))
+                    .assertNext(response -> {
+                        assertThat(response.getStatus()).isEqualTo(OrderStatus.READY);
+                        assertThat(response.getUpdatedAt()).isNotNull();
+                    })
+                    .verifyComplete();
+
+            ArgumentCaptor<OrderStatusNotification> notificationCaptor =
+                    ArgumentCaptor.forClass(OrderStatusNotification.class);
+            verify(orderStatusPublisher).publishOrderStatusChange(notificationCaptor.capture());
+            assertThat(notificationCaptor.getValue().getStatus()).isEqualTo(OrderStatus.READY);
+            verify(orderEventService).recordStatusChange(savedOrder, OrderStatus.CREATED, false);
+            verify(salesAnalyticsService).recordStatusChange(OrderStatus.CREATED, savedOrder);
+        }
+
+        @Test
+        @DisplayName("Should fail when order not found")
+        void shouldFailWhenOrderNotFound() {
+            when(orderRepository.findByTenantIdAndId(TENANT, "non-existent")).thenReturn(Mono.empty());
+
+            StepVerifier.create(orderService.updateOrderStatus(TENANT, "non-existent",
+                            UpdateOrderStatusRequest.builder().status(OrderStatus.READY).build()))
+                    .expectErrorMessage("Order not found with id: non-existent")
+                    .verify();
+
+            verify(orderStatusPublisher, never()).publishOrderStatusChange(any());
+        }
+    }
+
+    @Nested
+    @DisplayName("getOrderHistory")
+    class GetOrderHistoryTests {
+
+        @Test
+        @DisplayName("Should return the page of orders with the total count")
+        void shouldReturnPaginatedOrderHistory() {
+            when(orderRepository.findByTenantId(TENANT, PageRequest.of(0, 10, OrderArchiveService.NEWEST_FIRST))).thenReturn(Flux.just(savedOrder));
+            when(orderRepository.countByTenantId(TENANT)).thenReturn(Mono.just(1L));
+
+            StepVerifier.create(orderService.getOrderHistory(TENANT, 10, 0))
+                    .assertNext(response -> {
+                        assertThat(response.getOrders()).hasSize(1);
+                        assertThat(response.getTotalRecords()).isEqualTo(1);
+                    })
+                    .verifyComplete();
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.allo.restaurant.order.service;
+
+import com.allo.restaurant.order.dto.SalesReportResponse;
+import com.allo.restaurant.order.entity.Order;
+import com.allo.restaurant.order.entity.OrderItem;
+import com.allo.restaurant.order.entity.OrderStatus;
+import com.allo.restaurant.order.entity.SalesRollup;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SalesAnalyticsServiceTest {
+
+    private static final String TENANT = "downtown";
+
+    private static final Instant CREATED_AT = Instant.parse("2024-03-01T12:34:56Z");
+
+    @Mock
+    private MongoTemplate mongoTemplate;
+
+    @Mock
+    private BulkOperations salesOps;
+
+    @Mock
+    private BulkOperations itemOps;
+
+    private SimpleMeterRegistry meterRegistry;
+    private SalesAnalyticsService salesAnalyticsService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        salesAnalyticsService = new SalesAnalyticsService(mongoTemplate, meterRegistry);
+    }
+
+    private Order order(OrderStatus status) {
+        return Order.builder()
+                .id("order-1")
+                .tenantId(TENANT)
+                .status(status)
+                .orderItems(List.of(
+                        OrderItem.builder().productId("menu-1").name("Pizza").quantity(2).price(new BigDecimal("10.50")).build(),
+                        OrderItem.builder().productId("menu-2").name("Soda").quantity(1).price(new BigDecimal("4.00")).build()))
+                .totalAmount(new BigDecimal("25.00"))
+                .createdAt(LocalDateTime.ofInstant(CREATED_AT, ZoneId.systemDefault()))
+                .build();
+    }
+
+    private void stubBulkOps() {
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SalesAnalyticsService.SALES_COLLECTION)).thenReturn(salesOps);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, SalesAnalyticsService.ITEM_SALES_COLLECTION)).thenReturn(itemOps);
+    }
+
+    private Document incOf(Update update) {
+        return update.getUpdateObject().get("$inc", Document.class);
+    }
+
+    @Nested
+    @DisplayName("recordCreated")
+    class RecordCreatedTests {
+
+        @Test
+        @DisplayName("Should upsert the tenant's UTC hour bucket and one daily bucket per item")
+        void shouldUpsertRollups() {
+            stubBulkOps();
+
+            salesAnalyticsService.recordCreated(List.of(order(OrderStatus.CREATED)));
+
+            ArgumentCaptor<Query> salesQuery = ArgumentCaptor.forClass(Query.class);
+            ArgumentCaptor<Update> salesUpdate = ArgumentCaptor.forClass(Update.class);
+            verify(salesOps).upsert(salesQuery.capture(), salesUpdate.capture());
+            assertThat(salesQuery.getValue().getQueryObject().get("_id"))
+                    .isEqualTo(new Document("tenantId", TENANT).append("hour", Date.from(Instant.parse("2024-03-01T12:00:00Z"))));
+            assertThat(incOf(salesUpdate.getValue()))
+                    .containsEntry("orders", 1)
+                    .containsEntry("items", 3L)
+                    .containsEntry("revenue", new Decimal128(new BigDecimal("25.00")));
+
+            ArgumentCaptor<Update> itemUpdates = ArgumentCaptor.forClass(Update.class);
+            verify(itemOps, times(2)).upsert(any(Query.class), itemUpdates.capture());
+            assertThat(incOf(itemUpdates.getAllValues().get(0)))
+                    .containsEntry("quantity", 2L)
+                    .containsEntry("revenue", new Decimal128(new BigDecimal("21.00")));
+            verify(salesOps).execute();
+            verify(itemOps).execute();
+        }
+
+        @Test
+        @DisplayName("Should count the failure instead of failing the order write")
+        void shouldSwallowRollupFailures() {
+            stubBulkOps();
+            when(salesOps.execute()).thenThrow(new DataAccessResourceFailureException("down"));
+
+            assertThatNoException().isThrownBy(() -> salesAnalyticsService.recordCreated(List.of(order(OrderStatus.CREATED))));
+            assertThat(meterRegistry.counter("orders.rollup.failures").count()).isEqualTo(1.0);
+        }
+    }
+
+    @Nested
+    @DisplayName("recordStatusChange")
+    class RecordStatusChangeTests {
+
+        @Test
+        @DisplayName("Should subtract an order from the rollups when it is cancelled")
+        void shouldSubtractCancelledOrder() {
+            stubBulkOps();
+
+            salesAnalyticsService.recordStatusChange(OrderStatus.PREPARING, order(OrderStatus.CANCELLED));
+
+            ArgumentCaptor<Update> salesUpdate = ArgumentCaptor.forClass(Update.class);
+            verify(salesOps).upsert(any(Query.class), salesUpdate.capture());
+            assertThat(incOf(salesUpdate.getValue()))
+                    .containsEntry("orders", -1)
+                    .containsEntry("items", -3L)
+                    .containsEntry("revenue", new Decimal128(new BigDecimal("-25.00")));
+        }
+
+        @Test
+        @DisplayName("Should leave the rollups alone for transitions that do not involve cancellation")
+        void shouldIgnoreOtherTransitions() {
+            salesAnalyticsService.recordStatusChange(OrderStatus.CREATED, order(OrderStatus.PREPARING));
+            salesAnalyticsService.recordStatusChange(OrderStatus.CANCELLED, order(OrderStatus.CANCELLED));
+
+            verifyNoInteractions(mongoTemplate);
+        }
+    }
+
+    @Nested
+    @DisplayName("getSales")
+    class GetSalesTests {
+
+        @Test
+        @DisplayName("Should total the hourly buckets in the range")
+        void shouldTotalBuckets() {
+            when(mongoTemplate.find(any(Query.class), eq(SalesRollup.class))).thenReturn(List.of(
+                    SalesRollup.builder().id(new SalesRollup.Key(TENANT, Date.from(CREATED_AT))).orders(2).items(5).revenue(new BigDecimal("40.00")).build(),
+                    SalesRollup.builder().id(new SalesRollup.Key(TENANT, Date.from(CREATED_AT.plusSeconds(3600)))).orders(1).items(1).revenue(new BigDecimal("4.50")).build()));
+
+            SalesReportResponse response = salesAnalyticsService.getSales(TENANT, CREATED_AT, CREATED_AT.plusSeconds(7200));
+
+            assertThat(response.getOrders()).isEqualTo(3);
+            assertThat(response.getRevenue()).isEqualByComparingTo("44.50");
+            assertThat(response.getHours()).hasSize(2);
+        }
+    }
+}